@@ -0,0 +1,54 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digitaltolk.translation.validator.EnumValueValidator;
+import se.digitaltolk.translation.validator.annotation.Enum;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnumValueValidatorBenchmark {
+
+    /**
+     * First constant, last constant and a miss, which has to scan all constants.
+     */
+    @Param({"MOBILE", "WEB", "UNKNOWN"})
+    String value;
+
+    EnumValueValidator validator;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        validator = new EnumValueValidator();
+        validator.initialize(Annotated.class.getDeclaredField("tag").getAnnotation(Enum.class));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(value, null);
+    }
+
+    static class Annotated {
+
+        @Enum(enumClass = TranslationTag.class)
+        String tag;
+    }
+}
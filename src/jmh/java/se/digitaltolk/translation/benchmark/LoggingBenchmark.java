@@ -0,0 +1,105 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.LoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+
+/**
+ * Cost on the calling thread of the service log statements: the previous synchronous loggers resolving the caller
+ * class for every event against the async loggers of log4j2.xml, and the previous INFO lines carrying the whole
+ * request against the parameter-light DEBUG lines that replace them. Events are formatted with the pattern of
+ * log4j2.xml and written to /dev/null.
+ */
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+
+    private static final String PATTERN_PREFIX = "%d{ISO8601} %-5level[translation-service,%X{traceId},%X{spanId}][%t] ";
+
+    private static final String PATTERN_SUFFIX = ": %msg%n%throwable";
+
+    @Param({"sync", "async"})
+    String mode;
+
+    final TranslationCreateRequest request = new TranslationCreateRequest(
+            "checkout.button.pay", "Pay now", "EN", "WEB");
+
+    final String translationId = "9b2f6c1e-4f1a-4c1e-9d7a-2f4e8b1c3a5d";
+
+    LoggerContext context;
+
+    Logger logger;
+
+    @Setup
+    public void setUp() {
+        final boolean async = "async".equals(mode);
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.add(builder.newAppender("Null", "File")
+                .addAttribute("fileName", "/dev/null")
+                .add(builder.newLayout("PatternLayout")
+                        .addAttribute("pattern", PATTERN_PREFIX + (async ? "%c{1.}" : "%C{1.}") + PATTERN_SUFFIX)));
+        final LoggerComponentBuilder loggerBuilder = async
+                ? builder.newAsyncLogger("se.digitaltolk.translation", Level.INFO, false)
+                : builder.newLogger("se.digitaltolk.translation", Level.INFO, true);
+        builder.add(loggerBuilder.add(builder.newAppenderRef("Null")).addAttribute("additivity", false));
+        builder.add(builder.newRootLogger(Level.OFF));
+        context = new LoggerContext("LoggingBenchmark");
+        context.start(builder.build());
+        logger = context.getLogger("se.digitaltolk.translation.service.impl.TranslationServiceImpl");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void requestAtInfo() {
+        logger.info("Start create translation with request [{}]", request);
+    }
+
+    @Benchmark
+    public void keyAtDebug() {
+        logger.debug("Start create translation with key [{}]", request.key());
+    }
+
+    @Benchmark
+    public void filtersAtGuardedDebug() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Start search translations with filters key=[{}], tag=[{}], locale=[{}], value=[{}]",
+                    request.key(), request.tag(), request.locale(), request.value());
+        }
+    }
+
+    @Benchmark
+    public void idAndKeyAtInfo() {
+        logger.info("Successfully created translation [{}] with key [{}]", translationId, request.key());
+    }
+}
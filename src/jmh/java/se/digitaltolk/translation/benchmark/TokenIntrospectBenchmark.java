@@ -0,0 +1,67 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.security.TokenIntrospect;
+import se.digitaltolk.translation.security.util.JwtUtils;
+
+/**
+ * Cost of authenticating a request: full signature verification versus a principal served from the token cache.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenIntrospectBenchmark {
+
+    private static final String SECRET = "secret-key";
+
+    JwtUtils jwtUtils;
+
+    TokenIntrospect tokenIntrospect;
+
+    String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET);
+        tokenIntrospect = new TokenIntrospect(jwtUtils, new TranslationProperties(), new SimpleMeterRegistry());
+        token = Jwts.builder()
+                .setSubject("jrocket@example.com")
+                .setExpiration(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .signWith(SignatureAlgorithm.HS256, SECRET.getBytes())
+                .compact();
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public OAuth2AuthenticatedPrincipal introspect() {
+        return tokenIntrospect.introspect(token).block();
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digitaltolk.translation.mapper.TranslationMapper;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TranslationMapperBenchmark {
+
+    final TranslationCreateRequest request = new TranslationCreateRequest(
+            "checkout.button.pay", "Pay now", "EN", "WEB");
+
+    @Benchmark
+    public TranslationDocument toEntity() {
+        return TranslationMapper.toEntity(request);
+    }
+}
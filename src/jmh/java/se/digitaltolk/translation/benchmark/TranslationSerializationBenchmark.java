@@ -0,0 +1,61 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TranslationSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    ObjectMapper objectMapper;
+
+    List<TranslationDocument> documents;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        documents = IntStream.range(0, size).mapToObj(this::buildDocument).toList();
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(documents);
+    }
+
+    private TranslationDocument buildDocument(final int i) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId("id-" + i);
+        doc.setKey("section.key." + i);
+        doc.setValue("Translated value number " + i);
+        doc.setLocale("EN");
+        doc.setTag("WEB");
+        doc.setCreatedAt(1_700_000_000_000L + i);
+        doc.setUpdatedAt(1_700_000_000_000L + i);
+        return doc;
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+
+/**
+ * Lives in the service package to reach the package-private query builder of {@link TranslationServiceImpl}.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CriteriaQueryBenchmark {
+
+    @Benchmark
+    public CriteriaQuery allFilters() {
+        return TranslationServiceImpl.buildCriteriaQuery("checkout.button.pay", "WEB", "EN", "pay");
+    }
+
+    @Benchmark
+    public CriteriaQuery noFilters() {
+        return TranslationServiceImpl.buildCriteriaQuery(null, null, null, null);
+    }
+}
@@ -0,0 +1,688 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * In-process HTTP server answering the subset of the Elasticsearch REST API the service uses: single document
+ * get/index/update/delete, multi-get, bulk, search with from/size, sort, search_after, point-in-time and (nested)
+ * terms and composite aggregations, count and refresh. Index templates are accepted and ignored and there are no
+ * aliases, so the seeded index is used as it is. Documents live in memory and every request is answered immediately,
+ * so a load test measures the service and not a cluster.
+ *
+ * <p>Queries are evaluated approximately: {@code query_string}, {@code term(s)} and {@code ids} compare exact values,
+ * {@code match} compares lower-cased words (prefix words on {@code .prefix} subfields) and {@code range} compares
+ * numbers. Anything else matches every document.
+ */
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ElasticsearchStandIn {
+
+    private static final String PRODUCT_HEADER = "X-Elastic-Product";
+    private static final String SHARD_DOC = "_shard_doc";
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    Map<String, Map<String, StoredDocument>> indices = new ConcurrentHashMap<>();
+
+    AtomicLong seqNo = new AtomicLong();
+
+    Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    LoopResources loops = LoopResources.create("es-stand-in");
+
+    Scheduler scheduler = Schedulers.newParallel("es-stand-in-worker");
+
+    DisposableServer server;
+
+    /**
+     * Runs on its own event loops and worker threads so that evaluating a search never stalls the event loops
+     * the application and the load generator share.
+     */
+    public ElasticsearchStandIn() {
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(loops)
+                .handle(this::handle)
+                .bindNow();
+        log.info("Elasticsearch stand-in listening on {}", uri());
+    }
+
+    public String uri() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public void stop() {
+        server.disposeNow();
+        loops.dispose();
+        scheduler.dispose();
+    }
+
+    /**
+     * Stores a document without going through HTTP, used to seed the data set before the load starts.
+     */
+    public void put(final String index, final String id, final ObjectNode source) {
+        store(index, id, source);
+    }
+
+    public int count(final String index) {
+        return index(index).size();
+    }
+
+    private Mono<Void> handle(final HttpServerRequest request, final HttpServerResponse response) {
+        return request.receive().aggregate().asString().defaultIfEmpty("")
+                .publishOn(scheduler)
+                .map(body -> dispatch(request.method(), request.path(),
+                        new QueryStringDecoder(request.uri()).parameters(), body))
+                .onErrorResume(e -> {
+                    log.error("Stand-in failed on {} {}", request.method(), request.uri(), e);
+                    return Mono.just(error(HttpResponseStatus.INTERNAL_SERVER_ERROR, e.getMessage()));
+                })
+                .flatMap(reply -> response.status(reply.status())
+                        .header(PRODUCT_HEADER, "Elasticsearch")
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(reply.body() == null ? "" : reply.body().toString()))
+                        .then());
+    }
+
+    private Reply dispatch(
+            final HttpMethod method,
+            final String path,
+            final Map<String, List<String>> parameters,
+            final String body
+    ) {
+        final List<String> segments = Arrays.stream(path.split("/")).filter(StringUtils::isNotEmpty).toList();
+        final String last = segments.isEmpty() ? "" : segments.getLast();
+        if (segments.isEmpty()) {
+            return method == HttpMethod.HEAD ? ok(null) : ok(info());
+        }
+        if (segments.size() == 2 && "_index_template".equals(segments.getFirst())) {
+            return method == HttpMethod.PUT
+                    ? ok(objectMapper.createObjectNode().put("acknowledged", true))
+                    : new Reply(HttpResponseStatus.NOT_FOUND, null);
+        }
+        if (segments.size() == 2 && "_alias".equals(segments.getFirst()) && method == HttpMethod.HEAD) {
+            return new Reply(HttpResponseStatus.NOT_FOUND, null);
+        }
+        if ("_bulk".equals(last)) {
+            return ok(bulk(segments.size() > 1 ? segments.getFirst() : null, body));
+        }
+        if ("_pit".equals(last)) {
+            return method == HttpMethod.DELETE
+                    ? ok(objectMapper.createObjectNode().put("succeeded", true).put("num_freed", 1))
+                    : ok(objectMapper.createObjectNode().put("id", segments.getFirst() + ":" + UUID.randomUUID())
+                            .set("_shards", shards()));
+        }
+        if ("_mget".equals(last)) {
+            return ok(multiGet(segments.size() > 1 ? segments.getFirst() : null, read(body)));
+        }
+        if ("_search".equals(last)) {
+            return ok(search(segments.size() > 1 ? segments.getFirst() : null, read(body)));
+        }
+        if ("_count".equals(last)) {
+            final List<StoredDocument> matched = matching(segments.getFirst(), read(body).path("query"));
+            return ok(objectMapper.createObjectNode().put("count", matched.size()).set("_shards", shards()));
+        }
+        if ("_refresh".equals(last)) {
+            return ok(objectMapper.createObjectNode().set("_shards", shards()));
+        }
+        if (segments.size() == 1 && method == HttpMethod.HEAD) {
+            return new Reply(indices.containsKey(last) ? HttpResponseStatus.OK : HttpResponseStatus.NOT_FOUND, null);
+        }
+        if (segments.size() == 1 && method == HttpMethod.PUT) {
+            index(last);
+            return ok(objectMapper.createObjectNode().put("acknowledged", true).put("shards_acknowledged", true)
+                    .put("index", last));
+        }
+        if (segments.size() == 3 && "_update".equals(segments.get(1))) {
+            final List<String> ifSeqNo = parameters.get("if_seq_no");
+            return update(segments.getFirst(), segments.get(2), ifSeqNo == null ? null : Long.valueOf(ifSeqNo.getFirst()),
+                    read(body));
+        }
+        if (segments.size() == 3 && "_doc".equals(segments.get(1))) {
+            return document(method, segments.getFirst(), segments.get(2), body);
+        }
+        if (unsupported.add(method + " " + path)) {
+            log.warn("Stand-in does not support {} {}", method, path);
+        }
+        return error(HttpResponseStatus.BAD_REQUEST, "Unsupported by stand-in: " + method + " " + path);
+    }
+
+    private Reply document(final HttpMethod method, final String index, final String id, final String body) {
+        if (method == HttpMethod.GET) {
+            final ObjectNode result = get(index, id);
+            return new Reply(result.path("found").asBoolean() ? HttpResponseStatus.OK : HttpResponseStatus.NOT_FOUND,
+                    result);
+        }
+        if (method == HttpMethod.DELETE) {
+            final StoredDocument removed = index(index).remove(id);
+            final ObjectNode result = writeResult(index, id, seqNo.incrementAndGet(), 1,
+                    removed == null ? "not_found" : "deleted");
+            return new Reply(removed == null ? HttpResponseStatus.NOT_FOUND : HttpResponseStatus.OK, result);
+        }
+        final StoredDocument stored = store(index, id, (ObjectNode) read(body));
+        return new Reply(stored.version() == 1 ? HttpResponseStatus.CREATED : HttpResponseStatus.OK,
+                writeResult(index, id, stored.seqNo(), stored.version(), stored.version() == 1 ? "created" : "updated"));
+    }
+
+    /**
+     * Partial document update, rejected like Elasticsearch does when the document is missing or, given
+     * {@code if_seq_no}, has been written since.
+     */
+    private Reply update(final String index, final String id, final Long ifSeqNo, final JsonNode body) {
+        final AtomicReference<StoredDocument> conflicting = new AtomicReference<>();
+        final StoredDocument stored = index(index).computeIfPresent(id, (key, previous) -> {
+            if (ifSeqNo != null && ifSeqNo != previous.seqNo()) {
+                conflicting.set(previous);
+                return previous;
+            }
+            final ObjectNode merged = previous.source().deepCopy();
+            merged.setAll((ObjectNode) body.path("doc"));
+            return new StoredDocument(id, seqNo.incrementAndGet(), previous.version() + 1, merged);
+        });
+        if (stored == null) {
+            return error(HttpResponseStatus.NOT_FOUND, "document_missing_exception", "[" + id + "]: document missing");
+        }
+        if (conflicting.get() != null) {
+            return error(HttpResponseStatus.CONFLICT, "version_conflict_engine_exception", String.format(
+                    "[%s]: version conflict, required seqNo [%d], primary term [1]. current document has seqNo [%d] "
+                            + "and primary term [1]", id, ifSeqNo, conflicting.get().seqNo()));
+        }
+        final ObjectNode result = writeResult(index, id, stored.seqNo(), stored.version(), "updated");
+        result.putObject("get").put("found", true).put("_seq_no", stored.seqNo()).put("_primary_term", 1)
+                .set("_source", stored.source());
+        return ok(result);
+    }
+
+    private ObjectNode multiGet(final String defaultIndex, final JsonNode body) {
+        final ObjectNode result = objectMapper.createObjectNode();
+        final ArrayNode docs = result.putArray("docs");
+        asArray(body.path("ids")).forEach(id -> docs.add(get(defaultIndex, id.asText())));
+        asArray(body.path("docs")).forEach(doc ->
+                docs.add(get(doc.path("_index").asText(defaultIndex), doc.path("_id").asText())));
+        return result;
+    }
+
+    private ObjectNode get(final String index, final String id) {
+        final StoredDocument document = index(index).get(id);
+        final ObjectNode result = objectMapper.createObjectNode().put("_index", index).put("_id", id);
+        if (document == null) {
+            return result.put("found", false);
+        }
+        return (ObjectNode) document.describe(result).put("found", true).set("_source", document.source());
+    }
+
+    private ObjectNode bulk(final String defaultIndex, final String body) {
+        final ArrayNode items = objectMapper.createArrayNode();
+        final Iterator<String> lines = body.lines().filter(StringUtils::isNotBlank).iterator();
+        while (lines.hasNext()) {
+            final JsonNode action = read(lines.next());
+            final String type = action.fieldNames().next();
+            final JsonNode meta = action.get(type);
+            final String index = meta.path("_index").asText(defaultIndex);
+            final String id = meta.path("_id").asText(UUID.randomUUID().toString());
+            final ObjectNode result;
+            if ("delete".equals(type)) {
+                final StoredDocument removed = index(index).remove(id);
+                result = writeResult(index, id, seqNo.incrementAndGet(), 1, removed == null ? "not_found" : "deleted")
+                        .put("status", removed == null ? 404 : 200);
+            } else {
+                final JsonNode source = read(lines.next());
+                final ObjectNode document = "update".equals(type)
+                        ? merge(index, id, (ObjectNode) source.path("doc"))
+                        : (ObjectNode) source;
+                final StoredDocument stored = store(index, id, document);
+                result = writeResult(index, id, stored.seqNo(), stored.version(),
+                        stored.version() == 1 ? "created" : "updated")
+                        .put("status", stored.version() == 1 ? 201 : 200);
+            }
+            items.addObject().set(type, result);
+        }
+        final ObjectNode response = objectMapper.createObjectNode().put("took", 0).put("errors", false);
+        response.set("items", items);
+        return response;
+    }
+
+    private ObjectNode search(final String pathIndex, final JsonNode body) {
+        final String pitId = body.path("pit").path("id").asText(null);
+        final String index = pitId != null ? StringUtils.substringBefore(pitId, ":") : pathIndex;
+        final List<SortField> sort = sortFields(body.path("sort"), pitId != null);
+        final List<StoredDocument> matched = matching(index, body.path("query"));
+        final JsonNode searchAfter = body.path("search_after");
+        final int from = searchAfter.isMissingNode() ? body.path("from").asInt(0) : 0;
+        final int size = body.path("size").asInt(10);
+        final List<SortedHit> sorted = matched.stream()
+                .map(document -> new SortedHit(document, sortValues(document, sort)))
+                .filter(hit -> searchAfter.isMissingNode() || compare(hit.sortValues(), searchAfter) > 0)
+                .sorted(sort.isEmpty() ? Comparator.comparingLong(hit -> hit.document().seqNo()) : this::compare)
+                .skip(from)
+                .limit(size)
+                .toList();
+        final ArrayNode hits = objectMapper.createArrayNode();
+        for (SortedHit sortedHit : sorted) {
+            final ObjectNode hit = sortedHit.document().describe(hits.addObject().put("_index", index))
+                    .put("_score", 1.0);
+            hit.set("_source", sortedHit.document().source());
+            if (!sort.isEmpty()) {
+                hit.set("sort", sortedHit.sortValues());
+            }
+        }
+        final ObjectNode response = objectMapper.createObjectNode().put("took", 0).put("timed_out", false);
+        if (pitId != null) {
+            response.put("pit_id", pitId);
+        }
+        response.set("_shards", shards());
+        final ObjectNode hitsNode = response.putObject("hits");
+        hitsNode.putObject("total").put("value", matched.size()).put("relation", "eq");
+        hitsNode.put("max_score", 1.0);
+        hitsNode.set("hits", hits);
+        if (body.has("aggregations")) {
+            response.set("aggregations", aggregations(body.get("aggregations"), matched));
+        }
+        return response;
+    }
+
+    /**
+     * Terms and composite aggregations and the aggregations nested in them, named with their type as the client asks
+     * for with {@code typed_keys}. Terms buckets are ordered by descending count, then by term; composite buckets by
+     * their terms sources.
+     */
+    private ObjectNode aggregations(final JsonNode requested, final List<StoredDocument> documents) {
+        final ObjectNode aggregations = objectMapper.createObjectNode();
+        requested.fields().forEachRemaining(aggregation -> {
+            final JsonNode definition = aggregation.getValue();
+            if (definition.has("terms")) {
+                aggregations.set("sterms#" + aggregation.getKey(), terms(definition, documents));
+            } else if (definition.has("composite")) {
+                aggregations.set("composite#" + aggregation.getKey(), composite(definition, documents));
+            } else if (unsupported.add("aggregation " + definition)) {
+                log.warn("Stand-in does not support aggregation {}", definition);
+            }
+        });
+        return aggregations;
+    }
+
+    private ObjectNode terms(final JsonNode definition, final List<StoredDocument> documents) {
+        final String field = definition.path("terms").path("field").asText();
+        final int size = definition.path("terms").path("size").asInt(10);
+        final List<Map.Entry<String, List<StoredDocument>>> byTerm = documents.stream()
+                .filter(document -> document.source().hasNonNull(field))
+                .collect(Collectors.groupingBy(document -> document.source().get(field).asText()))
+                .entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, List<StoredDocument>>>comparingInt(
+                                entry -> -entry.getValue().size())
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+        final ObjectNode result = objectMapper.createObjectNode()
+                .put("doc_count_error_upper_bound", 0)
+                .put("sum_other_doc_count", byTerm.stream().skip(size).mapToInt(entry -> entry.getValue().size())
+                        .sum());
+        final ArrayNode buckets = result.putArray("buckets");
+        byTerm.stream().limit(size).forEach(entry -> bucket(buckets.addObject().put("key", entry.getKey()),
+                definition, entry.getValue()));
+        return result;
+    }
+
+    private ObjectNode composite(final JsonNode definition, final List<StoredDocument> documents) {
+        final JsonNode composite = definition.path("composite");
+        final List<String> names = new ArrayList<>();
+        final List<String> fields = new ArrayList<>();
+        composite.path("sources").forEach(source -> source.fields().forEachRemaining(named -> {
+            names.add(named.getKey());
+            fields.add(named.getValue().path("terms").path("field").asText());
+        }));
+        final Comparator<List<String>> order = (left, right) -> {
+            for (int i = 0; i < left.size(); i++) {
+                final int compared = left.get(i).compareTo(right.get(i));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        };
+        final JsonNode after = composite.path("after");
+        final List<String> afterKey = after.isMissingNode() ? null : names.stream()
+                .map(name -> after.path(name).asText())
+                .toList();
+        final List<Map.Entry<List<String>, List<StoredDocument>>> byKey = documents.stream()
+                .filter(document -> fields.stream().allMatch(field -> document.source().hasNonNull(field)))
+                .collect(Collectors.groupingBy(document -> fields.stream()
+                        .map(field -> document.source().get(field).asText())
+                        .toList()))
+                .entrySet().stream()
+                .filter(entry -> afterKey == null || order.compare(entry.getKey(), afterKey) > 0)
+                .sorted(Map.Entry.comparingByKey(order))
+                .limit(composite.path("size").asInt(10))
+                .toList();
+        final ObjectNode result = objectMapper.createObjectNode();
+        final ArrayNode buckets = result.putArray("buckets");
+        for (Map.Entry<List<String>, List<StoredDocument>> entry : byKey) {
+            final ObjectNode key = objectMapper.createObjectNode();
+            for (int i = 0; i < names.size(); i++) {
+                key.put(names.get(i), entry.getKey().get(i));
+            }
+            bucket(buckets.addObject().set("key", key), definition, entry.getValue());
+        }
+        if (!byKey.isEmpty()) {
+            result.set("after_key", buckets.get(buckets.size() - 1).get("key"));
+        }
+        return result;
+    }
+
+    private void bucket(final ObjectNode bucket, final JsonNode definition, final List<StoredDocument> documents) {
+        bucket.put("doc_count", documents.size());
+        if (definition.has("aggregations")) {
+            bucket.setAll(aggregations(definition.get("aggregations"), documents));
+        }
+    }
+
+    private List<StoredDocument> matching(final String index, final JsonNode query) {
+        return index(index).values().stream()
+                .filter(document -> matches(query, document))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private boolean matches(final JsonNode query, final StoredDocument document) {
+        if (query == null || query.isMissingNode() || query.isEmpty()) {
+            return true;
+        }
+        final String type = query.fieldNames().next();
+        final JsonNode clause = query.get(type);
+        return switch (type) {
+            case "bool" -> all(clause.path("must"), document) && all(clause.path("filter"), document)
+                    && none(clause.path("must_not"), document)
+                    && (clause.path("should").isEmpty() || any(clause.path("should"), document));
+            case "query_string" -> clause.path("fields").isEmpty() || StringUtils.equalsIgnoreCase(
+                    text(document, clause.path("fields").get(0).asText()), unquote(clause.path("query").asText()));
+            case "term" -> {
+                final Map.Entry<String, JsonNode> field = clause.fields().next();
+                final JsonNode value = field.getValue().isObject() ? field.getValue().path("value") : field.getValue();
+                yield StringUtils.equals(text(document, field.getKey()), value.asText());
+            }
+            case "terms" -> {
+                final Map.Entry<String, JsonNode> field = clause.fields().next();
+                yield contains(field.getValue(), text(document, field.getKey()));
+            }
+            case "ids" -> contains(clause.path("values"), document.id());
+            case "match" -> {
+                final Map.Entry<String, JsonNode> field = clause.fields().next();
+                final JsonNode value = field.getValue();
+                final String text = value.isObject() ? value.path("query").asText() : value.asText();
+                final boolean and = "and".equalsIgnoreCase(value.path("operator").asText());
+                yield wordsMatch(document, field.getKey(), text, and);
+            }
+            case "range" -> {
+                final Map.Entry<String, JsonNode> field = clause.fields().next();
+                yield inRange(document, field.getKey(), field.getValue());
+            }
+            case "exists" -> text(document, clause.path("field").asText()) != null;
+            default -> true;
+        };
+    }
+
+    private boolean all(final JsonNode clauses, final StoredDocument document) {
+        for (JsonNode clause : asArray(clauses)) {
+            if (!matches(clause, document)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean any(final JsonNode clauses, final StoredDocument document) {
+        for (JsonNode clause : asArray(clauses)) {
+            if (matches(clause, document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean none(final JsonNode clauses, final StoredDocument document) {
+        return clauses.isMissingNode() || clauses.isEmpty() || !any(clauses, document);
+    }
+
+    private boolean wordsMatch(
+            final StoredDocument document,
+            final String field,
+            final String text,
+            final boolean and
+    ) {
+        final boolean prefix = field.endsWith(".prefix");
+        final List<String> actual = words(text(document, StringUtils.substringBefore(field, ".")));
+        final List<String> expected = words(text);
+        if (expected.isEmpty()) {
+            return true;
+        }
+        final Predicate<String> found = word -> actual.stream()
+                .anyMatch(candidate -> prefix ? candidate.startsWith(word) : candidate.equals(word));
+        return and ? expected.stream().allMatch(found) : expected.stream().anyMatch(found);
+    }
+
+    private boolean inRange(final StoredDocument document, final String field, final JsonNode range) {
+        final JsonNode value = document.source().path(field);
+        if (!value.isNumber()) {
+            return false;
+        }
+        final double actual = value.asDouble();
+        return (!range.has("gt") || actual > range.get("gt").asDouble())
+                && (!range.has("gte") || actual >= range.get("gte").asDouble())
+                && (!range.has("lt") || actual < range.get("lt").asDouble())
+                && (!range.has("lte") || actual <= range.get("lte").asDouble());
+    }
+
+    private List<SortField> sortFields(final JsonNode sort, final boolean pointInTime) {
+        final List<SortField> fields = new ArrayList<>();
+        for (JsonNode entry : asArray(sort)) {
+            fields.add(new SortField(entry.isTextual() ? entry.asText() : entry.fieldNames().next()));
+        }
+        if (pointInTime && fields.stream().noneMatch(field -> SHARD_DOC.equals(field.name()))) {
+            fields.add(new SortField(SHARD_DOC));
+        }
+        return fields;
+    }
+
+    private int compare(final SortedHit left, final SortedHit right) {
+        final int order = compare(left.sortValues(), right.sortValues());
+        return order != 0 ? order : Long.compare(left.document().seqNo(), right.document().seqNo());
+    }
+
+    private ArrayNode sortValues(final StoredDocument document, final List<SortField> sort) {
+        final ArrayNode values = objectMapper.createArrayNode();
+        for (SortField field : sort) {
+            if (SHARD_DOC.equals(field.name())) {
+                values.add(document.seqNo());
+            } else {
+                values.add(document.source().path(field.name()));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Compares two sort value tuples. Only ascending order is honoured, which is all the service requests.
+     */
+    private int compare(final JsonNode left, final JsonNode right) {
+        for (int i = 0; i < Math.min(left.size(), right.size()); i++) {
+            final JsonNode a = left.get(i);
+            final JsonNode b = right.get(i);
+            final int order = a.isNumber() && b.isNumber()
+                    ? Double.compare(a.asDouble(), b.asDouble())
+                    : a.asText().compareTo(b.asText());
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    private StoredDocument store(final String index, final String id, final ObjectNode source) {
+        return index(index).compute(id, (key, previous) -> new StoredDocument(id, seqNo.incrementAndGet(),
+                previous == null ? 1 : previous.version() + 1, source));
+    }
+
+    private ObjectNode merge(final String index, final String id, final ObjectNode partial) {
+        final StoredDocument existing = index(index).get(id);
+        final ObjectNode merged = existing == null ? objectMapper.createObjectNode() : existing.source().deepCopy();
+        merged.setAll(partial);
+        return merged;
+    }
+
+    private Map<String, StoredDocument> index(final String index) {
+        return indices.computeIfAbsent(index, name -> new ConcurrentHashMap<>());
+    }
+
+    private ObjectNode writeResult(
+            final String index,
+            final String id,
+            final long seqNo,
+            final long version,
+            final String result
+    ) {
+        final ObjectNode node = objectMapper.createObjectNode()
+                .put("_index", index)
+                .put("_id", id)
+                .put("_version", version)
+                .put("result", result)
+                .put("_seq_no", seqNo)
+                .put("_primary_term", 1);
+        node.set("_shards", shards());
+        return node;
+    }
+
+    private ObjectNode shards() {
+        return objectMapper.createObjectNode().put("total", 1).put("successful", 1).put("skipped", 0).put("failed", 0);
+    }
+
+    private ObjectNode info() {
+        final ObjectNode info = objectMapper.createObjectNode()
+                .put("name", "stand-in")
+                .put("cluster_name", "loadtest")
+                .put("cluster_uuid", "stand-in")
+                .put("tagline", "You Know, for Search");
+        info.putObject("version")
+                .put("number", "8.18.1")
+                .put("build_flavor", "default")
+                .put("build_type", "docker")
+                .put("build_hash", "stand-in")
+                .put("build_date", "2025-01-01T00:00:00Z")
+                .put("build_snapshot", false)
+                .put("lucene_version", "9.12.0")
+                .put("minimum_wire_compatibility_version", "7.17.0")
+                .put("minimum_index_compatibility_version", "7.0.0");
+        return info;
+    }
+
+    private Reply ok(final JsonNode body) {
+        return new Reply(HttpResponseStatus.OK, body);
+    }
+
+    private Reply error(final HttpResponseStatus status, final String reason) {
+        return error(status, "stand_in_exception", reason);
+    }
+
+    private Reply error(final HttpResponseStatus status, final String type, final String reason) {
+        final ObjectNode body = objectMapper.createObjectNode().put("status", status.code());
+        body.putObject("error").put("type", type).put("reason", reason);
+        return new Reply(status, body);
+    }
+
+    private JsonNode read(final String body) {
+        try {
+            return StringUtils.isBlank(body) ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed request body", e);
+        }
+    }
+
+    private static Iterable<JsonNode> asArray(final JsonNode node) {
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return List.of();
+        }
+        return node.isArray() ? node : List.of(node);
+    }
+
+    private static boolean contains(final JsonNode values, final String value) {
+        for (JsonNode candidate : asArray(values)) {
+            if (candidate.asText().equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String text(final StoredDocument document, final String field) {
+        if ("_id".equals(field)) {
+            return document.id();
+        }
+        final JsonNode value = document.source().path(field);
+        return value.isMissingNode() || value.isNull() ? null : value.asText();
+    }
+
+    private static String unquote(final String query) {
+        return StringUtils.strip(query, "\"").replace("\\", "");
+    }
+
+    private static List<String> words(final String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(StringUtils::isNotEmpty)
+                .toList();
+    }
+
+    private record StoredDocument(String id, long seqNo, long version, ObjectNode source) {
+
+        ObjectNode describe(final ObjectNode node) {
+            return node.put("_id", id).put("_version", version).put("_seq_no", seqNo).put("_primary_term", 1);
+        }
+    }
+
+    private record SortField(String name) {
+
+    }
+
+    private record SortedHit(StoredDocument document, ArrayNode sortValues) {
+
+    }
+
+    private record Reply(HttpResponseStatus status, JsonNode body) {
+
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histograms per traffic mix entry, recorded in microseconds. Latency is measured from the moment a request
+ * was scheduled to be sent rather than when it actually was, so a stalled service shows up in the tail instead of
+ * silently lowering the request rate.
+ */
+public final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(final String name, final long latencyNanos, final int status) {
+        final Endpoint endpoint = endpoints.computeIfAbsent(name, key -> new Endpoint());
+        endpoint.recorder().recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status >= 400 || status < 100) {
+            endpoint.errors().increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, used to drop the warm-up phase.
+     */
+    public void reset() {
+        endpoints.values().forEach(endpoint -> {
+            endpoint.recorder().reset();
+            endpoint.errors().reset();
+        });
+    }
+
+    public void write(final Duration elapsed, final Path directory, final PrintStream out) throws IOException {
+        Files.createDirectories(directory);
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final ArrayNode summary = objectMapper.createArrayNode();
+        final Map<String, Histogram> histograms = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> histograms.put(name, endpoint.recorder().getIntervalHistogram()));
+        out.printf("%n%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((name, histogram) -> {
+            final long errors = endpoints.get(name).errors().sum();
+            final double throughput = histogram.getTotalCount() / Math.max(elapsed.toMillis() / 1000.0, 0.001);
+            out.printf("%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                    throughput, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI);
+            final ObjectNode node = summary.addObject()
+                    .put("endpoint", name)
+                    .put("requests", histogram.getTotalCount())
+                    .put("errors", errors)
+                    .put("throughput", throughput)
+                    .put("p50Ms", millis(histogram, 50))
+                    .put("p90Ms", millis(histogram, 90))
+                    .put("p99Ms", millis(histogram, 99))
+                    .put("p999Ms", millis(histogram, 99.9))
+                    .put("maxMs", histogram.getMaxValue() / MICROS_PER_MILLI);
+            node.put("histogram", name + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write histogram of " + name, e);
+            }
+        });
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("summary.json").toFile(), summary);
+        out.printf("%nHistograms and summary.json written to %s%n", directory.toAbsolutePath());
+    }
+
+    private static double millis(final Histogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private record Endpoint(Recorder recorder, LongAdder errors) {
+
+        Endpoint() {
+            this(new Recorder(HIGHEST_TRACKABLE_MICROS, 3), new LongAdder());
+        }
+    }
+}
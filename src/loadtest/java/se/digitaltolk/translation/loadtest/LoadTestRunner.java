@@ -0,0 +1,182 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.Application;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+
+/**
+ * Boots the application against an {@link ElasticsearchStandIn}, seeds it and replays a {@link TrafficMix} at a
+ * fixed request rate through the full WebFlux stack, then writes a {@link LatencyReport}. Run it with
+ * {@code mvn -Ploadtest -DskipTests verify}; settings are system properties:
+ * <ul>
+ *     <li>{@code loadtest.rate} requests per second, default 200</li>
+ *     <li>{@code loadtest.duration} measured run, default PT30S</li>
+ *     <li>{@code loadtest.warmup} unmeasured run before it, default PT10S</li>
+ *     <li>{@code loadtest.maxInFlight} bound on outstanding requests, default 512</li>
+ *     <li>{@code loadtest.documents} size of the seeded data set, default 10000</li>
+ *     <li>{@code loadtest.mix} traffic mix file or classpath resource, default traffic-mix.jsonl</li>
+ *     <li>{@code loadtest.output} report directory, default target/loadtest</li>
+ * </ul>
+ * Program arguments are handed to the application, e.g. {@code --app.translation.write-coalescer.enabled=true}.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final String INDEX = "translations";
+    private static final String JWT_SECRET = "loadtest-secret";
+    private static final String BASE_PATH = "/translation-service";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(final String... args) throws Exception {
+        final int rate = Integer.getInteger("loadtest.rate", 200);
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        final int maxInFlight = Integer.getInteger("loadtest.maxInFlight", 512);
+        final int documents = Integer.getInteger("loadtest.documents", 10_000);
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final TrafficMix mix = TrafficMix.load(System.getProperty("loadtest.mix", "traffic-mix.jsonl"), objectMapper);
+
+        final ElasticsearchStandIn elasticsearch = new ElasticsearchStandIn();
+        seed(elasticsearch, objectMapper, documents);
+        final String[] applicationArgs = ArrayUtils.addAll(new String[]{
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.elasticsearch.uris=" + elasticsearch.uri(),
+                "--app.jwtSecret=" + JWT_SECRET}, args);
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(applicationArgs);
+        try {
+            final String port = context.getEnvironment().getProperty("local.server.port");
+            final WebClient webClient = WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + port + BASE_PATH)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token())
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                    .build();
+            final LatencyReport report = new LatencyReport();
+            log.info("Warming up for {} at {} req/s", warmup, rate);
+            run(webClient, mix, documents, rate, warmup, maxInFlight, report);
+            report.reset();
+            log.info("Measuring for {} at {} req/s", duration, rate);
+            final long dropped = run(webClient, mix, documents, rate, duration, maxInFlight, report);
+            report.write(duration, Path.of(System.getProperty("loadtest.output", "target/loadtest")), System.out);
+            if (dropped > 0) {
+                System.out.printf("%d requests were not sent because %d were already in flight%n",
+                        dropped, maxInFlight);
+            }
+        } finally {
+            context.close();
+            elasticsearch.stop();
+        }
+    }
+
+    /**
+     * Open workload: requests are scheduled at a fixed interval regardless of how fast earlier ones complete, and
+     * each latency is taken from its scheduled send time. Returns the number of requests that could not be sent
+     * because {@code maxInFlight} were outstanding.
+     */
+    private static long run(
+            final WebClient webClient,
+            final TrafficMix mix,
+            final int documents,
+            final int rate,
+            final Duration duration,
+            final int maxInFlight,
+            final LatencyReport report
+    ) {
+        final long intervalNanos = 1_000_000_000L / rate;
+        final long requests = duration.toNanos() / intervalNanos;
+        final long start = System.nanoTime();
+        final AtomicLong dropped = new AtomicLong();
+        Flux.interval(Duration.ofNanos(intervalNanos))
+                .take(requests)
+                .onBackpressureDrop(tick -> dropped.incrementAndGet())
+                .flatMap(tick -> send(webClient, mix.next(), documents, start + (tick + 1) * intervalNanos, report),
+                        maxInFlight)
+                .blockLast();
+        return dropped.get();
+    }
+
+    private static Mono<Void> send(
+            final WebClient webClient,
+            final TrafficMix.Entry entry,
+            final int documents,
+            final long scheduledNanos,
+            final LatencyReport report
+    ) {
+        final Map<String, String> values = randomValues(documents);
+        final WebClient.RequestBodySpec request = webClient.method(HttpMethod.valueOf(entry.method()))
+                .uri(entry.path(values));
+        final String body = entry.body(values);
+        final WebClient.RequestHeadersSpec<?> spec = body == null
+                ? request
+                : request.contentType(MediaType.parseMediaType(entry.contentType() == null
+                        ? MediaType.APPLICATION_JSON_VALUE
+                        : entry.contentType())).bodyValue(body);
+        return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .onErrorReturn(0)
+                .doOnNext(status -> report.record(entry.name(), System.nanoTime() - scheduledNanos, status))
+                .then();
+    }
+
+    private static Map<String, String> randomValues(final int documents) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int n = random.nextInt(documents);
+        return Map.of(
+                "id", "loadtest-" + n,
+                "key", "loadtest.key." + n,
+                "locale", TranslationLocale.values()[n % TranslationLocale.values().length].name(),
+                "tag", TranslationTag.values()[n % TranslationTag.values().length].name(),
+                "n", Long.toString(random.nextLong(Long.MAX_VALUE)));
+    }
+
+    private static void seed(final ElasticsearchStandIn elasticsearch, final ObjectMapper objectMapper, final int count) {
+        final long now = Instant.now().toEpochMilli();
+        for (int n = 0; n < count; n++) {
+            final ObjectNode source = objectMapper.createObjectNode()
+                    .put("_class", "se.digitaltolk.translation.repository.entity.TranslationDocument")
+                    .put("id", "loadtest-" + n)
+                    .put("key", "loadtest.key." + n)
+                    .put("value", "Load test value number " + n)
+                    .put("locale", TranslationLocale.values()[n % TranslationLocale.values().length].name())
+                    .put("tag", TranslationTag.values()[n % TranslationTag.values().length].name())
+                    .put("createdAt", now)
+                    .put("updatedAt", now);
+            elasticsearch.put(INDEX, "loadtest-" + n, source);
+        }
+        log.info("Seeded {} translations into the stand-in", elasticsearch.count(INDEX));
+    }
+
+    private static String token() {
+        return Jwts.builder()
+                .setSubject("loadtest@example.com")
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                .signWith(SignatureAlgorithm.HS256, JWT_SECRET.getBytes())
+                .compact();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Weighted set of request templates read from JSON lines such as
+ * {@code {"name":"search","method":"GET","path":"/v1/translation/search?locale={locale}","weight":5}}.
+ * Placeholders in {@code path} and {@code body} are replaced per request with a random value of the seeded data set:
+ * {@code {id}}, {@code {key}}, {@code {locale}}, {@code {tag}} and {@code {n}}.
+ */
+public final class TrafficMix {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(id|key|locale|tag|n)}");
+
+    private final List<Entry> entries;
+
+    private final int totalWeight;
+
+    private TrafficMix(final List<Entry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no entries");
+        }
+        this.entries = entries;
+        this.totalWeight = entries.stream().mapToInt(Entry::weight).sum();
+    }
+
+    /**
+     * Reads the mix from a file path, falling back to a classpath resource of the same name.
+     */
+    public static TrafficMix load(final String location, final ObjectMapper objectMapper) throws IOException {
+        final Path path = Path.of(location);
+        try (InputStream in = Files.exists(path)
+                ? Files.newInputStream(path)
+                : TrafficMix.class.getClassLoader().getResourceAsStream(location)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Traffic mix not found: " + location);
+            }
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return new TrafficMix(reader.lines()
+                    .filter(line -> StringUtils.isNotBlank(line) && !line.startsWith("#"))
+                    .map(line -> read(objectMapper, line))
+                    .toList());
+        }
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Entry next() {
+        int remaining = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Entry entry : entries) {
+            remaining -= entry.weight();
+            if (remaining < 0) {
+                return entry;
+            }
+        }
+        return entries.getLast();
+    }
+
+    private static Entry read(final ObjectMapper objectMapper, final String line) {
+        try {
+            final Entry entry = objectMapper.readValue(line, Entry.class);
+            return entry.weight() > 0 ? entry : new Entry(entry.name(), entry.method(), entry.path(),
+                    entry.contentType(), entry.body(), 1);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed traffic mix line: " + line, e);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Entry(String name, String method, String path, String contentType, String body, int weight) {
+
+        public String path(final Map<String, String> values) {
+            return resolve(path, values);
+        }
+
+        public String body(final Map<String, String> values) {
+            return body == null ? null : resolve(body, values);
+        }
+
+        private static String resolve(final String template, final Map<String, String> values) {
+            final Matcher matcher = PLACEHOLDER.matcher(template);
+            final StringBuilder resolved = new StringBuilder();
+            while (matcher.find()) {
+                matcher.appendReplacement(resolved, Matcher.quoteReplacement(values.get(matcher.group(1))));
+            }
+            return matcher.appendTail(resolved).toString();
+        }
+    }
+}
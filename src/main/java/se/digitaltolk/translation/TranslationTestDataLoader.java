@@ -1,8 +1,6 @@
 package se.digitaltolk.translation;
 
-import java.util.List;
 import java.util.Random;
-import java.util.stream.IntStream;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -10,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import se.digitaltolk.translation.service.TranslationService;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
 import se.digitaltolk.translation.web.dto.TranslationLocale;
@@ -22,15 +21,21 @@ import se.digitaltolk.translation.web.dto.TranslationTag;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class TranslationTestDataLoader implements CommandLineRunner {
 
+    private static final int DUMMY_TRANSLATIONS = 100_000;
+
     TranslationService translationService;
 
+    /**
+     * Generates the translations as they are written, through the same ingest as streaming imports, with the index
+     * relaxed for the load.
+     */
     @Override
     public void run(String... args) {
         final Random random = new Random();
         final TranslationLocale[] locales = TranslationLocale.values();
         final TranslationTag[] tags = TranslationTag.values();
-        final List<TranslationCreateRequest> dummyRequests = IntStream.rangeClosed(1, 100_000)
-                .mapToObj(i -> {
+        final Flux<TranslationCreateRequest> dummyRequests = Flux.range(1, DUMMY_TRANSLATIONS)
+                .map(i -> {
                     String randomLocale = locales[random.nextInt(locales.length)].name();
                     String randomTag = tags[random.nextInt(tags.length)].name();
                     return new TranslationCreateRequest(
@@ -38,15 +43,12 @@ public class TranslationTestDataLoader implements CommandLineRunner {
                             "value " + i,
                             randomLocale,
                             randomTag);
-                })
-                .toList();
+                });
 
-        int batchSize = 1000;
-        for (int i = 0; i < dummyRequests.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, dummyRequests.size());
-            List<TranslationCreateRequest> batch = dummyRequests.subList(i, end);
-            translationService.bulkCreateTranslations(batch).block();
-            log.info("Inserted batch: {} to {}", i, end);
-        }
+        final Long failed = translationService.importTranslations(dummyRequests, true)
+                .filter(result -> result.error() != null)
+                .count()
+                .block();
+        log.info("Loaded [{}] dummy translations, [{}] failed", DUMMY_TRANSLATIONS, failed);
     }
 }
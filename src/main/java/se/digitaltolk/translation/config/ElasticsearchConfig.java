@@ -0,0 +1,45 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.config;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.rest_client.RestClientOptions;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import se.digitaltolk.translation.service.metrics.ElasticsearchMetrics;
+
+@Configuration(proxyBeanMethods = false)
+public class ElasticsearchConfig {
+
+    /**
+     * Replaces the transport Spring Boot would create with the same one plus {@link ElasticsearchMetrics}, so every
+     * client built on it, the reactive one of Spring Data included, is measured.
+     */
+    @Bean
+    public ElasticsearchTransport elasticsearchTransport(
+            final RestClient restClient,
+            final JsonpMapper jsonpMapper,
+            final ObjectProvider<RestClientOptions> restClientOptions,
+            final MeterRegistry meterRegistry
+    ) {
+        return new RestClientTransport(restClient, jsonpMapper, restClientOptions.getIfAvailable(),
+                new ElasticsearchMetrics(meterRegistry));
+    }
+
+    /**
+     * Shares the transport of the reactive client for the APIs that client does not cover, such as update by query
+     * and the task management API.
+     */
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(final ElasticsearchTransport elasticsearchTransport) {
+        return new ElasticsearchAsyncClient(elasticsearchTransport);
+    }
+
+}
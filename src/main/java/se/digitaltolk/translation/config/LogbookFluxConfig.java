@@ -3,6 +3,11 @@
  */
 package se.digitaltolk.translation.config;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -10,16 +15,59 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Strategy;
+import org.zalando.logbook.autoconfigure.LogbookProperties;
 import org.zalando.logbook.netty.LogbookServerHandler;
 import reactor.netty.http.server.HttpServer;
 
+/**
+ * The {@link Logbook} itself is built by the Logbook auto-configuration from the {@code logbook.*} properties, so
+ * includes, excludes and obfuscation apply. This configuration samples the exchanges it logs and keeps it from
+ * buffering bodies larger than {@code logbook.write.max-body-size}.
+ */
 @Configuration(proxyBeanMethods = false)
 public class LogbookFluxConfig {
 
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    /**
+     * Logs a random share of the exchanges, {@code app.translation.http-log.sample-rate}. Exchanges not sampled are
+     * neither buffered nor formatted.
+     */
     @Bean
-    public Logbook logbook() {
-        return Logbook.create();
+    public Predicate<HttpRequest> requestCondition(final TranslationProperties translationProperties) {
+        final double sampleRate = translationProperties.getHttpLog().getSampleRate();
+        return request -> sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Captures a body only when its declared length is within {@code logbook.write.max-body-size}. Streamed bodies,
+     * such as exports and change feeds, have no declared length and are logged without their body, as are
+     * compressed bodies.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "logbook.strategy", havingValue = "default", matchIfMissing = true)
+    public Strategy strategy(final LogbookProperties logbookProperties) {
+        final int maxBodySize = logbookProperties.getWrite().getMaxBodySize();
+        return new Strategy() {
+
+            @Override
+            public HttpRequest process(final HttpRequest request) throws IOException {
+                return isWithin(request, maxBodySize) ? request.withBody() : request.withoutBody();
+            }
+
+            @Override
+            public HttpResponse process(final HttpRequest request, final HttpResponse response)
+                    throws IOException {
+                return isWithin(response, maxBodySize) ? response.withBody() : response.withoutBody();
+            }
+        };
     }
 
     @Bean
@@ -32,4 +80,16 @@ public class LogbookFluxConfig {
                 .doOnConnection(connection -> connection.addHandlerLast(new LogbookServerHandler(logbook)));
     }
 
+    private static boolean isWithin(final HttpMessage message, final int maxBodySize) {
+        if (message.getHeaders().containsKey(CONTENT_ENCODING)) {
+            return false;
+        }
+        if (maxBodySize < 0) {
+            return true;
+        }
+        final List<String> contentLength = message.getHeaders().get(CONTENT_LENGTH);
+        return contentLength != null && !contentLength.isEmpty()
+                && NumberUtils.toLong(contentLength.getFirst(), Long.MAX_VALUE) <= maxBodySize;
+    }
+
 }
@@ -0,0 +1,412 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.config;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@ConfigurationProperties(prefix = "app.translation")
+public class TranslationProperties {
+
+    Export export = new Export();
+
+    Cache cache = new Cache();
+
+    Bulk bulk = new Bulk();
+
+    TokenCache tokenCache = new TokenCache();
+
+    WriteCoalescer writeCoalescer = new WriteCoalescer();
+
+    Identity identity = new Identity();
+
+    Replica replica = new Replica();
+
+    Sync sync = new Sync();
+
+    Feed feed = new Feed();
+
+    Patch patch = new Patch();
+
+    Jobs jobs = new Jobs();
+
+    HttpLog httpLog = new HttpLog();
+
+    Compression compression = new Compression();
+
+    Index index = new Index();
+
+    Stats stats = new Stats();
+
+    Report report = new Report();
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Export {
+
+        /**
+         * Number of documents fetched per search_after page while walking the point-in-time.
+         */
+        int pageSize = 1000;
+
+        /**
+         * How long Elasticsearch keeps the point-in-time alive between two pages.
+         */
+        Duration keepAlive = Duration.ofMinutes(1);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Cache {
+
+        /**
+         * Upper bound of translations kept in the near-cache in front of findByTranslationId.
+         */
+        long maximumSize = 10_000;
+
+        /**
+         * Hard expiry of a cached translation, bounding how stale another instance's writes can be seen.
+         */
+        Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        /**
+         * Age after which a read triggers an asynchronous reload while the cached translation is still served.
+         */
+        Duration refreshAfterWrite = Duration.ofSeconds(30);
+
+        /**
+         * Age after which a materialized bundle is loaded again on its next read, bounding how stale another
+         * instance's writes are served with it and its ETag.
+         */
+        Duration bundleExpireAfterLoad = Duration.ofMinutes(1);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Bulk {
+
+        /**
+         * Maximum number of documents in one Elasticsearch bulk request, the upper bound of the adaptive batch size.
+         */
+        int maxActions = 1000;
+
+        /**
+         * Number of documents an ingest starts its bulk requests with, and the lower bound of the adaptive batch size.
+         */
+        int minActions = 100;
+
+        /**
+         * Maximum estimated payload of one Elasticsearch bulk request.
+         */
+        DataSize maxBytes = DataSize.ofMegabytes(5);
+
+        /**
+         * Number of bulk requests a single import keeps in flight.
+         */
+        int concurrency = 2;
+
+        /**
+         * Latency of a bulk request below which the batch size grows, and above which it shrinks in proportion.
+         */
+        Duration targetLatency = Duration.ofSeconds(1);
+
+        /**
+         * Times a bulk request or item rejected with 429 is resent before it is reported as failed.
+         */
+        int maxRetries = 5;
+
+        /**
+         * Delay before the first resend of a rejected bulk request or item, doubled on every further one.
+         */
+        Duration retryBackoff = Duration.ofMillis(200);
+
+        /**
+         * Upper bound of the delay between two resends.
+         */
+        Duration maxRetryBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Interval at which a running ingest logs its throughput.
+         */
+        Duration progressInterval = Duration.ofSeconds(10);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class TokenCache {
+
+        /**
+         * Upper bound of verified bearer tokens whose principal is kept until the token expires.
+         */
+        long maximumSize = 10_000;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class WriteCoalescer {
+
+        /**
+         * Whether single creates and updates are coalesced into bulk requests instead of indexed one by one.
+         */
+        boolean enabled = false;
+
+        /**
+         * Longest time a write waits for others to join its bulk request.
+         */
+        Duration window = Duration.ofMillis(5);
+
+        /**
+         * Number of writes that flushes a bulk request before the window has elapsed.
+         */
+        int maxBatchSize = 200;
+
+        /**
+         * Number of coalesced bulk requests kept in flight.
+         */
+        int concurrency = 2;
+
+        /**
+         * Number of writes waiting for a bulk request beyond which further writes are rejected as unavailable.
+         */
+        int maxPending = 10_000;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Identity {
+
+        /**
+         * Whether document ids are derived from (key, locale, tag), making creates upserts. Existing documents with
+         * random ids are not migrated; lookups by key that miss the derived id fall back to a search to find them.
+         */
+        boolean naturalKey = false;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Replica {
+
+        /**
+         * Whether every translation is kept in memory to answer key lookups and bundle reads without Elasticsearch.
+         */
+        boolean enabled = false;
+
+        /**
+         * Interval between two polls for translations updated by other instances.
+         */
+        Duration pollInterval = Duration.ofSeconds(5);
+
+        /**
+         * How far before the last seen updatedAt a poll starts, covering clock skew and the index refresh interval.
+         */
+        Duration pollOverlap = Duration.ofSeconds(5);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Sync {
+
+        /**
+         * How far behind the current time a returned watermark is placed, so writes still being indexed when a
+         * delta is computed are part of the next one instead of being skipped.
+         */
+        Duration settleDelay = Duration.ofSeconds(2);
+
+        /**
+         * How long tombstones of deleted translations are kept. Clients with an older watermark must resync.
+         */
+        Duration tombstoneRetention = Duration.ofDays(30);
+
+        /**
+         * Interval between two removals of tombstones past their retention.
+         */
+        Duration pruneInterval = Duration.ofHours(1);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Feed {
+
+        /**
+         * Change events buffered per subscriber of the event stream before the overflow policy applies.
+         */
+        int bufferSize = 256;
+
+        /**
+         * Overflow policy of subscribers that do not choose one.
+         */
+        TranslationFeedOverflow overflow = TranslationFeedOverflow.DROP;
+
+        /**
+         * Interval of the comment lines that keep idle event streams open through proxies.
+         */
+        Duration heartbeat = Duration.ofSeconds(15);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Patch {
+
+        /**
+         * Times Elasticsearch re-applies a partial update that raced with another write. Updates conditional on a
+         * sequence number are never retried.
+         */
+        int retryOnConflict = 3;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Jobs {
+
+        /**
+         * Interval at which the Elasticsearch task of a running maintenance job is polled for progress.
+         */
+        Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * How long finished maintenance jobs can still be looked up.
+         */
+        Duration retention = Duration.ofHours(24);
+
+        /**
+         * Throttle of maintenance jobs that do not set one, in documents per second.
+         */
+        float requestsPerSecond = 1000f;
+
+        /**
+         * Slices of maintenance jobs that do not set them, 0 letting Elasticsearch pick one per shard.
+         */
+        int slices = 0;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class HttpLog {
+
+        /**
+         * Share of HTTP exchanges Logbook logs, between 0 and 1. Bodies are captured only up to
+         * logbook.write.max-body-size.
+         */
+        double sampleRate = 1.0;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Compression {
+
+        /**
+         * Whether JSON responses are gzip or deflate encoded for clients accepting it.
+         */
+        boolean enabled = true;
+
+        /**
+         * Responses and bundles smaller than this are sent uncompressed. Streamed responses of unknown length are
+         * always compressed.
+         */
+        DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Index {
+
+        /**
+         * Primary shards of translation indices created from the template. Existing indices keep theirs until a
+         * reindex.
+         */
+        int shards = 1;
+
+        /**
+         * Replicas of translation indices outside bulk loads.
+         */
+        int replicas = 1;
+
+        /**
+         * Refresh interval of translation indices outside bulk loads, bounding how long a write takes to be searchable.
+         */
+        Duration refreshInterval = Duration.ofSeconds(1);
+
+        /**
+         * Replicas while an index is bulk loaded, added back once the load ends.
+         */
+        int bulkReplicas = 0;
+
+        /**
+         * Refresh interval while an index is bulk loaded, negative to refresh only once the load ends.
+         */
+        Duration bulkRefreshInterval = Duration.ofMillis(-1);
+
+        /**
+         * Whether a reindex deletes the index it moved the alias away from, instead of keeping it to move back to.
+         */
+        boolean deletePrevious = false;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Stats {
+
+        /**
+         * How long statistics are served from cache, bounding how stale the writes of other instances are seen.
+         * Writes through this instance invalidate them right away.
+         */
+        Duration ttl = Duration.ofSeconds(10);
+
+        /**
+         * Upper bound of distinct locales and of distinct tags counted.
+         */
+        int maxBuckets = 100;
+
+    }
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Report {
+
+        /**
+         * Keys per composite aggregation page of the missing-translation report, the most keys it holds at a time.
+         */
+        int pageSize = 1000;
+
+    }
+}
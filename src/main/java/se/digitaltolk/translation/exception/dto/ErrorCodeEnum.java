@@ -10,6 +10,9 @@ public enum ErrorCodeEnum implements ErrorPrinter {
 
     NOT_FOUND(HttpStatus.BAD_REQUEST),
     INVALID_PARAM(HttpStatus.BAD_REQUEST),
+    CONFLICT(HttpStatus.CONFLICT),
+    WATERMARK_EXPIRED(HttpStatus.GONE),
+    UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE),
     UNAUTHORIZED(HttpStatus.UNAUTHORIZED);
 
     ErrorCodeEnum(HttpStatus httpStatus) {
@@ -25,7 +25,7 @@ public class CorsFilter implements WebFilter {
     private static final String ALLOWED_ORIGINS = "*";
     private static final String ALLOWED_METHODS = "GET, POST, PUT, DELETE, OPTIONS, PATCH";
     private static final String ALLOWED_HEADERS = "Content-Type, Authorization, Origin, Accept";
-    private static final String EXPOSED_HEADERS = "Content-Length, Authorization, Origin";
+    private static final String EXPOSED_HEADERS = "Content-Length, Authorization, Origin, ETag, X-Next-Cursor, X-Sync-Watermark";
     private static final String MAX_AGE = "3600";
 
     @NonNull
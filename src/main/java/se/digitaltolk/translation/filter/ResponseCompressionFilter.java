@@ -0,0 +1,234 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.service.metrics.CompressionMeters;
+import se.digitaltolk.translation.web.support.ContentCoding;
+
+/**
+ * Compresses JSON responses with the gzip or deflate coding negotiated from {@code Accept-Encoding}. Responses
+ * smaller than {@code app.translation.compression.min-response-size} are sent as they are, as are responses that
+ * already carry a {@code Content-Encoding}, such as the precompressed bundles. Streamed responses are flushed per
+ * element so clients can decode them as they arrive.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ResponseCompressionFilter implements WebFilter {
+
+    private static final String COMPRESSION_SOURCE = "response";
+
+    private static final List<MediaType> COMPRESSIBLE_TYPES = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_NDJSON,
+            MediaType.valueOf("application/*+json"));
+
+    TranslationProperties translationProperties;
+
+    MeterRegistry meterRegistry;
+
+    @NonNull
+    @Override
+    public Mono<Void> filter(@NonNull final ServerWebExchange exchange, @NonNull final WebFilterChain chain) {
+        if (!translationProperties.getCompression().isEnabled()
+                || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        final ContentCoding coding = ContentCoding.negotiate(
+                String.join(",", exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)))
+                .orElse(null);
+        return chain.filter(exchange.mutate()
+                .response(new CompressingResponse(exchange.getResponse(), coding))
+                .build());
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ContentCoding coding;
+
+        private CompressingResponse(final ServerHttpResponse delegate, final ContentCoding coding) {
+            super(delegate);
+            this.coding = coding;
+        }
+
+        /**
+         * The length of a single-value body is only known once it is encoded, so the decision is taken on the first
+         * buffer, while the headers can still be changed.
+         */
+        @NonNull
+        @Override
+        public Mono<Void> writeWith(@NonNull final Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.<DataBuffer>from(body).switchOnFirst((first, buffers) -> {
+                final ContentCoding negotiated = first.hasValue() ? negotiate() : null;
+                if (negotiated == null) {
+                    return buffers;
+                }
+                final BodyEncoder encoder = new BodyEncoder(negotiated, bufferFactory());
+                return buffers.handle(encoder::write)
+                        .concatWith(Mono.fromCallable(encoder::finish).handle(encoder::emit))
+                        .doFinally(signal -> encoder.release());
+            }));
+        }
+
+        /**
+         * The server subscribes to the elements after the stream of them completed, as it prefetches them, so the
+         * encoder is released once the whole response is written rather than when that stream ends.
+         */
+        @NonNull
+        @Override
+        public Mono<Void> writeAndFlushWith(@NonNull final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            final ContentCoding negotiated = negotiate();
+            if (negotiated == null) {
+                return super.writeAndFlushWith(body);
+            }
+            final BodyEncoder encoder = new BodyEncoder(negotiated, bufferFactory());
+            return super.writeAndFlushWith(Flux.<Publisher<? extends DataBuffer>>from(body)
+                            .<Publisher<DataBuffer>>map(element -> Flux.<DataBuffer>from(element)
+                                    .handle(encoder::write)
+                                    .concatWith(Mono.fromCallable(encoder::flush).handle(encoder::emit)))
+                            .concatWithValues(Mono.fromCallable(encoder::finish).handle(encoder::emit)))
+                    .doFinally(signal -> encoder.release());
+        }
+
+        /**
+         * Sets the headers of the encoded response, or returns null when it is sent as it is.
+         */
+        private ContentCoding negotiate() {
+            final HttpHeaders headers = getHeaders();
+            final MediaType contentType = headers.getContentType();
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || contentType == null
+                    || COMPRESSIBLE_TYPES.stream().noneMatch(type -> type.isCompatibleWith(contentType))) {
+                return null;
+            }
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            final HttpStatusCode status = getStatusCode();
+            final long contentLength = headers.getContentLength();
+            if (coding == null
+                    || (status != null && (status.is1xxInformational() || status == HttpStatus.NO_CONTENT
+                            || status == HttpStatus.NOT_MODIFIED))
+                    || (contentLength >= 0
+                            && contentLength < translationProperties.getCompression().getMinResponseSize().toBytes())) {
+                return null;
+            }
+            headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return coding;
+        }
+    }
+
+    /**
+     * Compresses the buffers of one response into new ones, accounting the time spent and the sizes on the way.
+     * The deflater holds native memory, so it is released however the response ends.
+     */
+    private final class BodyEncoder {
+
+        private final ContentCoding coding;
+        private final DataBufferFactory bufferFactory;
+        private final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        private final DeflaterOutputStream encoder;
+        private long nanos;
+        private long uncompressedBytes;
+        private long compressedBytes;
+        private boolean finished;
+
+        private BodyEncoder(final ContentCoding coding, final DataBufferFactory bufferFactory) {
+            this.coding = coding;
+            this.bufferFactory = bufferFactory;
+            try {
+                this.encoder = coding.encoder(sink, true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void write(final DataBuffer buffer, final SynchronousSink<DataBuffer> out) {
+            final byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            final long start = System.nanoTime();
+            try {
+                encoder.write(bytes);
+            } catch (IOException e) {
+                out.error(e);
+                return;
+            }
+            nanos += System.nanoTime() - start;
+            uncompressedBytes += bytes.length;
+            emit(drain(), out);
+        }
+
+        synchronized byte[] flush() throws IOException {
+            final long start = System.nanoTime();
+            encoder.flush();
+            nanos += System.nanoTime() - start;
+            return drain();
+        }
+
+        synchronized byte[] finish() throws IOException {
+            final long start = System.nanoTime();
+            encoder.close();
+            nanos += System.nanoTime() - start;
+            finished = true;
+            final byte[] trailer = drain();
+            CompressionMeters.record(meterRegistry, COMPRESSION_SOURCE, coding.token(), nanos, uncompressedBytes,
+                    compressedBytes);
+            return trailer;
+        }
+
+        void emit(final byte[] bytes, final SynchronousSink<DataBuffer> out) {
+            if (bytes.length > 0) {
+                out.next(bufferFactory.wrap(bytes));
+            }
+        }
+
+        synchronized void release() {
+            if (!finished) {
+                finished = true;
+                try {
+                    encoder.close();
+                } catch (IOException e) {
+                    // the response is gone, only the native memory of the deflater matters
+                }
+            }
+        }
+
+        private byte[] drain() {
+            final byte[] bytes = sink.toByteArray();
+            sink.reset();
+            compressedBytes += bytes.length;
+            return bytes;
+        }
+    }
+}
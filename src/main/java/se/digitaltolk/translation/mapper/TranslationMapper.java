@@ -1,9 +1,18 @@
 package se.digitaltolk.translation.mapper;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.FacetCounts;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationStats;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 
 public final class TranslationMapper {
@@ -12,8 +21,14 @@ public final class TranslationMapper {
     }
 
     public static TranslationDocument toEntity(final TranslationCreateRequest request) {
+        return toEntity(request, false);
+    }
+
+    public static TranslationDocument toEntity(final TranslationCreateRequest request, final boolean naturalId) {
         var doc = new TranslationDocument();
-        doc.setId(UUID.randomUUID().toString());
+        doc.setId(naturalId
+                ? naturalId(request.key(), request.locale(), request.tag())
+                : UUID.randomUUID().toString());
         doc.setKey(request.key());
         doc.setValue(request.value());
         doc.setLocale(request.locale());
@@ -24,6 +39,20 @@ public final class TranslationMapper {
         return doc;
     }
 
+    /**
+     * Id derived from the natural key of a translation: the first 128 bits of the SHA-256 of key, locale and tag,
+     * hex encoded.
+     */
+    public static String naturalId(final String key, final String locale, final String tag) {
+        final byte[] hash = Hashing.sha256().newHasher()
+                .putString(key, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(locale, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(tag, StandardCharsets.UTF_8)
+                .hash()
+                .asBytes();
+        return HashCode.fromBytes(Arrays.copyOf(hash, 16)).toString();
+    }
+
     public static void updateEntityFromRequest(final TranslationDocument doc, final TranslationUpdateRequest request) {
         doc.setKey(request.key());
         doc.setValue(request.value());
@@ -31,4 +60,29 @@ public final class TranslationMapper {
         doc.setTag(request.tag());
         doc.setUpdatedAt(Instant.now().toEpochMilli());
     }
+
+    /**
+     * Partial document of the fields a patch sets, keyed by their Elasticsearch field names.
+     */
+    public static Map<String, Object> toPatchFields(final TranslationPatchRequest request) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        if (request.key() != null) {
+            fields.put("key", request.key());
+        }
+        if (request.value() != null) {
+            fields.put("value", request.value());
+        }
+        if (request.locale() != null) {
+            fields.put("locale", request.locale());
+        }
+        if (request.tag() != null) {
+            fields.put("tag", request.tag());
+        }
+        fields.put("updatedAt", Instant.now().toEpochMilli());
+        return fields;
+    }
+
+    public static TranslationStats toStats(final FacetCounts counts, final long computedAt) {
+        return new TranslationStats(counts.total(), counts.locales(), counts.tags(), counts.localeTags(), computedAt);
+    }
 }
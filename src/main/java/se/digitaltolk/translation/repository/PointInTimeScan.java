@@ -0,0 +1,104 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams every document matching a criteria in ascending order of one field, paging with search_after over a
+ * point-in-time that is released when the stream terminates or is cancelled. Callers that page on behalf of a
+ * client, such as cursor search, drive the same steps one at a time with {@link #open}, {@link #page} and
+ * {@link #close}.
+ */
+public final class PointInTimeScan {
+
+    private PointInTimeScan() {
+    }
+
+    public static <T> Flux<T> scan(
+            final ReactiveElasticsearchTemplate elasticsearchTemplate,
+            final Class<T> type,
+            final Criteria criteria,
+            final String sortField,
+            final int pageSize,
+            final Duration keepAlive
+    ) {
+        return Flux.usingWhen(
+                open(elasticsearchTemplate, type, keepAlive),
+                pitId -> whenRequested(() -> page(elasticsearchTemplate, type, criteria, sortField, pageSize,
+                                keepAlive, pitId, null))
+                        .expand(hits -> hits.size() < pageSize
+                                ? Mono.empty()
+                                : whenRequested(() -> page(elasticsearchTemplate, type, criteria, sortField, pageSize,
+                                        keepAlive, pitId, hits.getLast().getSortValues())))
+                        // one page at a time, the next is only searched once the previous one was consumed
+                        .flatMapIterable(Function.identity(), 1)
+                        .map(SearchHit::getContent),
+                pitId -> close(elasticsearchTemplate, pitId));
+    }
+
+    /**
+     * Defers the search of a page until it is requested. Expand subscribes to the next page as soon as the previous
+     * one is emitted, and a page collects its hits on subscription, which would keep one page read ahead.
+     */
+    private static <T> Mono<List<SearchHit<T>>> whenRequested(final Supplier<Mono<List<SearchHit<T>>>> page) {
+        return Mono.create(sink -> {
+            final AtomicBoolean started = new AtomicBoolean();
+            sink.onRequest(n -> {
+                if (started.compareAndSet(false, true)) {
+                    sink.onDispose(page.get().subscribe(sink::success, sink::error));
+                }
+            });
+        });
+    }
+
+    public static Mono<String> open(
+            final ReactiveElasticsearchTemplate elasticsearchTemplate,
+            final Class<?> type,
+            final Duration keepAlive
+    ) {
+        return elasticsearchTemplate.openPointInTime(elasticsearchTemplate.getIndexCoordinatesFor(type), keepAlive);
+    }
+
+    /**
+     * Fetches the page after {@code searchAfter}, or the first page without one, extending the keep-alive of the
+     * point-in-time. Elasticsearch appends the implicit _shard_doc tiebreaker to the sort values of every hit, so
+     * the last hit of a page is a unique resume position. A page shorter than {@code pageSize} is the last one.
+     */
+    public static <T> Mono<List<SearchHit<T>>> page(
+            final ReactiveElasticsearchTemplate elasticsearchTemplate,
+            final Class<T> type,
+            final Criteria criteria,
+            final String sortField,
+            final int pageSize,
+            final Duration keepAlive,
+            final String pitId,
+            final List<Object> searchAfter
+    ) {
+        final CriteriaQuery query = new CriteriaQuery(criteria);
+        query.setPointInTime(new Query.PointInTime(pitId, keepAlive));
+        query.setPageable(PageRequest.of(0, pageSize));
+        query.addSort(Sort.by(Sort.Order.asc(sortField)));
+        query.setSearchAfter(searchAfter);
+        query.setTrackTotalHits(false);
+        return elasticsearchTemplate.search(query, type).collectList();
+    }
+
+    public static Mono<Boolean> close(final ReactiveElasticsearchTemplate elasticsearchTemplate, final String pitId) {
+        return elasticsearchTemplate.closePointInTime(pitId);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * Operations that need the Elasticsearch client directly because the derived repository methods do not
+ * expose per-item results.
+ */
+public interface TranslationRepositoryCustom {
+
+    /**
+     * Indexes the documents in a single bulk request. The returned items are in the order of the documents,
+     * a failed document does not fail the others.
+     */
+    Mono<List<BulkItem>> bulkIndex(final List<TranslationDocument> documents);
+
+    /**
+     * Merges the fields into the stored document with a single update request and returns the result. With an
+     * expected sequence number and primary term the update fails on any concurrent change, without one
+     * Elasticsearch re-applies it up to {@code retryOnConflict} times.
+     */
+    Mono<TranslationDocument> update(
+            final String id,
+            final Map<String, Object> fields,
+            final SeqNoPrimaryTerm expected,
+            final int retryOnConflict);
+
+    /**
+     * Counts the documents per locale, per tag and per locale and tag with terms aggregations in a single search
+     * that returns no hits. At most {@code maxBuckets} locales and tags are counted, the most frequent first.
+     */
+    Mono<FacetCounts> countByLocaleAndTag(final int maxBuckets);
+
+    /**
+     * Streams every key and tag translated to at least one of the locales, with the locales among them it is
+     * translated to, in order of key and tag. Pages through a composite aggregation one page of {@code pageSize}
+     * keys at a time, requesting the next page only once the previous one is consumed.
+     */
+    Flux<KeyLocales> scanKeyLocales(final Collection<String> locales, final String tag, final int pageSize);
+
+    /**
+     * Outcome of one bulk operation. A successful item carries the sequence number and primary term the document
+     * was written with.
+     */
+    record BulkItem(String id, int status, String error, SeqNoPrimaryTerm seqNoPrimaryTerm) {
+
+        public BulkItem(final String id, final int status, final String error) {
+            this(id, status, error, null);
+        }
+
+        public boolean failed() {
+            return error != null;
+        }
+    }
+
+    record FacetCounts(
+            long total,
+            Map<String, Long> locales,
+            Map<String, Long> tags,
+            Map<String, Map<String, Long>> localeTags) {
+
+    }
+
+    record KeyLocales(String key, String tag, Set<String> locales) {
+
+    }
+}
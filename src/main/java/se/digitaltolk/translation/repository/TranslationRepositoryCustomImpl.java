@@ -0,0 +1,219 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.repository;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeAggregationSource;
+import co.elastic.clients.elasticsearch._types.aggregations.CompositeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationRepositoryCustomImpl implements TranslationRepositoryCustom {
+
+    private static final String LOCALES_AGGREGATION = "locales";
+
+    private static final String TAGS_AGGREGATION = "tags";
+
+    private static final String KEYS_AGGREGATION = "keys";
+
+    private static final String KEY_FIELD = "key";
+
+    private static final String LOCALE_FIELD = "locale";
+
+    private static final String TAG_FIELD = "tag";
+
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    @Override
+    public Mono<List<BulkItem>> bulkIndex(final List<TranslationDocument> documents) {
+        if (documents.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        final String indexName = indexName();
+        return Mono.from(elasticsearchTemplate.execute(client -> client.bulk(bulk -> {
+                    bulk.index(indexName);
+                    documents.forEach(document -> bulk.operations(operation -> operation.index(index -> {
+                        index.id(document.getId()).document(toSource(document));
+                        final SeqNoPrimaryTerm expected = document.getSeqNoPrimaryTerm();
+                        if (expected != null) {
+                            index.ifSeqNo(expected.sequenceNumber()).ifPrimaryTerm(expected.primaryTerm());
+                        }
+                        return index;
+                    })));
+                    return bulk;
+                })))
+                .map(response -> response.items().stream().map(this::toBulkItem).toList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Mono<TranslationDocument> update(
+            final String id,
+            final Map<String, Object> fields,
+            final SeqNoPrimaryTerm expected,
+            final int retryOnConflict
+    ) {
+        final String indexName = indexName();
+        return Mono.from(elasticsearchTemplate.execute(client -> client.<Map, Map<String, Object>>update(update -> {
+                    update.index(indexName).id(id).doc(fields).source(source -> source.fetch(true));
+                    if (expected != null) {
+                        update.ifSeqNo(expected.sequenceNumber()).ifPrimaryTerm(expected.primaryTerm());
+                    } else {
+                        update.retryOnConflict(retryOnConflict);
+                    }
+                    return update;
+                }, Map.class)))
+                .map(response -> {
+                    final TranslationDocument document = elasticsearchTemplate.getElasticsearchConverter()
+                            .read(TranslationDocument.class, Document.from(response.get().source()));
+                    document.setId(response.id());
+                    document.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(response.seqNo(), response.primaryTerm()));
+                    return document;
+                });
+    }
+
+    @Override
+    public Mono<FacetCounts> countByLocaleAndTag(final int maxBuckets) {
+        final String indexName = indexName();
+        return Mono.from(elasticsearchTemplate.execute(client -> client.search(search -> search
+                        .index(indexName)
+                        .size(0)
+                        .trackTotalHits(total -> total.enabled(true))
+                        .aggregations(LOCALES_AGGREGATION, locales -> locales
+                                .terms(terms -> terms.field(LOCALE_FIELD).size(maxBuckets))
+                                .aggregations(TAGS_AGGREGATION, tags -> tags
+                                        .terms(terms -> terms.field(TAG_FIELD).size(maxBuckets))))
+                        .aggregations(TAGS_AGGREGATION, tags -> tags
+                                .terms(terms -> terms.field(TAG_FIELD).size(maxBuckets))), Void.class)))
+                .map(response -> {
+                    final Map<String, Long> locales = new LinkedHashMap<>();
+                    final Map<String, Map<String, Long>> localeTags = new LinkedHashMap<>();
+                    for (StringTermsBucket bucket : buckets(response.aggregations().get(LOCALES_AGGREGATION))) {
+                        locales.put(bucket.key().stringValue(), bucket.docCount());
+                        localeTags.put(bucket.key().stringValue(),
+                                toCounts(buckets(bucket.aggregations().get(TAGS_AGGREGATION))));
+                    }
+                    final long total = response.hits().total() == null ? 0 : response.hits().total().value();
+                    return new FacetCounts(total, locales,
+                            toCounts(buckets(response.aggregations().get(TAGS_AGGREGATION))), localeTags);
+                });
+    }
+
+    @Override
+    public Flux<KeyLocales> scanKeyLocales(final Collection<String> locales, final String tag, final int pageSize) {
+        final String indexName = indexName();
+        return keyLocalesPage(indexName, locales, tag, pageSize, null)
+                .expand(page -> page.keys().size() < pageSize || page.afterKey().isEmpty()
+                        ? Mono.empty()
+                        : keyLocalesPage(indexName, locales, tag, pageSize, page.afterKey()))
+                .flatMapIterable(KeyLocalesPage::keys, 1);
+    }
+
+    /**
+     * One page of keys and tags of the composite aggregation, resuming after the given composite key.
+     */
+    private Mono<KeyLocalesPage> keyLocalesPage(
+            final String indexName,
+            final Collection<String> locales,
+            final String tag,
+            final int pageSize,
+            final Map<String, FieldValue> afterKey
+    ) {
+        return Mono.from(elasticsearchTemplate.execute(client -> client.search(search -> search
+                        .index(indexName)
+                        .size(0)
+                        .trackTotalHits(total -> total.enabled(false))
+                        .query(query -> query.bool(bool -> {
+                            bool.filter(filter -> filter.terms(terms -> terms
+                                    .field(LOCALE_FIELD)
+                                    .terms(values -> values.value(locales.stream().map(FieldValue::of).toList()))));
+                            if (tag != null) {
+                                bool.filter(filter -> filter.term(term -> term.field(TAG_FIELD).value(tag)));
+                            }
+                            return bool;
+                        }))
+                        .aggregations(KEYS_AGGREGATION, keys -> keys
+                                .composite(composite -> {
+                                    composite.size(pageSize).sources(
+                                            Map.of(KEY_FIELD, CompositeAggregationSource.of(source -> source
+                                                    .terms(terms -> terms.field(KEY_FIELD)))),
+                                            Map.of(TAG_FIELD, CompositeAggregationSource.of(source -> source
+                                                    .terms(terms -> terms.field(TAG_FIELD)))));
+                                    if (afterKey != null) {
+                                        composite.after(afterKey);
+                                    }
+                                    return composite;
+                                })
+                                .aggregations(LOCALES_AGGREGATION, localesAggregation -> localesAggregation
+                                        .terms(terms -> terms.field(LOCALE_FIELD).size(locales.size())))), Void.class)))
+                .map(response -> {
+                    final Aggregate aggregate = response.aggregations().get(KEYS_AGGREGATION);
+                    if (aggregate == null || !aggregate.isComposite()) {
+                        return new KeyLocalesPage(List.of(), Map.of());
+                    }
+                    final List<KeyLocales> keys = aggregate.composite().buckets().array().stream()
+                            .map(TranslationRepositoryCustomImpl::toKeyLocales)
+                            .toList();
+                    final Map<String, FieldValue> next = aggregate.composite().afterKey();
+                    return new KeyLocalesPage(keys, next == null ? Map.of() : next);
+                });
+    }
+
+    private static KeyLocales toKeyLocales(final CompositeBucket bucket) {
+        final Set<String> locales = buckets(bucket.aggregations().get(LOCALES_AGGREGATION)).stream()
+                .map(localeBucket -> localeBucket.key().stringValue())
+                .collect(Collectors.toUnmodifiableSet());
+        return new KeyLocales(bucket.key().get(KEY_FIELD).stringValue(), bucket.key().get(TAG_FIELD).stringValue(),
+                locales);
+    }
+
+    private static List<StringTermsBucket> buckets(final Aggregate aggregate) {
+        return aggregate == null || !aggregate.isSterms() ? List.of() : aggregate.sterms().buckets().array();
+    }
+
+    private static Map<String, Long> toCounts(final List<StringTermsBucket> buckets) {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        buckets.forEach(bucket -> counts.put(bucket.key().stringValue(), bucket.docCount()));
+        return counts;
+    }
+
+    private record KeyLocalesPage(List<KeyLocales> keys, Map<String, FieldValue> afterKey) {
+
+    }
+
+    private BulkItem toBulkItem(final BulkResponseItem item) {
+        if (item.error() != null) {
+            return new BulkItem(item.id(), item.status(), item.error().reason());
+        }
+        return new BulkItem(item.id(), item.status(), null, item.seqNo() == null || item.primaryTerm() == null
+                ? null
+                : new SeqNoPrimaryTerm(item.seqNo(), item.primaryTerm()));
+    }
+
+    private Document toSource(final TranslationDocument document) {
+        return elasticsearchTemplate.getElasticsearchConverter().mapObject(document);
+    }
+
+    private String indexName() {
+        return elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class).getIndexName();
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.repository;
+
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+
+public interface TranslationTombstoneRepository extends ReactiveElasticsearchRepository<TranslationTombstone, String> {
+
+}
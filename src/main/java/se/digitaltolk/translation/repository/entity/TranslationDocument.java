@@ -3,18 +3,30 @@
  */
 package se.digitaltolk.translation.repository.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 
+/**
+ * Stored under an alias managed by {@link se.digitaltolk.translation.service.index.TranslationIndexManager}, which
+ * creates the indices from the mapping and settings declared here.
+ */
 @Setter
 @Getter
-@Document(indexName = "translations")
+@Document(indexName = "translations", createIndex = false)
+@Setting(settingPath = "/elasticsearch/translation-settings.json")
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class TranslationDocument {
 
@@ -24,7 +36,15 @@ public class TranslationDocument {
     @Field(type = FieldType.Keyword)
     String key;
 
-    @Field(type = FieldType.Text)
+    @MultiField(
+            mainField = @Field(type = FieldType.Text),
+            otherFields = {
+                    @InnerField(suffix = "en", type = FieldType.Text, analyzer = "english"),
+                    @InnerField(suffix = "fr", type = FieldType.Text, analyzer = "french"),
+                    @InnerField(suffix = "es", type = FieldType.Text, analyzer = "spanish"),
+                    @InnerField(suffix = "prefix", type = FieldType.Text, analyzer = "translation_prefix",
+                            searchAnalyzer = "translation_prefix_search")
+            })
     String value;
 
     @Field(type = FieldType.Keyword)
@@ -39,4 +59,23 @@ public class TranslationDocument {
     @Field(type = FieldType.Long)
     Long updatedAt;
 
+    /**
+     * Sequence number and primary term of the last write, filled in by reads and writes and checked by saves of the
+     * document so that a concurrent change is rejected rather than overwritten.
+     */
+    @JsonIgnore
+    SeqNoPrimaryTerm seqNoPrimaryTerm;
+
+    @Transient
+    @JsonProperty("seqNo")
+    public Long getSeqNo() {
+        return seqNoPrimaryTerm == null ? null : seqNoPrimaryTerm.sequenceNumber();
+    }
+
+    @Transient
+    @JsonProperty("primaryTerm")
+    public Long getPrimaryTerm() {
+        return seqNoPrimaryTerm == null ? null : seqNoPrimaryTerm.primaryTerm();
+    }
+
 }
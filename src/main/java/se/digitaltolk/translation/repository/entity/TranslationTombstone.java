@@ -0,0 +1,44 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.repository.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * Marker of a deleted translation, kept for the retention of delta syncs so clients learn about the deletion.
+ * Stored under the id of the deleted translation. A translation that moved to another locale or tag under the same
+ * id leaves a tombstone of its own id, which names the moved translation in {@code translationId}.
+ */
+@Setter
+@Getter
+@Document(indexName = "translation-tombstones")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TranslationTombstone {
+
+    @Id
+    String id;
+
+    @Field(type = FieldType.Keyword)
+    String translationId;
+
+    @Field(type = FieldType.Keyword)
+    String key;
+
+    @Field(type = FieldType.Keyword)
+    String locale;
+
+    @Field(type = FieldType.Keyword)
+    String tag;
+
+    @Field(type = FieldType.Long)
+    Long deletedAt;
+
+}
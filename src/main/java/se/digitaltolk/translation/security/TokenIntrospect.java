@@ -3,24 +3,24 @@
  */
 package se.digitaltolk.translation.security;
 
-import static io.vavr.API.$;
-import static io.vavr.API.Case;
 import static java.util.Optional.ofNullable;
-import static org.apache.commons.lang3.BooleanUtils.isFalse;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.exceptions.JWTDecodeException;
-import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.vavr.control.Either;
+import io.vavr.control.Option;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Map;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.AuthenticationException;
@@ -30,55 +30,72 @@ import org.springframework.security.oauth2.server.resource.InvalidBearerTokenExc
 import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
 import se.digitaltolk.translation.security.util.JwtUtils;
 
+/**
+ * Verifies bearer tokens once and keeps the resulting principal until the token expires, so repeated requests
+ * with the same token skip signature and claims parsing. Only successfully verified tokens are cached.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class TokenIntrospect implements ReactiveOpaqueTokenIntrospector {
 
+    public static final String CACHE_NAME = "token-principals";
+
+    private static final String EXPIRATION_ATTRIBUTE = "exp";
+
     JwtUtils jwtUtils;
 
-    ObjectMapper objectMapper;
+    Cache<HashCode, OAuth2AuthenticatedPrincipal> principals;
+
+    public TokenIntrospect(
+            final JwtUtils jwtUtils,
+            final TranslationProperties translationProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        this.jwtUtils = jwtUtils;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(translationProperties.getTokenCache().getMaximumSize())
+                .expireAfter(Expiry.creating((HashCode digest, OAuth2AuthenticatedPrincipal principal) ->
+                        timeToExpiration(principal)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
 
     @Override
     public Mono<OAuth2AuthenticatedPrincipal> introspect(final String token) {
-        final Either<AuthenticationException, OAuth2AuthenticatedPrincipal> result = io.vavr.API.Match(token)
-                .of(
-                        Case($(t -> isFalse(jwtUtils.validateJwtToken(t))),
-                                Either.left(new InvalidBearerTokenException("Invalid JWT token"))),
-                        Case($(), Either.right(authenticate(token, decode(token))))
-                );
+        final HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        final OAuth2AuthenticatedPrincipal cached = principals.getIfPresent(digest);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        final Either<AuthenticationException, OAuth2AuthenticatedPrincipal> result =
+                Option.ofOptional(jwtUtils.parseClaims(token))
+                        .<AuthenticationException>toEither(() -> new InvalidBearerTokenException("Invalid JWT token"))
+                        .flatMap(claims -> authenticate(token, claims))
+                        .peek(principal -> principals.put(digest, principal));
         return result.fold(Mono::error, Mono::just);
     }
 
-    private Map<String, Object> decode(final String token) {
-        try {
-            final DecodedJWT jwt = JWT.decode(token);
-            final String base64EncodedBody = jwt.getPayload();
-            final String body = new String(Base64.getUrlDecoder().decode(base64EncodedBody));
-            final Map<String, Object> map = objectMapper.readValue(body, new TypeReference<>() {
-            });
-            map.put("token", token);
-            return map;
-        } catch (JWTDecodeException | JsonProcessingException e) {
-            log.warn("Failed to decode JWT token", e);
-            throw new InvalidBearerTokenException("Failed to decode JWT token", e);
-        }
+    private Either<AuthenticationException, OAuth2AuthenticatedPrincipal> authenticate(
+            final String token,
+            final Claims claims
+    ) {
+        return Option.ofOptional(ofNullable(claims.getSubject())
+                        .or(() -> ofNullable(claims.get("username", String.class))))
+                .<AuthenticationException>toEither(() -> new InvalidBearerTokenException("Missing username in token"))
+                .map(username -> new DefaultOAuth2AuthenticatedPrincipal(username,
+                        Map.of(EXPIRATION_ATTRIBUTE, claims.getExpiration().toInstant(), "token", token),
+                        new ArrayList<>()));
     }
 
-    private OAuth2AuthenticatedPrincipal authenticate(final String token, final Map<String, Object> claims) {
-        final String username = ofNullable((String) claims.get("sub"))
-                .or(() -> ofNullable((String) claims.get("username")))
-                .orElseThrow(() -> new InvalidBearerTokenException("Missing username in token"));
-        final Instant expiration = ofNullable(claims.get("exp"))
-                .map(Object::toString)
-                .map(Long::parseLong)
-                .map(Instant::ofEpochSecond)
-                .orElse(Instant.EPOCH);
-        return new DefaultOAuth2AuthenticatedPrincipal(
-                username, Map.of("exp", expiration, "token", token), new ArrayList<>());
+    private static Duration timeToExpiration(final OAuth2AuthenticatedPrincipal principal) {
+        final Instant expiration = principal.getAttribute(EXPIRATION_ATTRIBUTE);
+        final Duration remaining = Duration.between(Instant.now(), expiration);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
     }
 
 }
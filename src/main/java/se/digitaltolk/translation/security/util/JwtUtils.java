@@ -5,12 +5,13 @@ package se.digitaltolk.translation.security.util;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import java.util.Date;
+import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -19,16 +20,32 @@ import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-@FieldDefaults(level = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class JwtUtils {
 
-    @Value("${app.jwtSecret:secret-key}")
-    String jwtSecret;
+    JwtParser jwtParser;
+
+    public JwtUtils(@Value("${app.jwtSecret:secret-key}") final String jwtSecret) {
+        this.jwtParser = Jwts.parser().setSigningKey(jwtSecret.getBytes());
+    }
 
     public boolean validateJwtToken(final String authToken) {
+        return parseClaims(authToken).isPresent();
+    }
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims from the same parse, empty when the
+     * token is not valid or carries no expiry.
+     */
+    public Optional<Claims> parseClaims(final String authToken) {
         try {
-            final Jws<Claims> claimsJws = parseClaimsJws(authToken);
-            return !claimsJws.getBody().getExpiration().before(new Date());
+            final Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            final Date expiration = claims.getExpiration();
+            if (expiration == null || expiration.before(new Date())) {
+                log.error("JWT token has no valid expiration: {}", expiration);
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -40,12 +57,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
-    }
-
-    private Jws<Claims> parseClaimsJws(final String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret.getBytes())
-                .parseClaimsJws(token);
+        return Optional.empty();
     }
 }
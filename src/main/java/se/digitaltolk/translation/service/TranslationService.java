@@ -2,20 +2,47 @@ package se.digitaltolk.translation.service;
 
 
 import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.cache.TranslationBundle;
+import se.digitaltolk.translation.service.sync.TranslationChangeSet;
+import se.digitaltolk.translation.web.dto.BulkItemResult;
+import se.digitaltolk.translation.web.dto.MissingTranslation;
+import se.digitaltolk.translation.web.dto.TranslationChange;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+import se.digitaltolk.translation.web.dto.TranslationImportProgress;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationLookup;
+import se.digitaltolk.translation.web.dto.TranslationLookupResult;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationSearchPage;
+import se.digitaltolk.translation.web.dto.TranslationStats;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 
 public interface TranslationService {
 
     Mono<TranslationDocument> findByTranslationId(final String translationId);
 
+    Mono<TranslationDocument> findByNaturalKey(final String key, final String locale, final String tag);
+
+    Flux<TranslationLookupResult> multiGetTranslations(final List<TranslationLookup> lookups);
+
     Mono<TranslationDocument> createTranslation(final TranslationCreateRequest request);
 
     Mono<TranslationDocument> updateTranslation(final String translationId, final TranslationUpdateRequest request);
 
+    Mono<TranslationDocument> patchTranslation(
+            final String translationId,
+            final TranslationPatchRequest request,
+            final Long ifSeqNo,
+            final Long ifPrimaryTerm);
+
     Flux<TranslationDocument> searchTranslations(
             final String key,
             final String tag,
@@ -24,8 +51,55 @@ public interface TranslationService {
             final int page,
             final int size);
 
+    Mono<TranslationSearchPage> searchTranslationsByCursor(
+            final String key,
+            final String tag,
+            final String locale,
+            final String value,
+            final String cursor,
+            final int size);
+
+    Flux<TranslationDocument> suggestTranslations(
+            final String prefix,
+            final String locale,
+            final String tag,
+            final int size);
+
+    Flux<TranslationDocument> exportTranslations(final String locale, final String tag);
+
+    Mono<TranslationChangeSet> findChanges(final Long since, final String locale, final String tag);
+
+    Flux<ServerSentEvent<TranslationChange>> streamChanges(
+            final String locale,
+            final String tag,
+            final TranslationFeedOverflow overflow);
+
+    Mono<TranslationJob> submitJob(final TranslationJobRequest request);
+
+    Mono<TranslationJob> findJob(final String jobId);
+
+    Mono<TranslationJob> cancelJob(final String jobId);
+
+    Mono<TranslationBundle> findBundle(final String locale, final String tag);
+
+    Mono<TranslationStats> findStats();
+
+    Flux<MissingTranslation> findMissingTranslations(
+            final String source,
+            final List<String> locales,
+            final String tag);
+
     Mono<Void> deleteTranslation(final String translationId);
 
     Mono<Void> bulkCreateTranslations(final List<TranslationCreateRequest> requests);
 
+    Flux<BulkItemResult> importTranslations(final Flux<TranslationCreateRequest> requests, final boolean relaxed);
+
+    Flux<TranslationImportProgress> importFile(
+            final TranslationFileFormat format,
+            final Flux<DataBuffer> content,
+            final String locale,
+            final String tag,
+            final boolean relaxed);
+
 }
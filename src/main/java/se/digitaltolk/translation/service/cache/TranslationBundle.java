@@ -0,0 +1,33 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.cache;
+
+import java.util.Map;
+import se.digitaltolk.translation.web.support.ContentCoding;
+
+/**
+ * Pre-serialized flat {@code key -> value} JSON bundle of one locale and tag together with its strong ETag, and the
+ * body precompressed with each {@link ContentCoding} unless the bundle is too small to be worth compressing.
+ */
+public record TranslationBundle(byte[] body, String etag, Map<ContentCoding, byte[]> encodedBodies) {
+
+    public TranslationBundle(final byte[] body, final String etag) {
+        this(body, etag, Map.of());
+    }
+
+    public boolean isEncoded(final ContentCoding coding) {
+        return encodedBodies.containsKey(coding);
+    }
+
+    public byte[] body(final ContentCoding coding) {
+        return coding == null ? body : encodedBodies.get(coding);
+    }
+
+    /**
+     * Each encoding is a representation of its own and so carries an ETag of its own.
+     */
+    public String etag(final ContentCoding coding) {
+        return coding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + coding.token() + "\"";
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.EnumUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.metrics.CompressionMeters;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+import se.digitaltolk.translation.web.support.ContentCoding;
+
+/**
+ * Materialized bundle per {@link TranslationLocale} x {@link TranslationTag}. A bundle is loaded from
+ * Elasticsearch on first use and afterwards kept current by the writes of {@code TranslationService}, which
+ * patch its entries and drop the serialized form so it is rebuilt on the next read. Writes through other
+ * instances are only picked up when a bundle is loaded again, which happens on the first read after
+ * {@code app.translation.cache.bundle-expire-after-load}. The serialized form is compressed once per content
+ * coding when it is built, so serving a compressed bundle costs no compression.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationBundleCache {
+
+    private static final String COMPRESSION_SOURCE = "bundle";
+
+    ObjectMapper objectMapper;
+
+    TranslationProperties translationProperties;
+
+    MeterRegistry meterRegistry;
+
+    BundleHolder[][] holders;
+
+    public TranslationBundleCache(
+            final ObjectMapper objectMapper,
+            final TranslationProperties translationProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.translationProperties = translationProperties;
+        this.meterRegistry = meterRegistry;
+        this.holders = new BundleHolder[TranslationLocale.values().length][TranslationTag.values().length];
+        for (TranslationLocale locale : TranslationLocale.values()) {
+            for (TranslationTag tag : TranslationTag.values()) {
+                holders[locale.ordinal()][tag.ordinal()] = new BundleHolder(locale, tag);
+            }
+        }
+    }
+
+    public Mono<TranslationBundle> get(
+            final TranslationLocale locale,
+            final TranslationTag tag,
+            final Supplier<Flux<TranslationDocument>> source
+    ) {
+        return holders[locale.ordinal()][tag.ordinal()].bundle(source);
+    }
+
+    public void onSaved(final TranslationDocument document) {
+        onDeleted(document.getId());
+        final TranslationLocale locale = EnumUtils.getEnum(TranslationLocale.class, document.getLocale());
+        final TranslationTag tag = EnumUtils.getEnum(TranslationTag.class, document.getTag());
+        if (locale != null && tag != null) {
+            holders[locale.ordinal()][tag.ordinal()].apply(document.getId(), BundleEntry.of(document));
+        }
+    }
+
+    public void onDeleted(final String translationId) {
+        for (BundleHolder[] byTag : holders) {
+            for (BundleHolder holder : byTag) {
+                holder.apply(translationId, null);
+            }
+        }
+    }
+
+    /**
+     * Drops every bundle so each is loaded again on its next read, for changes made in Elasticsearch by other means
+     * than the writes of this application.
+     */
+    public void invalidateAll() {
+        log.info("Invalidating all translation bundles");
+        for (BundleHolder[] byTag : holders) {
+            for (BundleHolder holder : byTag) {
+                holder.invalidate();
+            }
+        }
+    }
+
+    private Map<ContentCoding, byte[]> encode(final byte[] body) {
+        final TranslationProperties.Compression compression = translationProperties.getCompression();
+        if (!compression.isEnabled() || body.length < compression.getMinResponseSize().toBytes()) {
+            return Map.of();
+        }
+        final Map<ContentCoding, byte[]> encodedBodies = new EnumMap<>(ContentCoding.class);
+        for (ContentCoding coding : ContentCoding.values()) {
+            final long start = System.nanoTime();
+            final byte[] encoded = coding.encode(body);
+            CompressionMeters.record(meterRegistry, COMPRESSION_SOURCE, coding.token(), System.nanoTime() - start,
+                    body.length, encoded.length);
+            encodedBodies.put(coding, encoded);
+        }
+        return encodedBodies;
+    }
+
+    private record BundleEntry(String key, String value, long updatedAt) {
+
+        static BundleEntry of(final TranslationDocument document) {
+            return new BundleEntry(document.getKey(), document.getValue(),
+                    document.getUpdatedAt() == null ? 0L : document.getUpdatedAt());
+        }
+    }
+
+    /**
+     * Entries are keyed by document id so deletes, which only carry the id, can be applied. Writes observed
+     * while the initial load is in flight are kept aside and laid over the loaded entries once it completes,
+     * as they are at least as recent as the search that produced them. A load that was in flight when the holder
+     * got invalidated is discarded and the read starts a new one.
+     */
+    private final class BundleHolder {
+
+        private final TranslationLocale locale;
+        private final TranslationTag tag;
+        private final Map<String, BundleEntry> entries = new HashMap<>();
+        private Map<String, BundleEntry> pending;
+        private Mono<TranslationBundle> loading;
+        private boolean loaded;
+        private long generation;
+        private volatile long expiresAtNanos;
+        private volatile TranslationBundle bundle;
+
+        private BundleHolder(final TranslationLocale locale, final TranslationTag tag) {
+            this.locale = locale;
+            this.tag = tag;
+        }
+
+        Mono<TranslationBundle> bundle(final Supplier<Flux<TranslationDocument>> source) {
+            final TranslationBundle current = bundle;
+            if (current != null && System.nanoTime() - expiresAtNanos < 0) {
+                return Mono.just(current);
+            }
+            synchronized (this) {
+                if (loaded && System.nanoTime() - expiresAtNanos >= 0) {
+                    log.debug("Translation bundle locale=[{}], tag=[{}] expired", locale, tag);
+                    invalidate();
+                }
+                if (loaded) {
+                    return Mono.fromCallable(this::serialize);
+                }
+                if (loading == null) {
+                    log.info("Materializing translation bundle locale=[{}], tag=[{}]", locale, tag);
+                    pending = new HashMap<>();
+                    final long loadGeneration = generation;
+                    final long startNanos = System.nanoTime();
+                    loading = source.get()
+                            .collectMap(TranslationDocument::getId, BundleEntry::of)
+                            .flatMap(loadedEntries -> Mono.justOrEmpty(
+                                    complete(loadGeneration, startNanos, loadedEntries)))
+                            .switchIfEmpty(Mono.defer(() -> bundle(source)))
+                            .doOnError(error -> reset(loadGeneration, error))
+                            .cache();
+                }
+                return loading;
+            }
+        }
+
+        synchronized void apply(final String translationId, final BundleEntry entry) {
+            if (loaded) {
+                final BundleEntry previous = entry == null
+                        ? entries.remove(translationId)
+                        : entries.put(translationId, entry);
+                if (previous != null || entry != null) {
+                    bundle = null;
+                }
+            } else if (pending != null) {
+                pending.put(translationId, entry);
+            }
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            entries.clear();
+            pending = null;
+            loading = null;
+            loaded = false;
+            bundle = null;
+        }
+
+        /**
+         * Returns null when the holder was invalidated while loading.
+         */
+        private synchronized TranslationBundle complete(
+                final long loadGeneration,
+                final long startNanos,
+                final Map<String, BundleEntry> loadedEntries
+        ) {
+            if (loadGeneration != generation) {
+                return null;
+            }
+            expiresAtNanos = startNanos + translationProperties.getCache().getBundleExpireAfterLoad().toNanos();
+            entries.putAll(loadedEntries);
+            pending.forEach((translationId, entry) -> {
+                if (entry == null) {
+                    entries.remove(translationId);
+                } else {
+                    entries.put(translationId, entry);
+                }
+            });
+            pending = null;
+            loading = null;
+            loaded = true;
+            return serialize();
+        }
+
+        private synchronized void reset(final long loadGeneration, final Throwable error) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            log.error("Failed to materialize translation bundle locale=[{}], tag=[{}]", locale, tag, error);
+            pending = null;
+            loading = null;
+        }
+
+        /**
+         * Sorted by key so the same content always produces the same bytes and ETag. When a key occurs more
+         * than once the most recently updated value wins.
+         */
+        private synchronized TranslationBundle serialize() {
+            if (bundle != null) {
+                return bundle;
+            }
+            final Map<String, String> sorted = new TreeMap<>();
+            entries.values().stream()
+                    .sorted(Comparator.comparingLong(BundleEntry::updatedAt))
+                    .forEach(entry -> sorted.put(entry.key(), entry.value()));
+            try {
+                final byte[] body = objectMapper.writeValueAsBytes(sorted);
+                final String etag = "\"" + Hashing.sha256().hashBytes(body) + "\"";
+                bundle = new TranslationBundle(body, etag, encode(body));
+                return bundle;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize translation bundle " + locale + "/" + tag, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * Bounded in-process cache of translations by id. Writes going through this instance update it directly,
+ * writes made by other instances become visible after refresh or expiry.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationNearCache {
+
+    public static final String CACHE_NAME = "translations";
+
+    AsyncLoadingCache<String, TranslationDocument> cache;
+
+    public TranslationNearCache(
+            final TranslationRepository translationRepository,
+            final TranslationProperties translationProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        final TranslationProperties.Cache properties = translationProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<>() {
+
+                    @Override
+                    public CompletableFuture<TranslationDocument> asyncLoad(
+                            final String translationId,
+                            final Executor executor
+                    ) {
+                        return translationRepository.findById(translationId).toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, TranslationDocument>> asyncLoadAll(
+                            final Set<? extends String> translationIds,
+                            final Executor executor
+                    ) {
+                        return translationRepository.findAllById(new ArrayList<>(translationIds))
+                                .collectMap(TranslationDocument::getId)
+                                .toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Emits the cached translation, loading it on a miss. Concurrent misses for the same id share one load,
+     * which is why a cancelled subscriber must not cancel the underlying future.
+     */
+    public Mono<TranslationDocument> get(final String translationId) {
+        return Mono.fromFuture(() -> cache.get(translationId), true);
+    }
+
+    /**
+     * Emits the cached translations of the given ids, loading all misses with a single multi-get. Ids that do not
+     * exist are absent from the map.
+     */
+    public Mono<Map<String, TranslationDocument>> getAll(final Collection<String> translationIds) {
+        return Mono.fromFuture(() -> cache.getAll(translationIds), true);
+    }
+
+    public void put(final TranslationDocument document) {
+        cache.put(document.getId(), CompletableFuture.completedFuture(document));
+    }
+
+    public void invalidate(final String translationId) {
+        log.debug("Invalidate cached translation [{}]", translationId);
+        cache.synchronous().invalidate(translationId);
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidate all cached translations");
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.cache;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.PointInTimeScan;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+import se.digitaltolk.translation.service.sync.TranslationTombstones;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+
+/**
+ * Optional in-process copy of every translation, answering key lookups and bundle reads without I/O. It is
+ * loaded with a point-in-time scan once the application is ready and afterwards polls for documents and tombstones
+ * past the watermark; writes going through this instance are applied directly. Until the
+ * first load completes {@link #isReady()} is false and callers are expected to fall back to Elasticsearch.
+ *
+ * <p>Entries are compact: locale and tag are stored as enum ordinals, keys are kept once in a dictionary that
+ * assigns them an int id, values are interned, and lookups go through one {@code int -> entries} hash index per
+ * locale. Keys stay in the dictionary after their last translation is deleted. Each entry keeps the sequence number
+ * and primary term it was read or written with, so replica answers can be followed by a conditional update.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationReadReplica {
+
+    private static final String UPDATED_AT_FIELD = "updatedAt";
+
+    /**
+     * Rough per-object sizes on a 64-bit JVM with compressed oops, used only for the heap footprint gauge.
+     */
+    private static final long ENTRY_BYTES = 64;
+    private static final long STRING_BYTES = 40;
+    private static final long INDEX_SLOT_BYTES = 32;
+
+    private static final ReplicaEntry[] NO_ENTRIES = new ReplicaEntry[0];
+
+    private static final long NO_VERSION = -1L;
+
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    TranslationProperties translationProperties;
+
+    boolean enabled;
+
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    ObjectIntHashMap<String> keyIds = new ObjectIntHashMap<>();
+
+    FastList<String> keys = FastList.newList();
+
+    IntObjectHashMap<ReplicaEntry[]>[] byLocale;
+
+    UnifiedMap<String, ReplicaEntry> byId = UnifiedMap.newMap();
+
+    /**
+     * Ids deleted through this instance with the time of deletion, so a scan that still sees the document
+     * does not bring it back.
+     */
+    Map<String, Long> recentDeletes = new HashMap<>();
+
+    Interner<String> values = Interners.newWeakInterner();
+
+    AtomicLong watermark = new AtomicLong(Long.MIN_VALUE);
+
+    @NonFinal
+    volatile boolean ready;
+
+    @NonFinal
+    volatile Disposable subscription;
+
+    @SuppressWarnings("unchecked")
+    public TranslationReadReplica(
+            final ReactiveElasticsearchTemplate elasticsearchTemplate,
+            final TranslationProperties translationProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.translationProperties = translationProperties;
+        this.enabled = translationProperties.getReplica().isEnabled();
+        this.byLocale = new IntObjectHashMap[TranslationLocale.values().length];
+        for (TranslationLocale locale : TranslationLocale.values()) {
+            byLocale[locale.ordinal()] = new IntObjectHashMap<>();
+        }
+        if (enabled) {
+            Gauge.builder("translation.replica.entries", this, TranslationReadReplica::size)
+                    .description("Translations held by the in-memory read replica")
+                    .register(meterRegistry);
+            Gauge.builder("translation.replica.heap", this, TranslationReadReplica::estimatedHeapBytes)
+                    .description("Estimated heap footprint of the in-memory read replica")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || subscription != null) {
+            return;
+        }
+        final TranslationProperties.Replica properties = translationProperties.getReplica();
+        log.info("Loading translation read replica");
+        subscription = scan(TranslationDocument.class, UPDATED_AT_FIELD, null)
+                .doOnNext(this::apply)
+                .then(Mono.fromRunnable(() -> {
+                    ready = true;
+                    log.info("Loaded translation read replica with [{}] translations", size());
+                }))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(properties.getPollInterval())
+                        .doBeforeRetry(signal -> log.warn("Retrying load of translation read replica",
+                                signal.failure())))
+                .thenMany(Flux.interval(properties.getPollInterval()))
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The translation of a key in a locale, restricted to a tag when one is given. Of several candidates the most
+     * recently updated wins.
+     */
+    public Optional<TranslationDocument> find(final String key, final String locale, final String tag) {
+        final TranslationLocale translationLocale = EnumUtils.getEnum(TranslationLocale.class, locale);
+        final TranslationTag translationTag = EnumUtils.getEnum(TranslationTag.class, tag);
+        if (translationLocale == null || (StringUtils.isNotEmpty(tag) && translationTag == null)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            final int keyId = keyIds.getIfAbsent(key, -1);
+            final ReplicaEntry[] entries = keyId < 0 ? null : byLocale[translationLocale.ordinal()].get(keyId);
+            ReplicaEntry latest = null;
+            for (ReplicaEntry entry : entries == null ? NO_ENTRIES : entries) {
+                if ((translationTag == null || entry.tag() == translationTag.ordinal())
+                        && (latest == null || entry.updatedAt() > latest.updatedAt())) {
+                    latest = entry;
+                }
+            }
+            return Optional.ofNullable(latest).map(this::toDocument);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every translation of a locale and tag, the source of a bundle.
+     */
+    public List<TranslationDocument> findAll(final TranslationLocale locale, final TranslationTag tag) {
+        lock.readLock().lock();
+        try {
+            final List<TranslationDocument> documents = new ArrayList<>();
+            byLocale[locale.ordinal()].forEachValue(entries -> {
+                for (ReplicaEntry entry : entries) {
+                    if (entry.tag() == tag.ordinal()) {
+                        documents.add(toDocument(entry));
+                    }
+                }
+            });
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onSaved(final TranslationDocument document) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            recentDeletes.remove(document.getId());
+            upsert(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onDeleted(final String translationId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            recentDeletes.put(translationId, System.currentTimeMillis());
+            remove(translationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the watermark back so the next poll re-reads everything changed since the given time, for changes made
+     * in Elasticsearch by other means than the writes of this application.
+     */
+    public void rewind(final long since) {
+        watermark.accumulateAndGet(since, Math::min);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximation of the retained heap, counting shared key and value strings once per reference.
+     */
+    public long estimatedHeapBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = keys.sumOfInt(key -> (int) (STRING_BYTES + key.length() + INDEX_SLOT_BYTES));
+            for (ReplicaEntry entry : byId.values()) {
+                bytes += ENTRY_BYTES + INDEX_SLOT_BYTES * 2 + STRING_BYTES * 2 + entry.id().length()
+                        + StringUtils.length(entry.value());
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a document read from Elasticsearch, which may be older than what this instance already holds.
+     */
+    void apply(final TranslationDocument document) {
+        final long updatedAt = updatedAt(document);
+        lock.writeLock().lock();
+        try {
+            final Long deletedAt = recentDeletes.get(document.getId());
+            final ReplicaEntry current = byId.get(document.getId());
+            if ((deletedAt == null || updatedAt > deletedAt) && (current == null || updatedAt >= current.updatedAt())) {
+                upsert(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark.accumulateAndGet(updatedAt, Math::max);
+    }
+
+    /**
+     * Applies a deletion made by any instance unless the translation was written again after it.
+     */
+    void applyDeleted(final TranslationTombstone tombstone) {
+        final long deletedAt = tombstone.getDeletedAt() == null ? 0L : tombstone.getDeletedAt();
+        lock.writeLock().lock();
+        try {
+            final ReplicaEntry current = byId.get(tombstone.getId());
+            if (current != null && current.updatedAt() <= deletedAt) {
+                remove(tombstone.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark.accumulateAndGet(deletedAt, Math::max);
+    }
+
+    /**
+     * Fetches everything updated or deleted since the watermark, less an overlap covering clock skew between instances and
+     * the refresh interval of the index. Re-applying a document already seen is harmless.
+     */
+    Mono<Void> poll() {
+        final Duration overlap = translationProperties.getReplica().getPollOverlap();
+        final long since = watermark.get() == Long.MIN_VALUE ? 0L : watermark.get() - overlap.toMillis();
+        lock.writeLock().lock();
+        try {
+            recentDeletes.values().removeIf(deletedAt -> deletedAt < System.currentTimeMillis() - 2 * overlap.toMillis());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return scan(TranslationDocument.class, UPDATED_AT_FIELD, since)
+                .doOnNext(this::apply)
+                .count()
+                .flatMap(updated -> scan(TranslationTombstone.class, TranslationTombstones.DELETED_AT_FIELD, since)
+                        .doOnNext(this::applyDeleted)
+                        .count()
+                        .map(deleted -> updated + deleted))
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Applied [{}] changed translations to the read replica", count);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to poll translation changes for the read replica", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private <T> Flux<T> scan(final Class<T> type, final String field, final Long since) {
+        final TranslationProperties.Export export = translationProperties.getExport();
+        return PointInTimeScan.scan(elasticsearchTemplate, type,
+                since == null ? new Criteria() : Criteria.where(field).greaterThanEqual(since),
+                field, export.getPageSize(), export.getKeepAlive());
+    }
+
+    private void upsert(final TranslationDocument document) {
+        final TranslationLocale locale = EnumUtils.getEnum(TranslationLocale.class, document.getLocale());
+        final TranslationTag tag = EnumUtils.getEnum(TranslationTag.class, document.getTag());
+        remove(document.getId());
+        if (locale == null || tag == null || document.getKey() == null) {
+            log.debug("Translation [{}] has no known locale and tag, not replicated", document.getId());
+            return;
+        }
+        final int keyId = keyIds.getIfAbsentPut(document.getKey(), () -> {
+            keys.add(document.getKey());
+            return keys.size() - 1;
+        });
+        final ReplicaEntry entry = new ReplicaEntry(document.getId(), keyId,
+                document.getValue() == null ? null : values.intern(document.getValue()),
+                (byte) locale.ordinal(), (byte) tag.ordinal(),
+                document.getCreatedAt() == null ? 0L : document.getCreatedAt(), updatedAt(document),
+                document.getSeqNo() == null ? NO_VERSION : document.getSeqNo(),
+                document.getPrimaryTerm() == null ? NO_VERSION : document.getPrimaryTerm());
+        final ReplicaEntry[] current = byLocale[locale.ordinal()].getIfAbsent(keyId, () -> NO_ENTRIES);
+        final ReplicaEntry[] entries = new ReplicaEntry[current.length + 1];
+        System.arraycopy(current, 0, entries, 0, current.length);
+        entries[current.length] = entry;
+        byLocale[locale.ordinal()].put(keyId, entries);
+        byId.put(entry.id(), entry);
+    }
+
+    private void remove(final String translationId) {
+        final ReplicaEntry removed = byId.remove(translationId);
+        if (removed == null) {
+            return;
+        }
+        final IntObjectHashMap<ReplicaEntry[]> index = byLocale[removed.locale()];
+        final ReplicaEntry[] current = index.get(removed.keyId());
+        final ReplicaEntry[] entries = new ReplicaEntry[current.length - 1];
+        int next = 0;
+        for (ReplicaEntry entry : current) {
+            if (entry != removed) {
+                entries[next++] = entry;
+            }
+        }
+        if (entries.length == 0) {
+            index.remove(removed.keyId());
+        } else {
+            index.put(removed.keyId(), entries);
+        }
+    }
+
+    private TranslationDocument toDocument(final ReplicaEntry entry) {
+        final TranslationDocument document = new TranslationDocument();
+        document.setId(entry.id());
+        document.setKey(keys.get(entry.keyId()));
+        document.setValue(entry.value());
+        document.setLocale(TranslationLocale.values()[entry.locale()].name());
+        document.setTag(TranslationTag.values()[entry.tag()].name());
+        document.setCreatedAt(entry.createdAt() == 0L ? null : entry.createdAt());
+        document.setUpdatedAt(entry.updatedAt());
+        if (entry.primaryTerm() != NO_VERSION) {
+            document.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(entry.seqNo(), entry.primaryTerm()));
+        }
+        return document;
+    }
+
+    private static long updatedAt(final TranslationDocument document) {
+        return document.getUpdatedAt() == null ? 0L : document.getUpdatedAt();
+    }
+
+    private record ReplicaEntry(
+            String id,
+            int keyId,
+            String value,
+            byte locale,
+            byte tag,
+            long createdAt,
+            long updatedAt,
+            long seqNo,
+            long primaryTerm) {
+
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.web.dto.TranslationStats;
+
+/**
+ * Keeps the last computed {@link TranslationStats} for {@code app.translation.stats.ttl}, so dashboards polling
+ * them every few seconds share one aggregation. Concurrent misses share one computation as well. Writes through
+ * this instance invalidate the statistics; as Elasticsearch counts a write only once the index refreshed,
+ * statistics computed within {@code app.translation.index.refresh-interval} of a write expire when that interval
+ * ends instead of after the ttl. Hits and misses are counted in {@code cache.gets}.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationStatsCache {
+
+    public static final String CACHE_NAME = "translation-stats";
+
+    TranslationProperties translationProperties;
+
+    Counter hits;
+
+    Counter misses;
+
+    State state = new State();
+
+    public TranslationStatsCache(final TranslationProperties translationProperties, final MeterRegistry meterRegistry) {
+        this.translationProperties = translationProperties;
+        this.hits = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value.")
+                .register(meterRegistry);
+    }
+
+    public Mono<TranslationStats> get(final Supplier<Mono<TranslationStats>> source) {
+        return Mono.defer(() -> state.get(source));
+    }
+
+    public void invalidate() {
+        state.invalidate();
+    }
+
+    private record Cached(TranslationStats stats, long expiresAtNanos) {
+
+    }
+
+    /**
+     * A computation that was in flight when the statistics got invalidated still answers the reads waiting for it,
+     * which asked before the write, but is not kept for later ones.
+     */
+    private final class State {
+
+        private volatile Cached cached;
+        private Mono<TranslationStats> loading;
+        private long generation;
+        private long lastWriteNanos;
+        private boolean written;
+
+        Mono<TranslationStats> get(final Supplier<Mono<TranslationStats>> source) {
+            final Cached current = cached;
+            if (current != null && System.nanoTime() - current.expiresAtNanos < 0) {
+                hits.increment();
+                return Mono.just(current.stats);
+            }
+            synchronized (this) {
+                misses.increment();
+                if (loading == null) {
+                    final long loadGeneration = generation;
+                    final long startNanos = System.nanoTime();
+                    loading = source.get()
+                            .doOnNext(stats -> complete(loadGeneration, startNanos, stats))
+                            .doOnError(error -> reset(loadGeneration, error))
+                            .cache();
+                }
+                return loading;
+            }
+        }
+
+        synchronized void invalidate() {
+            generation++;
+            lastWriteNanos = System.nanoTime();
+            written = true;
+            cached = null;
+            loading = null;
+        }
+
+        private synchronized void complete(final long loadGeneration, final long startNanos, final TranslationStats stats) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            cached = new Cached(stats, startNanos + timeToLive(startNanos).toNanos());
+            loading = null;
+        }
+
+        private synchronized void reset(final long loadGeneration, final Throwable error) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            log.error("Failed to compute translation statistics", error);
+            loading = null;
+        }
+
+        private Duration timeToLive(final long startNanos) {
+            final Duration ttl = translationProperties.getStats().getTtl();
+            final Duration refreshInterval = translationProperties.getIndex().getRefreshInterval();
+            if (!written || refreshInterval.isNegative()) {
+                return ttl;
+            }
+            final Duration unrefreshed = refreshInterval.minusNanos(startNanos - lastWriteNanos);
+            if (unrefreshed.isNegative()) {
+                return ttl;
+            }
+            return unrefreshed.compareTo(ttl) < 0 ? unrefreshed : ttl;
+        }
+    }
+}
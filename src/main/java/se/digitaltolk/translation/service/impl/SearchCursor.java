@@ -0,0 +1,48 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+
+/**
+ * Position of a cursor based search: the point-in-time it reads, the sort values of the last returned hit and
+ * the filters and page size it was started with. Handed to clients as an opaque base64url token.
+ */
+record SearchCursor(
+        String pitId,
+        List<Object> searchAfter,
+        String key,
+        String tag,
+        String locale,
+        String value,
+        int size) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    SearchCursor next(final List<Object> lastSortValues) {
+        return new SearchCursor(pitId, lastSortValues, key, tag, locale, value, size);
+    }
+
+    String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    static SearchCursor decode(final String cursor) {
+        try {
+            return OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), SearchCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, "Invalid search cursor");
+        }
+    }
+}
@@ -1,27 +1,87 @@
 package se.digitaltolk.translation.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.validation.Validator;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.VersionConflictException;
 import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import se.digitaltolk.translation.config.TranslationProperties;
 import se.digitaltolk.translation.exception.BusinessServiceException;
 import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
 import se.digitaltolk.translation.mapper.TranslationMapper;
+import se.digitaltolk.translation.repository.PointInTimeScan;
 import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
 import se.digitaltolk.translation.service.TranslationService;
+import se.digitaltolk.translation.service.cache.TranslationBundle;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationNearCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
+import se.digitaltolk.translation.service.imports.TranslationFiles;
+import se.digitaltolk.translation.service.index.TranslationIndexManager;
+import se.digitaltolk.translation.service.maintenance.TranslationMaintenanceJobs;
+import se.digitaltolk.translation.service.metrics.ReactiveMeters;
+import se.digitaltolk.translation.service.sync.TranslationChangeFeed;
+import se.digitaltolk.translation.service.sync.TranslationChangeSet;
+import se.digitaltolk.translation.service.sync.TranslationTombstones;
+import se.digitaltolk.translation.service.write.TranslationBulkIngester;
+import se.digitaltolk.translation.service.write.TranslationWriteCoalescer;
+import se.digitaltolk.translation.web.dto.BulkItemResult;
+import se.digitaltolk.translation.web.dto.BulkItemStatus;
+import se.digitaltolk.translation.web.dto.MissingTranslation;
+import se.digitaltolk.translation.web.dto.TranslationChange;
+import se.digitaltolk.translation.web.dto.TranslationChangeType;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+import se.digitaltolk.translation.web.dto.TranslationImportProgress;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationLookup;
+import se.digitaltolk.translation.web.dto.TranslationLookupResult;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationSearchPage;
+import se.digitaltolk.translation.web.dto.TranslationStats;
+import se.digitaltolk.translation.web.dto.TranslationTag;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 
 @Slf4j
@@ -30,14 +90,59 @@ import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class TranslationServiceImpl implements TranslationService {
 
+    private static final String KEY_FIELD = "key";
+    private static final String VALUE_FIELD = "value";
+    private static final String UPDATED_AT_FIELD = "updatedAt";
+    private static final String VALUE_PREFIX_FIELD = "value.prefix";
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String SEARCH_METRIC = "translation.search";
+    private static final String IMPORT_SOURCE = "import";
+
+    /**
+     * Value subfields analyzed with the stemming analyzer of their language, see {@link TranslationDocument}.
+     */
+    private static final Map<String, String> VALUE_FIELD_BY_LOCALE = Map.of(
+            TranslationLocale.EN.name(), "value.en",
+            TranslationLocale.FR.name(), "value.fr",
+            TranslationLocale.ES.name(), "value.es");
+
     TranslationRepository translationRepository;
 
     ReactiveElasticsearchTemplate elasticsearchTemplate;
 
+    TranslationProperties translationProperties;
+
+    TranslationNearCache translationNearCache;
+
+    TranslationBundleCache translationBundleCache;
+
+    TranslationStatsCache translationStatsCache;
+
+    TranslationReadReplica translationReadReplica;
+
+    TranslationTombstones translationTombstones;
+
+    TranslationChangeFeed translationChangeFeed;
+
+    TranslationWriteCoalescer translationWriteCoalescer;
+
+    TranslationMaintenanceJobs translationMaintenanceJobs;
+
+    TranslationIndexManager translationIndexManager;
+
+    TranslationBulkIngester translationBulkIngester;
+
+    MeterRegistry meterRegistry;
+
+    Validator validator;
+
     public Mono<TranslationDocument> createTranslation(final TranslationCreateRequest request) {
-        log.info("Start create translation with request [{}]", request);
-        final TranslationDocument translationDocument = TranslationMapper.toEntity(request);
-        return translationRepository.save(translationDocument)
+        log.debug("Start create translation with key [{}]", request.key());
+        final TranslationDocument translationDocument = TranslationMapper.toEntity(request, naturalKeyIds());
+        return keepCreatedAt(List.of(translationDocument))
+                .then(Mono.defer(() -> translationWriteCoalescer.save(translationDocument)))
+                .doOnNext(translationNearCache::put)
+                .doOnNext(this::onSaved)
                 .doOnSuccess(
                         t -> log.info("Successfully created translation [{}] with key [{}]", t.getId(), t.getKey()))
                 .doOnError(e -> log.error("Error creating translation with key [{}]", request.key(), e));
@@ -47,58 +152,581 @@ public class TranslationServiceImpl implements TranslationService {
             final String translationId,
             final TranslationUpdateRequest request
     ) {
-        log.info("Start update translation for translationId [{}] with request [{}]", translationId, request);
+        log.debug("Start update translation [{}] with key [{}]", translationId, request.key());
         return translationRepository.findById(translationId)
                 .switchIfEmpty(Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
                         "Translation not found: " + translationId)))
                 .flatMap(existing -> {
+                    final String naturalId = TranslationMapper.naturalId(request.key(), request.locale(), request.tag());
+                    final boolean move = naturalKeyIds() && !naturalId.equals(existing.getId());
+                    final TranslationTombstone previous = TranslationTombstones.tombstoneOf(existing);
                     TranslationMapper.updateEntityFromRequest(existing, request);
-                    return translationRepository.save(existing);
+                    return move
+                            ? moveTranslation(existing, naturalId, previous)
+                            : translationWriteCoalescer.save(existing).flatMap(saved -> recordMove(previous, saved));
                 })
+                .onErrorMap(TranslationServiceImpl::isConflict, e -> concurrentChange(translationId))
+                .doOnNext(translationNearCache::put)
+                .doOnNext(this::onSaved)
                 .doOnSuccess(
                         t -> log.info("Successfully updated translation [{}] with key [{}]", t.getId(), t.getKey()))
                 .doOnError(e -> log.error("Error updating translation [{}]", translationId, e));
     }
 
+    /**
+     * With natural key ids the id of a translation changes with its key, locale or tag, so such an update writes
+     * the translation under its new id and removes the old document, leaving a tombstone of it for delta syncs.
+     */
+    private Mono<TranslationDocument> moveTranslation(
+            final TranslationDocument translation,
+            final String naturalId,
+            final TranslationTombstone previous
+    ) {
+        final String previousId = translation.getId();
+        log.info("Moving translation [{}] to natural id [{}]", previousId, naturalId);
+        translation.setId(naturalId);
+        // the document under the new id is a different one, the sequence number read applies to the old id only
+        translation.setSeqNoPrimaryTerm(null);
+        return translationWriteCoalescer.save(translation)
+                .flatMap(saved -> translationTombstones.save(previous)
+                        .then(translationRepository.deleteById(previousId))
+                        .doOnSuccess(v -> onDeleted(previous))
+                        .thenReturn(saved));
+    }
+
+    /**
+     * With random ids a translation keeps its id when its locale or tag changes, so the locale and tag it left get a
+     * tombstone of their own, published ahead of the upsert, for delta syncs and feeds filtered to them.
+     */
+    private Mono<TranslationDocument> recordMove(final TranslationTombstone previous, final TranslationDocument saved) {
+        return Mono.justOrEmpty(TranslationTombstones.movedFrom(previous, saved))
+                .flatMap(moved -> translationTombstones.save(moved)
+                        .doOnSuccess(t -> translationChangeFeed.publish(TranslationChange.delete(moved))))
+                .thenReturn(saved);
+    }
+
+    /**
+     * Applies the fields of the patch with a single update request. Given the sequence number and primary term of
+     * the version the client read, the patch is rejected with a conflict if the translation changed since;
+     * otherwise Elasticsearch retries the merge itself when it races with another write.
+     */
+    public Mono<TranslationDocument> patchTranslation(
+            final String translationId,
+            final TranslationPatchRequest request,
+            final Long ifSeqNo,
+            final Long ifPrimaryTerm
+    ) {
+        log.debug("Start patch translation [{}] if_seq_no [{}]", translationId, ifSeqNo);
+        if ((ifSeqNo == null) != (ifPrimaryTerm == null)) {
+            return Mono.error(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM,
+                    "if_seq_no and if_primary_term must be given together"));
+        }
+        if (naturalKeyIds() && request.changesIdentity()) {
+            return Mono.error(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM,
+                    "Key, locale and tag make up the id of a translation and can only be changed by a full update"));
+        }
+        final SeqNoPrimaryTerm expected = ifSeqNo == null ? null : new SeqNoPrimaryTerm(ifSeqNo, ifPrimaryTerm);
+        final Map<String, Object> fields = TranslationMapper.toPatchFields(request);
+        final int retryOnConflict = translationProperties.getPatch().getRetryOnConflict();
+        return (request.locale() != null || request.tag() != null
+                        ? patchMoving(translationId, fields, expected, retryOnConflict)
+                        : translationRepository.update(translationId, fields, expected, retryOnConflict))
+                .onErrorMap(ResourceNotFoundException.class, e -> new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
+                        "Translation not found: " + translationId))
+                .onErrorMap(TranslationServiceImpl::isConflict, e -> concurrentChange(translationId))
+                .doOnNext(translationNearCache::put)
+                .doOnNext(this::onSaved)
+                .doOnSuccess(t -> log.info("Successfully patched translation [{}] to sequence number [{}]",
+                        t.getId(), t.getSeqNo()))
+                .doOnError(e -> log.error("Error patching translation [{}]", translationId, e));
+    }
+
+    /**
+     * A patch of locale or tag reads the translation first to tombstone the locale and tag it leaves, and applies only
+     * to the version read so the tombstone names what was actually moved. Without a version from the client, a
+     * concurrent change is retried from the read like the update itself would be.
+     */
+    private Mono<TranslationDocument> patchMoving(
+            final String translationId,
+            final Map<String, Object> fields,
+            final SeqNoPrimaryTerm expected,
+            final int retryOnConflict
+    ) {
+        return Mono.defer(() -> translationRepository.findById(translationId))
+                .switchIfEmpty(Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
+                        "Translation not found: " + translationId)))
+                .flatMap(current -> {
+                    if (expected != null && !expected.equals(current.getSeqNoPrimaryTerm())) {
+                        return Mono.error(concurrentChange(translationId));
+                    }
+                    final TranslationTombstone previous = TranslationTombstones.tombstoneOf(current);
+                    return translationRepository.update(translationId, fields, current.getSeqNoPrimaryTerm(), 0)
+                            .flatMap(saved -> recordMove(previous, saved));
+                })
+                .retryWhen(Retry.max(expected == null ? retryOnConflict : 0).filter(TranslationServiceImpl::isConflict));
+    }
+
+    private static boolean isConflict(final Throwable e) {
+        return e instanceof OptimisticLockingFailureException
+                || e instanceof VersionConflictException
+                || (e instanceof UncategorizedElasticsearchException uncategorized
+                        && Integer.valueOf(HttpStatus.CONFLICT.value()).equals(uncategorized.getStatusCode()));
+    }
+
+    private static BusinessServiceException concurrentChange(final String translationId) {
+        return new BusinessServiceException(ErrorCodeEnum.CONFLICT,
+                "Translation was changed concurrently, read it again before retrying: " + translationId);
+    }
+
+    /**
+     * Brings the derived read paths and the change feed up to date with a written translation.
+     */
+    private void onSaved(final TranslationDocument translation) {
+        translationBundleCache.onSaved(translation);
+        translationStatsCache.invalidate();
+        translationReadReplica.onSaved(translation);
+        translationChangeFeed.publish(TranslationChange.upsert(translation));
+    }
+
+    private void onDeleted(final TranslationTombstone tombstone) {
+        translationNearCache.invalidate(tombstone.getId());
+        translationBundleCache.onDeleted(tombstone.getId());
+        translationStatsCache.invalidate();
+        translationReadReplica.onDeleted(tombstone.getId());
+        translationChangeFeed.publish(TranslationChange.delete(tombstone));
+    }
+
+    public Mono<TranslationDocument> findByNaturalKey(final String key, final String locale, final String tag) {
+        if (log.isDebugEnabled()) {
+            log.debug("Start query translation for key [{}], locale [{}], tag [{}]", key, locale, tag);
+        }
+        final Mono<TranslationDocument> translation;
+        if (translationReadReplica.isReady()) {
+            translation = Mono.justOrEmpty(translationReadReplica.find(key, locale, tag));
+        } else if (naturalKeyIds() && StringUtils.isNotBlank(tag)) {
+            translation = translationNearCache.get(TranslationMapper.naturalId(key, locale, tag))
+                    .switchIfEmpty(Mono.defer(() -> searchByNaturalKey(key, locale, tag)));
+        } else {
+            translation = searchByNaturalKey(key, locale, tag);
+        }
+        return translation
+                .switchIfEmpty(Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
+                        "Translation not found: " + key + " [" + locale + (tag == null ? "" : ", " + tag) + "]")))
+                .doOnError(e -> log.error("Error fetching translation with key [{}]", key, e));
+    }
+
+    /**
+     * Documents written before natural key ids were enabled, and lookups without a tag, can only be found by
+     * searching. Should a key have been created more than once, the most recently updated translation wins.
+     */
+    private Mono<TranslationDocument> searchByNaturalKey(final String key, final String locale, final String tag) {
+        final CriteriaQuery query = buildCriteriaQuery(key, tag, locale, null);
+        query.setPageable(PageRequest.of(0, 1, Sort.by(Sort.Order.desc("updatedAt"))));
+        query.setTrackTotalHits(false);
+        return elasticsearchTemplate.search(query, TranslationDocument.class)
+                .next()
+                .map(SearchHit::getContent);
+    }
+
     public Flux<TranslationDocument> searchTranslations(final String key,
             final String tag,
             final String locale,
             final String value,
             final int page,
             final int size) {
-        log.info("Start search translations with filters key=[{}], tag=[{}], locale=[{}], value=[{}]",
-                key, tag, locale, value);
+        if (log.isDebugEnabled()) {
+            log.debug("Start search translations with filters key=[{}], tag=[{}], locale=[{}], value=[{}]",
+                    key, tag, locale, value);
+        }
         final CriteriaQuery query = buildCriteriaQuery(key, tag, locale, value);
         query.setPageable(PageRequest.of(page, size));
         log.debug("Executing search with query: {}", query);
+        return ReactiveMeters.timed(elasticsearchTemplate.search(query, TranslationDocument.class)
+                                .map(SearchHit::getContent),
+                        meterRegistry, SEARCH_METRIC, searchTags("page", key, tag, locale, value))
+                .doOnComplete(() -> log.debug("Completed searchTranslations"))
+                .doOnError(e -> log.error("Error during search translations", e));
+    }
+
+    public Mono<TranslationSearchPage> searchTranslationsByCursor(
+            final String key,
+            final String tag,
+            final String locale,
+            final String value,
+            final String cursor,
+            final int size
+    ) {
+        if (log.isDebugEnabled()) {
+            log.debug("Start cursor search translations with filters key=[{}], tag=[{}], locale=[{}], value=[{}]",
+                    key, tag, locale, value);
+        }
+        final Mono<SearchCursor> current = StringUtils.isEmpty(cursor)
+                ? PointInTimeScan.open(elasticsearchTemplate, TranslationDocument.class,
+                                translationProperties.getExport().getKeepAlive())
+                        .map(pitId -> new SearchCursor(pitId, null, key, tag, locale, value, size))
+                : Mono.fromCallable(() -> SearchCursor.decode(cursor));
+        return current
+                .flatMap(position -> {
+                    final Tags tags = searchTags("cursor", position.key(), position.tag(), position.locale(),
+                            position.value());
+                    final Mono<List<SearchHit<TranslationDocument>>> hits = PointInTimeScan.page(
+                            elasticsearchTemplate, TranslationDocument.class,
+                            buildCriteria(position.key(), position.tag(), position.locale(), position.value()),
+                            KEY_FIELD, position.size(), translationProperties.getExport().getKeepAlive(),
+                            position.pitId(), position.searchAfter());
+                    return ReactiveMeters.timed(hits.flatMap(page -> toSearchPage(position, page)),
+                                    meterRegistry, SEARCH_METRIC, tags)
+                            .doOnNext(page -> ReactiveMeters.results(meterRegistry, SEARCH_METRIC, tags)
+                                    .record(page.items().size()));
+                })
+                .doOnSuccess(page -> log.debug("Completed cursor search translations with [{}] items",
+                        page.items().size()))
+                .doOnError(e -> log.error("Error during cursor search translations", e));
+    }
+
+    /**
+     * Tags a search with the filters it used, so slow and large query shapes can be told apart. The filters of a
+     * continued cursor search are those of its first page.
+     */
+    private static Tags searchTags(
+            final String mode,
+            final String key,
+            final String tag,
+            final String locale,
+            final String value
+    ) {
+        final String filters = Stream.of(
+                        StringUtils.isNotBlank(key) ? "key" : null,
+                        StringUtils.isNotBlank(tag) ? "tag" : null,
+                        StringUtils.isNotBlank(locale) ? "locale" : null,
+                        StringUtils.isNotBlank(value) ? "value" : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("+"));
+        return Tags.of("mode", mode, "filters", filters.isEmpty() ? "none" : filters);
+    }
+
+    /**
+     * A page shorter than the requested size is the last one, its point-in-time is released right away instead
+     * of waiting for the keep-alive to lapse.
+     */
+    private Mono<TranslationSearchPage> toSearchPage(
+            final SearchCursor position,
+            final List<SearchHit<TranslationDocument>> hits
+    ) {
+        final List<TranslationDocument> items = hits.stream().map(SearchHit::getContent).toList();
+        if (hits.size() < position.size()) {
+            return PointInTimeScan.close(elasticsearchTemplate, position.pitId())
+                    .thenReturn(new TranslationSearchPage(items, null));
+        }
+        return Mono.just(new TranslationSearchPage(items, position.next(hits.getLast().getSortValues()).encode()));
+    }
+
+    public Flux<TranslationDocument> suggestTranslations(
+            final String prefix,
+            final String locale,
+            final String tag,
+            final int size
+    ) {
+        log.debug("Start suggest translations for prefix=[{}], locale=[{}], tag=[{}]", prefix, locale, tag);
+        Criteria criteria = Criteria.where(VALUE_PREFIX_FIELD).matchesAll(prefix);
+        if (StringUtils.isNotBlank(tag)) {
+            criteria = criteria.and(Criteria.where("tag").is(tag));
+        }
+        if (StringUtils.isNotBlank(locale)) {
+            criteria = criteria.and(Criteria.where("locale").is(locale));
+        }
+        final CriteriaQuery query = new CriteriaQuery(criteria);
+        query.setPageable(PageRequest.of(0, Math.min(size, MAX_SUGGESTIONS)));
+        query.setTrackTotalHits(false);
         return elasticsearchTemplate.search(query, TranslationDocument.class)
                 .map(SearchHit::getContent)
-                .doOnComplete(() -> log.info("Completed searchTranslations"))
-                .doOnError(e -> log.error("Error during search translations", e));
+                .doOnError(e -> log.error("Error during suggest translations for prefix [{}]", prefix, e));
     }
 
+    public Flux<TranslationDocument> exportTranslations(final String locale, final String tag) {
+        log.info("Start export translations for locale=[{}], tag=[{}]", locale, tag);
+        final TranslationProperties.Export export = translationProperties.getExport();
+        return PointInTimeScan.scan(elasticsearchTemplate, TranslationDocument.class,
+                        buildCriteria(null, tag, locale, null), KEY_FIELD, export.getPageSize(), export.getKeepAlive())
+                .doOnComplete(() -> log.info("Completed export translations for locale [{}]", locale))
+                .doOnError(e -> log.error("Error during export translations for locale [{}]", locale, e));
+    }
+
+    /**
+     * Everything created, updated or deleted after {@code since} up to a new watermark that trails the current
+     * time by the settle delay. Without {@code since} every translation is returned and deletions are omitted.
+     */
+    public Mono<TranslationChangeSet> findChanges(final Long since, final String locale, final String tag) {
+        if (log.isDebugEnabled()) {
+            log.debug("Start query translation changes since [{}] for locale=[{}], tag=[{}]", since, locale, tag);
+        }
+        if (since != null && since < translationTombstones.oldestWatermark()) {
+            return Mono.error(new BusinessServiceException(ErrorCodeEnum.WATERMARK_EXPIRED,
+                    "Watermark " + since + " is older than the tombstone retention, sync again without since"));
+        }
+        final TranslationProperties.Export export = translationProperties.getExport();
+        // maintenance jobs stamp what they change with their start, which must stay above the watermark until done,
+        // as must the start of bulk loads, whose translations are searchable only once done
+        final long watermark = Math.max(
+                Math.min(Instant.now().minus(translationProperties.getSync().getSettleDelay()).toEpochMilli(),
+                        Math.min(translationMaintenanceJobs.runningSince(), translationIndexManager.bulkLoadingSince())
+                                - 1),
+                since == null ? 0L : since);
+        final Flux<TranslationChange> upserts = PointInTimeScan.scan(elasticsearchTemplate, TranslationDocument.class,
+                        changedBetween(UPDATED_AT_FIELD, since, watermark, locale, tag), UPDATED_AT_FIELD,
+                        export.getPageSize(), export.getKeepAlive())
+                .map(TranslationChange::upsert);
+        final Flux<TranslationChange> deletes = since == null
+                ? Flux.empty()
+                : PointInTimeScan.scan(elasticsearchTemplate, TranslationTombstone.class,
+                                changedBetween(TranslationTombstones.DELETED_AT_FIELD, since, watermark, locale, tag),
+                                TranslationTombstones.DELETED_AT_FIELD, export.getPageSize(), export.getKeepAlive())
+                        .map(TranslationChange::delete);
+        return Mono.just(new TranslationChangeSet(watermark, Flux.mergeComparing(
+                        Comparator.comparing(TranslationChange::changedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                                // a move stamps the tombstone of what it left and the upsert alike, delete goes first
+                                .thenComparing(change -> change.type() != TranslationChangeType.DELETE),
+                        upserts, deletes)
+                .doOnComplete(() -> log.debug("Completed query translation changes since [{}]", since))
+                .doOnError(e -> log.error("Error during query translation changes since [{}]", since, e))));
+    }
+
+    private static Criteria changedBetween(
+            final String field,
+            final Long since,
+            final long watermark,
+            final String locale,
+            final String tag
+    ) {
+        Criteria criteria = since == null
+                ? Criteria.where(field).lessThanEqual(watermark)
+                : Criteria.where(field).greaterThan(since).lessThanEqual(watermark);
+        if (StringUtils.isNotBlank(locale)) {
+            criteria = criteria.and(Criteria.where("locale").is(locale));
+        }
+        if (StringUtils.isNotBlank(tag)) {
+            criteria = criteria.and(Criteria.where("tag").is(tag));
+        }
+        return criteria;
+    }
+
+    public Flux<ServerSentEvent<TranslationChange>> streamChanges(
+            final String locale,
+            final String tag,
+            final TranslationFeedOverflow overflow
+    ) {
+        return translationChangeFeed.subscribe(locale, tag, overflow);
+    }
+
+    public Mono<TranslationJob> submitJob(final TranslationJobRequest request) {
+        log.info("Start submit maintenance job of type [{}]", request.type());
+        return translationMaintenanceJobs.submit(request)
+                .doOnSuccess(job -> log.info("Successfully submitted maintenance job [{}]", job.id()))
+                .doOnError(e -> log.error("Error submitting maintenance job with request [{}]", request, e));
+    }
+
+    public Mono<TranslationJob> findJob(final String jobId) {
+        log.debug("Start query maintenance job [{}]", jobId);
+        return translationMaintenanceJobs.find(jobId);
+    }
+
+    public Mono<TranslationJob> cancelJob(final String jobId) {
+        log.info("Start cancel maintenance job [{}]", jobId);
+        return translationMaintenanceJobs.cancel(jobId)
+                .doOnSuccess(job -> log.info("Successfully cancelled maintenance job [{}]", jobId))
+                .doOnError(e -> log.error("Error cancelling maintenance job [{}]", jobId, e));
+    }
+
+    public Mono<TranslationBundle> findBundle(final String locale, final String tag) {
+        log.debug("Start query translation bundle for locale=[{}], tag=[{}]", locale, tag);
+        final TranslationLocale translationLocale = TranslationLocale.valueOf(locale);
+        final TranslationTag translationTag = TranslationTag.valueOf(tag);
+        return translationBundleCache.get(translationLocale, translationTag,
+                () -> translationReadReplica.isReady()
+                        ? Flux.fromIterable(translationReadReplica.findAll(translationLocale, translationTag))
+                        : exportTranslations(locale, tag));
+    }
+
+    /**
+     * Counts translations with one aggregation request, served from {@link TranslationStatsCache} while no write
+     * went through this instance.
+     */
+    public Mono<TranslationStats> findStats() {
+        log.debug("Start query translation statistics");
+        return translationStatsCache.get(() -> {
+            final long computedAt = Instant.now().toEpochMilli();
+            return translationRepository.countByLocaleAndTag(translationProperties.getStats().getMaxBuckets())
+                    .map(counts -> TranslationMapper.toStats(counts, computedAt))
+                    .doOnNext(stats -> log.debug("Computed translation statistics of [{}] translations",
+                            stats.total()));
+        });
+    }
+
+    /**
+     * Streams the keys and tags translated to the source locale but not to every one of the locales, in order of key
+     * and tag, from a composite aggregation paged as the report is read.
+     */
+    public Flux<MissingTranslation> findMissingTranslations(
+            final String source,
+            final List<String> locales,
+            final String tag
+    ) {
+        log.info("Start missing translation report of source=[{}] for locales={}, tag=[{}]", source, locales, tag);
+        final List<String> targets = locales.stream()
+                .filter(StringUtils::isNotBlank)
+                .distinct()
+                .filter(locale -> !locale.equals(source))
+                .toList();
+        final String invalid = Stream.concat(Stream.of(source), targets.stream())
+                .filter(locale -> !EnumUtils.isValidEnum(TranslationLocale.class, locale))
+                .collect(Collectors.joining(", "));
+        if (!invalid.isEmpty()) {
+            return Flux.error(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM, "Invalid locale: " + invalid));
+        }
+        if (targets.isEmpty()) {
+            return Flux.error(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM,
+                    "At least one locale other than the source locale is required"));
+        }
+        final List<String> scanned = Stream.concat(Stream.of(source), targets.stream()).toList();
+        return translationRepository.scanKeyLocales(scanned, StringUtils.trimToNull(tag),
+                        translationProperties.getReport().getPageSize())
+                .filter(keyLocales -> keyLocales.locales().contains(source))
+                .<MissingTranslation>handle((keyLocales, sink) -> {
+                    final List<String> missing = targets.stream()
+                            .filter(locale -> !keyLocales.locales().contains(locale))
+                            .toList();
+                    if (!missing.isEmpty()) {
+                        sink.next(new MissingTranslation(keyLocales.key(), keyLocales.tag(), missing));
+                    }
+                })
+                .doOnComplete(() -> log.info("Completed missing translation report of source=[{}]", source))
+                .doOnError(e -> log.error("Error during missing translation report of source=[{}]", source, e));
+    }
 
     public Mono<TranslationDocument> findByTranslationId(final String translationId) {
-        log.info("Start query translation for translationId [{}]", translationId);
-        return translationRepository.findById(translationId)
+        log.debug("Start query translation for translationId [{}]", translationId);
+        return translationNearCache.get(translationId)
                 .switchIfEmpty(Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
                         "Translation not found: " + translationId)))
-                .doOnSuccess(t -> {
-                    if (t != null) {
-                        log.info("Found translation [{}] with key [{}]", t.getId(), t.getKey());
-                    }
-                })
                 .doOnError(e -> log.error("Error fetching translation [{}]", translationId, e));
     }
 
+    /**
+     * Answers every lookup with at most two round trips: lookups resolvable to an id go through the near cache,
+     * whose misses are loaded with a single multi-get, and the remaining key lookups share one terms search, or are
+     * answered by the read replica once it is loaded. Key lookups whose natural id was not found are searched too,
+     * as documents written before natural key ids were enabled keep their random id. Results are emitted in the
+     * order of the lookups.
+     */
+    public Flux<TranslationLookupResult> multiGetTranslations(final List<TranslationLookup> lookups) {
+        log.debug("Start multi-get of [{}] translations", lookups.size());
+        final boolean fromReplica = translationReadReplica.isReady();
+        final List<String> ids = lookups.stream().map(this::lookupId).filter(Objects::nonNull).distinct().toList();
+        final Mono<Map<String, TranslationDocument>> byId = ids.isEmpty()
+                ? Mono.just(Map.of())
+                : translationNearCache.getAll(ids);
+        return byId
+                .flatMap(found -> {
+                    final List<TranslationLookup> keyLookups = fromReplica
+                            ? List.of()
+                            : lookups.stream().filter(lookup -> searchesKey(lookup, found)).toList();
+                    return searchByKeys(keyLookups).map(matches -> lookups.stream()
+                            .map(lookup -> {
+                                if (!searchesKey(lookup, found)) {
+                                    return TranslationLookupResult.of(lookup, found.get(lookupId(lookup)));
+                                }
+                                return TranslationLookupResult.of(lookup, fromReplica
+                                        ? translationReadReplica.find(lookup.key(), lookup.locale(), lookup.tag())
+                                                .orElse(null)
+                                        : latestMatch(lookup, matches));
+                            })
+                            .toList());
+                })
+                .flatMapIterable(Function.identity())
+                .doOnComplete(() -> log.debug("Completed multi-get of [{}] translations", lookups.size()))
+                .doOnError(e -> log.error("Error during multi-get of translations", e));
+    }
+
+    /**
+     * The id a lookup can be fetched by, or {@code null} when it can only be found by searching its key.
+     */
+    private String lookupId(final TranslationLookup lookup) {
+        if (StringUtils.isNotBlank(lookup.id())) {
+            return lookup.id();
+        }
+        return naturalKeyIds() && StringUtils.isNotBlank(lookup.tag())
+                ? TranslationMapper.naturalId(lookup.key(), lookup.locale(), lookup.tag())
+                : null;
+    }
+
+    /**
+     * Whether a lookup is answered by its key rather than by id: it has no id of its own, and no natural id or none
+     * that was found.
+     */
+    private boolean searchesKey(final TranslationLookup lookup, final Map<String, TranslationDocument> found) {
+        if (StringUtils.isNotBlank(lookup.id())) {
+            return false;
+        }
+        final String id = lookupId(lookup);
+        return id == null || !found.containsKey(id);
+    }
+
+    /**
+     * Fetches every translation of the looked up keys in the looked up locales with one terms query; the pairing
+     * of key, locale and tag is resolved in memory by {@link #latestMatch}.
+     */
+    private Mono<List<TranslationDocument>> searchByKeys(final List<TranslationLookup> lookups) {
+        if (lookups.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        final Set<String> keys = lookups.stream().map(TranslationLookup::key).collect(Collectors.toSet());
+        final Set<String> locales = lookups.stream().map(TranslationLookup::locale).collect(Collectors.toSet());
+        final CriteriaQuery query = new CriteriaQuery(Criteria.where("key").in(keys).and("locale").in(locales));
+        query.setPageable(PageRequest.of(0, keys.size() * locales.size() * TranslationTag.values().length));
+        query.setTrackTotalHits(false);
+        return elasticsearchTemplate.search(query, TranslationDocument.class)
+                .map(SearchHit::getContent)
+                .collectList();
+    }
+
+    private static TranslationDocument latestMatch(
+            final TranslationLookup lookup,
+            final List<TranslationDocument> candidates
+    ) {
+        return candidates.stream()
+                .filter(candidate -> lookup.key().equals(candidate.getKey())
+                        && lookup.locale().equals(candidate.getLocale())
+                        && (StringUtils.isBlank(lookup.tag()) || lookup.tag().equals(candidate.getTag())))
+                .max(Comparator.comparing(TranslationDocument::getUpdatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .orElse(null);
+    }
+
     public Mono<Void> deleteTranslation(final String translationId) {
         log.info("Start delete translation for translationId [{}]", translationId);
-        return translationRepository.deleteById(translationId)
+        return translationRepository.findById(translationId)
+                .flatMap(translationTombstones::record)
+                .flatMap(tombstone -> translationRepository.deleteById(translationId)
+                        .then(Mono.fromRunnable(() -> onDeleted(tombstone))))
+                .then()
                 .doOnSuccess(v -> log.info("Deleted translation [{}]", translationId))
                 .doOnError(e -> log.error("Error deleting translation [{}]", translationId, e));
     }
 
-    private CriteriaQuery buildCriteriaQuery(
+    static CriteriaQuery buildCriteriaQuery(
+            final String key,
+            final String tag,
+            final String locale,
+            final String value
+    ) {
+        return new CriteriaQuery(buildCriteria(key, tag, locale, value));
+    }
+
+    /**
+     * A value filtered to a locale matches either {@code value} or the subfield of the language, as indices created
+     * before the subfields were mapped have none and would otherwise match nothing.
+     */
+    private static Criteria buildCriteria(
             final String key,
             final String tag,
             final String locale,
@@ -106,7 +734,7 @@ public class TranslationServiceImpl implements TranslationService {
     ) {
         final List<Criteria> criteriaList = new ArrayList<>();
         if (StringUtils.isNotBlank(key)) {
-            criteriaList.add(Criteria.where("key").is(key));
+            criteriaList.add(Criteria.where(KEY_FIELD).is(key));
         }
         if (StringUtils.isNotBlank(tag)) {
             criteriaList.add(Criteria.where("tag").is(tag));
@@ -114,16 +742,166 @@ public class TranslationServiceImpl implements TranslationService {
         if (StringUtils.isNotBlank(locale)) {
             criteriaList.add(Criteria.where("locale").is(locale));
         }
-        if (StringUtils.isNotBlank(value)) {
-            criteriaList.add(Criteria.where("value").matches(value));
+        final String valueField = locale == null ? null : VALUE_FIELD_BY_LOCALE.get(locale);
+        if (StringUtils.isNotBlank(value) && valueField == null) {
+            criteriaList.add(Criteria.where(VALUE_FIELD).matches(value));
+        }
+        final Criteria criteria = criteriaList.stream().reduce(Criteria::and).orElse(new Criteria());
+        if (StringUtils.isNotBlank(value) && valueField != null) {
+            criteria.subCriteria(new Criteria().or(VALUE_FIELD).matches(value).or(valueField).matches(value));
         }
-        final Criteria combined = criteriaList.stream().reduce(Criteria::and).orElse(new Criteria());
-        return new CriteriaQuery(combined);
+        return criteria;
     }
 
     public Mono<Void> bulkCreateTranslations(final List<TranslationCreateRequest> requests) {
-        log.debug("Start bulk insert translation with requests [{}]", requests);
-        final List<TranslationDocument> docs = requests.stream().map(TranslationMapper::toEntity).toList();
-        return translationRepository.saveAll(docs).then();
+        log.debug("Start bulk insert of [{}] translations", requests.size());
+        final List<TranslationDocument> docs = requests.stream()
+                .map(request -> TranslationMapper.toEntity(request, naturalKeyIds()))
+                .toList();
+        return keepCreatedAt(docs)
+                .thenMany(Flux.defer(() -> translationRepository.saveAll(docs)))
+                .doOnNext(translationNearCache::put)
+                .doOnNext(this::onSaved)
+                .then();
+    }
+
+    /**
+     * Runs on the {@link TranslationBulkIngester}. With {@code relaxed} the index is bulk loaded, see
+     * {@link TranslationIndexManager#bulkLoad}.
+     */
+    public Flux<BulkItemResult> importTranslations(final Flux<TranslationCreateRequest> requests, final boolean relaxed) {
+        log.info("Start streaming import of translations, relaxed=[{}]", relaxed);
+        final Flux<BulkItemResult> results = importLines(IMPORT_SOURCE,
+                        requests.index((index, request) -> toImportLine(index + 1, request)))
+                .flatMapIterable(Function.identity());
+        return (relaxed ? translationIndexManager.bulkLoad(results) : results)
+                .doOnComplete(() -> log.info("Completed streaming import of translations"))
+                .doOnError(e -> log.error("Error during streaming import of translations", e));
+    }
+
+    /**
+     * Parses the file while it is uploaded and imports it like {@link #importTranslations}. The locale, when given,
+     * overrides the one the file declares.
+     */
+    public Flux<TranslationImportProgress> importFile(
+            final TranslationFileFormat format,
+            final Flux<DataBuffer> content,
+            final String locale,
+            final String tag,
+            final boolean relaxed
+    ) {
+        log.info("Start import of [{}] translation file, locale=[{}], tag=[{}], relaxed=[{}]", format, locale, tag,
+                relaxed);
+        final Flux<ImportLine> lines = TranslationFiles.read(format, content).map(entry -> {
+            final TranslationCreateRequest request = new TranslationCreateRequest(entry.key(), entry.value(),
+                    StringUtils.defaultIfBlank(locale, entry.locale()), tag);
+            return entry.error() == null
+                    ? toImportLine(entry.line(), request)
+                    : new ImportLine(entry.line(), request, null, entry.error());
+        });
+        final Flux<TranslationImportProgress> progress = Flux.defer(() -> {
+            final ImportProgress counters = new ImportProgress();
+            return importLines(IMPORT_SOURCE + "-" + format.name().toLowerCase(Locale.ROOT), lines)
+                    .map(counters::add)
+                    .concatWith(Mono.fromSupplier(counters::done))
+                    .doOnComplete(() -> log.info("Completed import of [{}] translation file: [{}]", format,
+                            counters.done()));
+        });
+        return (relaxed ? translationIndexManager.bulkLoad(progress) : progress)
+                .doOnError(e -> log.error("Error during import of [{}] translation file", format, e));
+    }
+
+    private Flux<List<BulkItemResult>> importLines(final String source, final Flux<ImportLine> lines) {
+        return translationBulkIngester.ingest(source, lines, ImportLine::document,
+                        documents -> keepCreatedAt(documents)
+                                .then(Mono.defer(() -> translationRepository.bulkIndex(documents))))
+                .map(batch -> toImportResults(batch.records(), batch.items()));
+    }
+
+    private ImportLine toImportLine(final long line, final TranslationCreateRequest request) {
+        final String violations = validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        return violations.isEmpty()
+                ? new ImportLine(line, request, TranslationMapper.toEntity(request, naturalKeyIds()), null)
+                : new ImportLine(line, request, null, violations);
+    }
+
+    private List<BulkItemResult> toImportResults(final List<ImportLine> batch, final List<BulkItem> items) {
+        final List<BulkItemResult> results = new ArrayList<>(batch.size());
+        final Iterator<BulkItem> outcomes = items.iterator();
+        for (ImportLine line : batch) {
+            final String key = line.request().key();
+            if (line.document() == null) {
+                results.add(new BulkItemResult(line.line(), null, key, BulkItemStatus.INVALID, line.error()));
+                continue;
+            }
+            final BulkItem item = outcomes.next();
+            if (item.failed()) {
+                results.add(new BulkItemResult(line.line(), item.id(), key, BulkItemStatus.FAILED, item.error()));
+            } else {
+                line.document().setSeqNoPrimaryTerm(item.seqNoPrimaryTerm());
+                translationNearCache.invalidate(line.document().getId());
+                onSaved(line.document());
+                results.add(new BulkItemResult(line.line(), item.id(), key,
+                        item.status() == HttpStatus.CREATED.value() ? BulkItemStatus.CREATED : BulkItemStatus.UPDATED,
+                        null));
+            }
+        }
+        return results;
+    }
+
+    private boolean naturalKeyIds() {
+        return translationProperties.getIdentity().isNaturalKey();
+    }
+
+    /**
+     * With natural key ids a create overwrites the translation already stored under the same key, locale and tag.
+     * Its creation time is carried over so the write behaves as an update of that translation.
+     */
+    private Mono<Void> keepCreatedAt(final List<TranslationDocument> documents) {
+        if (!naturalKeyIds() || documents.isEmpty()) {
+            return Mono.empty();
+        }
+        return translationRepository.findAllById(documents.stream().map(TranslationDocument::getId).distinct().toList())
+                .filter(existing -> existing.getCreatedAt() != null)
+                .collectMap(TranslationDocument::getId, TranslationDocument::getCreatedAt)
+                .doOnNext(createdAt -> documents.forEach(document ->
+                        document.setCreatedAt(createdAt.getOrDefault(document.getId(), document.getCreatedAt()))))
+                .then();
+    }
+
+    private record ImportLine(long line, TranslationCreateRequest request, TranslationDocument document, String error) {
+
+    }
+
+    /**
+     * Running totals of a file import, shared by the batches of one subscription.
+     */
+    private static final class ImportProgress {
+
+        private final long startNanos = System.nanoTime();
+        private long read;
+        private long written;
+        private long failed;
+
+        synchronized TranslationImportProgress add(final List<BulkItemResult> results) {
+            final List<BulkItemResult> errors = results.stream().filter(result -> result.error() != null).toList();
+            read += results.size();
+            written += results.size() - errors.size();
+            failed += errors.size();
+            return snapshot(errors, false);
+        }
+
+        synchronized TranslationImportProgress done() {
+            return snapshot(List.of(), true);
+        }
+
+        private TranslationImportProgress snapshot(final List<BulkItemResult> errors, final boolean done) {
+            final long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+            return new TranslationImportProgress(read, written, failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    written * TimeUnit.SECONDS.toNanos(1) / elapsedNanos, errors, done);
+        }
     }
 }
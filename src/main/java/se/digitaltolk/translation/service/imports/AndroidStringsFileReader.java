@@ -0,0 +1,111 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads strings, string-arrays and plurals of Android resource files, undoing the Android escaping and whitespace
+ * handling of their values. Styling tags are dropped, their text is kept. The files do not declare their locale.
+ */
+final class AndroidStringsFileReader extends XmlFileReader {
+
+    private String group;
+    private int index;
+
+    AndroidStringsFileReader(final InputStream in) {
+        super(in);
+    }
+
+    @Override
+    TranslationFileEntry next(final XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            final int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT
+                    && ("string-array".equals(xml.getLocalName()) || "plurals".equals(xml.getLocalName()))) {
+                group = null;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            final long line = xml.getLocation().getLineNumber();
+            final String name = xml.getAttributeValue(null, "name");
+            switch (xml.getLocalName()) {
+                case "string" -> {
+                    final boolean translatable = !"false".equals(xml.getAttributeValue(null, "translatable"));
+                    final String value = unescape(elementText(xml));
+                    if (name == null) {
+                        return TranslationFileEntry.failed(line, null, "String without name");
+                    }
+                    if (translatable) {
+                        return TranslationFileEntry.of(line, name, value, null);
+                    }
+                }
+                case "string-array", "plurals" -> {
+                    if (name == null) {
+                        return TranslationFileEntry.failed(line, null, xml.getLocalName() + " without name");
+                    }
+                    group = "false".equals(xml.getAttributeValue(null, "translatable")) ? null : name;
+                    index = 0;
+                }
+                case "item" -> {
+                    final String quantity = xml.getAttributeValue(null, "quantity");
+                    final String value = unescape(elementText(xml));
+                    if (group != null) {
+                        return TranslationFileEntry.of(line, group + "." + (quantity == null ? index++ : quantity),
+                                value, null);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the escapes of Android resource strings. Outside double quotes, which are removed, runs of whitespace
+     * collapse into one space and leading and trailing whitespace is dropped.
+     */
+    static String unescape(final String raw) {
+        final StringBuilder value = new StringBuilder(raw.length());
+        boolean quoted = false;
+        boolean space = false;
+        for (int i = 0; i < raw.length(); i++) {
+            final char c = raw.charAt(i);
+            if (!quoted && Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                if (!value.isEmpty()) {
+                    value.append(' ');
+                }
+                space = false;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\\' && i + 1 < raw.length()) {
+                final char escaped = raw.charAt(++i);
+                if (escaped == 'u' && i + 4 < raw.length()
+                        && raw.substring(i + 1, i + 5).chars().allMatch(digit -> Character.digit(digit, 16) >= 0)) {
+                    value.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                } else {
+                    value.append(switch (escaped) {
+                        case 'n' -> '\n';
+                        case 't' -> '\t';
+                        default -> escaped;
+                    });
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Reads nested i18next JSON token by token, keying every scalar by the dotted path of object fields and array
+ * indices leading to it. Plural and context suffixes such as {@code _one} stay part of the key. The files do not
+ * declare their locale.
+ */
+final class I18nextFileReader implements TranslationFileReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final InputStream in;
+    private JsonParser parser;
+
+    I18nextFileReader(final InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public TranslationFileEntry next() throws IOException {
+        if (parser == null) {
+            parser = JSON_FACTORY.createParser(in);
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (parser.getParsingContext().inRoot() && (token.isScalarValue() || token == JsonToken.START_ARRAY)) {
+                throw new IOException("i18next files must hold a JSON object");
+            }
+            if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                return TranslationFileEntry.of(parser.currentTokenLocation().getLineNr(), key(), parser.getText(),
+                        null);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long line() {
+        return parser == null ? 1 : parser.currentLocation().getLineNr();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        }
+        in.close();
+    }
+
+    private String key() {
+        final Deque<String> path = new ArrayDeque<>();
+        for (JsonStreamContext context = parser.getParsingContext(); !context.inRoot(); context = context.getParent()) {
+            path.addFirst(context.inArray() ? String.valueOf(context.getCurrentIndex()) : context.getCurrentName());
+        }
+        return String.join(".", path);
+    }
+}
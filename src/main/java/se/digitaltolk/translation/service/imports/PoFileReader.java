@@ -0,0 +1,200 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads gettext catalogs line by line. Entries are separated by blank lines or by the comment or keyword starting
+ * the next one; the catalog is expected in UTF-8.
+ */
+final class PoFileReader implements TranslationFileReader {
+
+    private static final String LANGUAGE_HEADER = "Language:";
+
+    private final BufferedReader reader;
+    private String locale;
+    private long line;
+    private String pushedBack;
+    private Entry entry;
+    private boolean skipping;
+
+    PoFileReader(final InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public TranslationFileEntry next() throws IOException {
+        String text;
+        while ((text = nextLine()) != null) {
+            final String trimmed = text.strip();
+            if (skipping) {
+                skipping = !trimmed.isEmpty();
+                continue;
+            }
+            final boolean startsEntry = trimmed.startsWith("#") || trimmed.startsWith("msgctxt")
+                    || (trimmed.startsWith("msgid ") && entry != null && entry.msgid != null);
+            if (trimmed.isEmpty() || (startsEntry && entry != null && entry.msgstr != null)) {
+                if (!trimmed.isEmpty()) {
+                    pushedBack = text;
+                    line--;
+                }
+                final TranslationFileEntry completed = complete();
+                if (completed != null) {
+                    return completed;
+                }
+                continue;
+            }
+            if (entry == null) {
+                entry = new Entry(line);
+            }
+            final TranslationFileEntry malformed = parse(trimmed);
+            if (malformed != null) {
+                entry = null;
+                skipping = true;
+                return malformed;
+            }
+        }
+        return complete();
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        line++;
+        if (pushedBack != null) {
+            final String text = pushedBack;
+            pushedBack = null;
+            return text;
+        }
+        return reader.readLine();
+    }
+
+    /**
+     * Adds one line to the current entry, returning an error entry when the line is not valid. The rest of an
+     * invalid entry is skipped.
+     */
+    private TranslationFileEntry parse(final String text) {
+        if (text.startsWith("#")) {
+            entry.fuzzy |= text.startsWith("#,") && text.contains("fuzzy");
+            return null;
+        }
+        if (text.startsWith("\"")) {
+            final String value = unquote(text);
+            if (value == null || entry.field == null) {
+                return failed("Malformed line: " + text);
+            }
+            entry.field.append(value);
+            return null;
+        }
+        final String keyword = StringUtils.substringBefore(text, " ");
+        final String value = unquote(StringUtils.substringAfter(text, " ").strip());
+        if (value == null) {
+            return failed("Malformed line: " + text);
+        }
+        entry.field = new StringBuilder(value);
+        switch (keyword) {
+            case "msgctxt" -> entry.msgctxt = entry.field;
+            case "msgid" -> {
+                entry.msgid = entry.field;
+                entry.line = line;
+            }
+            case "msgid_plural" -> entry.msgidPlural = entry.field;
+            case "msgstr", "msgstr[0]" -> entry.msgstr = entry.field;
+            default -> {
+                if (!keyword.startsWith("msgstr[")) {
+                    return failed("Unknown keyword: " + keyword);
+                }
+            }
+        }
+        return null;
+    }
+
+    private TranslationFileEntry failed(final String error) {
+        return TranslationFileEntry.failed(line, Objects.toString(entry.msgid, null), error);
+    }
+
+    /**
+     * Turns the current entry into a translation, or returns null when it is the header or not translated.
+     */
+    private TranslationFileEntry complete() {
+        final Entry completed = entry;
+        entry = null;
+        if (completed == null || completed.msgid == null) {
+            return null;
+        }
+        final String msgstr = completed.msgstr == null ? "" : completed.msgstr.toString();
+        if (completed.msgid.isEmpty() && completed.msgctxt == null) {
+            msgstr.lines()
+                    .filter(header -> header.startsWith(LANGUAGE_HEADER))
+                    .findFirst()
+                    .ifPresent(header -> locale = TranslationFiles.toLocale(header.substring(LANGUAGE_HEADER.length())));
+            return null;
+        }
+        if (msgstr.isEmpty() || completed.fuzzy) {
+            return null;
+        }
+        final String key = completed.msgctxt == null
+                ? completed.msgid.toString()
+                : completed.msgctxt + "." + completed.msgid;
+        return TranslationFileEntry.of(completed.line, key, msgstr, locale);
+    }
+
+    /**
+     * The content of a C-style quoted string, null when the text is not one.
+     */
+    private static String unquote(final String text) {
+        if (text.length() < 2 || !text.startsWith("\"") || !text.endsWith("\"")) {
+            return null;
+        }
+        final StringBuilder value = new StringBuilder(text.length());
+        for (int i = 1; i < text.length() - 1; i++) {
+            final char c = text.charAt(i);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (++i == text.length() - 1) {
+                return null;
+            }
+            final char escaped = text.charAt(i);
+            value.append(switch (escaped) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                default -> escaped;
+            });
+        }
+        return value.toString();
+    }
+
+    private static final class Entry {
+
+        private long line;
+        private StringBuilder msgctxt;
+        private StringBuilder msgid;
+        private StringBuilder msgidPlural;
+        private StringBuilder msgstr;
+        private StringBuilder field;
+        private boolean fuzzy;
+
+        private Entry(final long line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+/**
+ * One translation read from a file, or the error that made a part of the file unreadable, with the 1-based line it
+ * starts on. The locale is the one the file declares, if any.
+ */
+public record TranslationFileEntry(long line, String key, String value, String locale, String error) {
+
+    static TranslationFileEntry of(final long line, final String key, final String value, final String locale) {
+        return new TranslationFileEntry(line, key, value, locale, null);
+    }
+
+    static TranslationFileEntry failed(final long line, final String key, final String error) {
+        return new TranslationFileEntry(line, key, null, null, error);
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.Closeable;
+
+/**
+ * Pulls the translations of a file one at a time, reading only as much of it as the next one needs.
+ */
+interface TranslationFileReader extends Closeable {
+
+    /**
+     * The next translation or unreadable entry, null at the end of the file. An exception means the rest of the
+     * file cannot be read.
+     */
+    TranslationFileEntry next() throws Exception;
+
+    /**
+     * The line the reader stopped at.
+     */
+    long line();
+}
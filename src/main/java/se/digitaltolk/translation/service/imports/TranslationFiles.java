@@ -0,0 +1,106 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+
+/**
+ * Reads translation files while they arrive. The content is consumed as a blocking stream on the bounded elastic
+ * scheduler, a few buffers ahead of the parser, and translations are parsed only as they are requested, so neither
+ * the file nor its translations are ever held in memory as a whole. A part of the file that cannot be read becomes an
+ * entry with an error; when the file cannot be read any further, the last entry carries the error.
+ */
+@Slf4j
+public final class TranslationFiles {
+
+    /**
+     * Buffers requested ahead of the parser.
+     */
+    private static final int BUFFERED_CHUNKS = 4;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = xmlInputFactory();
+
+    private TranslationFiles() {
+    }
+
+    public static Flux<TranslationFileEntry> read(final TranslationFileFormat format, final Flux<DataBuffer> content) {
+        return Flux.using(
+                        () -> open(format, DataBufferUtils.subscriberInputStream(content, BUFFERED_CHUNKS)),
+                        reader -> Flux.<TranslationFileEntry, Boolean>generate(() -> false, (ended, sink) -> {
+                            if (ended) {
+                                sink.complete();
+                                return true;
+                            }
+                            try {
+                                final TranslationFileEntry entry = reader.next();
+                                if (entry == null) {
+                                    sink.complete();
+                                } else {
+                                    sink.next(entry);
+                                }
+                                return false;
+                            } catch (Exception e) {
+                                log.warn("Stopped reading [{}] translation file at line [{}]", format, reader.line(), e);
+                                sink.next(TranslationFileEntry.failed(reader.line(), null,
+                                        "Unreadable " + format + " file: " + e.getMessage()));
+                                return true;
+                            }
+                        }),
+                        TranslationFiles::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The locale of a language tag such as {@code fr}, {@code fr-CA} or {@code fr_CA}, null when there is none.
+     */
+    static String toLocale(final String language) {
+        final String primary = StringUtils.substringBefore(StringUtils.replaceChars(StringUtils.trimToNull(language),
+                '_', '-'), "-");
+        return StringUtils.isEmpty(primary) ? null : primary.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * A StAX reader that resolves neither DTDs nor external entities.
+     */
+    static XMLStreamReader xmlReader(final InputStream in) throws XMLStreamException {
+        return XML_INPUT_FACTORY.createXMLStreamReader(in);
+    }
+
+    private static TranslationFileReader open(final TranslationFileFormat format, final InputStream in) {
+        return switch (format) {
+            case PO -> new PoFileReader(in);
+            case XLIFF -> new XliffFileReader(in);
+            case ANDROID -> new AndroidStringsFileReader(in);
+            case I18NEXT -> new I18nextFileReader(in);
+        };
+    }
+
+    private static void close(final TranslationFileReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("Error closing translation file", e);
+        }
+    }
+
+    private static XMLInputFactory xmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads XLIFF 1.2 trans-units and XLIFF 2.0 units, whose segments are joined into one value. Inline codes are
+ * dropped, their text is kept, and alternative translations are ignored.
+ */
+final class XliffFileReader extends XmlFileReader {
+
+    private String locale;
+    private String key;
+    private long line;
+    private StringBuilder target;
+
+    XliffFileReader(final InputStream in) {
+        super(in);
+    }
+
+    @Override
+    TranslationFileEntry next(final XMLStreamReader xml) throws XMLStreamException {
+        while (xml.hasNext()) {
+            final int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "xliff" -> locale = TranslationFiles.toLocale(xml.getAttributeValue(null, "trgLang"));
+                    case "file" -> {
+                        final String targetLanguage = xml.getAttributeValue(null, "target-language");
+                        if (targetLanguage != null) {
+                            locale = TranslationFiles.toLocale(targetLanguage);
+                        }
+                    }
+                    case "trans-unit", "unit" -> {
+                        key = StringUtils.firstNonBlank(xml.getAttributeValue(null, "resname"),
+                                xml.getAttributeValue(null, "name"), xml.getAttributeValue(null, "id"));
+                        line = xml.getLocation().getLineNumber();
+                        target = null;
+                    }
+                    case "target" -> {
+                        if (line > 0) {
+                            target = (target == null ? new StringBuilder() : target).append(elementText(xml));
+                        }
+                    }
+                    case "alt-trans" -> elementText(xml);
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT
+                    && ("trans-unit".equals(xml.getLocalName()) || "unit".equals(xml.getLocalName()))) {
+                final TranslationFileEntry entry = complete();
+                if (entry != null) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private TranslationFileEntry complete() {
+        final String completedKey = key;
+        final long completedLine = line;
+        final String value = target == null ? null : target.toString();
+        key = null;
+        line = 0;
+        target = null;
+        if (completedKey == null) {
+            return TranslationFileEntry.failed(completedLine, null, "Unit without id");
+        }
+        return StringUtils.isEmpty(value) ? null : TranslationFileEntry.of(completedLine, completedKey, value, locale);
+    }
+}
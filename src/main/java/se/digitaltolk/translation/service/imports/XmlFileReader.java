@@ -0,0 +1,75 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.imports;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Base of the readers pulling translations from XML with StAX. The prolog is read with the first translation, so a
+ * file that is not XML at all fails like any other unreadable part.
+ */
+abstract class XmlFileReader implements TranslationFileReader {
+
+    private final InputStream in;
+    private XMLStreamReader xml;
+
+    XmlFileReader(final InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public final TranslationFileEntry next() throws XMLStreamException {
+        if (xml == null) {
+            xml = TranslationFiles.xmlReader(in);
+        }
+        return next(xml);
+    }
+
+    /**
+     * Advances the reader to the next translation, null at the end of the document.
+     */
+    abstract TranslationFileEntry next(final XMLStreamReader xml) throws XMLStreamException;
+
+    @Override
+    public long line() {
+        return xml == null ? 1 : xml.getLocation().getLineNumber();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (xml != null) {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * The text of the element the reader is at, including that of nested inline elements, leaving the reader at its
+     * end tag.
+     */
+    static String elementText(final XMLStreamReader xml) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE,
+                     XMLStreamConstants.ENTITY_REFERENCE -> text.append(xml.getText());
+                default -> {
+                }
+            }
+        }
+        return text.toString();
+    }
+}
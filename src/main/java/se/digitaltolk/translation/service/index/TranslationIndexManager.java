@@ -0,0 +1,381 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.index;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.DeleteIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesAsyncClient;
+import co.elastic.clients.elasticsearch.indices.ExistsAliasRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.GetIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.elasticsearch.indices.get_index_template.IndexTemplateItem;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
+
+/**
+ * Owns the Elasticsearch indices of the translations. The index name of {@link TranslationDocument} is an alias
+ * over a versioned index ({@code translations-v1}, {@code translations-v2}, ...) created from an index template that
+ * carries the mapping of the entity, its analysis settings and the configured shards, replicas and refresh interval.
+ * The template and the first index are put in place at startup; a REINDEX maintenance job creates the next version
+ * and moves the alias to it.
+ *
+ * <p>Bulk loads relax the replicas and the refresh interval of the index the alias writes to, and restore them once
+ * the last of overlapping loads ends. Until then the loaded translations are found by id but not by searches, so
+ * delta sync watermarks of this instance are held below the start of the load, and afterwards the read replica
+ * re-reads from it and the bundle cache is dropped. Read replicas of other instances whose polls moved past the
+ * start of the load only see the loaded translations on their next full load.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationIndexManager implements SmartInitializingSingleton {
+
+    /**
+     * Version of the index template, to be raised with every change of the mapping or the analysis settings of
+     * {@link TranslationDocument}. Translations move to an index of the new template with a REINDEX job.
+     */
+    public static final long TEMPLATE_VERSION = 1;
+
+    private static final String VERSION_SEPARATOR = "-v";
+
+    private static final Duration BOOTSTRAP_TIMEOUT = Duration.ofMinutes(1);
+
+    ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    TranslationProperties translationProperties;
+
+    TranslationBundleCache translationBundleCache;
+
+    TranslationStatsCache translationStatsCache;
+
+    TranslationReadReplica translationReadReplica;
+
+    @NonFinal
+    int bulkLoads;
+
+    @NonFinal
+    volatile long bulkLoadingSince = Long.MAX_VALUE;
+
+    /**
+     * Runs before the web server starts, as the implicit index creation of Spring Data did.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        bootstrap().block(BOOTSTRAP_TIMEOUT);
+    }
+
+    /**
+     * Puts the index template unless a newer one is installed, and creates the first index behind the alias unless
+     * the alias or an index of its name exists.
+     */
+    public Mono<Void> bootstrap() {
+        final String alias = alias();
+        return putTemplate()
+                .then(exists(alias))
+                .flatMap(exists -> {
+                    if (!exists) {
+                        final String index = nextIndex(alias);
+                        return Mono.fromFuture(() -> indices().create(CreateIndexRequest.of(create -> create
+                                        .index(index)
+                                        .aliases(alias, definition -> definition.isWriteIndex(true)))))
+                                .doOnSuccess(created -> log.info("Created index [{}] behind alias [{}]", index, alias))
+                                .then();
+                    }
+                    return isAlias(alias)
+                            .filter(isAlias -> !isAlias)
+                            .doOnNext(legacy -> log.warn("Translations are in index [{}] created before the index "
+                                    + "was managed, run a REINDEX maintenance job to move them behind an alias", alias))
+                            .then();
+                });
+    }
+
+    /**
+     * Index name of {@link TranslationDocument}, the alias reads and writes go through.
+     */
+    public String alias() {
+        return elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class).getIndexName();
+    }
+
+    /**
+     * Index the alias writes to, or the alias name itself while translations are in an index of that name.
+     */
+    public Mono<String> writeIndex() {
+        final String alias = alias();
+        return isAlias(alias)
+                .flatMap(isAlias -> isAlias
+                        ? Mono.fromFuture(() -> indices().getAlias(GetAliasRequest.of(get -> get.name(alias))))
+                                .map(response -> writeIndexOf(response, alias))
+                        : Mono.just(alias));
+    }
+
+    /**
+     * Whether the index is the unmanaged one named like the alias, which has to be removed for the alias to be
+     * created.
+     */
+    public boolean isUnmanaged(final String index) {
+        return alias().equals(index);
+    }
+
+    /**
+     * The version after the one of the given index, the first for the unmanaged index.
+     */
+    public String nextIndex(final String index) {
+        final String prefix = alias() + VERSION_SEPARATOR;
+        final int version = index.startsWith(prefix) ? NumberUtils.toInt(index.substring(prefix.length())) : 0;
+        return prefix + (version + 1);
+    }
+
+    /**
+     * Creates an index from the template with the bulk settings, first removing one of that name, which can only
+     * be left over by a failed reindex as the alias never pointed to it.
+     */
+    public Mono<Void> createForBulkLoad(final String index) {
+        return exists(index)
+                .flatMap(exists -> exists
+                        ? delete(index).doFirst(() -> log.warn("Deleting index [{}] left over by a failed reindex", index))
+                        : Mono.<Void>empty())
+                .then(Mono.fromFuture(() -> indices().create(CreateIndexRequest.of(create -> create
+                        .index(index)
+                        .settings(this::bulkSettings)))))
+                .doOnSuccess(created -> log.info("Created index [{}] for a bulk load", index))
+                .then();
+    }
+
+    /**
+     * Puts back the replicas and refresh interval of the template and refreshes, so everything loaded is found.
+     */
+    public Mono<Void> restore(final String index) {
+        return Mono.fromFuture(() -> indices().putSettings(PutIndicesSettingsRequest.of(put -> put
+                        .index(index)
+                        .settings(this::servingSettings))))
+                .then(refresh(index))
+                .doOnSuccess(done -> log.info("Restored the settings of index [{}]", index));
+    }
+
+    public Mono<Void> refresh(final String index) {
+        return Mono.fromFuture(() -> indices().refresh(RefreshRequest.of(refresh -> refresh.index(index)))).then();
+    }
+
+    /**
+     * Atomically moves the alias from one index to the other, which becomes the write index. The unmanaged index
+     * is removed in the same request.
+     */
+    public Mono<Void> swap(final String from, final String to) {
+        final String alias = alias();
+        return Mono.fromFuture(() -> indices().updateAliases(UpdateAliasesRequest.of(update -> update
+                        .actions(action -> isUnmanaged(from)
+                                ? action.removeIndex(remove -> remove.index(from))
+                                : action.remove(remove -> remove.index(from).alias(alias)))
+                        .actions(action -> action.add(add -> add.index(to).alias(alias).isWriteIndex(true))))))
+                .doOnSuccess(done -> log.info("Moved alias [{}] from index [{}] to [{}]", alias, from, to))
+                .then();
+    }
+
+    public Mono<Void> delete(final String index) {
+        return Mono.fromFuture(() -> indices().delete(DeleteIndexRequest.of(delete -> delete.index(index))))
+                .doOnSuccess(deleted -> log.info("Deleted index [{}]", index))
+                .then();
+    }
+
+    /**
+     * Runs the load with the write index relaxed to the bulk settings, restored however the load ends.
+     */
+    public <T> Flux<T> bulkLoad(final Flux<T> load) {
+        return Flux.usingWhen(enterBulkLoad(), index -> load, this::leaveBulkLoad);
+    }
+
+    /**
+     * Start of the oldest running bulk load, {@link Long#MAX_VALUE} when none runs. What it loads is not searchable
+     * before it ends.
+     */
+    public long bulkLoadingSince() {
+        return bulkLoadingSince;
+    }
+
+    /**
+     * The settings being an optimization, a load still runs when they cannot be relaxed.
+     */
+    private Mono<String> enterBulkLoad() {
+        return writeIndex().flatMap(index -> {
+            final boolean first;
+            synchronized (this) {
+                first = bulkLoads++ == 0;
+                if (first) {
+                    bulkLoadingSince = Instant.now().toEpochMilli();
+                }
+            }
+            if (!first) {
+                return Mono.just(index);
+            }
+            return Mono.fromFuture(() -> indices().putSettings(PutIndicesSettingsRequest.of(put -> put
+                            .index(index)
+                            .settings(this::bulkSettings))))
+                    .doOnSuccess(relaxed -> log.info("Relaxed the settings of index [{}] for a bulk load", index))
+                    .onErrorResume(e -> {
+                        log.warn("Failed to relax the settings of index [{}] for a bulk load", index, e);
+                        return Mono.empty();
+                    })
+                    .thenReturn(index);
+        });
+    }
+
+    private Mono<Void> leaveBulkLoad(final String index) {
+        final boolean last;
+        final long since;
+        synchronized (this) {
+            last = --bulkLoads == 0;
+            since = bulkLoadingSince;
+            if (last) {
+                bulkLoadingSince = Long.MAX_VALUE;
+            }
+        }
+        if (!last) {
+            return Mono.empty();
+        }
+        return restore(index)
+                .doOnSuccess(done -> {
+                    translationBundleCache.invalidateAll();
+                    translationStatsCache.invalidate();
+                    translationReadReplica.rewind(since);
+                })
+                .doOnError(e -> log.error("Failed to restore the settings of index [{}] after a bulk load", index, e));
+    }
+
+    private Mono<Void> putTemplate() {
+        final String name = alias();
+        return Mono.fromFuture(() -> indices().existsIndexTemplate(ExistsIndexTemplateRequest.of(exists -> exists
+                        .name(name))))
+                .flatMap(exists -> exists.value()
+                        ? Mono.fromFuture(() -> indices().getIndexTemplate(GetIndexTemplateRequest.of(get -> get
+                                        .name(name))))
+                                .map(response -> response.indexTemplates().stream()
+                                        .map(IndexTemplateItem::indexTemplate)
+                                        .map(template -> template.version())
+                                        .filter(Objects::nonNull)
+                                        .findFirst()
+                                        .orElse(0L))
+                        : Mono.just(0L))
+                .flatMap(installed -> {
+                    if (installed > TEMPLATE_VERSION) {
+                        log.warn("Keeping index template [{}] of version [{}], newer than version [{}] of this "
+                                + "instance", name, installed, TEMPLATE_VERSION);
+                        return Mono.empty();
+                    }
+                    return elasticsearchTemplate.indexOps(TranslationDocument.class).createMapping()
+                            .flatMap(mapping -> Mono.fromFuture(() -> indices().putIndexTemplate(
+                                    PutIndexTemplateRequest.of(put -> put
+                                            .name(name)
+                                            .indexPatterns(name + VERSION_SEPARATOR + "*")
+                                            .version(TEMPLATE_VERSION)
+                                            .template(template -> template
+                                                    .settings(settings -> servingSettings(settings
+                                                            .withJson(new StringReader(analysisSettings())))
+                                                            .numberOfShards(String.valueOf(
+                                                                    translationProperties.getIndex().getShards())))
+                                                    .mappings(mappings -> mappings
+                                                            .withJson(new StringReader(mapping.toJson()))))))))
+                            .doOnSuccess(put -> log.info("Put index template [{}] of version [{}]", name,
+                                    TEMPLATE_VERSION))
+                            .then();
+                });
+    }
+
+    private IndexSettings.Builder servingSettings(final IndexSettings.Builder settings) {
+        final TranslationProperties.Index index = translationProperties.getIndex();
+        return settings
+                .numberOfReplicas(String.valueOf(index.getReplicas()))
+                .refreshInterval(time -> time.time(interval(index.getRefreshInterval())));
+    }
+
+    private IndexSettings.Builder bulkSettings(final IndexSettings.Builder settings) {
+        final TranslationProperties.Index index = translationProperties.getIndex();
+        return settings
+                .numberOfReplicas(String.valueOf(index.getBulkReplicas()))
+                .refreshInterval(time -> time.time(interval(index.getBulkRefreshInterval())));
+    }
+
+    private Mono<Boolean> exists(final String index) {
+        return Mono.fromFuture(() -> indices().exists(ExistsRequest.of(exists -> exists.index(index))))
+                .map(BooleanResponse::value);
+    }
+
+    private Mono<Boolean> isAlias(final String name) {
+        return Mono.fromFuture(() -> indices().existsAlias(ExistsAliasRequest.of(exists -> exists.name(name))))
+                .map(BooleanResponse::value);
+    }
+
+    private ElasticsearchIndicesAsyncClient indices() {
+        return elasticsearchAsyncClient.indices();
+    }
+
+    /**
+     * The analysis settings of {@link TranslationDocument}, from the file its {@link Setting} points to.
+     */
+    private static String analysisSettings() {
+        final String path = TranslationDocument.class.getAnnotation(Setting.class).settingPath();
+        try {
+            return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read index settings " + path, e);
+        }
+    }
+
+    /**
+     * An alias over a single index writes to it without being marked as its write index.
+     */
+    private static String writeIndexOf(final GetAliasResponse response, final String alias) {
+        return response.result().entrySet().stream()
+                .filter(entry -> isWriteIndex(entry.getValue(), alias) || response.result().size() == 1)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Alias " + alias + " has no write index"));
+    }
+
+    private static boolean isWriteIndex(final IndexAliases aliases, final String alias) {
+        return aliases.aliases().get(alias) != null
+                && Boolean.TRUE.equals(aliases.aliases().get(alias).isWriteIndex());
+    }
+
+    private static String interval(final Duration duration) {
+        return duration.isNegative() ? "-1" : duration.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,634 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.maintenance;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch._types.Slices;
+import co.elastic.clients.elasticsearch._types.SlicesCalculation;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryRequest;
+import co.elastic.clients.elasticsearch.core.ReindexRequest;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryRequest;
+import co.elastic.clients.elasticsearch.tasks.CancelRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.json.JsonData;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationNearCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
+import se.digitaltolk.translation.service.index.TranslationIndexManager;
+import se.digitaltolk.translation.service.sync.TranslationTombstones;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationJobState;
+import se.digitaltolk.translation.web.dto.TranslationJobStep;
+import se.digitaltolk.translation.web.dto.TranslationJobType;
+
+/**
+ * Runs maintenance over many translations as throttled Elasticsearch update by query, delete by query and reindex
+ * tasks, started without waiting for completion and polled for progress. A job is a sequence of such tasks: a
+ * delete first copies the matching translations into tombstones so delta syncs learn about it, and with natural key
+ * ids a retag is a copy under the new ids followed by a delete, as the id of a document cannot be updated in place.
+ * With random ids a retag updates in place, after tombstoning the tag each translation moves away from under an id
+ * of its own, so delta syncs filtered to that tag drop it.
+ * Tombstones and deletes only cover translations last written before the job started, so a translation written
+ * while the job runs is neither deleted without a tombstone nor deleted at all, nor retagged in place.
+ *
+ * <p>Copies never overwrite: where a translation already exists under the target id it is kept, and the copy of
+ * the source is counted as a version conflict of the copy step. A natural key retag then deletes the source, so
+ * its value is dropped in favour of the existing target, and the status of the job reports how many were. A
+ * retagged translation keeps its creation time, a translation copied to another locale is created by the job.
+ *
+ * <p>Every document a job writes is stamped with the start of the job rather than the time it is written, so while
+ * a job runs delta sync watermarks are held below its start, and afterwards the read replica re-reads from it and
+ * the caches are dropped. Jobs are tracked by the instance that started them and forgotten after the retention.
+ *
+ * <p>A reindex copies every translation into the next index version, created with the bulk settings, keeping their
+ * versions so copies can be repeated. It then copies what changed since it started, deletes what was deleted since,
+ * restores the settings and moves the alias, and copies once more what was written to the previous index until the
+ * alias moved. A delete in the seconds between the last purge and the move is not carried over, and sequence numbers
+ * read before the move are rejected as conflicts after it. A reindex runs alone, without other jobs writing behind
+ * it, and a failed one leaves its index to be replaced by the next.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationMaintenanceJobs {
+
+    private static final String RETAG_SCRIPT = """
+            ctx._source.tag = params.tag;
+            long stamp = params.now;
+            def updatedAt = ctx._source.updatedAt;
+            if (updatedAt != null && updatedAt >= stamp) {
+                stamp = updatedAt + 1;
+            }
+            ctx._source.updatedAt = stamp;
+            """;
+
+    /**
+     * Natural key ids are derived like {@code TranslationMapper.naturalId}, other copies get an id derived from the
+     * source id and the target so that running the same copy twice does not duplicate translations.
+     */
+    private static final String COPY_SCRIPT = """
+            String locale = params.locale != null ? params.locale : ctx._source.locale;
+            String tag = params.tag != null ? params.tag : ctx._source.tag;
+            String seed = params.naturalKey ? ctx._source.key : ctx._id;
+            String id = (seed + params.separator + locale + params.separator + tag).sha256().substring(0, 32);
+            ctx._id = id;
+            ctx._source.id = id;
+            ctx._source.locale = locale;
+            ctx._source.tag = tag;
+            if (!params.keepCreatedAt || ctx._source.createdAt == null) {
+                ctx._source.createdAt = params.now;
+            }
+            ctx._source.updatedAt = params.now;
+            """;
+
+    /**
+     * Stamped like {@link #RETAG_SCRIPT} stamps the retagged translation. The tombstone of a move is stored under the
+     * id {@code TranslationTombstones.movedId} derives, as the translation itself still exists.
+     */
+    private static final String TOMBSTONE_SCRIPT = """
+            long deletedAt = params.now;
+            def updatedAt = ctx._source.updatedAt;
+            if (updatedAt != null && updatedAt >= deletedAt) {
+                deletedAt = updatedAt + 1;
+            }
+            String translationId = null;
+            if (params.moved) {
+                translationId = ctx._id;
+                ctx._id = translationId + params.moveSeparator + ctx._source.locale + params.moveSeparator
+                        + ctx._source.tag;
+            }
+            ctx._source = ['_class': params.tombstoneClass, 'id': ctx._id, 'translationId': translationId,
+                    'key': ctx._source.key, 'locale': ctx._source.locale, 'tag': ctx._source.tag,
+                    'deletedAt': deletedAt];
+            """;
+
+    private static final String PURGE_SCRIPT = "ctx.op = 'delete';";
+
+    private static final String UPDATED_AT_FIELD = "updatedAt";
+
+    ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    TranslationProperties translationProperties;
+
+    TranslationNearCache translationNearCache;
+
+    TranslationBundleCache translationBundleCache;
+
+    TranslationStatsCache translationStatsCache;
+
+    TranslationReadReplica translationReadReplica;
+
+    TranslationIndexManager translationIndexManager;
+
+    Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public Mono<TranslationJob> submit(final TranslationJobRequest request) {
+        prune();
+        final Job job = new Job(UUID.randomUUID().toString(), request, Instant.now().toEpochMilli(), steps(request));
+        synchronized (jobs) {
+            if (request.type() == TranslationJobType.REINDEX ? runningSince() != Long.MAX_VALUE : isReindexing()) {
+                return Mono.error(new BusinessServiceException(ErrorCodeEnum.CONFLICT,
+                        "A reindex runs alone, submit again once the running maintenance jobs finished"));
+            }
+            jobs.put(job.id, job);
+        }
+        final TranslationJob submitted = job.snapshot();
+        log.info("Starting maintenance job [{}] with steps {} for request [{}]", job.id, job.steps, request);
+        Flux.range(0, job.steps.size())
+                .concatMap(index -> job.isCancelled() ? Mono.<Void>empty() : runStep(job, index))
+                .subscribe(null, error -> finish(job, error), () -> finish(job, null));
+        return Mono.just(submitted);
+    }
+
+    public Mono<TranslationJob> find(final String jobId) {
+        return Mono.justOrEmpty(jobs.get(jobId))
+                .map(Job::snapshot)
+                .switchIfEmpty(Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND,
+                        "Maintenance job not found: " + jobId)));
+    }
+
+    /**
+     * Cancels the running task of the job and skips the steps after it. Work the task already did is not undone.
+     */
+    public Mono<TranslationJob> cancel(final String jobId) {
+        final Job job = jobs.get(jobId);
+        if (job == null) {
+            return Mono.error(new BusinessServiceException(ErrorCodeEnum.NOT_FOUND, "Maintenance job not found: " + jobId));
+        }
+        final String taskId = job.cancel();
+        log.info("Cancelling maintenance job [{}] with running task [{}]", jobId, taskId);
+        return (taskId == null
+                ? Mono.<Void>empty()
+                : Mono.fromFuture(() -> elasticsearchAsyncClient.tasks()
+                        .cancel(CancelRequest.of(cancel -> cancel.taskId(taskId)))).then())
+                .then(Mono.fromSupplier(job::snapshot));
+    }
+
+    /**
+     * Start of the oldest running job, {@link Long#MAX_VALUE} when none runs. Documents changed by jobs carry
+     * their start as time of change.
+     */
+    public long runningSince() {
+        return jobs.values().stream()
+                .filter(job -> !job.snapshot().state().isFinished())
+                .mapToLong(job -> job.startedAt)
+                .min()
+                .orElse(Long.MAX_VALUE);
+    }
+
+    private List<Step> steps(final TranslationJobRequest request) {
+        return switch (request.type()) {
+            case DELETE -> List.of(Step.TOMBSTONES, Step.DELETE);
+            case RETAG -> naturalKeyIds() ? List.of(Step.COPY, Step.TOMBSTONES, Step.DELETE)
+                    : List.of(Step.MOVE_TOMBSTONES, Step.RETAG);
+            case COPY_LOCALE -> List.of(Step.COPY);
+            case REINDEX -> translationProperties.getIndex().isDeletePrevious()
+                    ? List.of(Step.PREPARE, Step.REINDEX, Step.CATCH_UP, Step.PURGE, Step.SWAP, Step.CATCH_UP, Step.DROP)
+                    : List.of(Step.PREPARE, Step.REINDEX, Step.CATCH_UP, Step.PURGE, Step.SWAP, Step.CATCH_UP);
+        };
+    }
+
+    private boolean isReindexing() {
+        return jobs.values().stream()
+                .anyMatch(job -> job.request.type() == TranslationJobType.REINDEX
+                        && !job.snapshot().state().isFinished());
+    }
+
+    private Mono<Void> runStep(final Job job, final int index) {
+        final Step step = job.steps.get(index);
+        if (!step.task) {
+            job.started(index, null);
+            return run(step, job)
+                    .doOnSuccess(done -> {
+                        log.info("Maintenance job [{}] completed step [{}]", job.id, step.label);
+                        job.finished(index, TranslationJobState.COMPLETED);
+                    });
+        }
+        return start(step, job)
+                .switchIfEmpty(Mono.fromRunnable(() -> job.finished(index, TranslationJobState.COMPLETED)))
+                .doOnNext(taskId -> {
+                    log.info("Maintenance job [{}] started step [{}] as task [{}]", job.id, step.label, taskId);
+                    job.started(index, taskId);
+                })
+                .flatMap(taskId -> Flux.interval(Duration.ZERO, translationProperties.getJobs().getPollInterval())
+                        .onBackpressureDrop()
+                        .concatMap(tick -> Mono.fromFuture(() -> elasticsearchAsyncClient.tasks()
+                                .get(GetTasksRequest.of(get -> get.taskId(taskId)))))
+                        .doOnNext(response -> job.progress(index, taskId, progressOf(response)))
+                        .takeUntil(GetTasksResponse::completed)
+                        .last()
+                        .flatMap(response -> complete(job, index, response)));
+    }
+
+    /**
+     * Steps changing indices rather than documents, run by this instance.
+     */
+    private Mono<Void> run(final Step step, final Job job) {
+        return switch (step) {
+            case PREPARE -> translationIndexManager.writeIndex()
+                    .flatMap(source -> {
+                        final String target = translationIndexManager.nextIndex(source);
+                        job.indices(source, target);
+                        log.info("Maintenance job [{}] reindexes [{}] into [{}]", job.id, source, target);
+                        return translationIndexManager.refresh(source)
+                                .then(translationIndexManager.createForBulkLoad(target));
+                    });
+            case SWAP -> translationIndexManager.restore(job.targetIndex())
+                    .then(translationIndexManager.swap(job.sourceIndex(), job.targetIndex()))
+                    .doOnSuccess(done -> job.swapped());
+            case DROP -> translationIndexManager.isUnmanaged(job.sourceIndex())
+                    ? Mono.empty()
+                    : translationIndexManager.delete(job.sourceIndex());
+            default -> Mono.error(new IllegalStateException("Step " + step.label + " runs as a task"));
+        };
+    }
+
+    /**
+     * Starts the task of a step, completing empty when the step has nothing to do.
+     */
+    private Mono<String> start(final Step step, final Job job) {
+        final TranslationJobRequest request = job.request;
+        final TranslationProperties.Jobs properties = translationProperties.getJobs();
+        final Float requestsPerSecond = request.requestsPerSecond() == null
+                ? properties.getRequestsPerSecond()
+                : request.requestsPerSecond();
+        final int sliceCount = request.slices() == null ? properties.getSlices() : request.slices();
+        final Slices slices = sliceCount == 0
+                ? Slices.of(s -> s.computed(SlicesCalculation.Auto))
+                : Slices.of(s -> s.value(sliceCount));
+        final String translations = indexName(TranslationDocument.class);
+        final Query query = filter(request.locale(), request.tag(), null);
+        final Query unchanged = filter(request.locale(), request.tag(), job.startedAt);
+        final Map<String, JsonData> params = new HashMap<>();
+        params.put("now", JsonData.of(job.startedAt));
+        return switch (step) {
+            case RETAG -> {
+                params.put("tag", JsonData.of(request.targetTag()));
+                yield Mono.fromFuture(() -> elasticsearchAsyncClient.updateByQuery(UpdateByQueryRequest.of(update -> update
+                                .index(translations)
+                                .query(unchanged)
+                                .script(script(RETAG_SCRIPT, params))
+                                .conflicts(Conflicts.Proceed)
+                                .requestsPerSecond(requestsPerSecond)
+                                .slices(slices)
+                                .refresh(true)
+                                .waitForCompletion(false))))
+                        .map(response -> response.task());
+            }
+            case COPY -> {
+                if (StringUtils.isNotBlank(request.targetLocale())) {
+                    params.put("locale", JsonData.of(request.targetLocale()));
+                }
+                if (StringUtils.isNotBlank(request.targetTag())) {
+                    params.put("tag", JsonData.of(request.targetTag()));
+                }
+                params.put("naturalKey", JsonData.of(naturalKeyIds()));
+                params.put("keepCreatedAt", JsonData.of(request.type() == TranslationJobType.RETAG));
+                params.put("separator", JsonData.of("\u0000"));
+                yield Mono.fromFuture(() -> elasticsearchAsyncClient.reindex(ReindexRequest.of(reindex -> reindex
+                                .source(source -> source.index(translations).query(query))
+                                .dest(dest -> dest.index(translations).opType(OpType.Create))
+                                .script(script(COPY_SCRIPT, params))
+                                .conflicts(Conflicts.Proceed)
+                                .requestsPerSecond(requestsPerSecond)
+                                .slices(slices)
+                                .refresh(true)
+                                .waitForCompletion(false))))
+                        .map(response -> response.task());
+            }
+            case TOMBSTONES, MOVE_TOMBSTONES -> {
+                params.put("tombstoneClass", JsonData.of(TranslationTombstone.class.getName()));
+                params.put("moved", JsonData.of(step == Step.MOVE_TOMBSTONES));
+                params.put("moveSeparator", JsonData.of(TranslationTombstones.MOVE_SEPARATOR));
+                yield Mono.fromFuture(() -> elasticsearchAsyncClient.reindex(ReindexRequest.of(reindex -> reindex
+                                .source(source -> source.index(translations).query(unchanged))
+                                .dest(dest -> dest.index(indexName(TranslationTombstone.class)))
+                                .script(script(TOMBSTONE_SCRIPT, params))
+                                .conflicts(Conflicts.Proceed)
+                                .requestsPerSecond(requestsPerSecond)
+                                .slices(slices)
+                                .refresh(true)
+                                .waitForCompletion(false))))
+                        .map(response -> response.task());
+            }
+            case DELETE -> Mono.fromFuture(() -> elasticsearchAsyncClient.deleteByQuery(DeleteByQueryRequest.of(delete -> delete
+                            .index(translations)
+                            .query(unchanged)
+                            .conflicts(Conflicts.Proceed)
+                            .requestsPerSecond(requestsPerSecond)
+                            .slices(slices)
+                            .refresh(true)
+                            .waitForCompletion(false))))
+                    .map(response -> response.task());
+            case REINDEX, CATCH_UP -> {
+                // the index of the alias name is removed by the swap, and with it what a later catch-up would copy
+                if (job.isSwapped() && translationIndexManager.isUnmanaged(job.sourceIndex())) {
+                    yield Mono.empty();
+                }
+                final String source = job.sourceIndex();
+                final String target = job.targetIndex();
+                final Query copied = step == Step.REINDEX
+                        ? Query.of(all -> all.matchAll(matchAll -> matchAll))
+                        : changedSince(UPDATED_AT_FIELD, catchUpSince(job));
+                final boolean refresh = job.isSwapped();
+                yield Mono.fromFuture(() -> elasticsearchAsyncClient.reindex(ReindexRequest.of(reindex -> reindex
+                                .source(from -> from.index(source).query(copied))
+                                .dest(dest -> dest.index(target).versionType(VersionType.External))
+                                .conflicts(Conflicts.Proceed)
+                                .requestsPerSecond(requestsPerSecond)
+                                .slices(slices)
+                                .refresh(refresh)
+                                .waitForCompletion(false))))
+                        .map(response -> response.task());
+            }
+            case PURGE -> {
+                final String target = job.targetIndex();
+                yield Mono.fromFuture(() -> elasticsearchAsyncClient.reindex(ReindexRequest.of(reindex -> reindex
+                                .source(source -> source.index(indexName(TranslationTombstone.class))
+                                        .query(changedSince(TranslationTombstones.DELETED_AT_FIELD, catchUpSince(job))))
+                                .dest(dest -> dest.index(target))
+                                .script(script(PURGE_SCRIPT, params))
+                                .conflicts(Conflicts.Proceed)
+                                .requestsPerSecond(requestsPerSecond)
+                                .slices(slices)
+                                .waitForCompletion(false))))
+                        .map(response -> response.task());
+            }
+            case PREPARE, SWAP, DROP -> Mono.error(new IllegalStateException("Step " + step.label + " runs locally"));
+        };
+    }
+
+    /**
+     * Writes stamped up to the settle delay before the start of the job may have missed the copy.
+     */
+    private long catchUpSince(final Job job) {
+        return job.startedAt - translationProperties.getSync().getSettleDelay().toMillis();
+    }
+
+    private Mono<Void> complete(final Job job, final int index, final GetTasksResponse response) {
+        final String failure = failureOf(response);
+        if (failure != null) {
+            return Mono.error(new IllegalStateException("Step " + job.steps.get(index).label + " failed: " + failure));
+        }
+        final boolean cancelled = response.response() != null
+                && response.response().toJson().asJsonObject().containsKey("canceled");
+        if (cancelled) {
+            job.cancel();
+        }
+        job.finished(index, cancelled ? TranslationJobState.CANCELLED : TranslationJobState.COMPLETED);
+        return Mono.empty();
+    }
+
+    /**
+     * Caches are dropped before the job is reported finished, so a client that saw it finish reads its changes.
+     */
+    private void finish(final Job job, final Throwable error) {
+        translationNearCache.invalidateAll();
+        translationBundleCache.invalidateAll();
+        translationStatsCache.invalidate();
+        translationReadReplica.rewind(job.startedAt);
+        final TranslationJob status = job.finish(error == null ? null : error.getMessage());
+        if (error == null) {
+            log.info("Maintenance job [{}] finished as [{}] with steps {}", job.id, status.state(), status.steps());
+        } else {
+            log.error("Maintenance job [{}] failed", job.id, error);
+        }
+    }
+
+    private void prune() {
+        final long cutoff = Instant.now().minus(translationProperties.getJobs().getRetention()).toEpochMilli();
+        jobs.values().removeIf(job -> {
+            final Long finishedAt = job.snapshot().finishedAt();
+            return finishedAt != null && finishedAt < cutoff;
+        });
+    }
+
+    private boolean naturalKeyIds() {
+        return translationProperties.getIdentity().isNaturalKey();
+    }
+
+    private String indexName(final Class<?> type) {
+        return elasticsearchTemplate.getIndexCoordinatesFor(type).getIndexName();
+    }
+
+    private static Script script(final String source, final Map<String, JsonData> params) {
+        return Script.of(script -> script.source(source).params(params));
+    }
+
+    private static Query changedSince(final String field, final long since) {
+        return Query.of(query -> query.range(range -> range.number(number -> number.field(field).gte((double) since))));
+    }
+
+    /**
+     * Translations of the locale and tag, either optional, and with {@code writtenBefore} only those not written
+     * since. Translations without an update time count as written before.
+     */
+    private static Query filter(final String locale, final String tag, final Long writtenBefore) {
+        return Query.of(query -> query.bool(bool -> {
+            if (writtenBefore != null) {
+                bool.mustNot(changedSince(UPDATED_AT_FIELD, writtenBefore));
+            }
+            if (StringUtils.isNotBlank(locale)) {
+                bool.filter(filter -> filter.term(term -> term.field("locale").value(locale)));
+            }
+            if (StringUtils.isNotBlank(tag)) {
+                bool.filter(filter -> filter.term(term -> term.field("tag").value(tag)));
+            }
+            return bool;
+        }));
+    }
+
+    /**
+     * Counters of a by-query or reindex task, from its final response once completed and its status before.
+     */
+    private static JsonObject progressOf(final GetTasksResponse response) {
+        final JsonData data = response.completed() && response.response() != null
+                ? response.response()
+                : response.task().status();
+        return data == null ? JsonValue.EMPTY_JSON_OBJECT : data.toJson().asJsonObject();
+    }
+
+    private static String failureOf(final GetTasksResponse response) {
+        if (response.error() != null) {
+            return response.error().reason();
+        }
+        if (response.response() == null) {
+            return null;
+        }
+        final JsonValue failures = response.response().toJson().asJsonObject().get("failures");
+        if (failures instanceof JsonArray array && !array.isEmpty()) {
+            return array.size() + " failures, first " + array.getFirst();
+        }
+        return null;
+    }
+
+    private static long count(final JsonObject progress, final String field) {
+        final JsonNumber number = progress.getJsonNumber(field);
+        return number == null ? 0L : number.longValue();
+    }
+
+    private enum Step {
+        RETAG("retag", true),
+        COPY("copy", true),
+        TOMBSTONES("tombstones", true),
+        MOVE_TOMBSTONES("move-tombstones", true),
+        DELETE("delete", true),
+        PREPARE("prepare", false),
+        REINDEX("reindex", true),
+        CATCH_UP("catch-up", true),
+        PURGE("purge", true),
+        SWAP("swap", false),
+        DROP("drop-previous", false);
+
+        private final String label;
+
+        /**
+         * Whether the step runs as an Elasticsearch task rather than a few requests of this instance.
+         */
+        private final boolean task;
+
+        Step(final String label, final boolean task) {
+            this.label = label;
+            this.task = task;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final TranslationJobRequest request;
+        private final long startedAt;
+        private final List<Step> steps;
+        private final TranslationJobStep[] progress;
+        private TranslationJobState state = TranslationJobState.RUNNING;
+        private Long finishedAt;
+        private String error;
+        private String runningTaskId;
+        private boolean cancelled;
+        private String sourceIndex;
+        private String targetIndex;
+        private boolean swapped;
+
+        private Job(final String id, final TranslationJobRequest request, final long startedAt, final List<Step> steps) {
+            this.id = id;
+            this.request = request;
+            this.startedAt = startedAt;
+            this.steps = steps;
+            this.progress = steps.stream().map(step -> TranslationJobStep.pending(step.label))
+                    .toArray(TranslationJobStep[]::new);
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Marks the job cancelled and returns the task to cancel, if one is running.
+         */
+        synchronized String cancel() {
+            cancelled = !state.isFinished();
+            return cancelled ? runningTaskId : null;
+        }
+
+        synchronized void indices(final String source, final String target) {
+            sourceIndex = source;
+            targetIndex = target;
+        }
+
+        synchronized String sourceIndex() {
+            return sourceIndex;
+        }
+
+        synchronized String targetIndex() {
+            return targetIndex;
+        }
+
+        synchronized void swapped() {
+            swapped = true;
+        }
+
+        synchronized boolean isSwapped() {
+            return swapped;
+        }
+
+        synchronized void started(final int index, final String taskId) {
+            runningTaskId = taskId;
+            progress[index] = progress[index].withState(TranslationJobState.RUNNING).withProgress(taskId, 0, 0, 0, 0, 0);
+        }
+
+        synchronized void progress(final int index, final String taskId, final JsonObject counters) {
+            progress[index] = progress[index].withProgress(taskId, count(counters, "total"),
+                    count(counters, "created"), count(counters, "updated"), count(counters, "deleted"),
+                    count(counters, "version_conflicts"));
+        }
+
+        synchronized void finished(final int index, final TranslationJobState stepState) {
+            runningTaskId = null;
+            progress[index] = progress[index].withState(stepState);
+        }
+
+        synchronized TranslationJob finish(final String failure) {
+            for (int index = 0; index < progress.length; index++) {
+                if (progress[index].state() == TranslationJobState.RUNNING) {
+                    progress[index] = progress[index].withState(failure == null
+                            ? TranslationJobState.CANCELLED
+                            : TranslationJobState.FAILED);
+                }
+            }
+            state = failure != null
+                    ? TranslationJobState.FAILED
+                    : cancelled ? TranslationJobState.CANCELLED : TranslationJobState.COMPLETED;
+            error = failure;
+            finishedAt = Instant.now().toEpochMilli();
+            runningTaskId = null;
+            return snapshot();
+        }
+
+        synchronized TranslationJob snapshot() {
+            return new TranslationJob(id, request, state, startedAt, finishedAt, error, Arrays.asList(progress.clone()));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records compressed bodies: the CPU time spent compressing in {@code translation.compression} and the ratio of
+ * uncompressed to compressed size in {@code translation.compression.ratio}, both tagged with the {@code source} of
+ * the body (a precompressed bundle or a response compressed on the fly) and its {@code encoding}.
+ */
+public final class CompressionMeters {
+
+    public static final String COMPRESSION_METRIC = "translation.compression";
+
+    public static final String RATIO_SUFFIX = ".ratio";
+
+    private CompressionMeters() {
+    }
+
+    public static void record(
+            final MeterRegistry meterRegistry,
+            final String source,
+            final String encoding,
+            final long nanos,
+            final long uncompressedBytes,
+            final long compressedBytes
+    ) {
+        final Tags tags = Tags.of("source", source, "encoding", encoding);
+        Timer.builder(COMPRESSION_METRIC)
+                .description("Time spent compressing a body")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (compressedBytes > 0) {
+            DistributionSummary.builder(COMPRESSION_METRIC + RATIO_SUFFIX)
+                    .description("Uncompressed size of a body divided by its compressed size")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record((double) uncompressedBytes / compressedBytes);
+        }
+    }
+}
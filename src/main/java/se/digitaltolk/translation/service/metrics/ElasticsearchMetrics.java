@@ -0,0 +1,130 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.metrics;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Times every request of the Elasticsearch clients as {@code translation.elasticsearch}, tagged with the API
+ * {@code operation} (search, bulk, index, ...) and the HTTP {@code status}. Searches and multi-gets record how many
+ * documents they returned, bulk requests how many operations and bytes they carried; the rate of
+ * {@code translation.elasticsearch.bulk.documents} is the bulk throughput.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ElasticsearchMetrics implements Instrumentation {
+
+    public static final String METRIC_NAME = "translation.elasticsearch";
+
+    /**
+     * Endpoint ids are namespaced, e.g. {@code es/search}.
+     */
+    private static final String ENDPOINT_PREFIX = "es/";
+
+    MeterRegistry meterRegistry;
+
+    @Override
+    public <TRequest> Context newContext(final TRequest request, final Endpoint<TRequest, ?, ?> endpoint) {
+        return new MetricsContext(StringUtils.removeStart(endpoint.id(), ENDPOINT_PREFIX), request);
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private final class MetricsContext implements Context {
+
+        final String operation;
+        final Object request;
+        final Timer.Sample sample;
+        String status = "IO_ERROR";
+        Throwable error;
+
+        private MetricsContext(final String operation, final Object request) {
+            this.operation = operation;
+            this.request = request;
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        @Override
+        public ThreadScope makeCurrent() {
+            return () -> {
+            };
+        }
+
+        @Override
+        public void beforeSendingHttpRequest(final TransportHttpClient.Request httpRequest, final TransportOptions options) {
+            if (request instanceof BulkRequest bulk) {
+                final Tags tags = Tags.of("operation", operation);
+                DistributionSummary.builder(METRIC_NAME + ".bulk.size")
+                        .description("Operations per bulk request")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(bulk.operations().size());
+                Counter.builder(METRIC_NAME + ".bulk.documents")
+                        .description("Operations sent in bulk requests")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .increment(bulk.operations().size());
+                if (httpRequest.body() != null) {
+                    long bytes = 0;
+                    for (ByteBuffer buffer : httpRequest.body()) {
+                        bytes += buffer.remaining();
+                    }
+                    DistributionSummary.builder(METRIC_NAME + ".bulk.bytes")
+                            .description("Body size of bulk requests")
+                            .baseUnit("bytes")
+                            .tags(tags)
+                            .register(meterRegistry)
+                            .record(bytes);
+                }
+            }
+        }
+
+        @Override
+        public void afterReceivingHttpResponse(final TransportHttpClient.Response httpResponse) {
+            status = Integer.toString(httpResponse.statusCode());
+        }
+
+        @Override
+        public <TResponse> void afterDecodingApiResponse(final TResponse response) {
+            final long results;
+            if (response instanceof ResponseBody<?> body) {
+                results = body.hits().hits().size();
+            } else if (response instanceof MgetResponse<?> mget) {
+                results = mget.docs().stream().filter(doc -> doc.isResult() && doc.result().found()).count();
+            } else {
+                return;
+            }
+            ReactiveMeters.results(meterRegistry, METRIC_NAME, Tags.of("operation", operation)).record(results);
+        }
+
+        @Override
+        public void recordException(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void close() {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Requests to Elasticsearch")
+                    .tags("operation", operation, "status", status,
+                            "exception", error == null ? "none" : error.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times reactive pipelines from subscription to termination. The timer is tagged with the {@code outcome}
+ * (SUCCESS, ERROR or CANCELLED) and the simple name of the {@code exception}, and for a {@link Flux} the number
+ * of emitted elements is recorded in a {@code <name>.results} distribution when it completes.
+ */
+public final class ReactiveMeters {
+
+    public static final String RESULTS_SUFFIX = ".results";
+
+    private ReactiveMeters() {
+    }
+
+    public static <T> Mono<T> timed(final Mono<T> source, final MeterRegistry meterRegistry, final String name,
+            final Tags tags) {
+        return Mono.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            return source
+                    .doOnError(error::set)
+                    .doFinally(signal -> stop(sample, meterRegistry, name, tags, signal, error.get()));
+        });
+    }
+
+    public static <T> Flux<T> timed(final Flux<T> source, final MeterRegistry meterRegistry, final String name,
+            final Tags tags) {
+        return Flux.defer(() -> {
+            final Timer.Sample sample = Timer.start(meterRegistry);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final AtomicLong results = new AtomicLong();
+            return source
+                    .doOnNext(element -> results.incrementAndGet())
+                    .doOnError(error::set)
+                    .doFinally(signal -> {
+                        stop(sample, meterRegistry, name, tags, signal, error.get());
+                        if (signal == SignalType.ON_COMPLETE) {
+                            results(meterRegistry, name, tags).record(results.get());
+                        }
+                    });
+        });
+    }
+
+    public static DistributionSummary results(final MeterRegistry meterRegistry, final String name, final Tags tags) {
+        return DistributionSummary.builder(name + RESULTS_SUFFIX)
+                .description("Number of results per call")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static void stop(
+            final Timer.Sample sample,
+            final MeterRegistry meterRegistry,
+            final String name,
+            final Tags tags,
+            final SignalType signal,
+            final Throwable error
+    ) {
+        final String outcome = switch (signal) {
+            case ON_COMPLETE -> "SUCCESS";
+            case ON_ERROR -> "ERROR";
+            default -> "CANCELLED";
+        };
+        sample.stop(Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+}
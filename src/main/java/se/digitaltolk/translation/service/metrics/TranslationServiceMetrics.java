@@ -0,0 +1,63 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.service.TranslationService;
+
+/**
+ * Wraps the {@link TranslationService} bean so every operation is timed as {@code translation.service}, tagged
+ * with the {@code method}, and operations streaming results also record their count. Event streams stay open for
+ * as long as a client listens and are left out.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationServiceMetrics implements BeanPostProcessor {
+
+    public static final String METRIC_NAME = "translation.service";
+
+    private static final Set<String> UNTIMED_METHODS = Set.of("streamChanges");
+
+    /**
+     * Looked up lazily, post-processors are created before the registry.
+     */
+    ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (!(bean instanceof TranslationService)) {
+            return bean;
+        }
+        final ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            final String method = invocation.getMethod().getName();
+            final Object result = invocation.proceed();
+            if (UNTIMED_METHODS.contains(method)) {
+                return result;
+            }
+            final Tags tags = Tags.of("method", method);
+            if (result instanceof Mono<?> mono) {
+                return ReactiveMeters.timed(mono, meterRegistry.getObject(), METRIC_NAME, tags);
+            }
+            if (result instanceof Flux<?> flux) {
+                return ReactiveMeters.timed(flux, meterRegistry.getObject(), METRIC_NAME, tags);
+            }
+            return result;
+        });
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.web.dto.TranslationChange;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+
+/**
+ * Live feed of the changes made through this instance. Every subscriber reads through its own bounded buffer, so
+ * a slow client loses events according to its overflow policy instead of holding back the others. Changes made
+ * through other instances are not part of the feed; clients catch up on those, and on anything missed while
+ * disconnected, with the delta sync.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationChangeFeed {
+
+    TranslationProperties translationProperties;
+
+    Sinks.Many<TranslationChange> sink = Sinks.many().multicast().directBestEffort();
+
+    AtomicInteger subscribers = new AtomicInteger();
+
+    Counter dropped;
+
+    Counter unpublished;
+
+    public TranslationChangeFeed(final TranslationProperties translationProperties, final MeterRegistry meterRegistry) {
+        this.translationProperties = translationProperties;
+        this.dropped = Counter.builder("translation.feed.dropped")
+                .description("Change events dropped because a subscriber fell behind")
+                .register(meterRegistry);
+        this.unpublished = Counter.builder("translation.feed.unpublished")
+                .description("Change events that could not be handed to the subscribers")
+                .register(meterRegistry);
+        Gauge.builder("translation.feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Open change event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Best effort: runs on the write path once the change is persisted, so it never waits or fails. Publishes are
+     * serialized, as concurrent writers would otherwise fail each other, and events the sink does not accept are
+     * only counted.
+     */
+    public void publish(final TranslationChange change) {
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        final Sinks.EmitResult result;
+        synchronized (sink) {
+            result = sink.tryEmitNext(change);
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            unpublished.increment();
+            log.warn("Change event of translation [{}] not published: [{}]", change.id(), result);
+        }
+    }
+
+    /**
+     * Change events of a locale and tag, either optional, as server-sent events with the time of the change as
+     * event id, interleaved with heartbeat comments.
+     */
+    public Flux<ServerSentEvent<TranslationChange>> subscribe(
+            final String locale,
+            final String tag,
+            final TranslationFeedOverflow overflow
+    ) {
+        final TranslationProperties.Feed feed = translationProperties.getFeed();
+        final Flux<TranslationChange> changes = sink.asFlux()
+                .filter(change -> (StringUtils.isBlank(locale) || locale.equals(change.locale()))
+                        && (StringUtils.isBlank(tag) || tag.equals(change.tag())));
+        final Flux<TranslationChange> buffered = (overflow == null ? feed.getOverflow() : overflow)
+                == TranslationFeedOverflow.LATEST
+                ? changes.onBackpressureLatest()
+                : changes.onBackpressureBuffer(feed.getBufferSize(), change -> dropped.increment(),
+                        BufferOverflowStrategy.DROP_LATEST);
+        final Flux<ServerSentEvent<TranslationChange>> events = buffered
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(String.valueOf(change.changedAt()))
+                        .event(change.type().name())
+                        .build());
+        final Flux<ServerSentEvent<TranslationChange>> heartbeats = Flux.interval(feed.getHeartbeat())
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<TranslationChange>builder().comment("heartbeat").build());
+        // a prefetch of one keeps the merge from draining the subscriber buffer into a queue of its own
+        return Flux.merge(1, events, heartbeats)
+                .doOnSubscribe(subscription -> log.info("Change feed subscribed for locale=[{}], tag=[{}], open [{}]",
+                        locale, tag, subscribers.incrementAndGet()))
+                .doFinally(signal -> log.info("Change feed closed with [{}], open [{}]",
+                        signal, subscribers.decrementAndGet()));
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.sync;
+
+import reactor.core.publisher.Flux;
+import se.digitaltolk.translation.web.dto.TranslationChange;
+
+/**
+ * Changes between the watermark a client sent and {@code watermark}, ordered by the time of the change. The client
+ * passes {@code watermark} as {@code since} of its next sync.
+ */
+public record TranslationChangeSet(long watermark, Flux<TranslationChange> changes) {
+
+}
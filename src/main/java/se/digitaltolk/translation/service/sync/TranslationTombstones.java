@@ -0,0 +1,141 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.sync;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+
+/**
+ * Records a tombstone for every deleted translation so delta syncs can report the deletion, and removes
+ * tombstones once they are past their retention.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationTombstones {
+
+    public static final String DELETED_AT_FIELD = "deletedAt";
+
+    public static final String MOVE_SEPARATOR = "@";
+
+    TranslationTombstoneRepository translationTombstoneRepository;
+
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    TranslationProperties translationProperties;
+
+    @NonFinal
+    volatile Disposable pruning;
+
+    public Mono<TranslationTombstone> record(final TranslationDocument deleted) {
+        return save(tombstoneOf(deleted));
+    }
+
+    public Mono<TranslationTombstone> save(final TranslationTombstone tombstone) {
+        return translationTombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * The deletion is stamped no earlier than the last update of the translation, so a client applying changes in
+     * order never sees the delete before the update it removes.
+     */
+    public static TranslationTombstone tombstoneOf(final TranslationDocument deleted) {
+        final TranslationTombstone tombstone = new TranslationTombstone();
+        tombstone.setId(deleted.getId());
+        tombstone.setKey(deleted.getKey());
+        tombstone.setLocale(deleted.getLocale());
+        tombstone.setTag(deleted.getTag());
+        tombstone.setDeletedAt(Math.max(Instant.now().toEpochMilli(),
+                deleted.getUpdatedAt() == null ? 0L : deleted.getUpdatedAt() + 1));
+        return tombstone;
+    }
+
+    /**
+     * Tombstone of the locale and tag a translation left when a change moved it there under the same id, empty when
+     * neither changed. Stamped with the update of the moved translation, so a delta sync filtered to what it left
+     * drops it, and one that sees both applies the delete before the upsert.
+     */
+    public static Optional<TranslationTombstone> movedFrom(
+            final TranslationTombstone previous,
+            final TranslationDocument moved
+    ) {
+        if (Objects.equals(previous.getLocale(), moved.getLocale()) && Objects.equals(previous.getTag(), moved.getTag())) {
+            return Optional.empty();
+        }
+        final TranslationTombstone tombstone = new TranslationTombstone();
+        tombstone.setId(movedId(previous.getId(), previous.getLocale(), previous.getTag()));
+        tombstone.setTranslationId(previous.getId());
+        tombstone.setKey(previous.getKey());
+        tombstone.setLocale(previous.getLocale());
+        tombstone.setTag(previous.getTag());
+        tombstone.setDeletedAt(moved.getUpdatedAt());
+        return Optional.of(tombstone);
+    }
+
+    /**
+     * Id of the tombstone a translation leaves when it moves away from a locale and tag, distinct from the id of the
+     * translation which still exists.
+     */
+    public static String movedId(final String translationId, final String locale, final String tag) {
+        return translationId + MOVE_SEPARATOR + locale + MOVE_SEPARATOR + tag;
+    }
+
+    /**
+     * Oldest watermark a delta sync can still be answered for.
+     */
+    public long oldestWatermark() {
+        return Instant.now().minus(translationProperties.getSync().getTombstoneRetention()).toEpochMilli();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (pruning == null) {
+            pruning = Flux.interval(translationProperties.getSync().getPruneInterval())
+                    .onBackpressureDrop()
+                    .concatMap(tick -> prune(), 1)
+                    .subscribe();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (pruning != null) {
+            pruning.dispose();
+        }
+    }
+
+    Mono<Long> prune() {
+        final CriteriaQuery expired = new CriteriaQuery(Criteria.where(DELETED_AT_FIELD).lessThan(oldestWatermark()));
+        return elasticsearchTemplate.delete(DeleteQuery.builder(expired).build(), TranslationTombstone.class)
+                .map(ByQueryResponse::getDeleted)
+                .doOnNext(deleted -> log.info("Pruned [{}] expired translation tombstones", deleted))
+                .onErrorResume(e -> {
+                    log.warn("Failed to prune expired translation tombstones", e);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.write;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * Writes a stream of records with {@code app.translation.bulk.concurrency} bulk requests in flight. Records are
+ * pulled only as batches are needed, so a source can be generated or read lazily. The batch size starts at
+ * {@code min-actions} and adapts to the observed latency: it grows while bulk requests finish within
+ * {@code target-latency}, shrinks in proportion when they do not and is halved on rejections. Requests and items
+ * rejected with 429 are retried with exponential backoff. Throughput is logged every {@code progress-interval} and
+ * counted in {@code translation.ingest.documents}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationBulkIngester {
+
+    public static final String INGEST_METRIC = "translation.ingest";
+
+    private static final int DOCUMENT_OVERHEAD_BYTES = 160;
+
+    TranslationProperties translationProperties;
+
+    MeterRegistry meterRegistry;
+
+    /**
+     * Writes the documents of the records and emits every batch with the outcome of its documents, in the order of
+     * the records. Records mapped to a null document, such as invalid ones, are not written but still take their
+     * place in a batch. A bulk request failing for good fails its items rather than the stream.
+     */
+    public <T> Flux<IngestedBatch<T>> ingest(
+            final String source,
+            final Flux<T> records,
+            final Function<? super T, TranslationDocument> toDocument,
+            final Function<List<TranslationDocument>, Mono<List<BulkItem>>> writer
+    ) {
+        return Flux.defer(() -> {
+            final Run run = new Run(source);
+            return records
+                    .map(record -> new Pending<T>(record, toDocument.apply(record)))
+                    .bufferUntil(run)
+                    .flatMapSequential(batch -> write(run, batch, writer), run.properties.getConcurrency(), 1)
+                    .doOnNext(run::completed)
+                    .doFinally(signal -> run.report(true));
+        });
+    }
+
+    private <T> Mono<IngestedBatch<T>> write(
+            final Run run,
+            final List<Pending<T>> batch,
+            final Function<List<TranslationDocument>, Mono<List<BulkItem>>> writer
+    ) {
+        final List<TranslationDocument> documents = batch.stream()
+                .map(Pending::document)
+                .filter(Objects::nonNull)
+                .toList();
+        run.batchSize.record(batch.size());
+        return write(run, documents, writer, 0)
+                .map(items -> new IngestedBatch<>(batch.stream().map(Pending::record).toList(), items));
+    }
+
+    /**
+     * Sends one bulk request, then resends the items it rejected until they are accepted or the retries run out.
+     */
+    private Mono<List<BulkItem>> write(
+            final Run run,
+            final List<TranslationDocument> documents,
+            final Function<List<TranslationDocument>, Mono<List<BulkItem>>> writer,
+            final int attempt
+    ) {
+        if (documents.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return Mono.defer(() -> writer.apply(documents))
+                .elapsed()
+                .flatMap(timed -> {
+                    final List<BulkItem> items = timed.getT2();
+                    final List<Integer> rejected = new ArrayList<>();
+                    for (int i = 0; i < items.size(); i++) {
+                        if (items.get(i).failed() && items.get(i).status() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                            rejected.add(i);
+                        }
+                    }
+                    run.adapt(documents.size(), timed.getT1(), rejected.size());
+                    if (rejected.isEmpty() || attempt >= run.properties.getMaxRetries()) {
+                        return Mono.just(items);
+                    }
+                    return write(run, rejected.stream().map(documents::get).toList(), writer, attempt + 1)
+                            .delaySubscription(backoff(attempt))
+                            .map(retried -> {
+                                final List<BulkItem> merged = new ArrayList<>(items);
+                                for (int i = 0; i < rejected.size(); i++) {
+                                    merged.set(rejected.get(i), retried.get(i));
+                                }
+                                return merged;
+                            });
+                })
+                .onErrorResume(e -> isRejected(e) && attempt < run.properties.getMaxRetries(), e -> {
+                    run.adapt(documents.size(), 0, documents.size());
+                    return write(run, documents, writer, attempt + 1).delaySubscription(backoff(attempt));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error writing [{}] bulk request of [{}] documents", run.source, documents.size(), e);
+                    return Mono.just(documents.stream()
+                            .map(document -> new BulkItem(document.getId(), 0, e.getMessage()))
+                            .toList());
+                });
+    }
+
+    private Duration backoff(final int attempt) {
+        final TranslationProperties.Bulk properties = translationProperties.getBulk();
+        final Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempt, 30));
+        return backoff.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : backoff;
+    }
+
+    private static boolean isRejected(final Throwable e) {
+        return e instanceof UncategorizedElasticsearchException uncategorized
+                && Integer.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()).equals(uncategorized.getStatusCode());
+    }
+
+    private static long estimatedBytes(final TranslationDocument document) {
+        if (document == null) {
+            return DOCUMENT_OVERHEAD_BYTES;
+        }
+        return DOCUMENT_OVERHEAD_BYTES
+                + StringUtils.length(document.getKey())
+                + StringUtils.length(document.getValue())
+                + StringUtils.length(document.getLocale())
+                + StringUtils.length(document.getTag());
+    }
+
+    /**
+     * A batch of records and the outcome of those with a document, in order.
+     */
+    public record IngestedBatch<T>(List<T> records, List<BulkItem> items) {
+
+    }
+
+    private record Pending<T>(T record, TranslationDocument document) {
+
+    }
+
+    /**
+     * State of one ingest: the adaptive batch size, closing batches once they reach it or the byte limit, and the
+     * progress counters. Batches are cut on the thread emitting records while bulk requests complete on others.
+     */
+    private final class Run implements Predicate<Pending<?>> {
+
+        private final String source;
+        private final TranslationProperties.Bulk properties = translationProperties.getBulk();
+        private final int minActions = Math.max(1, Math.min(properties.getMinActions(), properties.getMaxActions()));
+        private final long targetLatencyMillis = properties.getTargetLatency().toMillis();
+        private final long startNanos = System.nanoTime();
+        private final Counter written;
+        private final Counter failed;
+        private final Counter rejections;
+        private final DistributionSummary batchSize;
+        private volatile int targetActions = minActions;
+        private int actions;
+        private long bytes;
+        private long writtenDocuments;
+        private long failedDocuments;
+        private long reportedNanos = startNanos;
+
+        private Run(final String source) {
+            this.source = source;
+            final Tags tags = Tags.of("source", source);
+            this.written = Counter.builder(INGEST_METRIC + ".documents")
+                    .description("Documents written by bulk ingests")
+                    .tags(tags.and("outcome", "written"))
+                    .register(meterRegistry);
+            this.failed = Counter.builder(INGEST_METRIC + ".documents")
+                    .description("Documents written by bulk ingests")
+                    .tags(tags.and("outcome", "failed"))
+                    .register(meterRegistry);
+            this.rejections = Counter.builder(INGEST_METRIC + ".rejections")
+                    .description("Documents rejected with 429 and retried by bulk ingests")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.batchSize = DistributionSummary.builder(INGEST_METRIC + ".batch.size")
+                    .description("Records per batch of bulk ingests")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public boolean test(final Pending<?> pending) {
+            actions++;
+            bytes += estimatedBytes(pending.document());
+            if (actions >= targetActions || bytes >= properties.getMaxBytes().toBytes()) {
+                actions = 0;
+                bytes = 0;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Additive increase while requests are fast enough, proportional decrease when they are slow and halving on
+         * rejections, always within min-actions and max-actions.
+         */
+        synchronized void adapt(final int documents, final long millis, final int rejected) {
+            final int current = targetActions;
+            final int next;
+            if (rejected > 0) {
+                rejections.increment(rejected);
+                next = current / 2;
+            } else if (millis > targetLatencyMillis) {
+                next = (int) (current * targetLatencyMillis / millis);
+            } else if (documents >= current) {
+                next = current + minActions;
+            } else {
+                next = current;
+            }
+            targetActions = Math.max(minActions, Math.min(properties.getMaxActions(), next));
+            if (targetActions != current) {
+                log.debug("Ingest [{}] batch size [{}] -> [{}] after [{}] ms, [{}] rejected", source, current,
+                        targetActions, millis, rejected);
+            }
+        }
+
+        synchronized void completed(final IngestedBatch<?> batch) {
+            final long failures = batch.items().stream().filter(BulkItem::failed).count();
+            writtenDocuments += batch.items().size() - failures;
+            failedDocuments += failures;
+            written.increment(batch.items().size() - failures);
+            failed.increment(failures);
+            report(false);
+        }
+
+        synchronized void report(final boolean done) {
+            final long now = System.nanoTime();
+            if (!done && now - reportedNanos < properties.getProgressInterval().toNanos()) {
+                return;
+            }
+            reportedNanos = now;
+            final Duration elapsed = Duration.ofNanos(now - startNanos);
+            final double perSecond = writtenDocuments * 1_000_000_000d / Math.max(1, now - startNanos);
+            log.info("Ingest [{}] {}: [{}] documents written, [{}] failed in [{}] ms, [{}] docs/s, batch size [{}]",
+                    source, done ? "ended" : "running", writtenDocuments, failedDocuments, elapsed.toMillis(),
+                    Math.round(perSecond), targetActions);
+        }
+    }
+}
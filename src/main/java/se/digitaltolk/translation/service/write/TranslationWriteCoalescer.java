@@ -0,0 +1,160 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.service.write;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * Opt-in write path that coalesces single creates and updates into Elasticsearch bulk requests. Writes are
+ * collected until either the batch is full or the window since its first write has elapsed, and each caller is
+ * completed with the outcome of its own bulk item. When disabled every write is a plain repository save.
+ * <p>
+ * Buffers are only emitted on demand, so writes keep collecting while {@code concurrency} bulk requests are in
+ * flight, up to {@code max-pending} writes waiting; beyond that writes are failed as unavailable rather than piling up
+ * in memory while Elasticsearch falls behind. Should the pipeline still fail, the writes it held are failed and it
+ * is started again; a write that cannot be handed over in the meantime is saved on its own.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TranslationWriteCoalescer {
+
+    TranslationRepository translationRepository;
+
+    TranslationProperties.WriteCoalescer properties;
+
+    AtomicReference<Sinks.Many<PendingWrite>> writes = new AtomicReference<>();
+
+    public TranslationWriteCoalescer(
+            final TranslationRepository translationRepository,
+            final TranslationProperties translationProperties
+    ) {
+        this.translationRepository = translationRepository;
+        this.properties = translationProperties.getWriteCoalescer();
+        if (properties.isEnabled()) {
+            start();
+        }
+    }
+
+    public Mono<TranslationDocument> save(final TranslationDocument document) {
+        if (!properties.isEnabled()) {
+            return translationRepository.save(document);
+        }
+        return Mono.defer(() -> {
+            final Sinks.One<TranslationDocument> result = Sinks.one();
+            final Sinks.EmitResult offered = offer(new PendingWrite(document, result));
+            if (offered == Sinks.EmitResult.FAIL_OVERFLOW) {
+                log.warn("Write coalescing has [{}] writes pending, rejecting translation [{}]",
+                        properties.getMaxPending(), document.getId());
+                return Mono.error(new BusinessServiceException(ErrorCodeEnum.UNAVAILABLE,
+                        "Too many pending writes, retry translation " + document.getId() + " later"));
+            }
+            if (offered.isFailure()) {
+                log.warn("Write coalescing unavailable, saving translation [{}] on its own", document.getId());
+                return translationRepository.save(document);
+            }
+            return result.asMono();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        final Sinks.Many<PendingWrite> sink = writes.getAndSet(null);
+        if (sink != null) {
+            synchronized (writes) {
+                sink.tryEmitComplete();
+            }
+        }
+    }
+
+    private void start() {
+        final Sinks.Many<PendingWrite> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<PendingWrite>get(properties.getMaxPending()).get());
+        writes.set(sink);
+        sink.asFlux()
+                .bufferTimeout(properties.getMaxBatchSize(), properties.getWindow(), true)
+                .flatMap(this::flush, properties.getConcurrency())
+                .doOnDiscard(PendingWrite.class, write -> write.result().tryEmitError(new BusinessServiceException(
+                        ErrorCodeEnum.UNAVAILABLE, "Coalesced write of translation " + write.document().getId()
+                        + " was discarded")))
+                .subscribe(null, e -> {
+                    log.error("Write coalescing failed, restarting it", e);
+                    if (writes.compareAndSet(sink, null)) {
+                        start();
+                    }
+                });
+    }
+
+    /**
+     * Hands the write to the pipeline without waiting, failing with {@code FAIL_OVERFLOW} once the pending writes are
+     * at their limit. Emissions are serialized here, as concurrent writers on the sink would otherwise fail each other.
+     */
+    private Sinks.EmitResult offer(final PendingWrite write) {
+        synchronized (writes) {
+            final Sinks.Many<PendingWrite> sink = writes.get();
+            return sink == null ? Sinks.EmitResult.FAIL_TERMINATED : sink.tryEmitNext(write);
+        }
+    }
+
+    private Mono<Void> flush(final List<PendingWrite> batch) {
+        log.debug("Flushing [{}] coalesced translation writes", batch.size());
+        final List<TranslationDocument> documents = batch.stream().map(PendingWrite::document).toList();
+        return Mono.defer(() -> translationRepository.bulkIndex(documents))
+                .doOnNext(items -> complete(batch, items))
+                .doOnError(e -> {
+                    log.error("Error flushing [{}] coalesced translation writes", batch.size(), e);
+                    batch.forEach(write -> write.result().tryEmitError(e));
+                })
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private void complete(final List<PendingWrite> batch, final List<BulkItem> items) {
+        for (int i = 0; i < batch.size(); i++) {
+            final PendingWrite write = batch.get(i);
+            final BulkItem item = items.get(i);
+            if (item.failed()) {
+                write.result().tryEmitError(new BusinessServiceException(
+                        errorCode(item.status()), "Failed to write translation " + item.id() + ": " + item.error()));
+            } else {
+                write.document().setSeqNoPrimaryTerm(item.seqNoPrimaryTerm());
+                write.result().tryEmitValue(write.document());
+            }
+        }
+    }
+
+    /**
+     * Rejections (429) and shard failures (5xx) are reported as unavailable so clients retry them, only other 4xx
+     * statuses are blamed on the request.
+     */
+    private static ErrorCodeEnum errorCode(final int status) {
+        if (status == HttpStatus.CONFLICT.value()) {
+            return ErrorCodeEnum.CONFLICT;
+        }
+        if (status >= 400 && status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            return ErrorCodeEnum.INVALID_PARAM;
+        }
+        return ErrorCodeEnum.UNAVAILABLE;
+    }
+
+    private record PendingWrite(TranslationDocument document, Sinks.One<TranslationDocument> result) {
+
+    }
+}
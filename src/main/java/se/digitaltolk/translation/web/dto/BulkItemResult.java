@@ -0,0 +1,33 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one line of a bulk import")
+public record BulkItemResult(
+        @Schema(description = "1-based line number of the item in the request body or uploaded file", example = "42")
+        @JsonProperty("line")
+        long line,
+
+        @Schema(description = "Identifier assigned to the created translation", example = "5f0c6c1e-3b59-4a4e-9d0e")
+        @JsonProperty("id")
+        String id,
+
+        @Schema(description = "Key of the translation", example = "homepage.welcome")
+        @JsonProperty("key")
+        String key,
+
+        @Schema(description = "Outcome of the item", example = "CREATED")
+        @JsonProperty("status")
+        BulkItemStatus status,
+
+        @Schema(description = "Validation or indexing error of the item", example = "locale: Invalid locale")
+        @JsonProperty("error")
+        String error) {
+
+}
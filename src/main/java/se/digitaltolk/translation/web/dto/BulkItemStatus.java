@@ -0,0 +1,11 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,24 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Key translated to the source locale of a missing-translation report but not to all its locales")
+public record MissingTranslation(
+        @Schema(description = "Key of the translation", example = "welcome.message")
+        @JsonProperty("key")
+        String key,
+
+        @Schema(description = "Tag of the translation", example = "WEB")
+        @JsonProperty("tag")
+        String tag,
+
+        @Schema(description = "Requested locales the key is not translated to", example = "[\"FR\", \"ES\"]")
+        @JsonProperty("missing")
+        List<String> missing) {
+
+}
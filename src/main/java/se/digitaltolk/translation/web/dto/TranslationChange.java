@@ -0,0 +1,53 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Translation created, updated or deleted after a sync watermark")
+public record TranslationChange(
+        @Schema(description = "Kind of change", example = "UPSERT")
+        @JsonProperty("type")
+        TranslationChangeType type,
+
+        @Schema(description = "Identifier of the translation", example = "5f0c6c1e-3b59-4a4e-9d0e")
+        @JsonProperty("id")
+        String id,
+
+        @Schema(description = "Key of the translation", example = "homepage.welcome")
+        @JsonProperty("key")
+        String key,
+
+        @Schema(description = "Locale of the translation", example = "EN")
+        @JsonProperty("locale")
+        String locale,
+
+        @Schema(description = "Tag of the translation", example = "WEB")
+        @JsonProperty("tag")
+        String tag,
+
+        @Schema(description = "Value of the translation, absent on deletes", example = "Welcome")
+        @JsonProperty("value")
+        String value,
+
+        @Schema(description = "Epoch millis of the change", example = "1718000000000")
+        @JsonProperty("changedAt")
+        Long changedAt) {
+
+    public static TranslationChange upsert(final TranslationDocument document) {
+        return new TranslationChange(TranslationChangeType.UPSERT, document.getId(), document.getKey(),
+                document.getLocale(), document.getTag(), document.getValue(), document.getUpdatedAt());
+    }
+
+    public static TranslationChange delete(final TranslationTombstone tombstone) {
+        final String id = tombstone.getTranslationId() == null ? tombstone.getId() : tombstone.getTranslationId();
+        return new TranslationChange(TranslationChangeType.DELETE, id, tombstone.getKey(),
+                tombstone.getLocale(), tombstone.getTag(), null, tombstone.getDeletedAt());
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+public enum TranslationChangeType {
+    UPSERT,
+    DELETE
+}
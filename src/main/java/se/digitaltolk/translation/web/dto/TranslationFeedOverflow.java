@@ -0,0 +1,18 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+/**
+ * What happens to the change events of a subscriber that reads slower than translations change.
+ */
+public enum TranslationFeedOverflow {
+    /**
+     * Buffer up to the configured size and drop newer events while the buffer is full.
+     */
+    DROP,
+    /**
+     * Keep only the most recent event, suited to clients that reload on any change.
+     */
+    LATEST
+}
@@ -0,0 +1,27 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+public enum TranslationFileFormat {
+    /**
+     * Gettext catalog. The msgid is the key, prefixed with the msgctxt and a dot when there is one, and the locale is
+     * taken from the Language header. Untranslated and fuzzy entries are skipped, plural entries keep msgstr[0].
+     */
+    PO,
+    /**
+     * XLIFF 1.2 or 2.0. The resname, or else the id, of a unit is the key, its target the value and the target
+     * language of the file the locale. Units without a target are skipped.
+     */
+    XLIFF,
+    /**
+     * Android string resources. Strings are keyed by name, array items by name and index and plurals by name and
+     * quantity, e.g. {@code days.one}. Strings marked translatable="false" are skipped.
+     */
+    ANDROID,
+    /**
+     * Nested i18next JSON, whose keys are flattened with dots, e.g. {@code {"home": {"title": "Home"}}} to
+     * {@code home.title}.
+     */
+    I18NEXT
+}
@@ -0,0 +1,42 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Schema(description = "Progress of a file import, sent after every written batch and once more when the file is done")
+public record TranslationImportProgress(
+        @Schema(description = "Translations read from the file so far", example = "12000")
+        @JsonProperty("read")
+        long read,
+
+        @Schema(description = "Translations written so far", example = "11998")
+        @JsonProperty("written")
+        long written,
+
+        @Schema(description = "Translations invalid or not written so far", example = "2")
+        @JsonProperty("failed")
+        long failed,
+
+        @Schema(description = "Milliseconds since the import started", example = "1500")
+        @JsonProperty("elapsedMillis")
+        long elapsedMillis,
+
+        @Schema(description = "Translations written per second since the import started", example = "7999")
+        @JsonProperty("perSecond")
+        long perSecond,
+
+        @Schema(description = "Translations of the batch that were invalid or not written, by line of the file")
+        @JsonProperty("errors")
+        List<BulkItemResult> errors,
+
+        @Schema(description = "Whether the whole file was imported", example = "false")
+        @JsonProperty("done")
+        boolean done) {
+
+}
@@ -0,0 +1,42 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Status of a maintenance job")
+public record TranslationJob(
+        @Schema(description = "Identifier of the job", example = "3b1f4c7e-8a55-4f0e-b1f5-2d0c7a4b9e61")
+        @JsonProperty("id")
+        String id,
+
+        @Schema(description = "Request the job was started with")
+        @JsonProperty("request")
+        TranslationJobRequest request,
+
+        @Schema(description = "State of the job", example = "RUNNING")
+        @JsonProperty("state")
+        TranslationJobState state,
+
+        @Schema(description = "Epoch millis the job started", example = "1718000000000")
+        @JsonProperty("startedAt")
+        long startedAt,
+
+        @Schema(description = "Epoch millis the job finished, absent while it runs", example = "1718000060000")
+        @JsonProperty("finishedAt")
+        Long finishedAt,
+
+        @Schema(description = "Why the job failed")
+        @JsonProperty("error")
+        String error,
+
+        @Schema(description = "Elasticsearch tasks of the job in the order they run")
+        @JsonProperty("steps")
+        List<TranslationJobStep> steps) {
+
+}
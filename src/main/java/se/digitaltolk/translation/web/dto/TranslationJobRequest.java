@@ -0,0 +1,71 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.apache.commons.lang3.StringUtils;
+import se.digitaltolk.translation.validator.annotation.Enum;
+
+@Schema(description = "Request payload for a maintenance job over many translations")
+public record TranslationJobRequest(
+        @Schema(description = "Operation to run", example = "DELETE", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "Type cannot be null")
+        @JsonProperty("type")
+        TranslationJobType type,
+
+        @Schema(description = "Locale of the translations to change", example = "EN")
+        @Enum(enumClass = TranslationLocale.class, message = "Invalid locale specified")
+        @JsonProperty("locale")
+        String locale,
+
+        @Schema(description = "Tag of the translations to change", example = "MOBILE")
+        @Enum(enumClass = TranslationTag.class, message = "Invalid tag specified")
+        @JsonProperty("tag")
+        String tag,
+
+        @Schema(description = "Locale to copy to, for COPY_LOCALE", example = "FR")
+        @Enum(enumClass = TranslationLocale.class, message = "Invalid target locale specified")
+        @JsonProperty("targetLocale")
+        String targetLocale,
+
+        @Schema(description = "Tag to move to, for RETAG", example = "WEB")
+        @Enum(enumClass = TranslationTag.class, message = "Invalid target tag specified")
+        @JsonProperty("targetTag")
+        String targetTag,
+
+        @Schema(description = "Throttle in documents per second, the configured default when absent", example = "500")
+        @Positive(message = "Requests per second must be positive")
+        @JsonProperty("requestsPerSecond")
+        Float requestsPerSecond,
+
+        @Schema(description = "Parallel slices per step, 0 to let Elasticsearch choose, the configured default when absent",
+                example = "0")
+        @Min(value = 0, message = "Slices cannot be negative")
+        @Max(value = 64, message = "Slices cannot exceed 64")
+        @JsonProperty("slices")
+        Integer slices) {
+
+    @JsonIgnore
+    @AssertTrue(message = "DELETE needs locale or tag, RETAG needs tag and a different targetTag, "
+            + "COPY_LOCALE needs locale and a different targetLocale, REINDEX takes none of them")
+    public boolean isComplete() {
+        if (type == null) {
+            return true;
+        }
+        return switch (type) {
+            case DELETE -> StringUtils.isNotBlank(locale) || StringUtils.isNotBlank(tag);
+            case RETAG -> StringUtils.isNotBlank(tag) && StringUtils.isNotBlank(targetTag) && !tag.equals(targetTag);
+            case COPY_LOCALE -> StringUtils.isNotBlank(locale) && StringUtils.isNotBlank(targetLocale)
+                    && !locale.equals(targetLocale);
+            case REINDEX -> StringUtils.isAllBlank(locale, tag, targetLocale, targetTag);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One step of a maintenance job and its progress, an Elasticsearch task unless it only changes indices")
+public record TranslationJobStep(
+        @Schema(description = "What the step does", example = "delete")
+        @JsonProperty("name")
+        String name,
+
+        @Schema(description = "State of the step", example = "RUNNING")
+        @JsonProperty("state")
+        TranslationJobState state,
+
+        @Schema(description = "Elasticsearch task running the step", example = "oTUltX4IQMOUUVeiohTt8A:12345")
+        @JsonProperty("taskId")
+        String taskId,
+
+        @Schema(description = "Documents the step has to process", example = "12000")
+        @JsonProperty("total")
+        long total,
+
+        @Schema(description = "Documents created so far", example = "0")
+        @JsonProperty("created")
+        long created,
+
+        @Schema(description = "Documents updated so far", example = "0")
+        @JsonProperty("updated")
+        long updated,
+
+        @Schema(description = "Documents deleted so far", example = "4000")
+        @JsonProperty("deleted")
+        long deleted,
+
+        @Schema(description = "Documents skipped because they changed or already existed", example = "3")
+        @JsonProperty("versionConflicts")
+        long versionConflicts) {
+
+    public static TranslationJobStep pending(final String name) {
+        return new TranslationJobStep(name, TranslationJobState.PENDING, null, 0, 0, 0, 0, 0);
+    }
+
+    public TranslationJobStep withState(final TranslationJobState newState) {
+        return new TranslationJobStep(name, newState, taskId, total, created, updated, deleted, versionConflicts);
+    }
+
+    public TranslationJobStep withProgress(
+            final String newTaskId,
+            final long newTotal,
+            final long newCreated,
+            final long newUpdated,
+            final long newDeleted,
+            final long newVersionConflicts
+    ) {
+        return new TranslationJobStep(name, state, newTaskId, newTotal, newCreated, newUpdated, newDeleted,
+                newVersionConflicts);
+    }
+}
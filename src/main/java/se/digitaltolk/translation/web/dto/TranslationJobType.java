@@ -0,0 +1,24 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+public enum TranslationJobType {
+    /**
+     * Deletes every translation of a locale, a tag or both.
+     */
+    DELETE,
+    /**
+     * Moves every translation of a tag, optionally of one locale, to another tag. With natural key ids a translation
+     * that already exists under the target tag is kept, and the moved one is counted as a version conflict.
+     */
+    RETAG,
+    /**
+     * Copies every translation of a locale, optionally of one tag, to another locale where it does not exist yet.
+     */
+    COPY_LOCALE,
+    /**
+     * Copies every translation into a new index created from the current template and moves the alias to it.
+     */
+    REINDEX
+}
@@ -0,0 +1,40 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import org.apache.commons.lang3.StringUtils;
+import se.digitaltolk.translation.validator.annotation.Enum;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Translation to look up, either by id or by key and locale with an optional tag")
+public record TranslationLookup(
+        @Schema(description = "Identifier of the translation", example = "5f0c6c1e-3b59-4a4e-9d0e")
+        @JsonProperty("id")
+        String id,
+
+        @Schema(description = "Key of the translation", example = "homepage.welcome")
+        @JsonProperty("key")
+        String key,
+
+        @Schema(description = "Locale of the translation", example = "EN")
+        @Enum(enumClass = TranslationLocale.class, message = "Invalid locale")
+        @JsonProperty("locale")
+        String locale,
+
+        @Schema(description = "Tag of the translation, the most recently updated tag wins when omitted", example = "WEB")
+        @Enum(enumClass = TranslationTag.class, message = "Invalid tag")
+        @JsonProperty("tag")
+        String tag) {
+
+    @JsonIgnore
+    @AssertTrue(message = "either id or key and locale are required")
+    public boolean isResolvable() {
+        return StringUtils.isNotBlank(id) || (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(locale));
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one lookup of a multi-get, the lookup is echoed back")
+public record TranslationLookupResult(
+        @Schema(description = "Lookup this result answers")
+        @JsonProperty("lookup")
+        TranslationLookup lookup,
+
+        @Schema(description = "Whether a translation was found", example = "true")
+        @JsonProperty("found")
+        boolean found,
+
+        @Schema(description = "Translation found, absent when not found")
+        @JsonProperty("translation")
+        TranslationDocument translation) {
+
+    public static TranslationLookupResult of(final TranslationLookup lookup, final TranslationDocument translation) {
+        return new TranslationLookupResult(lookup, translation != null, translation);
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Request payload for looking up several translations at once")
+public record TranslationMultiGetRequest(
+        @Schema(description = "Translations to look up, answered in the same order",
+                requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotEmpty(message = "items can't be null or empty")
+        @Size(max = TranslationMultiGetRequest.MAX_ITEMS, message = "at most " + TranslationMultiGetRequest.MAX_ITEMS
+                + " items can be looked up at once")
+        @JsonProperty("items")
+        List<@Valid @NotNull TranslationLookup> items) {
+
+    public static final int MAX_ITEMS = 100;
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import se.digitaltolk.translation.validator.annotation.Enum;
+
+@Schema(description = "Request payload for changing some fields of an existing translation entry")
+public record TranslationPatchRequest(
+        @Schema(description = "New key of the translation, unchanged when absent", example = "homepage.welcome")
+        @JsonProperty("key")
+        String key,
+
+        @Schema(description = "New translated text content, unchanged when absent", example = "Welcome back!")
+        @JsonProperty("value")
+        String value,
+
+        @Schema(description = "New locale of the translation, unchanged when absent", example = "FR")
+        @Enum(enumClass = TranslationLocale.class, message = "Invalid locale specified")
+        @JsonProperty("locale")
+        String locale,
+
+        @Schema(description = "New tag of the translation, unchanged when absent", example = "WEB")
+        @Enum(enumClass = TranslationTag.class, message = "Invalid tag specified")
+        @JsonProperty("tag")
+        String tag) {
+
+    @JsonIgnore
+    @AssertTrue(message = "at least one field is required and given fields cannot be empty")
+    public boolean isApplicable() {
+        return Stream.of(key, value, locale, tag).anyMatch(Objects::nonNull)
+                && Stream.of(key, value, locale, tag).filter(Objects::nonNull).allMatch(StringUtils::isNotBlank);
+    }
+
+    /**
+     * Whether the patch changes a field that a natural key id is derived from.
+     */
+    @JsonIgnore
+    public boolean changesIdentity() {
+        return key != null || locale != null || tag != null;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import java.util.List;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * One page of a cursor based search, {@code nextCursor} is null once the result set is exhausted.
+ */
+public record TranslationSearchPage(List<TranslationDocument> items, String nextCursor) {
+
+}
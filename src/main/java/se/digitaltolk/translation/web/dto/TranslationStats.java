@@ -0,0 +1,34 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+
+@Schema(description = "Number of translations per locale, per tag and per locale and tag")
+public record TranslationStats(
+        @Schema(description = "Number of translations", example = "120000")
+        @JsonProperty("total")
+        long total,
+
+        @Schema(description = "Translations per locale, most frequent first", example = "{\"EN\": 40000, \"FR\": 39000}")
+        @JsonProperty("locales")
+        Map<String, Long> locales,
+
+        @Schema(description = "Translations per tag, most frequent first", example = "{\"WEB\": 70000, \"MOBILE\": 50000}")
+        @JsonProperty("tags")
+        Map<String, Long> tags,
+
+        @Schema(description = "Translations per tag of every locale",
+                example = "{\"EN\": {\"WEB\": 25000, \"MOBILE\": 15000}}")
+        @JsonProperty("localeTags")
+        Map<String, Map<String, Long>> localeTags,
+
+        @Schema(description = "Epoch millis the counts were computed at; writes made later are not counted",
+                example = "1718000000000")
+        @JsonProperty("computedAt")
+        long computedAt) {
+
+}
@@ -4,18 +4,26 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.multipart.PartEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -25,8 +33,26 @@ import reactor.core.publisher.Mono;
 import se.digitaltolk.translation.annotation.DefaultApiResponse;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
 import se.digitaltolk.translation.service.TranslationService;
+import se.digitaltolk.translation.validator.annotation.Enum;
+import se.digitaltolk.translation.web.dto.BulkItemResult;
+import se.digitaltolk.translation.web.dto.MissingTranslation;
+import se.digitaltolk.translation.web.dto.TranslationChange;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+import se.digitaltolk.translation.web.dto.TranslationImportProgress;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationLookupResult;
+import se.digitaltolk.translation.web.dto.TranslationMultiGetRequest;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationStats;
+import se.digitaltolk.translation.web.dto.TranslationTag;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
+import se.digitaltolk.translation.web.support.ContentCoding;
+import se.digitaltolk.translation.web.support.MultipartFiles;
+import se.digitaltolk.translation.web.support.TranslationBundleWriter;
 
 @RestController
 @RequiredArgsConstructor
@@ -35,6 +61,12 @@ import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 @Tag(name = "Translation", description = "Translation Service APIs")
 public class TranslationController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String WATERMARK_HEADER = "X-Sync-Watermark";
+
+    private static final String FILE_PART = "file";
+
     TranslationService translationService;
 
     @DefaultApiResponse
@@ -45,6 +77,50 @@ public class TranslationController {
         return new ResponseEntity<>(translationService.createTranslation(request), HttpStatus.CREATED);
     }
 
+    @DefaultApiResponse
+    @Operation(summary = "Bulk import translations",
+            description = "Streams NDJSON create requests into Elasticsearch bulk requests and streams back one result per line")
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkItemResult> importTranslations(
+            @Parameter(description = "Drop replicas and refreshes of the index while importing, for large scheduled "
+                    + "loads. Imported translations are found by searches and syncs only once the import ends.")
+            @RequestParam(name = "relaxed", defaultValue = "false") final boolean relaxed,
+            @RequestBody final Flux<TranslationCreateRequest> requests) {
+        return translationService.importTranslations(requests, relaxed);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Import a translation file",
+            description = "Streams a gettext .po, XLIFF, Android strings.xml or nested i18next JSON file uploaded as "
+                    + "the multipart part 'file' into Elasticsearch bulk requests while it is received, and streams "
+                    + "back the progress after every batch with the lines that were invalid or not written")
+    @PostMapping(path = "/files", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TranslationImportProgress> importFile(
+            @Parameter(description = "Format of the file", required = true)
+            @RequestParam final TranslationFileFormat format,
+            @Parameter(description = "Tag of the imported translations", required = true)
+            @RequestParam @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag,
+            @Parameter(description = "Locale of the imported translations, by default the language the .po or "
+                    + "XLIFF file declares")
+            @RequestParam(required = false) @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Drop replicas and refreshes of the index while importing, see /bulk")
+            @RequestParam(name = "relaxed", defaultValue = "false") final boolean relaxed,
+            @RequestBody final Flux<PartEvent> parts) {
+        return translationService.importFile(format, MultipartFiles.content(parts, FILE_PART), locale, tag, relaxed);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get several translations at once",
+            description = "Looks up to " + TranslationMultiGetRequest.MAX_ITEMS + " translations by id or by key and "
+                    + "locale with an optional tag, answering every lookup in request order with found or not found")
+    @PostMapping(path = "/_mget", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TranslationLookupResult> multiGetTranslations(
+            @RequestBody @Valid final TranslationMultiGetRequest request) {
+        return translationService.multiGetTranslations(request.items());
+    }
+
     @DefaultApiResponse
     @Operation(summary = "Update an existing translation", description = "Updates a translation document identified by translationId")
     @PutMapping(path = "/{translationId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -55,6 +131,23 @@ public class TranslationController {
         return translationService.updateTranslation(translationId, request);
     }
 
+    @DefaultApiResponse
+    @Operation(summary = "Change some fields of a translation",
+            description = "Applies the given fields with a single update. Pass the seqNo and primaryTerm of the "
+                    + "translation as read as if_seq_no and if_primary_term to have the change rejected with 409 if "
+                    + "the translation was changed since.")
+    @PatchMapping(path = "/{translationId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationDocument> patchTranslation(
+            @Parameter(description = "translationId of the translation to change", required = true)
+            @PathVariable final String translationId,
+            @Parameter(description = "Sequence number the translation must still have")
+            @RequestParam(name = "if_seq_no", required = false) final Long ifSeqNo,
+            @Parameter(description = "Primary term the translation must still have")
+            @RequestParam(name = "if_primary_term", required = false) final Long ifPrimaryTerm,
+            @RequestBody @Valid final TranslationPatchRequest request) {
+        return translationService.patchTranslation(translationId, request, ifSeqNo, ifPrimaryTerm);
+    }
+
     @DefaultApiResponse
     @Operation(summary = "Get translation by translationId", description = "Retrieves a translation document by its translationId")
     @GetMapping(path = "/{translationId}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -65,16 +158,217 @@ public class TranslationController {
     }
 
     @DefaultApiResponse
-    @Operation(summary = "Search translations", description = "Search translations by optional filters: key, tag, locale, value")
+    @Operation(summary = "Get translation by key and locale",
+            description = "Retrieves the most recently updated translation of a key for one locale, across tags")
+    @GetMapping(path = "/{locale}/{key}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationDocument> getTranslationByKey(
+            @Parameter(description = "Locale of the translation", required = true)
+            @PathVariable @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Key of the translation", required = true) @PathVariable final String key) {
+        return translationService.findByNaturalKey(key, locale, null);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get translation by natural key",
+            description = "Retrieves the translation of a key for one locale and tag")
+    @GetMapping(path = "/{locale}/{tag}/{key}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationDocument> getTranslationByNaturalKey(
+            @Parameter(description = "Locale of the translation", required = true)
+            @PathVariable @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Tag of the translation", required = true)
+            @PathVariable @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag,
+            @Parameter(description = "Key of the translation", required = true) @PathVariable final String key) {
+        return translationService.findByNaturalKey(key, locale, tag);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Search translations",
+            description = "Search translations by optional filters: key, tag, locale, value. Pass an empty cursor to "
+                    + "page with cursors instead of page numbers, the next cursor is returned in the "
+                    + NEXT_CURSOR_HEADER + " header and absent on the last page. A continued cursor carries its "
+                    + "own filters and size.")
     @GetMapping(path = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Flux<TranslationDocument> searchTranslations(
+    public Mono<ResponseEntity<Flux<TranslationDocument>>> searchTranslations(
             @Parameter(description = "Filter by key") @RequestParam(required = false) final String key,
             @Parameter(description = "Filter by tag") @RequestParam(required = false) final String tag,
             @Parameter(description = "Filter by locale") @RequestParam(required = false) final String locale,
             @Parameter(description = "Filter by value") @RequestParam(required = false) final String value,
             @RequestParam(defaultValue = "0") final int page,
-            @RequestParam(defaultValue = "20") final int size) {
-        return translationService.searchTranslations(key, tag, locale, value, page, size);
+            @RequestParam(defaultValue = "20") final int size,
+            @Parameter(description = "Opaque cursor of the next page, empty to start")
+            @RequestParam(required = false) final String cursor) {
+        if (cursor == null) {
+            return Mono.just(ResponseEntity.ok(
+                    translationService.searchTranslations(key, tag, locale, value, page, size)));
+        }
+        return translationService.searchTranslationsByCursor(key, tag, locale, value, cursor, size)
+                .map(result -> {
+                    final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (result.nextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, result.nextCursor());
+                    }
+                    return response.body(Flux.fromIterable(result.items()));
+                });
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get translation changes since a watermark",
+            description = "Streams the translations created or updated after the watermark and tombstones of those "
+                    + "deleted since, ordered by time of change. The watermark to pass as since on the next sync is "
+                    + "returned in the " + WATERMARK_HEADER + " header. Without since every translation is returned; "
+                    + "a watermark older than the tombstone retention is answered with 410 and needs such a resync.")
+    @GetMapping(path = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Flux<TranslationChange>>> getChanges(
+            @Parameter(description = "Watermark returned by the previous sync, absent for a full sync")
+            @RequestParam(required = false) final Long since,
+            @Parameter(description = "Filter by locale")
+            @RequestParam(required = false) @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Filter by tag")
+            @RequestParam(required = false) @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag) {
+        return translationService.findChanges(since, locale, tag)
+                .map(changeSet -> ResponseEntity.ok()
+                        .header(WATERMARK_HEADER, Long.toString(changeSet.watermark()))
+                        .body(changeSet.changes()));
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Stream translation changes",
+            description = "Pushes translations created, updated or deleted through this instance as server-sent events "
+                    + "with the time of the change as event id, plus periodic heartbeat comments. A subscriber that "
+                    + "falls behind loses events by its overflow policy; open the stream before a delta sync from "
+                    + "/changes to be sure nothing is missed.")
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TranslationChange>> streamChanges(
+            @Parameter(description = "Filter by locale")
+            @RequestParam(required = false) @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Filter by tag")
+            @RequestParam(required = false) @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag,
+            @Parameter(description = "DROP to drop new events while the buffer is full, LATEST to keep only the last one")
+            @RequestParam(required = false) final TranslationFeedOverflow overflow) {
+        return translationService.streamChanges(locale, tag, overflow);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Suggest translations",
+            description = "Type-ahead lookup of translations whose value contains words starting with the given text")
+    @GetMapping(path = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<TranslationDocument> suggestTranslations(
+            @Parameter(description = "Text typed so far", required = true) @RequestParam final String q,
+            @Parameter(description = "Filter by locale")
+            @RequestParam(required = false) @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Filter by tag")
+            @RequestParam(required = false) @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag,
+            @Parameter(description = "Maximum number of suggestions, at most 50") @RequestParam(defaultValue = "10") final int size) {
+        return translationService.suggestTranslations(q, locale, tag, size);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Export translations of a locale and tag",
+            description = "Streams all translations of a locale and tag as a flat key/value JSON object. The tag is "
+                    + "required, as a key translated under several tags would otherwise repeat a member name; "
+                    + "the NDJSON export streams every tag")
+    @GetMapping(path = "/export/{locale}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> exportTranslations(
+            @Parameter(description = "Locale to export", required = true)
+            @PathVariable @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Tag to export", required = true)
+            @RequestParam @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag) {
+        return TranslationBundleWriter.writeJsonObject(translationService.exportTranslations(locale, tag));
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Export translations of a locale as NDJSON",
+            description = "Streams all translations of a locale, optionally filtered by tag, one key/value object per line")
+    @GetMapping(path = "/export/{locale}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportTranslationsAsNdjson(
+            @Parameter(description = "Locale to export", required = true)
+            @PathVariable @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Filter by tag")
+            @RequestParam(required = false) @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag) {
+        return TranslationBundleWriter.writeNdjson(translationService.exportTranslations(locale, tag));
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get translation bundle of a locale and tag",
+            description = "Returns the materialized key/value bundle with a strong ETag, answers If-None-Match with 304. "
+                    + "Served precompressed to clients accepting gzip or deflate.")
+    @GetMapping(path = "/bundle/{locale}/{tag}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getBundle(
+            @Parameter(description = "Locale of the bundle", required = true)
+            @PathVariable @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String locale,
+            @Parameter(description = "Tag of the bundle", required = true)
+            @PathVariable @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+        return translationService.findBundle(locale, tag)
+                .map(bundle -> {
+                    final ContentCoding coding = ContentCoding.negotiate(acceptEncoding)
+                            .filter(bundle::isEncoded)
+                            .orElse(null);
+                    final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .eTag(bundle.etag(coding))
+                            .cacheControl(CacheControl.noCache())
+                            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                            .contentType(MediaType.APPLICATION_JSON);
+                    if (coding != null) {
+                        response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+                    }
+                    return response.body(bundle.body(coding));
+                });
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get translation statistics",
+            description = "Counts translations per locale, per tag and per locale and tag with one aggregation. "
+                    + "Cached for app.translation.stats.ttl; writes through this instance are counted once searchable.")
+    @GetMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationStats> getStats() {
+        return translationService.findStats();
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Report missing translations",
+            description = "Streams every key and tag translated to the source locale but not to all of the given "
+                    + "locales, in order of key, paging through a composite aggregation as the report is read")
+    @GetMapping(path = "/missing", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<MissingTranslation> getMissingTranslations(
+            @Parameter(description = "Locale the keys exist in")
+            @RequestParam(defaultValue = "EN") @Enum(enumClass = TranslationLocale.class, message = "Invalid locale") final String source,
+            @Parameter(description = "Locales to report missing translations of", required = true)
+            @RequestParam final List<String> locales,
+            @Parameter(description = "Filter by tag")
+            @RequestParam(required = false) @Enum(enumClass = TranslationTag.class, message = "Invalid tag") final String tag) {
+        return translationService.findMissingTranslations(source, locales, tag);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Start a maintenance job",
+            description = "Deletes, retags or copies to another locale every translation matching a locale and tag "
+                    + "as a throttled Elasticsearch task running in the background, or reindexes every translation "
+                    + "into a new index of the current template and moves the alias to it. A reindex runs alone, "
+                    + "409 is answered while it cannot start. Answers with the job to poll.")
+    @PostMapping(path = "/jobs", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<TranslationJob> submitJob(@RequestBody @Valid final TranslationJobRequest request) {
+        return translationService.submitJob(request);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Get a maintenance job", description = "Reports the state and progress of every step of a job")
+    @GetMapping(path = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationJob> getJob(
+            @Parameter(description = "id of the maintenance job", required = true)
+            @PathVariable final String jobId) {
+        return translationService.findJob(jobId);
+    }
+
+    @DefaultApiResponse
+    @Operation(summary = "Cancel a maintenance job",
+            description = "Cancels the running step of a job and skips the remaining ones. Changes already made stay.")
+    @DeleteMapping(path = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TranslationJob> cancelJob(
+            @Parameter(description = "id of the maintenance job", required = true)
+            @PathVariable final String jobId) {
+        return translationService.cancelJob(jobId);
     }
 
     @DefaultApiResponse
@@ -0,0 +1,106 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * HTTP content codings a response body can be compressed with. {@code deflate} is the zlib format of RFC 9110,
+ * not a raw deflate stream.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentCoding(final String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Stream compressing into {@code out}. With {@code syncFlush} every flush emits everything written so far, so
+     * streamed responses can be decoded as they arrive.
+     */
+    public DeflaterOutputStream encoder(final OutputStream out, final boolean syncFlush) throws IOException {
+        return this == GZIP
+                ? new GZIPOutputStream(out, BUFFER_SIZE, syncFlush)
+                : new DeflaterOutputStream(out, syncFlush);
+    }
+
+    public byte[] encode(final byte[] body) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (DeflaterOutputStream encoder = encoder(out, false)) {
+            encoder.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to " + token + " encode", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The coding of the comma separated {@code Accept-Encoding} values with the highest quality, gzip winning ties.
+     * Empty when neither gzip nor deflate is acceptable, including for a missing header.
+     */
+    public static Optional<ContentCoding> negotiate(final String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return Optional.empty();
+        }
+        ContentCoding best = null;
+        double bestQuality = 0;
+        double wildcardQuality = -1;
+        final double[] qualities = new double[values().length];
+        for (String value : StringUtils.split(acceptEncoding, ',')) {
+            final String[] parts = StringUtils.split(value, ';');
+            if (parts.length == 0) {
+                continue;
+            }
+            final String coding = parts[0].trim();
+            final double quality = quality(parts);
+            if ("*".equals(coding)) {
+                wildcardQuality = quality;
+            }
+            for (ContentCoding candidate : values()) {
+                if (candidate.token.equalsIgnoreCase(coding)) {
+                    qualities[candidate.ordinal()] = quality == 0 ? -1 : quality;
+                }
+            }
+        }
+        for (ContentCoding candidate : values()) {
+            final double quality = qualities[candidate.ordinal()] == 0
+                    ? wildcardQuality
+                    : qualities[candidate.ordinal()];
+            if (quality > bestQuality) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static double quality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (StringUtils.startsWithIgnoreCase(parameter, "q=")) {
+                return NumberUtils.toDouble(parameter.substring(2).trim(), 0);
+            }
+        }
+        return 1;
+    }
+}
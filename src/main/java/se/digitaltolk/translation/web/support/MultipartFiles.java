@@ -0,0 +1,45 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.support;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+
+/**
+ * Streams uploaded files out of multipart bodies read as part events, so their content is neither buffered in memory
+ * nor spooled to disk the way whole parts are.
+ */
+public final class MultipartFiles {
+
+    private MultipartFiles() {
+    }
+
+    /**
+     * The content of the first file part with the given name while it is received. The other parts are discarded;
+     * the content fails once the body ends without such a part.
+     */
+    public static Flux<DataBuffer> content(final Flux<PartEvent> parts, final String name) {
+        return Flux.defer(() -> {
+            final AtomicBoolean found = new AtomicBoolean();
+            return parts.windowUntil(PartEvent::isLast)
+                    .concatMap(part -> part.switchOnFirst((first, events) ->
+                            first.get() instanceof FilePartEvent file && name.equals(file.name())
+                                    && !found.getAndSet(true)
+                                    ? events.map(PartEvent::content)
+                                    : events.doOnNext(event -> DataBufferUtils.release(event.content()))
+                                            .thenMany(Flux.<DataBuffer>empty())))
+                    .concatWith(Mono.defer(() -> found.get()
+                            ? Mono.empty()
+                            : Mono.error(new BusinessServiceException(ErrorCodeEnum.INVALID_PARAM,
+                                    "Multipart file part is required: " + name))));
+        });
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Author: Vinod Jagwani
+ */
+package se.digitaltolk.translation.web.support;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+/**
+ * Writes translations as flat {@code key -> value} bundles one buffer per document, so a bundle is never
+ * materialized as a whole before it reaches the response.
+ */
+public final class TranslationBundleWriter {
+
+    private static final byte[] OBJECT_START = {'{'};
+    private static final byte[] OBJECT_END = {'}'};
+    private static final byte ENTRY_SEPARATOR = ',';
+    private static final byte NAME_SEPARATOR = ':';
+    private static final byte QUOTE = '"';
+    private static final byte NEW_LINE = '\n';
+
+    private TranslationBundleWriter() {
+    }
+
+    public static Flux<DataBuffer> writeJsonObject(final Flux<TranslationDocument> documents) {
+        return Flux.concat(
+                Mono.fromSupplier(() -> wrap(OBJECT_START)),
+                documents.index().map(entry -> wrap(entry.getT1() == 0
+                        ? entryBytes(entry.getT2(), null)
+                        : entryBytes(entry.getT2(), ENTRY_SEPARATOR))),
+                Mono.fromSupplier(() -> wrap(OBJECT_END)));
+    }
+
+    public static Flux<DataBuffer> writeNdjson(final Flux<TranslationDocument> documents) {
+        return documents.map(document -> {
+            final byte[] entry = entryBytes(document, null);
+            final byte[] line = new byte[entry.length + 3];
+            line[0] = OBJECT_START[0];
+            System.arraycopy(entry, 0, line, 1, entry.length);
+            line[line.length - 2] = OBJECT_END[0];
+            line[line.length - 1] = NEW_LINE;
+            return wrap(line);
+        });
+    }
+
+    private static byte[] entryBytes(final TranslationDocument document, final Byte prefix) {
+        final JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        final byte[] key = encoder.quoteAsUTF8(document.getKey());
+        final byte[] value = document.getValue() == null
+                ? new byte[0]
+                : encoder.quoteAsUTF8(document.getValue());
+        final int offset = prefix == null ? 0 : 1;
+        final byte[] entry = new byte[offset + key.length + value.length + 5];
+        if (prefix != null) {
+            entry[0] = prefix;
+        }
+        int position = offset;
+        entry[position++] = QUOTE;
+        System.arraycopy(key, 0, entry, position, key.length);
+        position += key.length;
+        entry[position++] = QUOTE;
+        entry[position++] = NAME_SEPARATOR;
+        entry[position++] = QUOTE;
+        System.arraycopy(value, 0, entry, position, value.length);
+        position += value.length;
+        entry[position] = QUOTE;
+        return entry;
+    }
+
+    private static DataBuffer wrap(final byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+}
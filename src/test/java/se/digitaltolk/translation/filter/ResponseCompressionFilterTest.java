@@ -0,0 +1,165 @@
+package se.digitaltolk.translation.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.service.metrics.CompressionMeters;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ResponseCompressionFilterTest {
+
+    static final String LARGE = "{\"values\":\"" + "translation ".repeat(100) + "\"}";
+
+    static final String SMALL = "{\"value\":\"translation\"}";
+
+    SimpleMeterRegistry meterRegistry;
+
+    ResponseCompressionFilter filter;
+
+    WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        final TranslationProperties translationProperties = new TranslationProperties();
+        translationProperties.getCompression().setMinResponseSize(DataSize.ofBytes(256));
+        filter = new ResponseCompressionFilter(translationProperties, meterRegistry);
+        webTestClient = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .GET("/large", request -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(LARGE))
+                        .GET("/small", request -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(SMALL))
+                        .GET("/stream", request -> ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                                .body(Flux.just(SMALL + "\n", SMALL + "\n"), String.class))
+                        .GET("/encoded", request -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                                .bodyValue(LARGE))
+                        .build())
+                .webFilter(filter)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Test large responses are compressed with the negotiated encoding")
+    void testFilter_Compressed() throws IOException {
+        final byte[] gzip = get("/large", "gzip;q=0.8, deflate;q=0.5")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(gzip)))).isEqualTo(LARGE);
+        assertThat(gzip.length).isLessThan(LARGE.length());
+        final byte[] deflate = get("/large", "gzip;q=0, *")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "deflate")
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(deflate)))).isEqualTo(LARGE);
+        assertThat(meterRegistry.get(CompressionMeters.COMPRESSION_METRIC).tag("source", "response")
+                .tag("encoding", "gzip").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CompressionMeters.COMPRESSION_METRIC + CompressionMeters.RATIO_SUFFIX)
+                .tag("encoding", "gzip").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("Test streamed responses are compressed whatever their size")
+    void testFilter_Streamed() throws IOException {
+        final byte[] gzip = get("/stream", "gzip")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(gzip)))).isEqualTo(SMALL + "\n" + SMALL + "\n");
+    }
+
+    @Test
+    @DisplayName("Test streamed responses written slower than their elements are produced are compressed whole")
+    void testFilter_StreamedSlowly() throws IOException {
+        final MockServerWebExchange mockExchange = MockServerWebExchange.from(MockServerHttpRequest.get("/stream")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        mockExchange.getResponse().setWriteHandler(body -> body
+                .delayElements(Duration.ofMillis(1))
+                .doOnNext(buffer -> {
+                    final byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    written.writeBytes(bytes);
+                })
+                .then());
+        // like the server, subscribe to the elements only after they were all prefetched
+        final ServerWebExchange exchange = mockExchange.mutate()
+                .response(new ServerHttpResponseDecorator(mockExchange.getResponse()) {
+                    @Override
+                    public Mono<Void> writeAndFlushWith(
+                            final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                        return writeWith(Flux.from(body).concatMap(Flux::from, 32));
+                    }
+                })
+                .build();
+        final List<String> lines = IntStream.range(0, 10).mapToObj(i -> SMALL + "\n").toList();
+        filter.filter(exchange, current -> {
+            final ServerHttpResponse response = current.getResponse();
+            response.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+            return response.writeAndFlushWith(Flux.fromIterable(lines)
+                    .map(line -> Flux.just(response.bufferFactory().wrap(line.getBytes(StandardCharsets.UTF_8)))));
+        }).block(Duration.ofSeconds(5));
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(written.toByteArray()))))
+                .isEqualTo(String.join("", lines));
+    }
+
+    @Test
+    @DisplayName("Test small, already encoded and not negotiated responses are sent as they are")
+    void testFilter_Uncompressed() {
+        get("/small", "gzip")
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(String.class).isEqualTo(SMALL);
+        get("/encoded", "deflate")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(String.class).isEqualTo(LARGE);
+        get("/large", "br")
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(String.class).isEqualTo(LARGE);
+        assertThat(meterRegistry.find(CompressionMeters.COMPRESSION_METRIC).timer()).isNull();
+    }
+
+    private WebTestClient.ResponseSpec get(final String path, final String acceptEncoding) {
+        return webTestClient.get()
+                .uri(path)
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private String decode(final InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
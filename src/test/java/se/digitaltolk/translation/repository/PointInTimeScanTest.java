@@ -0,0 +1,85 @@
+package se.digitaltolk.translation.repository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PointInTimeScanTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Mock
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenAnswer(invocation -> Flux.fromIterable(fullPage()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test a scan searches the next page only once the previous one was consumed")
+    void testScan_PagesOnDemand() {
+        final Flux<TranslationDocument> scan = PointInTimeScan.scan(elasticsearchTemplate, TranslationDocument.class,
+                new Criteria(), "key", PAGE_SIZE, Duration.ofMinutes(1));
+        StepVerifier.create(scan, 1)
+                .expectNextCount(1)
+                .then(() -> verify(elasticsearchTemplate, times(1))
+                        .search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenRequest(PAGE_SIZE)
+                .expectNextCount(PAGE_SIZE)
+                .then(() -> verify(elasticsearchTemplate, times(2))
+                        .search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenCancel()
+                .verify();
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    private static List<SearchHit<TranslationDocument>> fullPage() {
+        return IntStream.range(0, PAGE_SIZE)
+                .mapToObj(n -> {
+                    final TranslationDocument doc = new TranslationDocument();
+                    doc.setId("t" + n);
+                    doc.setKey("key" + n);
+                    return new SearchHit<>(null, doc.getId(), null, 1.0f, new Object[] {doc.getKey()}, null, null,
+                            null, null, null, doc);
+                })
+                .toList();
+    }
+}
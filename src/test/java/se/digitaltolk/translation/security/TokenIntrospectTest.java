@@ -0,0 +1,99 @@
+package se.digitaltolk.translation.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.security.util.JwtUtils;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TokenIntrospectTest {
+
+    static final String SECRET = "secret-key";
+
+    JwtUtils jwtUtils;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TokenIntrospect tokenIntrospect;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = spy(new JwtUtils(SECRET));
+        meterRegistry = new SimpleMeterRegistry();
+        tokenIntrospect = new TokenIntrospect(jwtUtils, new TranslationProperties(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test introspect verifies a token once and serves repeats from the cache")
+    void testIntrospect_Cached() {
+        final Instant expiration = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        final String token = token(SECRET, expiration).setSubject("jrocket@example.com").compact();
+        StepVerifier.create(tokenIntrospect.introspect(token))
+                .expectNextMatches(principal -> "jrocket@example.com".equals(principal.getName())
+                        && expiration.equals(principal.getAttribute("exp"))
+                        && token.equals(principal.getAttribute("token")))
+                .verifyComplete();
+        StepVerifier.create(tokenIntrospect.introspect(token)).expectNextCount(1).verifyComplete();
+        verify(jwtUtils, times(1)).parseClaims(token);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", TokenIntrospect.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test introspect falls back to the username claim")
+    void testIntrospect_Username() {
+        final String token = token(SECRET, Instant.now().plus(1, ChronoUnit.HOURS))
+                .claim("username", "Johnny").compact();
+        StepVerifier.create(tokenIntrospect.introspect(token))
+                .expectNextMatches(principal -> "Johnny".equals(principal.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test introspect rejects tokens signed with another key and does not cache them")
+    void testIntrospect_InvalidSignature() {
+        final String token = token("other-key", Instant.now().plus(1, ChronoUnit.HOURS))
+                .setSubject("jrocket@example.com").compact();
+        StepVerifier.create(tokenIntrospect.introspect(token)).expectError(InvalidBearerTokenException.class).verify();
+        StepVerifier.create(tokenIntrospect.introspect(token)).expectError(InvalidBearerTokenException.class).verify();
+        verify(jwtUtils, times(2)).parseClaims(token);
+    }
+
+    @Test
+    @DisplayName("Test introspect rejects expired tokens")
+    void testIntrospect_Expired() {
+        final String token = token(SECRET, Instant.now().minus(1, ChronoUnit.MINUTES))
+                .setSubject("jrocket@example.com").compact();
+        StepVerifier.create(tokenIntrospect.introspect(token)).expectError(InvalidBearerTokenException.class).verify();
+    }
+
+    @Test
+    @DisplayName("Test introspect rejects tokens without a username")
+    void testIntrospect_MissingUsername() {
+        final String token = token(SECRET, Instant.now().plus(1, ChronoUnit.HOURS)).compact();
+        StepVerifier.create(tokenIntrospect.introspect(token)).expectError(InvalidBearerTokenException.class).verify();
+    }
+
+    private JwtBuilder token(final String secret, final Instant expiration) {
+        return Jwts.builder()
+                .setExpiration(Date.from(expiration))
+                .signWith(SignatureAlgorithm.HS256, secret.getBytes());
+    }
+}
@@ -1,35 +1,82 @@
 package se.digitaltolk.translation.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Criteria;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
 import se.digitaltolk.translation.mapper.TranslationMapper;
 import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.FacetCounts;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.KeyLocales;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationNearCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
 import se.digitaltolk.translation.service.impl.TranslationServiceImpl;
+import se.digitaltolk.translation.service.index.TranslationIndexManager;
+import se.digitaltolk.translation.service.maintenance.TranslationMaintenanceJobs;
+import se.digitaltolk.translation.service.sync.TranslationChangeFeed;
+import se.digitaltolk.translation.service.sync.TranslationChangeSet;
+import se.digitaltolk.translation.service.sync.TranslationTombstones;
+import se.digitaltolk.translation.service.write.TranslationBulkIngester;
+import se.digitaltolk.translation.service.write.TranslationWriteCoalescer;
+import se.digitaltolk.translation.web.dto.BulkItemResult;
+import se.digitaltolk.translation.web.dto.BulkItemStatus;
+import se.digitaltolk.translation.web.dto.MissingTranslation;
+import se.digitaltolk.translation.web.dto.TranslationChange;
+import se.digitaltolk.translation.web.dto.TranslationChangeType;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
 import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationLookup;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationSearchPage;
 import se.digitaltolk.translation.web.dto.TranslationTag;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
 
@@ -50,6 +97,45 @@ class TranslationServiceTest {
     @Mock
     ReactiveElasticsearchTemplate elasticsearchTemplate;
 
+    @Mock
+    TranslationNearCache translationNearCache;
+
+    @Mock
+    TranslationBundleCache translationBundleCache;
+
+    @Mock
+    TranslationReadReplica translationReadReplica;
+
+    @Mock
+    TranslationTombstones translationTombstones;
+
+    @Mock
+    TranslationWriteCoalescer translationWriteCoalescer;
+
+    @Mock
+    TranslationChangeFeed translationChangeFeed;
+
+    @Mock
+    TranslationMaintenanceJobs translationMaintenanceJobs;
+
+    @Mock
+    TranslationIndexManager translationIndexManager;
+
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    TranslationProperties translationProperties = new TranslationProperties();
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    TranslationBulkIngester translationBulkIngester = new TranslationBulkIngester(translationProperties, meterRegistry);
+
+    @Spy
+    TranslationStatsCache translationStatsCache = new TranslationStatsCache(translationProperties, meterRegistry);
+
     @InjectMocks
     TranslationServiceImpl translationService;
 
@@ -58,6 +144,8 @@ class TranslationServiceTest {
     @BeforeEach
     void setUp() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
+        when(translationMaintenanceJobs.runningSince()).thenReturn(Long.MAX_VALUE);
+        when(translationIndexManager.bulkLoadingSince()).thenReturn(Long.MAX_VALUE);
     }
 
     @AfterEach
@@ -70,13 +158,33 @@ class TranslationServiceTest {
     void testCreateTranslation() {
         final TranslationCreateRequest request = new TranslationCreateRequest(
                 TEST_KEY, TEST_VALUE, TEST_LOCALE, TEST_TAG);
-        when(translationRepository.save(any(TranslationDocument.class)))
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
                 .thenReturn(Mono.just(buildTestDocument()));
         StepVerifier.create(translationService.createTranslation(request))
                 .expectNextMatches(translation ->
                         TEST_ID.equals(translation.getId()) &&
                                 TEST_KEY.equals(translation.getKey())).verifyComplete();
-        verify(translationRepository).save(any(TranslationDocument.class));
+        verify(translationWriteCoalescer).save(any(TranslationDocument.class));
+        verify(translationNearCache).put(any(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test createTranslation with natural key ids upserts and keeps the original creation time")
+    void testCreateTranslation_NaturalKey() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, TEST_TAG);
+        final TranslationDocument existing = buildTestDocument();
+        existing.setId(naturalId);
+        existing.setCreatedAt(5L);
+        when(translationRepository.findAllById(List.of(naturalId))).thenReturn(Flux.just(existing));
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(translationService.createTranslation(
+                        new TranslationCreateRequest(TEST_KEY, UPDATED_VALUE, TEST_LOCALE, TEST_TAG)))
+                .expectNextMatches(translation -> naturalId.equals(translation.getId())
+                        && translation.getCreatedAt() == 5L
+                        && UPDATED_VALUE.equals(translation.getValue()))
+                .verifyComplete();
     }
 
     @Test
@@ -88,29 +196,365 @@ class TranslationServiceTest {
         final TranslationDocument doc1 = buildTestDocument("key1", "value1", "EN", "DESKTOP");
         final TranslationDocument doc2 = buildTestDocument("key2", "value2", "FR", "MOBILE");
         try (MockedStatic<TranslationMapper> mockedMapper = Mockito.mockStatic(TranslationMapper.class)) {
-            mockedMapper.when(() -> TranslationMapper.toEntity(request1)).thenReturn(doc1);
-            mockedMapper.when(() -> TranslationMapper.toEntity(request2)).thenReturn(doc2);
+            mockedMapper.when(() -> TranslationMapper.toEntity(request1, false)).thenReturn(doc1);
+            mockedMapper.when(() -> TranslationMapper.toEntity(request2, false)).thenReturn(doc2);
             when(translationRepository.saveAll(List.of(doc1, doc2))).thenReturn(Flux.just(doc1, doc2));
             StepVerifier.create(translationService.bulkCreateTranslations(requests)).verifyComplete();
             verify(translationRepository).saveAll(List.of(doc1, doc2));
+            verify(translationNearCache).put(doc1);
+            verify(translationNearCache).put(doc2);
+            verify(translationBundleCache).onSaved(doc1);
+            verify(translationBundleCache).onSaved(doc2);
         }
     }
 
+    @Test
+    @DisplayName("Test importTranslations validates lines and writes bounded batches")
+    void testImportTranslations() {
+        translationProperties.getBulk().setMaxActions(2);
+        final Flux<TranslationCreateRequest> requests = Flux.just(
+                new TranslationCreateRequest("key1", "value1", "EN", "WEB"),
+                new TranslationCreateRequest("key2", "value2", "XX", "WEB"),
+                new TranslationCreateRequest("key3", "value3", "FR", "MOBILE"));
+        when(translationRepository.bulkIndex(any()))
+                .thenReturn(Mono.just(List.of(new BulkItem("id1", 201, null))))
+                .thenReturn(Mono.just(List.of(new BulkItem("id3", 400, "rejected"))));
+        StepVerifier.create(translationService.importTranslations(requests, false))
+                .expectNextMatches(result -> result.line() == 1 && result.status() == BulkItemStatus.CREATED
+                        && "id1".equals(result.id()))
+                .expectNextMatches(result -> result.line() == 2 && result.status() == BulkItemStatus.INVALID
+                        && "locale: Invalid locale".equals(result.error()))
+                .expectNextMatches(result -> result.line() == 3 && result.status() == BulkItemStatus.FAILED
+                        && "rejected".equals(result.error()))
+                .verifyComplete();
+        verify(translationRepository, times(2)).bulkIndex(any());
+        verify(translationBundleCache, times(1)).onSaved(any(TranslationDocument.class));
+        verify(translationIndexManager, never()).bulkLoad(any());
+    }
+
+    @Test
+    @DisplayName("Test a relaxed importTranslations runs as a bulk load and reports every item of a failed bulk request")
+    void testImportTranslations_BulkRequestFailed() {
+        when(translationRepository.bulkIndex(any())).thenReturn(Mono.error(new IllegalStateException("down")));
+        when(translationIndexManager.bulkLoad(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        StepVerifier.create(translationService.importTranslations(
+                        Flux.just(new TranslationCreateRequest("key1", "value1", "EN", "WEB")), true))
+                .expectNextMatches(result -> result.status() == BulkItemStatus.FAILED && "down".equals(result.error()))
+                .verifyComplete();
+        verify(translationIndexManager).bulkLoad(any());
+    }
+
+    @Test
+    @DisplayName("Test importFile reads the file while importing it and reports progress with the lines in error")
+    @SuppressWarnings("unchecked")
+    void testImportFile() {
+        final String catalog = "msgid \"\"\nmsgstr \"Language: fr\\n\"\n\n"
+                + "msgid \"key1\"\nmsgstr \"value1\"\n\nmsgid key2\nmsgstr \"value2\"\n";
+        when(translationRepository.bulkIndex(any())).thenReturn(Mono.just(List.of(new BulkItem("id1", 201, null))));
+        StepVerifier.create(translationService.importFile(TranslationFileFormat.PO,
+                        Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(catalog.getBytes(StandardCharsets.UTF_8))),
+                        null, TranslationTag.WEB.name(), false))
+                .expectNextMatches(progress -> progress.read() == 2 && progress.written() == 1 && progress.failed() == 1
+                        && !progress.done()
+                        && progress.errors().equals(List.of(new BulkItemResult(7, null, null, BulkItemStatus.INVALID,
+                                "Malformed line: msgid key2"))))
+                .expectNextMatches(progress -> progress.read() == 2 && progress.done() && progress.errors().isEmpty())
+                .verifyComplete();
+        final ArgumentCaptor<List<TranslationDocument>> documents = ArgumentCaptor.forClass(List.class);
+        verify(translationRepository).bulkIndex(documents.capture());
+        assertThat(documents.getValue()).singleElement().satisfies(document -> {
+            assertThat(document.getKey()).isEqualTo("key1");
+            assertThat(document.getLocale()).isEqualTo(TranslationLocale.FR.name());
+            assertThat(document.getTag()).isEqualTo(TranslationTag.WEB.name());
+        });
+    }
+
     @Test
     @DisplayName("Test updateTranslation")
     void testUpdateTranslation() {
         final TranslationUpdateRequest updateRequest = new TranslationUpdateRequest(
                 TEST_KEY, UPDATED_VALUE, TEST_LOCALE, UPDATED_TAG);
+        final TranslationDocument updated = buildUpdatedDocument();
         when(translationRepository.findById(TEST_ID))
                 .thenReturn(Mono.just(buildTestDocument()));
-        when(translationRepository.save(any(TranslationDocument.class)))
-                .thenReturn(Mono.just(buildUpdatedDocument()));
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
+                .thenReturn(Mono.just(updated));
+        when(translationTombstones.save(any(TranslationTombstone.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
         StepVerifier.create(translationService.updateTranslation(TEST_ID, updateRequest))
                 .expectNextMatches(translation ->
                         UPDATED_VALUE.equals(translation.getValue()) &&
                                 UPDATED_TAG.equals(translation.getTag())).verifyComplete();
         verify(translationRepository).findById(TEST_ID);
-        verify(translationRepository).save(any(TranslationDocument.class));
+        verify(translationWriteCoalescer).save(any(TranslationDocument.class));
+        verify(translationNearCache).put(any(TranslationDocument.class));
+
+        final ArgumentCaptor<TranslationTombstone> tombstone = ArgumentCaptor.forClass(TranslationTombstone.class);
+        verify(translationTombstones).save(tombstone.capture());
+        assertThat(tombstone.getValue().getId()).isEqualTo(TranslationTombstones.movedId(TEST_ID, TEST_LOCALE, TEST_TAG));
+        assertThat(tombstone.getValue().getTranslationId()).isEqualTo(TEST_ID);
+        assertThat(tombstone.getValue().getTag()).isEqualTo(TEST_TAG);
+        assertThat(tombstone.getValue().getDeletedAt()).isEqualTo(updated.getUpdatedAt());
+        final ArgumentCaptor<TranslationChange> changes = ArgumentCaptor.forClass(TranslationChange.class);
+        verify(translationChangeFeed, times(2)).publish(changes.capture());
+        assertThat(changes.getAllValues()).extracting(TranslationChange::type)
+                .containsExactly(TranslationChangeType.DELETE, TranslationChangeType.UPSERT);
+        assertThat(changes.getAllValues()).extracting(TranslationChange::id).containsOnly(TEST_ID);
+        verify(translationNearCache, never()).invalidate(any());
+    }
+
+    @Test
+    @DisplayName("Test updateTranslation leaves no tombstone when locale and tag are unchanged")
+    void testUpdateTranslation_SameLocaleAndTag() {
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(buildTestDocument()));
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(translationService.updateTranslation(TEST_ID,
+                        new TranslationUpdateRequest(TEST_KEY, UPDATED_VALUE, TEST_LOCALE, TEST_TAG)))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(translationTombstones, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test patchTranslation sends only the given fields, conditional on the version read")
+    void testPatchTranslation() {
+        final TranslationDocument doc = buildTestDocument();
+        doc.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(8L, 1L));
+        when(translationRepository.update(eq(TEST_ID), any(), eq(new SeqNoPrimaryTerm(7L, 1L)), eq(3)))
+                .thenReturn(Mono.just(doc));
+        StepVerifier.create(translationService.patchTranslation(TEST_ID,
+                        new TranslationPatchRequest(null, UPDATED_VALUE, null, null), 7L, 1L))
+                .expectNext(doc)
+                .verifyComplete();
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Map<String, Object>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(translationRepository).update(eq(TEST_ID), fields.capture(), any(), eq(3));
+        assertThat(fields.getValue()).containsEntry("value", UPDATED_VALUE).containsKey("updatedAt")
+                .doesNotContainKeys("key", "locale", "tag");
+        verify(translationNearCache).put(doc);
+        verify(translationBundleCache).onSaved(doc);
+        verify(translationChangeFeed).publish(any(TranslationChange.class));
+    }
+
+    @Test
+    @DisplayName("Test patchTranslation of the tag tombstones the tag left, applied to the version read")
+    void testPatchTranslation_Moved() {
+        final TranslationDocument current = buildTestDocument();
+        current.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(7L, 1L));
+        final TranslationDocument patched = buildUpdatedDocument();
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(current));
+        when(translationRepository.update(eq(TEST_ID), any(), eq(new SeqNoPrimaryTerm(7L, 1L)), eq(0)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("seq_no+primary_term conflict")))
+                .thenReturn(Mono.just(patched));
+        when(translationTombstones.save(any(TranslationTombstone.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(translationService.patchTranslation(TEST_ID,
+                        new TranslationPatchRequest(null, null, null, UPDATED_TAG), null, null))
+                .expectNext(patched)
+                .verifyComplete();
+        verify(translationRepository, times(2)).findById(TEST_ID);
+        final ArgumentCaptor<TranslationTombstone> tombstone = ArgumentCaptor.forClass(TranslationTombstone.class);
+        verify(translationTombstones).save(tombstone.capture());
+        assertThat(tombstone.getValue().getTranslationId()).isEqualTo(TEST_ID);
+        assertThat(tombstone.getValue().getTag()).isEqualTo(TEST_TAG);
+        verify(translationChangeFeed, times(2)).publish(any(TranslationChange.class));
+    }
+
+    @Test
+    @DisplayName("Test patchTranslation of the tag rejects a version other than the one read")
+    void testPatchTranslation_MovedStale() {
+        final TranslationDocument current = buildTestDocument();
+        current.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(8L, 1L));
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(current));
+        StepVerifier.create(translationService.patchTranslation(TEST_ID,
+                        new TranslationPatchRequest(null, null, null, UPDATED_TAG), 7L, 1L))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException business
+                        && business.getErrorEnum() == ErrorCodeEnum.CONFLICT)
+                .verify();
+        verify(translationRepository, never()).update(any(), any(), any(), anyInt());
+        verify(translationTombstones, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test patchTranslation reports a concurrent change as a conflict")
+    void testPatchTranslation_Conflict() {
+        when(translationRepository.update(eq(TEST_ID), any(), eq(new SeqNoPrimaryTerm(7L, 1L)), eq(3)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("seq_no+primary_term conflict")));
+        StepVerifier.create(translationService.patchTranslation(TEST_ID,
+                        new TranslationPatchRequest(null, UPDATED_VALUE, null, null), 7L, 1L))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException business
+                        && business.getErrorEnum() == ErrorCodeEnum.CONFLICT)
+                .verify();
+        verify(translationNearCache, never()).put(any());
+    }
+
+    @Test
+    @DisplayName("Test patchTranslation leaves id fields of natural key translations to full updates")
+    void testPatchTranslation_NaturalKey() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        StepVerifier.create(translationService.patchTranslation(TEST_ID,
+                        new TranslationPatchRequest(null, null, null, UPDATED_TAG), null, null))
+                .expectError(BusinessServiceException.class)
+                .verify();
+        verify(translationRepository, never()).update(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test updateTranslation with natural key ids moves a renamed translation to its new id")
+    void testUpdateTranslation_NaturalKeyMoved() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, UPDATED_TAG);
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(buildTestDocument()));
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(translationRepository.deleteById(TEST_ID)).thenReturn(Mono.empty());
+        when(translationTombstones.save(any(TranslationTombstone.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(translationService.updateTranslation(TEST_ID,
+                        new TranslationUpdateRequest(TEST_KEY, UPDATED_VALUE, TEST_LOCALE, UPDATED_TAG)))
+                .expectNextMatches(translation -> naturalId.equals(translation.getId()))
+                .verifyComplete();
+        final ArgumentCaptor<TranslationTombstone> tombstone = ArgumentCaptor.forClass(TranslationTombstone.class);
+        verify(translationTombstones).save(tombstone.capture());
+        assertThat(tombstone.getValue().getId()).isEqualTo(TEST_ID);
+        assertThat(tombstone.getValue().getTag()).isEqualTo(TEST_TAG);
+        verify(translationRepository).deleteById(TEST_ID);
+        verify(translationNearCache).invalidate(TEST_ID);
+        verify(translationBundleCache).onDeleted(TEST_ID);
+    }
+
+    @Test
+    @DisplayName("Test findByTranslationId is served by the near-cache")
+    void testFindByTranslationId() {
+        when(translationNearCache.get(TEST_ID)).thenReturn(Mono.just(buildTestDocument()));
+        StepVerifier.create(translationService.findByTranslationId(TEST_ID))
+                .expectNextMatches(translation -> TEST_ID.equals(translation.getId()))
+                .verifyComplete();
+        verify(translationNearCache).get(TEST_ID);
+        verify(translationRepository, times(0)).findById(TEST_ID);
+    }
+
+    @Test
+    @DisplayName("Test findByNaturalKey with natural key ids is a lookup by id")
+    void testFindByNaturalKey_NaturalKey() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, TEST_TAG);
+        when(translationNearCache.get(naturalId)).thenReturn(Mono.just(buildTestDocument()));
+        StepVerifier.create(translationService.findByNaturalKey(TEST_KEY, TEST_LOCALE, TEST_TAG))
+                .expectNextMatches(translation -> TEST_KEY.equals(translation.getKey()))
+                .verifyComplete();
+        verify(elasticsearchTemplate, never()).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test findByNaturalKey with natural key ids searches for a translation written under a random id")
+    void testFindByNaturalKey_NaturalKeyFallback() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, TEST_TAG);
+        when(translationNearCache.get(naturalId)).thenReturn(Mono.empty());
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(buildTestDocument())));
+        StepVerifier.create(translationService.findByNaturalKey(TEST_KEY, TEST_LOCALE, TEST_TAG))
+                .expectNextMatches(translation -> TEST_ID.equals(translation.getId()))
+                .verifyComplete();
+        verify(elasticsearchTemplate).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test findByNaturalKey with random ids searches for the latest translation")
+    void testFindByNaturalKey_RandomIds() {
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(translationService.findByNaturalKey(TEST_KEY, TEST_LOCALE, TEST_TAG))
+                .expectError(BusinessServiceException.class)
+                .verify();
+        final ArgumentCaptor<CriteriaQuery> query = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate).search(query.capture(), eq(TranslationDocument.class));
+        assertThat(criteriaFields(query.getValue())).containsExactly("key", "tag", "locale");
+        assertThat(query.getValue().getPageable().getPageSize()).isEqualTo(1);
+        verify(translationNearCache, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("Test multiGetTranslations answers id and key lookups in request order")
+    void testMultiGetTranslations() {
+        final TranslationDocument older = buildTestDocument(TEST_KEY, TEST_VALUE, TEST_LOCALE, TEST_TAG);
+        older.setId("t2");
+        older.setUpdatedAt(1L);
+        final TranslationDocument latest = buildTestDocument(TEST_KEY, UPDATED_VALUE, TEST_LOCALE, UPDATED_TAG);
+        latest.setId("t3");
+        when(translationNearCache.getAll(List.of("missing", TEST_ID)))
+                .thenReturn(Mono.just(Map.of(TEST_ID, buildTestDocument())));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(older), buildSearchHit(latest)));
+        StepVerifier.create(translationService.multiGetTranslations(List.of(
+                        new TranslationLookup("missing", null, null, null),
+                        new TranslationLookup(null, TEST_KEY, TEST_LOCALE, null),
+                        new TranslationLookup(TEST_ID, null, null, null),
+                        new TranslationLookup(null, TEST_KEY, TEST_LOCALE, TEST_TAG),
+                        new TranslationLookup(null, TEST_KEY, TranslationLocale.FR.name(), null))))
+                .expectNextMatches(result -> !result.found() && result.translation() == null)
+                .expectNextMatches(result -> result.found() && "t3".equals(result.translation().getId()))
+                .expectNextMatches(result -> result.found() && TEST_ID.equals(result.translation().getId()))
+                .expectNextMatches(result -> result.found() && "t2".equals(result.translation().getId()))
+                .expectNextMatches(result -> !result.found())
+                .verifyComplete();
+        final ArgumentCaptor<CriteriaQuery> query = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate, times(1)).search(query.capture(), eq(TranslationDocument.class));
+        assertThat(criteriaFields(query.getValue())).containsExactly("key", "locale");
+    }
+
+    @Test
+    @DisplayName("Test multiGetTranslations with natural key ids resolves tagged lookups through the cache")
+    void testMultiGetTranslations_NaturalKey() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, TEST_TAG);
+        when(translationNearCache.getAll(List.of(naturalId)))
+                .thenReturn(Mono.just(Map.of(naturalId, buildTestDocument())));
+        StepVerifier.create(translationService.multiGetTranslations(List.of(
+                        new TranslationLookup(null, TEST_KEY, TEST_LOCALE, TEST_TAG))))
+                .expectNextMatches(result -> result.found() && TEST_KEY.equals(result.translation().getKey()))
+                .verifyComplete();
+        verify(elasticsearchTemplate, never()).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test multiGetTranslations with natural key ids searches the keys whose natural id was not found")
+    void testMultiGetTranslations_NaturalKeyFallback() {
+        translationProperties.getIdentity().setNaturalKey(true);
+        final String naturalId = TranslationMapper.naturalId(TEST_KEY, TEST_LOCALE, TEST_TAG);
+        when(translationNearCache.getAll(List.of("missing", naturalId))).thenReturn(Mono.just(Map.of()));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(buildTestDocument())));
+        StepVerifier.create(translationService.multiGetTranslations(List.of(
+                        new TranslationLookup("missing", TEST_KEY, TEST_LOCALE, TEST_TAG),
+                        new TranslationLookup(null, TEST_KEY, TEST_LOCALE, TEST_TAG))))
+                .expectNextMatches(result -> !result.found())
+                .expectNextMatches(result -> result.found() && TEST_ID.equals(result.translation().getId()))
+                .verifyComplete();
+        verify(elasticsearchTemplate).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test findByNaturalKey is answered by the read replica once it is loaded")
+    void testFindByNaturalKey_ReadReplica() {
+        when(translationReadReplica.isReady()).thenReturn(true);
+        when(translationReadReplica.find(TEST_KEY, TEST_LOCALE, null)).thenReturn(Optional.of(buildTestDocument()));
+        StepVerifier.create(translationService.findByNaturalKey(TEST_KEY, TEST_LOCALE, null))
+                .expectNextMatches(translation -> TEST_KEY.equals(translation.getKey()))
+                .verifyComplete();
+        verify(elasticsearchTemplate, never()).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+        verify(translationNearCache, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("Test findByTranslationId - not found")
+    void testFindByTranslationId_NotFound() {
+        when(translationNearCache.get(TEST_ID)).thenReturn(Mono.empty());
+        StepVerifier.create(translationService.findByTranslationId(TEST_ID))
+                .expectError(BusinessServiceException.class)
+                .verify();
     }
 
     @Test
@@ -125,15 +569,296 @@ class TranslationServiceTest {
                         TEST_KEY, TEST_TAG, TEST_LOCALE, TEST_VALUE, 0, 10))
                 .expectNextMatches(translation ->
                         TEST_KEY.equals(translation.getKey())).verifyComplete();
+        assertThat(meterRegistry.get("translation.search")
+                .tags("mode", "page", "filters", "key+tag+locale+value", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("translation.search.results").summary().totalAmount()).isEqualTo(1);
         verify(elasticsearchTemplate).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
     }
 
+    @Test
+    @DisplayName("Test searchTranslations matches the value or its analyzed subfield of the locale")
+    void testSearchTranslations_LocaleAnalyzedValue() {
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(translationService.searchTranslations(null, null, "FR", "chevaux", 0, 10))
+                .verifyComplete();
+        StepVerifier.create(translationService.searchTranslations(null, null, null, "horses", 0, 10))
+                .verifyComplete();
+        final ArgumentCaptor<CriteriaQuery> queries = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate, times(2)).search(queries.capture(), eq(TranslationDocument.class));
+        final Criteria localized = queries.getAllValues().get(0).getCriteria();
+        assertThat(criteriaFields(queries.getAllValues().get(0))).containsExactly("locale");
+        assertThat(localized.getSubCriteria()).singleElement().satisfies(value -> {
+            assertThat(value.getCriteriaChain()).filteredOn(Criteria::isOr)
+                    .extracting(criteria -> criteria.getField().getName())
+                    .containsExactly("value", "value.fr");
+        });
+        assertThat(criteriaFields(queries.getAllValues().get(1))).containsExactly("value");
+    }
+
+    @Test
+    @DisplayName("Test suggestTranslations queries the prefix subfield with a capped size")
+    void testSuggestTranslations() {
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(buildTestDocument())));
+        StepVerifier.create(translationService.suggestTranslations("hel", TEST_LOCALE, TEST_TAG, 500))
+                .expectNextMatches(translation -> TEST_KEY.equals(translation.getKey()))
+                .verifyComplete();
+        final ArgumentCaptor<CriteriaQuery> query = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate).search(query.capture(), eq(TranslationDocument.class));
+        assertThat(criteriaFields(query.getValue())).containsExactly("value.prefix", "tag", "locale");
+        assertThat(query.getValue().getPageable().getPageSize()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Test exportTranslations walks the point-in-time with search_after")
+    void testExportTranslations() {
+        translationProperties.getExport().setPageSize(1);
+        final TranslationDocument doc1 = buildTestDocument("key1", "value1", TEST_LOCALE, TEST_TAG);
+        final TranslationDocument doc2 = buildTestDocument("key2", "value2", TEST_LOCALE, TEST_TAG);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any()))
+                .thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(doc1, "key1")))
+                .thenReturn(Flux.just(buildSearchHit(doc2, "key2")))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(translationService.exportTranslations(TEST_LOCALE, TEST_TAG))
+                .expectNextMatches(translation -> "key1".equals(translation.getKey()))
+                .expectNextMatches(translation -> "key2".equals(translation.getKey()))
+                .verifyComplete();
+        verify(elasticsearchTemplate, times(3)).search(any(CriteriaQuery.class), eq(TranslationDocument.class));
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    @Test
+    @DisplayName("Test searchTranslationsByCursor pages through the point-in-time and closes it at the end")
+    void testSearchTranslationsByCursor() {
+        final TranslationDocument doc1 = buildTestDocument("key1", "value1", TEST_LOCALE, TEST_TAG);
+        final TranslationDocument doc2 = buildTestDocument("key2", "value2", TEST_LOCALE, TEST_TAG);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any()))
+                .thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(doc1, "key1", 7L)))
+                .thenReturn(Flux.just(buildSearchHit(doc2, "key2", 8L)))
+                .thenReturn(Flux.empty());
+        final TranslationSearchPage first = translationService.searchTranslationsByCursor(
+                null, null, TEST_LOCALE, null, "", 1).block();
+        final TranslationSearchPage second = translationService.searchTranslationsByCursor(
+                null, null, null, null, first.nextCursor(), 20).block();
+        final TranslationSearchPage last = translationService.searchTranslationsByCursor(
+                null, null, null, null, second.nextCursor(), 20).block();
+        assertThat(first.items()).extracting(TranslationDocument::getKey).containsExactly("key1");
+        assertThat(second.items()).extracting(TranslationDocument::getKey).containsExactly("key2");
+        assertThat(last.items()).isEmpty();
+        assertThat(last.nextCursor()).isNull();
+        final ArgumentCaptor<CriteriaQuery> queries = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate, times(3)).search(queries.capture(), eq(TranslationDocument.class));
+        assertThat(queries.getAllValues().get(2).getSearchAfter()).containsExactly("key2", 8);
+        assertThat(queries.getAllValues().get(2).getPageable().getPageSize()).isEqualTo(1);
+        verify(elasticsearchTemplate, times(1)).openPointInTime(any(IndexCoordinates.class), any());
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+    }
+
+    @Test
+    @DisplayName("Test searchTranslationsByCursor rejects a malformed cursor")
+    void testSearchTranslationsByCursor_InvalidCursor() {
+        StepVerifier.create(translationService.searchTranslationsByCursor(null, null, null, null, "not-a-cursor", 20))
+                .expectError(BusinessServiceException.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("Test deleteTranslation")
     void testDeleteTranslation() {
+        final TranslationDocument doc = buildTestDocument();
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(doc));
+        when(translationTombstones.record(doc)).thenReturn(Mono.just(TranslationTombstones.tombstoneOf(doc)));
         when(translationRepository.deleteById(TEST_ID)).thenReturn(Mono.empty());
         StepVerifier.create(translationService.deleteTranslation(TEST_ID)).verifyComplete();
+        verify(translationTombstones).record(doc);
         verify(translationRepository).deleteById(TEST_ID);
+        verify(translationNearCache).invalidate(TEST_ID);
+        verify(translationBundleCache).onDeleted(TEST_ID);
+        final ArgumentCaptor<TranslationChange> change = ArgumentCaptor.forClass(TranslationChange.class);
+        verify(translationChangeFeed).publish(change.capture());
+        assertThat(change.getValue().type()).isEqualTo(TranslationChangeType.DELETE);
+        assertThat(change.getValue().id()).isEqualTo(TEST_ID);
+    }
+
+    @Test
+    @DisplayName("Test findStats aggregates once and again only after a write")
+    void testFindStats() {
+        final FacetCounts counts = new FacetCounts(3, Map.of(TEST_LOCALE, 3L), Map.of(TEST_TAG, 2L, UPDATED_TAG, 1L),
+                Map.of(TEST_LOCALE, Map.of(TEST_TAG, 2L, UPDATED_TAG, 1L)));
+        when(translationRepository.countByLocaleAndTag(100)).thenReturn(Mono.just(counts));
+        StepVerifier.create(translationService.findStats())
+                .expectNextMatches(stats -> stats.total() == 3
+                        && stats.tags().equals(counts.tags())
+                        && stats.localeTags().equals(counts.localeTags())
+                        && stats.computedAt() > 0)
+                .verifyComplete();
+        StepVerifier.create(translationService.findStats()).expectNextCount(1).verifyComplete();
+        verify(translationRepository, times(1)).countByLocaleAndTag(100);
+
+        when(translationWriteCoalescer.save(any(TranslationDocument.class)))
+                .thenReturn(Mono.just(buildTestDocument()));
+        StepVerifier.create(translationService.createTranslation(
+                        new TranslationCreateRequest(TEST_KEY, TEST_VALUE, TEST_LOCALE, TEST_TAG)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(translationService.findStats()).expectNextCount(1).verifyComplete();
+        verify(translationRepository, times(2)).countByLocaleAndTag(100);
+    }
+
+    @Test
+    @DisplayName("Test findMissingTranslations reports keys of the source locale lacking any of the locales")
+    void testFindMissingTranslations() {
+        when(translationRepository.scanKeyLocales(List.of("EN", "FR", "ES"), TEST_TAG, 1000)).thenReturn(Flux.just(
+                new KeyLocales("a.key", TEST_TAG, Set.of("EN", "FR", "ES")),
+                new KeyLocales("b.key", TEST_TAG, Set.of("EN", "ES")),
+                new KeyLocales("c.key", TEST_TAG, Set.of("FR")),
+                new KeyLocales("d.key", TEST_TAG, Set.of("EN"))));
+        StepVerifier.create(translationService.findMissingTranslations("EN", List.of("FR", "ES", "EN", "FR"), TEST_TAG))
+                .expectNext(new MissingTranslation("b.key", TEST_TAG, List.of("FR")))
+                .expectNext(new MissingTranslation("d.key", TEST_TAG, List.of("FR", "ES")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test findMissingTranslations rejects unknown locales and a report without target locales")
+    void testFindMissingTranslations_InvalidLocales() {
+        StepVerifier.create(translationService.findMissingTranslations("EN", List.of("FR", "XX"), null))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException
+                        && e.getMessage().contains("Invalid locale: XX"))
+                .verify();
+        StepVerifier.create(translationService.findMissingTranslations("EN", List.of("EN"), null))
+                .expectError(BusinessServiceException.class)
+                .verify();
+        verify(translationRepository, never()).scanKeyLocales(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test findChanges merges updates and tombstones after the watermark in order of change")
+    @SuppressWarnings("unchecked")
+    void testFindChanges() {
+        final TranslationDocument updated = buildTestDocument();
+        updated.setUpdatedAt(300L);
+        final TranslationTombstone deleted = new TranslationTombstone();
+        deleted.setId("t2");
+        deleted.setKey("farewell");
+        deleted.setLocale(TEST_LOCALE);
+        deleted.setTag(TEST_TAG);
+        deleted.setDeletedAt(200L);
+        final long since = Instant.now().toEpochMilli() - 1000;
+        when(translationTombstones.oldestWatermark()).thenReturn(0L);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(any())).thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(updated)));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationTombstone.class)))
+                .thenReturn(Flux.just(new SearchHit<>(null, "t2", null, 1.0f, null, null, null, null, null, null,
+                        deleted)));
+        StepVerifier.create(translationService.findChanges(since, TEST_LOCALE, null)
+                        .flatMapMany(changeSet -> {
+                            assertThat(changeSet.watermark()).isGreaterThanOrEqualTo(since);
+                            return changeSet.changes();
+                        }))
+                .expectNextMatches(change -> change.type() == TranslationChangeType.DELETE && "t2".equals(change.id()))
+                .expectNextMatches(change -> change.type() == TranslationChangeType.UPSERT
+                        && TEST_VALUE.equals(change.value()))
+                .verifyComplete();
+        final ArgumentCaptor<CriteriaQuery> query = ArgumentCaptor.forClass(CriteriaQuery.class);
+        verify(elasticsearchTemplate).search(query.capture(), eq(TranslationDocument.class));
+        assertThat(criteriaFields(query.getValue())).containsExactly("updatedAt", "locale");
+        verify(elasticsearchTemplate, times(2)).closePointInTime("pit-1");
+    }
+
+    @Test
+    @DisplayName("Test findChanges orders the tombstone of a move before the upsert changed at the same time")
+    void testFindChanges_Moved() {
+        final TranslationDocument moved = buildUpdatedDocument();
+        moved.setUpdatedAt(300L);
+        final TranslationTombstone previous = new TranslationTombstone();
+        previous.setId(TEST_ID);
+        previous.setKey(TEST_KEY);
+        previous.setLocale(TEST_LOCALE);
+        previous.setTag(TEST_TAG);
+        final TranslationTombstone left = TranslationTombstones.movedFrom(previous, moved).orElseThrow();
+        final long since = Instant.now().toEpochMilli() - 1000;
+        when(translationTombstones.oldestWatermark()).thenReturn(0L);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(any())).thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(moved)));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationTombstone.class)))
+                .thenReturn(Flux.just(new SearchHit<>(null, left.getId(), null, 1.0f, null, null, null, null, null,
+                        null, left)));
+        StepVerifier.create(translationService.findChanges(since, null, null)
+                        .flatMapMany(TranslationChangeSet::changes))
+                .expectNextMatches(change -> change.type() == TranslationChangeType.DELETE
+                        && TEST_ID.equals(change.id()) && TEST_TAG.equals(change.tag()))
+                .expectNextMatches(change -> change.type() == TranslationChangeType.UPSERT
+                        && TEST_ID.equals(change.id()) && UPDATED_TAG.equals(change.tag()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test findChanges without watermark returns every translation and no tombstones")
+    void testFindChanges_FullSync() {
+        when(elasticsearchTemplate.getIndexCoordinatesFor(any())).thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(buildSearchHit(buildTestDocument())));
+        StepVerifier.create(translationService.findChanges(null, null, null).flatMapMany(TranslationChangeSet::changes))
+                .expectNextMatches(change -> change.type() == TranslationChangeType.UPSERT)
+                .verifyComplete();
+        verify(elasticsearchTemplate, never()).search(any(CriteriaQuery.class), eq(TranslationTombstone.class));
+        verify(translationTombstones, never()).oldestWatermark();
+    }
+
+    @Test
+    @DisplayName("Test findChanges keeps the watermark below the start of a running maintenance job")
+    void testFindChanges_RunningJob() {
+        final long jobStartedAt = Instant.now().toEpochMilli() - 60_000;
+        when(translationMaintenanceJobs.runningSince()).thenReturn(jobStartedAt);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(any())).thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.empty());
+        StepVerifier.create(translationService.findChanges(null, null, null).map(TranslationChangeSet::watermark))
+                .expectNext(jobStartedAt - 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test findChanges rejects a watermark older than the tombstone retention")
+    void testFindChanges_Expired() {
+        when(translationTombstones.oldestWatermark()).thenReturn(1000L);
+        StepVerifier.create(translationService.findChanges(999L, null, null))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException
+                        && ((BusinessServiceException) e).getHttpStatus() == HttpStatus.GONE)
+                .verify();
+    }
+
+    private SearchHit<TranslationDocument> buildSearchHit(final TranslationDocument doc, final Object... sortValues) {
+        return new SearchHit<>(null, doc.getId(), null, 1.0f, sortValues, null, null, null, null, null, doc);
+    }
+
+    private List<String> criteriaFields(final CriteriaQuery query) {
+        return query.getCriteria().getCriteriaChain().stream()
+                .map(criteria -> criteria.getField().getName())
+                .toList();
     }
 
     private TranslationDocument buildTestDocument() {
@@ -0,0 +1,176 @@
+package se.digitaltolk.translation.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.metrics.CompressionMeters;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+import se.digitaltolk.translation.web.support.ContentCoding;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationBundleCacheTest {
+
+    TranslationProperties translationProperties;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationBundleCache translationBundleCache;
+
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        translationProperties = new TranslationProperties();
+        translationBundleCache = new TranslationBundleCache(new ObjectMapper(), translationProperties, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Test bundle is loaded once and served from memory afterwards")
+    void testGet_LoadedOnce() {
+        final Supplier<Flux<TranslationDocument>> source = countingSource(
+                buildDocument("t2", "b.key", "B"), buildDocument("t1", "a.key", "A"));
+        final TranslationBundle first = get(source);
+        final TranslationBundle second = get(source);
+        assertThat(body(first)).isEqualTo("{\"a.key\":\"A\",\"b.key\":\"B\"}");
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Test writes patch the bundle and change its ETag without reloading")
+    void testOnSavedAndOnDeleted() {
+        final Supplier<Flux<TranslationDocument>> source = countingSource(buildDocument("t1", "a.key", "A"));
+        final TranslationBundle initial = get(source);
+        translationBundleCache.onSaved(buildDocument("t2", "b.key", "B"));
+        final TranslationBundle added = get(source);
+        assertThat(body(added)).isEqualTo("{\"a.key\":\"A\",\"b.key\":\"B\"}");
+        assertThat(added.etag()).isNotEqualTo(initial.etag());
+        translationBundleCache.onDeleted("t2");
+        final TranslationBundle removed = get(source);
+        assertThat(body(removed)).isEqualTo(body(initial));
+        assertThat(removed.etag()).isEqualTo(initial.etag());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Test a translation moved to another tag leaves the old bundle")
+    void testOnSaved_MovedTag() {
+        get(countingSource(buildDocument("t1", "a.key", "A")));
+        final TranslationDocument moved = buildDocument("t1", "a.key", "A");
+        moved.setTag(TranslationTag.MOBILE.name());
+        translationBundleCache.onSaved(moved);
+        assertThat(body(get(countingSource()))).isEqualTo("{}");
+    }
+
+    @Test
+    @DisplayName("Test writes observed while loading are applied on top of the loaded entries")
+    void testOnSaved_DuringLoad() {
+        final Sinks.Many<TranslationDocument> sink = Sinks.many().unicast().onBackpressureBuffer();
+        final var pending = translationBundleCache.get(TranslationLocale.EN, TranslationTag.WEB, sink::asFlux)
+                .toFuture();
+        translationBundleCache.onSaved(buildDocument("t1", "a.key", "Updated"));
+        translationBundleCache.onDeleted("t2");
+        sink.tryEmitNext(buildDocument("t1", "a.key", "A"));
+        sink.tryEmitNext(buildDocument("t2", "b.key", "B"));
+        sink.tryEmitComplete();
+        assertThat(body(pending.join())).isEqualTo("{\"a.key\":\"Updated\"}");
+    }
+
+    @Test
+    @DisplayName("Test invalidateAll reloads bundles and discards a load that was in flight")
+    void testInvalidateAll() {
+        get(countingSource(buildDocument("t1", "a.key", "A")));
+        translationBundleCache.invalidateAll();
+        final Sinks.Many<TranslationDocument> sink = Sinks.many().unicast().onBackpressureBuffer();
+        final Supplier<Flux<TranslationDocument>> source = () -> loads.incrementAndGet() == 2
+                ? sink.asFlux()
+                : Flux.just(buildDocument("t1", "a.key", "Retagged"));
+        final var pending = translationBundleCache.get(TranslationLocale.EN, TranslationTag.WEB, source).toFuture();
+        translationBundleCache.invalidateAll();
+        sink.tryEmitNext(buildDocument("t1", "a.key", "A"));
+        sink.tryEmitComplete();
+        assertThat(body(pending.join())).isEqualTo("{\"a.key\":\"Retagged\"}");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Test an expired bundle is loaded again, picking up writes made through other instances")
+    void testGet_Expired() {
+        translationProperties.getCache().setBundleExpireAfterLoad(Duration.ZERO);
+        final TranslationBundle initial = get(countingSource(buildDocument("t1", "a.key", "A")));
+        final TranslationBundle reloaded = get(countingSource(buildDocument("t1", "a.key", "Elsewhere")));
+        assertThat(body(reloaded)).isEqualTo("{\"a.key\":\"Elsewhere\"}");
+        assertThat(reloaded.etag()).isNotEqualTo(initial.etag());
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Test bundles from the minimum response size on are precompressed once per encoding")
+    void testGet_Precompressed() throws IOException {
+        translationProperties.getCompression().setMinResponseSize(DataSize.ofBytes(32));
+        final TranslationBundle small = get(countingSource(buildDocument("t1", "a.key", "A")));
+        assertThat(small.encodedBodies()).isEmpty();
+        translationBundleCache.onSaved(buildDocument("t2", "b.key", "A value long enough to be compressed"));
+        final TranslationBundle large = get(countingSource());
+        assertThat(large.encodedBodies()).containsOnlyKeys(ContentCoding.GZIP, ContentCoding.DEFLATE);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(large.body(ContentCoding.GZIP)))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(large.body());
+        }
+        try (InflaterInputStream deflate = new InflaterInputStream(
+                new ByteArrayInputStream(large.body(ContentCoding.DEFLATE)))) {
+            assertThat(deflate.readAllBytes()).isEqualTo(large.body());
+        }
+        assertThat(large.etag(ContentCoding.GZIP)).isEqualTo(large.etag().replaceAll("\"$", "-gzip\""));
+        assertThat(meterRegistry.get(CompressionMeters.COMPRESSION_METRIC).tag("source", "bundle")
+                .tag("encoding", "gzip").timer().count()).isEqualTo(1);
+    }
+
+    private TranslationBundle get(final Supplier<Flux<TranslationDocument>> source) {
+        return translationBundleCache.get(TranslationLocale.EN, TranslationTag.WEB, source).block();
+    }
+
+    private Supplier<Flux<TranslationDocument>> countingSource(final TranslationDocument... documents) {
+        return () -> {
+            loads.incrementAndGet();
+            return Flux.just(documents);
+        };
+    }
+
+    private String body(final TranslationBundle bundle) {
+        return new String(bundle.body(), StandardCharsets.UTF_8);
+    }
+
+    private TranslationDocument buildDocument(final String id, final String key, final String value) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(id);
+        doc.setKey(key);
+        doc.setValue(value);
+        doc.setLocale(TranslationLocale.EN.name());
+        doc.setTag(TranslationTag.WEB.name());
+        doc.setUpdatedAt(1L);
+        return doc;
+    }
+}
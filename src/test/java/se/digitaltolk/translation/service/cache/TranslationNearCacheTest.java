@@ -0,0 +1,109 @@
+package se.digitaltolk.translation.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationNearCacheTest {
+
+    static final String TEST_ID = "t1";
+
+    @Mock
+    TranslationRepository translationRepository;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationNearCache translationNearCache;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        translationNearCache = new TranslationNearCache(
+                translationRepository, new TranslationProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test repeated reads are served from the cache")
+    void testGet_Hit() {
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(buildDocument("Hello")));
+        StepVerifier.create(translationNearCache.get(TEST_ID)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(translationNearCache.get(TEST_ID)).expectNextCount(1).verifyComplete();
+        verify(translationRepository, times(1)).findById(TEST_ID);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test missing translations are not cached")
+    void testGet_Missing() {
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.empty());
+        StepVerifier.create(translationNearCache.get(TEST_ID)).verifyComplete();
+        StepVerifier.create(translationNearCache.get(TEST_ID)).verifyComplete();
+        verify(translationRepository, times(2)).findById(TEST_ID);
+    }
+
+    @Test
+    @DisplayName("Test put replaces and invalidate evicts the cached translation")
+    void testPutAndInvalidate() {
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(buildDocument("Hello")));
+        translationNearCache.put(buildDocument("Updated"));
+        StepVerifier.create(translationNearCache.get(TEST_ID))
+                .expectNextMatches(translation -> "Updated".equals(translation.getValue()))
+                .verifyComplete();
+        translationNearCache.invalidate(TEST_ID);
+        StepVerifier.create(translationNearCache.get(TEST_ID))
+                .expectNextMatches(translation -> "Hello".equals(translation.getValue()))
+                .verifyComplete();
+        verify(translationRepository, times(1)).findById(TEST_ID);
+    }
+
+    @Test
+    @DisplayName("Test getAll loads only the misses with one multi-get")
+    void testGetAll() {
+        when(translationRepository.findById(TEST_ID)).thenReturn(Mono.just(buildDocument("Hello")));
+        when(translationRepository.findAllById(List.of("t2"))).thenReturn(Flux.empty());
+        StepVerifier.create(translationNearCache.get(TEST_ID)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(translationNearCache.getAll(List.of(TEST_ID, "t2")))
+                .expectNextMatches(translations -> translations.keySet().equals(Set.of(TEST_ID)))
+                .verifyComplete();
+        verify(translationRepository, times(1)).findAllById(List.of("t2"));
+    }
+
+    private TranslationDocument buildDocument(final String value) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(TEST_ID);
+        doc.setKey("greeting");
+        doc.setValue(value);
+        doc.setLocale("EN");
+        doc.setTag("WEB");
+        return doc;
+    }
+}
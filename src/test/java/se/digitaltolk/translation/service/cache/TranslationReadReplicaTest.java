@@ -0,0 +1,177 @@
+package se.digitaltolk.translation.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+import se.digitaltolk.translation.web.dto.TranslationLocale;
+import se.digitaltolk.translation.web.dto.TranslationTag;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationReadReplicaTest {
+
+    @Mock
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationReadReplica translationReadReplica;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        final TranslationProperties translationProperties = new TranslationProperties();
+        translationProperties.getReplica().setEnabled(true);
+        translationProperties.getReplica().setPollInterval(Duration.ofHours(1));
+        translationReadReplica = new TranslationReadReplica(elasticsearchTemplate, translationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        translationReadReplica.stop();
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test find returns the latest translation of a key, optionally of one tag")
+    void testFind() {
+        translationReadReplica.onSaved(buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L));
+        translationReadReplica.onSaved(buildDocument("t2", "greeting", "Hi", "EN", "MOBILE", 2L));
+        translationReadReplica.onSaved(buildDocument("t3", "greeting", "Bonjour", "FR", "WEB", 3L));
+        assertThat(translationReadReplica.find("greeting", "EN", null)).get()
+                .extracting(TranslationDocument::getValue).isEqualTo("Hi");
+        assertThat(translationReadReplica.find("greeting", "EN", "WEB")).get()
+                .extracting(TranslationDocument::getId).isEqualTo("t1");
+        assertThat(translationReadReplica.find("greeting", "ES", null)).isEmpty();
+        assertThat(translationReadReplica.find("farewell", "EN", null)).isEmpty();
+        assertThat(translationReadReplica.findAll(TranslationLocale.EN, TranslationTag.WEB))
+                .extracting(TranslationDocument::getId).containsExactly("t1");
+    }
+
+    @Test
+    @DisplayName("Test updates move a translation between locales and deletes remove it")
+    void testUpdateAndDelete() {
+        translationReadReplica.onSaved(buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L));
+        translationReadReplica.onSaved(buildDocument("t1", "greeting", "Hola", "ES", "WEB", 2L));
+        assertThat(translationReadReplica.find("greeting", "EN", null)).isEmpty();
+        assertThat(translationReadReplica.find("greeting", "ES", "WEB")).get()
+                .extracting(TranslationDocument::getValue).isEqualTo("Hola");
+        assertThat(translationReadReplica.size()).isEqualTo(1);
+        translationReadReplica.onDeleted("t1");
+        assertThat(translationReadReplica.find("greeting", "ES", null)).isEmpty();
+        assertThat(translationReadReplica.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test documents read from Elasticsearch do not overwrite newer or deleted translations")
+    void testApply_Stale() {
+        translationReadReplica.onSaved(buildDocument("t1", "greeting", "Hello again", "EN", "WEB", 5L));
+        translationReadReplica.apply(buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L));
+        assertThat(translationReadReplica.find("greeting", "EN", "WEB")).get()
+                .extracting(TranslationDocument::getValue).isEqualTo("Hello again");
+        translationReadReplica.onDeleted("t1");
+        translationReadReplica.apply(buildDocument("t1", "greeting", "Hello again", "EN", "WEB", 5L));
+        assertThat(translationReadReplica.find("greeting", "EN", "WEB")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Test tombstones remove translations unless they were written again after the deletion")
+    void testApplyDeleted() {
+        translationReadReplica.onSaved(buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L));
+        translationReadReplica.onSaved(buildDocument("t2", "farewell", "Bye", "EN", "WEB", 9L));
+        translationReadReplica.applyDeleted(buildTombstone("t1", 5L));
+        translationReadReplica.applyDeleted(buildTombstone("t2", 5L));
+        assertThat(translationReadReplica.find("greeting", "EN", null)).isEmpty();
+        assertThat(translationReadReplica.find("farewell", "EN", null)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Test translations are returned with the sequence number and primary term they were stored with")
+    void testFind_Version() {
+        final TranslationDocument doc = buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L);
+        doc.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(4, 1));
+        translationReadReplica.onSaved(doc);
+        translationReadReplica.onSaved(buildDocument("t2", "farewell", "Bye", "EN", "WEB", 1L));
+        assertThat(translationReadReplica.find("greeting", "EN", "WEB")).get()
+                .satisfies(translation -> {
+                    assertThat(translation.getSeqNo()).isEqualTo(4L);
+                    assertThat(translation.getPrimaryTerm()).isEqualTo(1L);
+                });
+        final TranslationDocument polled = buildDocument("t2", "farewell", "Bye", "EN", "WEB", 1L);
+        polled.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(7, 2));
+        translationReadReplica.apply(polled);
+        assertThat(translationReadReplica.find("farewell", "EN", "WEB")).get()
+                .extracting(TranslationDocument::getSeqNo).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Test start loads every translation with a point-in-time scan and reports its footprint")
+    void testStart() {
+        final TranslationDocument doc = buildDocument("t1", "greeting", "Hello", "EN", "WEB", 1L);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.openPointInTime(any(IndexCoordinates.class), any())).thenReturn(Mono.just("pit-1"));
+        when(elasticsearchTemplate.search(any(CriteriaQuery.class), eq(TranslationDocument.class)))
+                .thenReturn(Flux.just(new SearchHit<>(null, doc.getId(), null, 1.0f, null, null, null, null, null,
+                        null, doc)));
+        when(elasticsearchTemplate.closePointInTime("pit-1")).thenReturn(Mono.just(true));
+        assertThat(translationReadReplica.isReady()).isFalse();
+        translationReadReplica.start();
+        assertThat(translationReadReplica.isReady()).isTrue();
+        assertThat(translationReadReplica.find("greeting", "EN", "WEB")).isPresent();
+        verify(elasticsearchTemplate).closePointInTime("pit-1");
+        assertThat(meterRegistry.get("translation.replica.entries").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("translation.replica.heap").gauge().value()).isPositive();
+    }
+
+    private TranslationTombstone buildTombstone(final String id, final long deletedAt) {
+        final TranslationTombstone tombstone = new TranslationTombstone();
+        tombstone.setId(id);
+        tombstone.setDeletedAt(deletedAt);
+        return tombstone;
+    }
+
+    private TranslationDocument buildDocument(
+            final String id,
+            final String key,
+            final String value,
+            final String locale,
+            final String tag,
+            final long updatedAt
+    ) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(id);
+        doc.setKey(key);
+        doc.setValue(value);
+        doc.setLocale(locale);
+        doc.setTag(tag);
+        doc.setCreatedAt(updatedAt);
+        doc.setUpdatedAt(updatedAt);
+        return doc;
+    }
+}
@@ -0,0 +1,104 @@
+package se.digitaltolk.translation.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.web.dto.TranslationStats;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationStatsCacheTest {
+
+    TranslationProperties translationProperties;
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationStatsCache translationStatsCache;
+
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        translationProperties = new TranslationProperties();
+        translationStatsCache = new TranslationStatsCache(translationProperties, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Test concurrent misses share one computation and later reads are hits until the ttl ends")
+    void testGet_SharedAndCached() throws InterruptedException {
+        translationProperties.getStats().setTtl(Duration.ofMillis(200));
+        final Sinks.One<TranslationStats> computation = Sinks.one();
+        final Supplier<Mono<TranslationStats>> source = () -> {
+            loads.incrementAndGet();
+            return computation.asMono();
+        };
+        final Mono<TranslationStats> first = translationStatsCache.get(source);
+        final Mono<TranslationStats> second = translationStatsCache.get(source);
+        final TranslationStats[] results = new TranslationStats[2];
+        first.subscribe(stats -> results[0] = stats);
+        second.subscribe(stats -> results[1] = stats);
+        computation.tryEmitValue(stats(1));
+        assertThat(results).containsExactly(stats(1), stats(1));
+        assertThat(translationStatsCache.get(source).block()).isEqualTo(stats(1));
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+
+        Thread.sleep(250);
+        translationStatsCache.get(() -> {
+            loads.incrementAndGet();
+            return Mono.just(stats(2));
+        }).block();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Test statistics computing while a write is invalidated answer their readers but are not kept")
+    void testInvalidate_DuringComputation() {
+        final Sinks.One<TranslationStats> computation = Sinks.one();
+        final TranslationStats[] result = new TranslationStats[1];
+        translationStatsCache.get(() -> computation.asMono()).subscribe(stats -> result[0] = stats);
+        translationStatsCache.invalidate();
+        computation.tryEmitValue(stats(1));
+        assertThat(result[0]).isEqualTo(stats(1));
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(2))).block()).isEqualTo(stats(2));
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(3))).block()).isEqualTo(stats(2));
+    }
+
+    @Test
+    @DisplayName("Test statistics computed before the index refreshed a write expire with the refresh interval")
+    void testInvalidate_BeforeRefresh() throws InterruptedException {
+        translationProperties.getIndex().setRefreshInterval(Duration.ofMillis(100));
+        translationStatsCache.invalidate();
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(1))).block()).isEqualTo(stats(1));
+        Thread.sleep(150);
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(2))).block()).isEqualTo(stats(2));
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(3))).block()).isEqualTo(stats(2));
+    }
+
+    @Test
+    @DisplayName("Test a failed computation is not kept")
+    void testGet_Failed() {
+        final Mono<TranslationStats> failed = translationStatsCache.get(
+                () -> Mono.error(new IllegalStateException("down")));
+        assertThat(failed.onErrorResume(e -> Mono.empty()).block()).isNull();
+        assertThat(translationStatsCache.get(() -> Mono.just(stats(1))).block()).isEqualTo(stats(1));
+    }
+
+    private static TranslationStats stats(final long total) {
+        return new TranslationStats(total, Map.of("EN", total), Map.of("WEB", total),
+                Map.of("EN", Map.of("WEB", total)), 1L);
+    }
+}
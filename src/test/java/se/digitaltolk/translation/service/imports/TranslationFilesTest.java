@@ -0,0 +1,178 @@
+package se.digitaltolk.translation.service.imports;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+
+class TranslationFilesTest {
+
+    static final int CHUNK_SIZE = 7;
+
+    @Test
+    @DisplayName("Test gettext catalogs skip the header, untranslated and fuzzy entries and join continued strings")
+    void testRead_Po() {
+        final List<TranslationFileEntry> entries = read(TranslationFileFormat.PO, """
+                msgid ""
+                msgstr ""
+                "Content-Type: text/plain; charset=UTF-8\\n"
+                "Language: fr_CA\\n"
+
+                #: src/home.js:1
+                msgid "home.title"
+                msgstr "Accueil"
+
+                msgctxt "menu"
+                msgid "open"
+                msgstr ""
+                "Ouvrir \\"le\\" "
+                "fichier"
+
+                msgid "untranslated"
+                msgstr ""
+
+                #, fuzzy
+                msgid "fuzzy"
+                msgstr "Flou"
+                msgid "days"
+                msgid_plural "days"
+                msgstr[0] "jour"
+                msgstr[1] "jours"
+
+                msgid broken
+                msgstr "never read"
+
+                msgid "last"
+                msgstr "Dernier"
+                """);
+        assertThat(entries).containsExactly(
+                TranslationFileEntry.of(7, "home.title", "Accueil", "FR"),
+                TranslationFileEntry.of(11, "menu.open", "Ouvrir \"le\" fichier", "FR"),
+                TranslationFileEntry.of(22, "days", "jour", "FR"),
+                TranslationFileEntry.failed(27, null, "Malformed line: msgid broken"),
+                TranslationFileEntry.of(30, "last", "Dernier", "FR"));
+    }
+
+    @Test
+    @DisplayName("Test XLIFF 1.2 and 2.0 units are keyed by resname or id, with the target language as locale")
+    void testRead_Xliff() {
+        assertThat(read(TranslationFileFormat.XLIFF, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <xliff version="1.2" xmlns="urn:oasis:names:tc:xliff:document:1.2">
+                  <file source-language="en" target-language="es-ES" datatype="plaintext" original="web">
+                    <body>
+                      <trans-unit id="1" resname="home.title">
+                        <source>Home</source>
+                        <target>Inicio <g id="b">principal</g></target>
+                        <alt-trans><target>Casa</target></alt-trans>
+                      </trans-unit>
+                      <trans-unit id="checkout.pay"><source>Pay</source></trans-unit>
+                      <trans-unit id="checkout.cancel"><source>Cancel</source><target>Cancelar &amp; salir</target></trans-unit>
+                    </body>
+                  </file>
+                </xliff>
+                """)).containsExactly(
+                TranslationFileEntry.of(5, "home.title", "Inicio principal", "ES"),
+                TranslationFileEntry.of(11, "checkout.cancel", "Cancelar & salir", "ES"));
+        assertThat(read(TranslationFileFormat.XLIFF, """
+                <xliff xmlns="urn:oasis:names:tc:xliff:document:2.0" version="2.0" srcLang="en" trgLang="fr">
+                  <file id="f1">
+                    <unit id="greeting">
+                      <segment><source>Hello.</source><target>Bonjour.</target></segment>
+                      <ignorable><source> </source><target> </target></ignorable>
+                      <segment><source>Welcome!</source><target>Bienvenue !</target></segment>
+                    </unit>
+                  </file>
+                </xliff>
+                """)).containsExactly(TranslationFileEntry.of(3, "greeting", "Bonjour. Bienvenue !", "FR"));
+    }
+
+    @Test
+    @DisplayName("Test Android strings, arrays and plurals are unescaped and untranslatable strings skipped")
+    void testRead_Android() {
+        assertThat(read(TranslationFileFormat.ANDROID, """
+                <?xml version="1.0" encoding="utf-8"?>
+                <resources>
+                    <string name="app_name" translatable="false">Translator</string>
+                    <string name="welcome">Don\\'t   <b>wait</b>\\nhere</string>
+                    <string name="quoted">"  two  spaces "</string>
+                    <string-array name="planets">
+                        <item>Mercury</item>
+                        <item>Venus</item>
+                    </string-array>
+                    <plurals name="days">
+                        <item quantity="one">%d day</item>
+                        <item quantity="other">%d days</item>
+                    </plurals>
+                </resources>
+                """)).containsExactly(
+                TranslationFileEntry.of(4, "welcome", "Don't wait\nhere", null),
+                TranslationFileEntry.of(5, "quoted", "  two  spaces ", null),
+                TranslationFileEntry.of(7, "planets.0", "Mercury", null),
+                TranslationFileEntry.of(8, "planets.1", "Venus", null),
+                TranslationFileEntry.of(11, "days.one", "%d day", null),
+                TranslationFileEntry.of(12, "days.other", "%d days", null));
+    }
+
+    @Test
+    @DisplayName("Test nested i18next JSON is flattened into dotted keys")
+    void testRead_I18next() {
+        assertThat(read(TranslationFileFormat.I18NEXT, """
+                {
+                  "home": {
+                    "title": "Home",
+                    "items_one": "{{count}} item",
+                    "tips": ["First", "Second"],
+                    "missing": null
+                  },
+                  "count": 3
+                }
+                """)).containsExactly(
+                TranslationFileEntry.of(3, "home.title", "Home", null),
+                TranslationFileEntry.of(4, "home.items_one", "{{count}} item", null),
+                TranslationFileEntry.of(5, "home.tips.0", "First", null),
+                TranslationFileEntry.of(5, "home.tips.1", "Second", null),
+                TranslationFileEntry.of(8, "count", "3", null));
+    }
+
+    @Test
+    @DisplayName("Test a file that cannot be read further ends with an error entry at the line it stopped")
+    void testRead_Unreadable() {
+        final List<TranslationFileEntry> entries = read(TranslationFileFormat.I18NEXT, """
+                {
+                  "ok": "Fine",
+                  "broken": "Missing quote
+                }
+                """);
+        assertThat(entries).hasSize(2);
+        assertThat(entries.get(0)).isEqualTo(TranslationFileEntry.of(2, "ok", "Fine", null));
+        assertThat(entries.get(1).line()).isEqualTo(3);
+        assertThat(entries.get(1).error()).startsWith("Unreadable I18NEXT file: ");
+        assertThat(read(TranslationFileFormat.XLIFF, "not xml")).singleElement()
+                .satisfies(entry -> assertThat(entry.error()).startsWith("Unreadable XLIFF file: "));
+    }
+
+    private List<TranslationFileEntry> read(final TranslationFileFormat format, final String text) {
+        return TranslationFiles.read(format, chunks(text)).collectList().block();
+    }
+
+    /**
+     * Splits the text into small buffers so that tokens, lines and multi-byte characters span several of them.
+     */
+    private Flux<DataBuffer> chunks(final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        final List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + CHUNK_SIZE)));
+        }
+        return Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
@@ -0,0 +1,230 @@
+package se.digitaltolk.translation.service.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.indices.AliasDefinition;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesAsyncClient;
+import co.elastic.clients.elasticsearch.indices.ExistsAliasRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasRequest;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.GetIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.GetIndexTemplateResponse;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateResponse;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import co.elastic.clients.elasticsearch.indices.RefreshResponse;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesResponse;
+import co.elastic.clients.elasticsearch.indices.get_alias.IndexAliases;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.ReactiveIndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationIndexManagerTest {
+
+    @Mock
+    ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    @Mock
+    ElasticsearchIndicesAsyncClient indicesClient;
+
+    @Mock
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    @Mock
+    ReactiveIndexOperations indexOperations;
+
+    @Mock
+    TranslationBundleCache translationBundleCache;
+
+    @Mock
+    TranslationStatsCache translationStatsCache;
+
+    @Mock
+    TranslationReadReplica translationReadReplica;
+
+    TranslationProperties translationProperties;
+
+    TranslationIndexManager translationIndexManager;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        translationProperties = new TranslationProperties();
+        when(elasticsearchAsyncClient.indices()).thenReturn(indicesClient);
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.indexOps(TranslationDocument.class)).thenReturn(indexOperations);
+        when(indexOperations.createMapping()).thenReturn(Mono.just(
+                Document.from(Map.of("properties", Map.of("key", Map.of("type", "keyword"))))));
+        when(indicesClient.putIndexTemplate(any(PutIndexTemplateRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(PutIndexTemplateResponse.of(response -> response.acknowledged(true))));
+        when(indicesClient.create(any(CreateIndexRequest.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(CreateIndexResponse.of(response -> response
+                        .index(invocation.<CreateIndexRequest>getArgument(0).index())
+                        .acknowledged(true)
+                        .shardsAcknowledged(true))));
+        when(indicesClient.putSettings(any(PutIndicesSettingsRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(PutIndicesSettingsResponse.of(response -> response.acknowledged(true))));
+        when(indicesClient.refresh(any(RefreshRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(RefreshResponse.of(response -> response
+                        .shards(shards -> shards.total(1).successful(1).failed(0)))));
+        when(indicesClient.updateAliases(any(UpdateAliasesRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(UpdateAliasesResponse.of(response -> response.acknowledged(true))));
+        translationIndexManager = new TranslationIndexManager(elasticsearchAsyncClient, elasticsearchTemplate,
+                translationProperties, translationBundleCache, translationStatsCache, translationReadReplica);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test bootstrap puts the template and creates the first index behind the write alias")
+    void testBootstrap_Empty() {
+        translationProperties.getIndex().setShards(3);
+        when(indicesClient.existsIndexTemplate(any(ExistsIndexTemplateRequest.class))).thenReturn(exists(false));
+        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(exists(false));
+
+        StepVerifier.create(translationIndexManager.bootstrap()).verifyComplete();
+
+        final ArgumentCaptor<PutIndexTemplateRequest> template = ArgumentCaptor.forClass(PutIndexTemplateRequest.class);
+        verify(indicesClient).putIndexTemplate(template.capture());
+        assertThat(template.getValue().name()).isEqualTo("translations");
+        assertThat(template.getValue().indexPatterns()).containsExactly("translations-v*");
+        assertThat(template.getValue().version()).isEqualTo(TranslationIndexManager.TEMPLATE_VERSION);
+        assertThat(template.getValue().template().settings().numberOfShards()).isEqualTo("3");
+        assertThat(template.getValue().template().settings().numberOfReplicas()).isEqualTo("1");
+        assertThat(template.getValue().template().settings().refreshInterval().time()).isEqualTo("1000ms");
+        assertThat(template.getValue().template().settings().analysis().analyzer()).containsKey("translation_prefix");
+        assertThat(template.getValue().template().mappings().properties()).containsKey("key");
+        final ArgumentCaptor<CreateIndexRequest> create = ArgumentCaptor.forClass(CreateIndexRequest.class);
+        verify(indicesClient).create(create.capture());
+        assertThat(create.getValue().index()).isEqualTo("translations-v1");
+        assertThat(create.getValue().aliases().get("translations").isWriteIndex()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Test bootstrap keeps a newer template and an index created before the index was managed")
+    void testBootstrap_Unmanaged() {
+        when(indicesClient.existsIndexTemplate(any(ExistsIndexTemplateRequest.class))).thenReturn(exists(true));
+        when(indicesClient.getIndexTemplate(any(GetIndexTemplateRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(GetIndexTemplateResponse.of(response -> response
+                        .indexTemplates(item -> item.name("translations").indexTemplate(template -> template
+                                .indexPatterns("translations-v*")
+                                .composedOf(List.of())
+                                .version(TranslationIndexManager.TEMPLATE_VERSION + 1))))));
+        when(indicesClient.exists(any(ExistsRequest.class))).thenReturn(exists(true));
+        when(indicesClient.existsAlias(any(ExistsAliasRequest.class))).thenReturn(exists(false));
+
+        StepVerifier.create(translationIndexManager.bootstrap()).verifyComplete();
+        StepVerifier.create(translationIndexManager.writeIndex()).expectNext("translations").verifyComplete();
+
+        verify(indicesClient, never()).putIndexTemplate(any(PutIndexTemplateRequest.class));
+        verify(indicesClient, never()).create(any(CreateIndexRequest.class));
+        assertThat(translationIndexManager.isUnmanaged("translations")).isTrue();
+        assertThat(translationIndexManager.nextIndex("translations")).isEqualTo("translations-v1");
+        assertThat(translationIndexManager.nextIndex("translations-v9")).isEqualTo("translations-v10");
+    }
+
+    @Test
+    @DisplayName("Test swap moves the alias, removing the unmanaged index in the same request")
+    void testSwap() {
+        StepVerifier.create(translationIndexManager.swap("translations-v1", "translations-v2")).verifyComplete();
+        StepVerifier.create(translationIndexManager.swap("translations", "translations-v1")).verifyComplete();
+
+        final ArgumentCaptor<UpdateAliasesRequest> update = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+        verify(indicesClient, times(2)).updateAliases(update.capture());
+        final UpdateAliasesRequest versioned = update.getAllValues().getFirst();
+        assertThat(versioned.actions().getFirst().remove().index()).isEqualTo("translations-v1");
+        assertThat(versioned.actions().get(1).add().index()).isEqualTo("translations-v2");
+        assertThat(versioned.actions().get(1).add().isWriteIndex()).isTrue();
+        final UpdateAliasesRequest unmanaged = update.getAllValues().get(1);
+        assertThat(unmanaged.actions().getFirst().removeIndex().index()).isEqualTo("translations");
+        assertThat(unmanaged.actions().get(1).add().index()).isEqualTo("translations-v1");
+    }
+
+    @Test
+    @DisplayName("Test overlapping bulk loads relax the write index once and restore it after the last")
+    void testBulkLoad() {
+        when(indicesClient.existsAlias(any(ExistsAliasRequest.class))).thenReturn(exists(true));
+        when(indicesClient.getAlias(any(GetAliasRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(GetAliasResponse.of(response -> response
+                        .result("translations-v1", IndexAliases.of(aliases -> aliases
+                                .aliases("translations", AliasDefinition.of(alias -> alias.isWriteIndex(true))))))));
+        final Sinks.Empty<Void> first = Sinks.empty();
+        final Sinks.Empty<Void> second = Sinks.empty();
+
+        StepVerifier.create(Flux.merge(
+                                translationIndexManager.bulkLoad(first.asMono().flux()),
+                                translationIndexManager.bulkLoad(second.asMono().flux())))
+                .then(() -> {
+                    assertThat(translationIndexManager.bulkLoadingSince()).isLessThan(Long.MAX_VALUE);
+                    first.tryEmitEmpty();
+                })
+                .then(() -> {
+                    verify(indicesClient, never()).refresh(any(RefreshRequest.class));
+                    second.tryEmitEmpty();
+                })
+                .verifyComplete();
+
+        final ArgumentCaptor<PutIndicesSettingsRequest> settings =
+                ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        verify(indicesClient, times(2)).putSettings(settings.capture());
+        final PutIndicesSettingsRequest relaxed = settings.getAllValues().getFirst();
+        assertThat(relaxed.index()).containsExactly("translations-v1");
+        assertThat(relaxed.settings().numberOfReplicas()).isEqualTo("0");
+        assertThat(relaxed.settings().refreshInterval().time()).isEqualTo("-1");
+        final PutIndicesSettingsRequest restored = settings.getAllValues().get(1);
+        assertThat(restored.settings().numberOfReplicas()).isEqualTo("1");
+        assertThat(restored.settings().refreshInterval().time()).isEqualTo("1000ms");
+        verify(indicesClient).refresh(any(RefreshRequest.class));
+        verify(translationBundleCache).invalidateAll();
+        verify(translationStatsCache).invalidate();
+        verify(translationReadReplica).rewind(any(Long.class));
+        assertThat(translationIndexManager.bulkLoadingSince()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    private static CompletableFuture<BooleanResponse> exists(final boolean exists) {
+        return CompletableFuture.completedFuture(new BooleanResponse(exists));
+    }
+}
@@ -0,0 +1,429 @@
+package se.digitaltolk.translation.service.maintenance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.calls;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryRequest;
+import co.elastic.clients.elasticsearch.core.DeleteByQueryResponse;
+import co.elastic.clients.elasticsearch.core.ReindexRequest;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryRequest;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryResponse;
+import co.elastic.clients.elasticsearch.tasks.CancelRequest;
+import co.elastic.clients.elasticsearch.tasks.CancelResponse;
+import co.elastic.clients.elasticsearch.tasks.ElasticsearchTasksAsyncClient;
+import co.elastic.clients.elasticsearch.tasks.GetTasksRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.json.JsonData;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+import se.digitaltolk.translation.service.cache.TranslationBundleCache;
+import se.digitaltolk.translation.service.cache.TranslationNearCache;
+import se.digitaltolk.translation.service.cache.TranslationReadReplica;
+import se.digitaltolk.translation.service.cache.TranslationStatsCache;
+import se.digitaltolk.translation.service.index.TranslationIndexManager;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationJobState;
+import se.digitaltolk.translation.web.dto.TranslationJobStep;
+import se.digitaltolk.translation.web.dto.TranslationJobType;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationMaintenanceJobsTest {
+
+    @Mock
+    ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    @Mock
+    ElasticsearchTasksAsyncClient tasksClient;
+
+    @Mock
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    @Mock
+    TranslationNearCache translationNearCache;
+
+    @Mock
+    TranslationBundleCache translationBundleCache;
+
+    @Mock
+    TranslationStatsCache translationStatsCache;
+
+    @Mock
+    TranslationReadReplica translationReadReplica;
+
+    @Mock
+    TranslationIndexManager translationIndexManager;
+
+    TranslationProperties translationProperties;
+
+    TranslationMaintenanceJobs translationMaintenanceJobs;
+
+    /**
+     * Task status answered per task id, completed tasks carry a response.
+     */
+    Map<String, GetTasksResponse> tasks;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        translationProperties = new TranslationProperties();
+        translationProperties.getJobs().setPollInterval(Duration.ofMillis(10));
+        tasks = new ConcurrentHashMap<>();
+        when(elasticsearchAsyncClient.tasks()).thenReturn(tasksClient);
+        when(tasksClient.get(any(GetTasksRequest.class))).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(tasks.get(invocation.<GetTasksRequest>getArgument(0).taskId())));
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationDocument.class))
+                .thenReturn(IndexCoordinates.of("translations"));
+        when(elasticsearchTemplate.getIndexCoordinatesFor(TranslationTombstone.class))
+                .thenReturn(IndexCoordinates.of("translation-tombstones"));
+        translationMaintenanceJobs = new TranslationMaintenanceJobs(elasticsearchAsyncClient, elasticsearchTemplate,
+                translationProperties, translationNearCache, translationBundleCache, translationStatsCache, translationReadReplica,
+                translationIndexManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test a delete job writes tombstones, deletes by query and reports the progress of both steps")
+    void testSubmit_Delete() {
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))));
+        when(elasticsearchAsyncClient.deleteByQuery(any(DeleteByQueryRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(DeleteByQueryResponse.of(response -> response.task("node:2"))));
+        tasks.put("node:1", completed(counters(3, 3, 0, 0)));
+        tasks.put("node:2", completed(counters(3, 0, 0, 3)));
+        final TranslationJob submitted = translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.DELETE, null, "MOBILE", null, null, 50f, 2)).block();
+        assertThat(submitted.state()).isEqualTo(TranslationJobState.RUNNING);
+        final TranslationJob job = awaitFinished(submitted.id());
+        assertThat(job.state()).isEqualTo(TranslationJobState.COMPLETED);
+        assertThat(job.finishedAt()).isNotNull();
+        assertThat(job.steps()).extracting(TranslationJobStep::name).containsExactly("tombstones", "delete");
+        assertThat(job.steps()).extracting(TranslationJobStep::state)
+                .containsOnly(TranslationJobState.COMPLETED);
+        assertThat(job.steps().get(0).created()).isEqualTo(3);
+        assertThat(job.steps().get(1).deleted()).isEqualTo(3);
+
+        final ArgumentCaptor<ReindexRequest> tombstones = ArgumentCaptor.forClass(ReindexRequest.class);
+        verify(elasticsearchAsyncClient).reindex(tombstones.capture());
+        assertThat(tombstones.getValue().dest().index()).isEqualTo("translation-tombstones");
+        assertThat(tombstones.getValue().requestsPerSecond()).isEqualTo(50f);
+        assertThat(tombstones.getValue().waitForCompletion()).isFalse();
+        final ArgumentCaptor<DeleteByQueryRequest> delete = ArgumentCaptor.forClass(DeleteByQueryRequest.class);
+        verify(elasticsearchAsyncClient).deleteByQuery(delete.capture());
+        assertThat(delete.getValue().index()).containsExactly("translations");
+        assertThat(delete.getValue().slices().value()).isEqualTo(2);
+        assertThat(delete.getValue().query().bool().filter()).hasSize(1);
+        assertThat(delete.getValue().query().bool().mustNot()).hasSize(1);
+        assertThat(tombstones.getValue().source().query().bool().mustNot()).hasSize(1);
+
+        verify(translationNearCache).invalidateAll();
+        verify(translationBundleCache).invalidateAll();
+        verify(translationStatsCache).invalidate();
+        verify(translationReadReplica).rewind(job.startedAt());
+        assertThat(translationMaintenanceJobs.runningSince()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Test a retag job updates the tag in place with random ids and copies then deletes with natural key ids")
+    void testSubmit_Retag() {
+        when(elasticsearchAsyncClient.updateByQuery(any(UpdateByQueryRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(UpdateByQueryResponse.of(response -> response.task("node:1"))));
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:2"))));
+        when(elasticsearchAsyncClient.deleteByQuery(any(DeleteByQueryRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(DeleteByQueryResponse.of(response -> response.task("node:3"))));
+        tasks.put("node:1", completed(counters(2, 0, 2, 0)));
+        tasks.put("node:2", completed(Json.createObjectBuilder(counters(2, 1, 0, 0)).add("version_conflicts", 1).build()));
+        tasks.put("node:3", completed(counters(2, 0, 0, 2)));
+        final TranslationJobRequest request = new TranslationJobRequest(
+                TranslationJobType.RETAG, "EN", "MOBILE", null, "WEB", null, null);
+
+        final TranslationJob inPlace = awaitFinished(translationMaintenanceJobs.submit(request).block().id());
+        assertThat(inPlace.steps()).extracting(TranslationJobStep::name).containsExactly("move-tombstones", "retag");
+        final ArgumentCaptor<UpdateByQueryRequest> update = ArgumentCaptor.forClass(UpdateByQueryRequest.class);
+        verify(elasticsearchAsyncClient).updateByQuery(update.capture());
+        assertThat(update.getValue().script().params().get("tag").to(String.class)).isEqualTo("WEB");
+        assertThat(update.getValue().query().bool().filter()).hasSize(2);
+        assertThat(update.getValue().query().bool().mustNot()).hasSize(1);
+        assertThat(update.getValue().requestsPerSecond()).isEqualTo(1000f);
+        final ArgumentCaptor<ReindexRequest> moves = ArgumentCaptor.forClass(ReindexRequest.class);
+        verify(elasticsearchAsyncClient).reindex(moves.capture());
+        assertThat(moves.getValue().script().params().get("moved").to(Boolean.class)).isTrue();
+        assertThat(moves.getValue().source().query().bool().mustNot()).hasSize(1);
+
+        translationProperties.getIdentity().setNaturalKey(true);
+        final TranslationJob copied = awaitFinished(translationMaintenanceJobs.submit(request).block().id());
+        assertThat(copied.state()).isEqualTo(TranslationJobState.COMPLETED);
+        assertThat(copied.steps()).extracting(TranslationJobStep::name)
+                .containsExactly("copy", "tombstones", "delete");
+        assertThat(copied.steps().get(0).versionConflicts()).isEqualTo(1);
+        final ArgumentCaptor<ReindexRequest> reindex = ArgumentCaptor.forClass(ReindexRequest.class);
+        verify(elasticsearchAsyncClient, times(3)).reindex(reindex.capture());
+        final ReindexRequest copy = reindex.getAllValues().get(1);
+        assertThat(copy.dest().opType()).isEqualTo(OpType.Create);
+        assertThat(copy.script().params().get("keepCreatedAt").to(Boolean.class)).isTrue();
+        assertThat(copy.source().query().bool().mustNot()).isEmpty();
+        assertThat(reindex.getAllValues().get(2).source().query().bool().mustNot()).hasSize(1);
+        assertThat(reindex.getAllValues().get(2).script().params().get("moved").to(Boolean.class)).isFalse();
+        final ArgumentCaptor<DeleteByQueryRequest> delete = ArgumentCaptor.forClass(DeleteByQueryRequest.class);
+        verify(elasticsearchAsyncClient).deleteByQuery(delete.capture());
+        assertThat(delete.getValue().query().bool().mustNot()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Test cancel cancels the running task and skips the remaining steps")
+    void testCancel() {
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))));
+        when(tasksClient.cancel(any(CancelRequest.class))).thenAnswer(invocation -> {
+            tasks.put("node:1", completed(Json.createObjectBuilder(counters(5, 1, 0, 0))
+                    .add("canceled", "by user request").build()));
+            return CompletableFuture.completedFuture(CancelResponse.of(response -> response));
+        });
+        tasks.put("node:1", running(counters(5, 1, 0, 0)));
+        final TranslationJob submitted = translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.DELETE, "EN", null, null, null, null, null)).block();
+        awaitTask(submitted.id(), "node:1");
+        assertThat(translationMaintenanceJobs.runningSince()).isEqualTo(submitted.startedAt());
+
+        StepVerifier.create(translationMaintenanceJobs.cancel(submitted.id()))
+                .expectNextCount(1)
+                .verifyComplete();
+        final TranslationJob job = awaitFinished(submitted.id());
+        assertThat(job.state()).isEqualTo(TranslationJobState.CANCELLED);
+        assertThat(job.steps()).extracting(TranslationJobStep::state)
+                .containsExactly(TranslationJobState.CANCELLED, TranslationJobState.PENDING);
+        final ArgumentCaptor<CancelRequest> cancel = ArgumentCaptor.forClass(CancelRequest.class);
+        verify(tasksClient).cancel(cancel.capture());
+        assertThat(cancel.getValue().taskId()).isEqualTo("node:1");
+        verify(elasticsearchAsyncClient, never()).deleteByQuery(any(DeleteByQueryRequest.class));
+    }
+
+    @Test
+    @DisplayName("Test a task reporting failures fails the job")
+    void testSubmit_Failed() {
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))));
+        tasks.put("node:1", completed(Json.createObjectBuilder(counters(5, 4, 0, 0))
+                .add("failures", Json.createArrayBuilder().add(Json.createObjectBuilder().add("id", "t1")))
+                .build()));
+        final TranslationJob job = awaitFinished(translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.COPY_LOCALE, "EN", null, "FR", null, null, null))
+                .block().id());
+        assertThat(job.state()).isEqualTo(TranslationJobState.FAILED);
+        assertThat(job.error()).contains("copy", "1 failures");
+        assertThat(job.steps().getFirst().created()).isEqualTo(4);
+        verify(translationReadReplica).rewind(job.startedAt());
+    }
+
+    @Test
+    @DisplayName("Test a reindex copies into the next index, catches up, purges deletions and swaps the alias between")
+    void testSubmit_Reindex() {
+        when(translationIndexManager.writeIndex()).thenReturn(Mono.just("translations-v1"));
+        when(translationIndexManager.nextIndex("translations-v1")).thenReturn("translations-v2");
+        when(translationIndexManager.refresh("translations-v1")).thenReturn(Mono.empty());
+        when(translationIndexManager.createForBulkLoad("translations-v2")).thenReturn(Mono.empty());
+        when(translationIndexManager.restore("translations-v2")).thenReturn(Mono.empty());
+        when(translationIndexManager.swap("translations-v1", "translations-v2")).thenReturn(Mono.empty());
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))),
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:2"))),
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:3"))),
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:4"))));
+        tasks.put("node:1", completed(counters(5, 5, 0, 0)));
+        tasks.put("node:2", completed(counters(1, 0, 1, 0)));
+        tasks.put("node:3", completed(counters(1, 0, 0, 1)));
+        tasks.put("node:4", completed(counters(1, 0, 0, 0)));
+
+        final TranslationJob job = awaitFinished(translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.REINDEX, null, null, null, null, null, null)).block().id());
+        assertThat(job.state()).isEqualTo(TranslationJobState.COMPLETED);
+        assertThat(job.steps()).extracting(TranslationJobStep::name)
+                .containsExactly("prepare", "reindex", "catch-up", "purge", "swap", "catch-up");
+        assertThat(job.steps()).extracting(TranslationJobStep::state).containsOnly(TranslationJobState.COMPLETED);
+        assertThat(job.steps().get(1).created()).isEqualTo(5);
+        assertThat(job.steps().get(3).deleted()).isEqualTo(1);
+
+        final ArgumentCaptor<ReindexRequest> reindex = ArgumentCaptor.forClass(ReindexRequest.class);
+        verify(elasticsearchAsyncClient, times(4)).reindex(reindex.capture());
+        final List<ReindexRequest> requests = reindex.getAllValues();
+        assertThat(requests).extracting(request -> request.source().index().getFirst())
+                .containsExactly("translations-v1", "translations-v1", "translation-tombstones", "translations-v1");
+        assertThat(requests).extracting(request -> request.dest().index()).containsOnly("translations-v2");
+        assertThat(requests.getFirst().source().query().isMatchAll()).isTrue();
+        assertThat(requests.getFirst().dest().versionType()).isEqualTo(VersionType.External);
+        assertThat(requests.get(1).source().query().range().number().field()).isEqualTo("updatedAt");
+        assertThat(requests.get(1).source().query().range().number().gte())
+                .isEqualTo((double) job.startedAt() - translationProperties.getSync().getSettleDelay().toMillis());
+        assertThat(requests.get(2).source().query().range().number().field()).isEqualTo("deletedAt");
+        assertThat(requests.get(2).script().source()).contains("ctx.op = 'delete'");
+        assertThat(requests.get(1).refresh()).isFalse();
+        assertThat(requests.get(3).refresh()).isTrue();
+        final InOrder order = inOrder(translationIndexManager, elasticsearchAsyncClient);
+        order.verify(translationIndexManager).createForBulkLoad("translations-v2");
+        order.verify(elasticsearchAsyncClient, calls(3)).reindex(any(ReindexRequest.class));
+        order.verify(translationIndexManager).restore("translations-v2");
+        order.verify(translationIndexManager).swap("translations-v1", "translations-v2");
+        order.verify(elasticsearchAsyncClient, calls(1)).reindex(any(ReindexRequest.class));
+        verify(translationIndexManager, never()).delete(any());
+        verify(translationReadReplica).rewind(job.startedAt());
+    }
+
+    @Test
+    @DisplayName("Test a reindex out of the unmanaged index skips the catch-up after the swap, which removed it")
+    void testSubmit_ReindexUnmanaged() {
+        translationProperties.getIndex().setDeletePrevious(true);
+        when(translationIndexManager.writeIndex()).thenReturn(Mono.just("translations"));
+        when(translationIndexManager.nextIndex("translations")).thenReturn("translations-v1");
+        when(translationIndexManager.isUnmanaged("translations")).thenReturn(true);
+        when(translationIndexManager.refresh(any())).thenReturn(Mono.empty());
+        when(translationIndexManager.createForBulkLoad(any())).thenReturn(Mono.empty());
+        when(translationIndexManager.restore(any())).thenReturn(Mono.empty());
+        when(translationIndexManager.swap(any(), any())).thenReturn(Mono.empty());
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))));
+        tasks.put("node:1", completed(counters(5, 5, 0, 0)));
+
+        final TranslationJob job = awaitFinished(translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.REINDEX, null, null, null, null, null, null)).block().id());
+        assertThat(job.state()).isEqualTo(TranslationJobState.COMPLETED);
+        assertThat(job.steps()).extracting(TranslationJobStep::name)
+                .containsExactly("prepare", "reindex", "catch-up", "purge", "swap", "catch-up", "drop-previous");
+        assertThat(job.steps().get(5).taskId()).isNull();
+        verify(elasticsearchAsyncClient, times(3)).reindex(any(ReindexRequest.class));
+        verify(translationIndexManager).swap("translations", "translations-v1");
+        verify(translationIndexManager, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Test a reindex is refused while another job runs and other jobs while it runs")
+    void testSubmit_ReindexAlone() {
+        when(elasticsearchAsyncClient.reindex(any(ReindexRequest.class))).thenReturn(
+                CompletableFuture.completedFuture(ReindexResponse.of(response -> response.task("node:1"))));
+        tasks.put("node:1", running(counters(5, 1, 0, 0)));
+        final TranslationJob copy = translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.COPY_LOCALE, "EN", null, "FR", null, null, null)).block();
+        awaitTask(copy.id(), "node:1");
+        StepVerifier.create(translationMaintenanceJobs.submit(
+                        new TranslationJobRequest(TranslationJobType.REINDEX, null, null, null, null, null, null)))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException
+                        && ((BusinessServiceException) e).getErrorEnum() == ErrorCodeEnum.CONFLICT)
+                .verify();
+        tasks.put("node:1", completed(counters(5, 5, 0, 0)));
+        awaitFinished(copy.id());
+
+        when(translationIndexManager.writeIndex()).thenReturn(Mono.never());
+        final TranslationJob reindex = translationMaintenanceJobs.submit(
+                new TranslationJobRequest(TranslationJobType.REINDEX, null, null, null, null, null, null)).block();
+        assertThat(reindex.state()).isEqualTo(TranslationJobState.RUNNING);
+        StepVerifier.create(translationMaintenanceJobs.submit(
+                        new TranslationJobRequest(TranslationJobType.DELETE, "EN", null, null, null, null, null)))
+                .expectError(BusinessServiceException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Test find and cancel of an unknown job")
+    void testFind_NotFound() {
+        StepVerifier.create(translationMaintenanceJobs.find("missing"))
+                .expectErrorMatches(e -> e instanceof BusinessServiceException
+                        && ((BusinessServiceException) e).getErrorEnum() == ErrorCodeEnum.NOT_FOUND)
+                .verify();
+        StepVerifier.create(translationMaintenanceJobs.cancel("missing"))
+                .expectError(BusinessServiceException.class)
+                .verify();
+    }
+
+    private TranslationJob awaitFinished(final String jobId) {
+        return await(jobId, job -> job.state().isFinished());
+    }
+
+    private void awaitTask(final String jobId, final String taskId) {
+        await(jobId, job -> job.steps().stream().anyMatch(step -> taskId.equals(step.taskId())));
+    }
+
+    private TranslationJob await(final String jobId, final Predicate<TranslationJob> condition) {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        TranslationJob job = translationMaintenanceJobs.find(jobId).block();
+        while (!condition.test(job) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            job = translationMaintenanceJobs.find(jobId).block();
+        }
+        assertThat(condition.test(job)).as("job %s reached the expected state", jobId).isTrue();
+        return job;
+    }
+
+    private static JsonObject counters(final long total, final long created, final long updated, final long deleted) {
+        return Json.createObjectBuilder()
+                .add("total", total)
+                .add("created", created)
+                .add("updated", updated)
+                .add("deleted", deleted)
+                .add("version_conflicts", 0)
+                .add("failures", Json.createArrayBuilder())
+                .build();
+    }
+
+    private static GetTasksResponse running(final JsonObject status) {
+        return GetTasksResponse.of(response -> response
+                .completed(false)
+                .task(task -> task.action("indices:data/write/reindex").cancellable(true).id(1L).node("node")
+                        .runningTimeInNanos(1L).startTimeInMillis(1L).type("transport").headers(Map.of())
+                        .status(JsonData.of(status))));
+    }
+
+    private static GetTasksResponse completed(final JsonObject result) {
+        return GetTasksResponse.of(response -> response
+                .completed(true)
+                .task(task -> task.action("indices:data/write/reindex").cancellable(true).id(1L).node("node")
+                        .runningTimeInNanos(1L).startTimeInMillis(1L).type("transport").headers(Map.of())
+                        .status(JsonData.of(result)))
+                .response(JsonData.of(result)));
+    }
+}
@@ -0,0 +1,92 @@
+package se.digitaltolk.translation.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import co.elastic.clients.transport.instrumentation.Instrumentation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ElasticsearchMetricsTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    ElasticsearchMetrics elasticsearchMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        elasticsearchMetrics = new ElasticsearchMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test searches are timed by status and record the number of hits")
+    void testSearch() {
+        final SearchRequest request = SearchRequest.of(search -> search.index("translations"));
+        final Instrumentation.Context context = elasticsearchMetrics.newContext(request, SearchRequest._ENDPOINT);
+        context.beforeSendingHttpRequest(httpRequest(null), null);
+        context.afterReceivingHttpResponse(httpResponse(200));
+        context.afterDecodingApiResponse(SearchResponse.<Object>of(response -> response
+                .took(1).timedOut(false)
+                .shards(shards -> shards.total(1).successful(1).failed(0))
+                .hits(hits -> hits
+                        .hits(hit -> hit.index("translations").id("t1"))
+                        .hits(hit -> hit.index("translations").id("t2")))));
+        context.close();
+
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME)
+                .tags("operation", "search", "status", "200", "exception", "none")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME + ReactiveMeters.RESULTS_SUFFIX)
+                .tags("operation", "search")
+                .summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test bulk requests record their size and failed requests their exception")
+    void testBulk() {
+        final BulkRequest request = BulkRequest.of(bulk -> bulk
+                .operations(operation -> operation.delete(delete -> delete.index("translations").id("t1")))
+                .operations(operation -> operation.delete(delete -> delete.index("translations").id("t2")))
+                .operations(operation -> operation.delete(delete -> delete.index("translations").id("t3"))));
+        final Instrumentation.Context context = elasticsearchMetrics.newContext(request, BulkRequest._ENDPOINT);
+        context.beforeSendingHttpRequest(httpRequest(List.of(ByteBuffer.allocate(100), ByteBuffer.allocate(20))),
+                null);
+        context.recordException(new IOException("Connection refused"));
+        context.close();
+
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME + ".bulk.size").summary().totalAmount())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME + ".bulk.documents").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME + ".bulk.bytes").summary().totalAmount())
+                .isEqualTo(120);
+        assertThat(meterRegistry.get(ElasticsearchMetrics.METRIC_NAME)
+                .tags("operation", "bulk", "status", "IO_ERROR", "exception", "IOException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private TransportHttpClient.Request httpRequest(final Iterable<ByteBuffer> body) {
+        return new TransportHttpClient.Request("POST", "/translations/_search", Map.of(), Map.of(), body);
+    }
+
+    private TransportHttpClient.Response httpResponse(final int status) {
+        final TransportHttpClient.Response response = mock(TransportHttpClient.Response.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+}
@@ -0,0 +1,89 @@
+package se.digitaltolk.translation.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.TranslationService;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationServiceMetricsTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationService target;
+
+    TranslationService translationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(TranslationService.class);
+        final ObjectProvider<MeterRegistry> meterRegistryProvider = mock();
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        final TranslationServiceMetrics translationServiceMetrics = new TranslationServiceMetrics(meterRegistryProvider);
+        translationService = (TranslationService) translationServiceMetrics.postProcessAfterInitialization(
+                target, "translationServiceImpl");
+    }
+
+    @Test
+    @DisplayName("Test operations are timed per method and outcome and streamed results are counted")
+    void testTimed() {
+        when(target.findByTranslationId("t1")).thenReturn(Mono.just(new TranslationDocument()));
+        when(target.findByTranslationId("t2")).thenReturn(Mono.error(
+                new BusinessServiceException(ErrorCodeEnum.NOT_FOUND, "Translation not found")));
+        when(target.exportTranslations("EN", null)).thenReturn(Flux.just(new TranslationDocument(),
+                new TranslationDocument()));
+        StepVerifier.create(translationService.findByTranslationId("t1")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(translationService.findByTranslationId("t2")).expectError().verify();
+        StepVerifier.create(translationService.exportTranslations("EN", null)).expectNextCount(2).verifyComplete();
+
+        assertThat(meterRegistry.get(TranslationServiceMetrics.METRIC_NAME)
+                .tags("method", "findByTranslationId", "outcome", "SUCCESS", "exception", "none")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TranslationServiceMetrics.METRIC_NAME)
+                .tags("method", "findByTranslationId", "outcome", "ERROR", "exception", "BusinessServiceException")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TranslationServiceMetrics.METRIC_NAME + ReactiveMeters.RESULTS_SUFFIX)
+                .tags("method", "exportTranslations")
+                .summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Test cancelled operations are timed as cancelled and event streams are not timed")
+    void testCancelledAndUntimed() {
+        when(target.exportTranslations("EN", null)).thenReturn(Flux.never());
+        when(target.streamChanges(null, null, null)).thenReturn(Flux.never());
+        StepVerifier.create(translationService.exportTranslations("EN", null))
+                .expectSubscription()
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        StepVerifier.create(translationService.streamChanges(null, null, null))
+                .expectSubscription()
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(meterRegistry.get(TranslationServiceMetrics.METRIC_NAME)
+                .tags("method", "exportTranslations", "outcome", "CANCELLED")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(TranslationServiceMetrics.METRIC_NAME).tag("method", "streamChanges").timer())
+                .isNull();
+        assertThat(meterRegistry.find(TranslationServiceMetrics.METRIC_NAME + ReactiveMeters.RESULTS_SUFFIX)
+                .summary()).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package se.digitaltolk.translation.service.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.web.dto.TranslationChange;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationChangeFeedTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationProperties translationProperties;
+
+    TranslationChangeFeed translationChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        translationProperties = new TranslationProperties();
+        translationProperties.getFeed().setHeartbeat(Duration.ofHours(1));
+        translationChangeFeed = new TranslationChangeFeed(translationProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Test subscribers only receive changes of their locale and tag")
+    void testSubscribe_Filtered() {
+        StepVerifier.create(translationChangeFeed.subscribe("EN", "WEB", null))
+                .then(() -> {
+                    translationChangeFeed.publish(buildChange("t1", "FR", "WEB", 1L));
+                    translationChangeFeed.publish(buildChange("t2", "EN", "MOBILE", 2L));
+                    translationChangeFeed.publish(buildChange("t3", "EN", "WEB", 3L));
+                })
+                .assertNext(event -> {
+                    assertThat(event.id()).isEqualTo("3");
+                    assertThat(event.event()).isEqualTo("UPSERT");
+                    assertThat(event.data()).extracting(TranslationChange::id).isEqualTo("t3");
+                })
+                .then(() -> assertThat(meterRegistry.get("translation.feed.subscribers").gauge().value()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+        assertThat(meterRegistry.get("translation.feed.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test a slow subscriber with the drop policy keeps the oldest changes and counts the dropped ones")
+    void testSubscribe_Drop() {
+        translationProperties.getFeed().setBufferSize(2);
+        final List<String> received = new ArrayList<>();
+        StepVerifier.create(translationChangeFeed.subscribe(null, null, TranslationFeedOverflow.DROP)
+                                .take(Duration.ofMillis(500)), 0)
+                .then(() -> IntStream.range(0, 5)
+                        .forEach(n -> translationChangeFeed.publish(buildChange("t" + n, "EN", "WEB", n))))
+                .thenRequest(5)
+                .thenConsumeWhile(event -> true, event -> received.add(event.data().id()))
+                .verifyComplete();
+        assertThat(received).hasSizeLessThan(5).startsWith("t0", "t1");
+        assertThat(meterRegistry.get("translation.feed.dropped").counter().count()).isEqualTo(5 - received.size());
+    }
+
+    @Test
+    @DisplayName("Test a slow subscriber with the latest policy receives the most recent change")
+    void testSubscribe_Latest() {
+        final List<ServerSentEvent<TranslationChange>> received = new ArrayList<>();
+        StepVerifier.create(translationChangeFeed.subscribe(null, null, TranslationFeedOverflow.LATEST)
+                                .take(Duration.ofMillis(500)), 0)
+                .then(() -> IntStream.range(0, 5)
+                        .forEach(n -> translationChangeFeed.publish(buildChange("t" + n, "EN", "WEB", n))))
+                .thenRequest(5)
+                .thenConsumeWhile(event -> true, received::add)
+                .verifyComplete();
+        assertThat(received).hasSizeLessThan(5).last()
+                .extracting(event -> event.data().id()).isEqualTo("t4");
+    }
+
+    @Test
+    @DisplayName("Test concurrent writers publish without failing each other")
+    void testPublish_Concurrent() {
+        StepVerifier.create(translationChangeFeed.subscribe(null, null, null).take(200).count())
+                .then(() -> Flux.range(0, 200)
+                        .parallel(4)
+                        .runOn(Schedulers.parallel())
+                        .doOnNext(n -> translationChangeFeed.publish(buildChange("t" + n, "EN", "WEB", n)))
+                        .sequential()
+                        .blockLast())
+                .expectNext(200L)
+                .verifyComplete();
+        assertThat(meterRegistry.get("translation.feed.unpublished").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Test idle subscribers receive heartbeat comments")
+    void testSubscribe_Heartbeat() {
+        translationProperties.getFeed().setHeartbeat(Duration.ofMillis(10));
+        StepVerifier.create(translationChangeFeed.subscribe(null, null, null))
+                .assertNext(event -> {
+                    assertThat(event.comment()).isEqualTo("heartbeat");
+                    assertThat(event.data()).isNull();
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private TranslationChange buildChange(final String id, final String locale, final String tag, final long updatedAt) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(id);
+        doc.setKey("greeting");
+        doc.setValue("Hello");
+        doc.setLocale(locale);
+        doc.setTag(tag);
+        doc.setUpdatedAt(updatedAt);
+        return TranslationChange.upsert(doc);
+    }
+}
@@ -0,0 +1,89 @@
+package se.digitaltolk.translation.service.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.ByQueryResponse;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.repository.entity.TranslationTombstone;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationTombstonesTest {
+
+    @Mock
+    TranslationTombstoneRepository translationTombstoneRepository;
+
+    @Mock
+    ReactiveElasticsearchTemplate elasticsearchTemplate;
+
+    TranslationProperties translationProperties;
+
+    TranslationTombstones translationTombstones;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        translationProperties = new TranslationProperties();
+        translationProperties.getSync().setTombstoneRetention(Duration.ofDays(1));
+        translationTombstones = new TranslationTombstones(
+                translationTombstoneRepository, elasticsearchTemplate, translationProperties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test record stores a tombstone stamped after the last update of the translation")
+    void testRecord() {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId("t1");
+        doc.setKey("greeting");
+        doc.setLocale("EN");
+        doc.setTag("WEB");
+        doc.setUpdatedAt(Instant.now().plusSeconds(60).toEpochMilli());
+        when(translationTombstoneRepository.save(any(TranslationTombstone.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        StepVerifier.create(translationTombstones.record(doc))
+                .expectNextMatches(tombstone -> "t1".equals(tombstone.getId())
+                        && "greeting".equals(tombstone.getKey())
+                        && tombstone.getDeletedAt() == doc.getUpdatedAt() + 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test prune deletes tombstones past their retention")
+    void testPrune() {
+        when(elasticsearchTemplate.delete(any(DeleteQuery.class), eq(TranslationTombstone.class)))
+                .thenReturn(Mono.just(ByQueryResponse.builder().withDeleted(3).build()));
+        StepVerifier.create(translationTombstones.prune()).expectNext(3L).verifyComplete();
+        final ArgumentCaptor<DeleteQuery> query = ArgumentCaptor.forClass(DeleteQuery.class);
+        verify(elasticsearchTemplate).delete(query.capture(), eq(TranslationTombstone.class));
+        assertThat(((CriteriaQuery) query.getValue().getQuery()).getCriteria().getField().getName())
+                .isEqualTo(TranslationTombstones.DELETED_AT_FIELD);
+    }
+}
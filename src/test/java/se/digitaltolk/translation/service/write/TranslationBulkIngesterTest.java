@@ -0,0 +1,139 @@
+package se.digitaltolk.translation.service.write;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+import se.digitaltolk.translation.service.write.TranslationBulkIngester.IngestedBatch;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationBulkIngesterTest {
+
+    static final String SOURCE = "test";
+
+    SimpleMeterRegistry meterRegistry;
+
+    TranslationProperties translationProperties;
+
+    TranslationBulkIngester translationBulkIngester;
+
+    List<List<String>> requests;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        translationProperties = new TranslationProperties();
+        translationProperties.getBulk().setMinActions(2);
+        translationProperties.getBulk().setMaxActions(6);
+        translationProperties.getBulk().setRetryBackoff(Duration.ofMillis(1));
+        translationBulkIngester = new TranslationBulkIngester(translationProperties, meterRegistry);
+        requests = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Test batches grow from min-actions up to max-actions and keep the order of the records")
+    void testIngest_AdaptiveBatches() {
+        final List<Integer> records = Flux.range(1, 40).collectList().block();
+        final List<IngestedBatch<Integer>> batches = translationBulkIngester.ingest(SOURCE, Flux.fromIterable(records),
+                        record -> record % 10 == 0 ? null : buildDocument("t" + record),
+                        writer(documents -> Mono.just(created(documents))))
+                .collectList()
+                .block();
+        assertThat(batches).isNotNull();
+        assertThat(batches.get(0).records()).hasSize(2);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch.records()).hasSizeLessThanOrEqualTo(6));
+        assertThat(batches).anySatisfy(batch -> assertThat(batch.records()).hasSize(6));
+        assertThat(batches.stream().flatMap(batch -> batch.records().stream())).containsExactlyElementsOf(records);
+        assertThat(batches.stream().mapToInt(batch -> batch.items().size()).sum()).isEqualTo(36);
+        assertThat(meterRegistry.get(TranslationBulkIngester.INGEST_METRIC + ".documents")
+                .tag("source", SOURCE).tag("outcome", "written").counter().count()).isEqualTo(36);
+    }
+
+    @Test
+    @DisplayName("Test items rejected with 429 are resent until accepted and merged back in place")
+    void testIngest_RejectedItems() {
+        final AtomicInteger calls = new AtomicInteger();
+        StepVerifier.create(translationBulkIngester.ingest(SOURCE, Flux.just("t1", "t2"), this::buildDocument,
+                        writer(documents -> Mono.just(calls.getAndIncrement() == 0
+                                ? List.of(new BulkItem("t1", 201, null), new BulkItem("t2", 429, "rejected"))
+                                : created(documents)))))
+                .expectNextMatches(batch -> batch.items().stream().noneMatch(BulkItem::failed)
+                        && "t2".equals(batch.items().get(1).id()))
+                .verifyComplete();
+        assertThat(requests).containsExactly(List.of("t1", "t2"), List.of("t2"));
+        assertThat(meterRegistry.get(TranslationBulkIngester.INGEST_METRIC + ".rejections").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test rejected bulk requests are resent and other failures fail every item of the batch")
+    void testIngest_FailedRequests() {
+        final AtomicBoolean rejected = new AtomicBoolean();
+        StepVerifier.create(translationBulkIngester.ingest(SOURCE, Flux.just("t1", "t2", "t3", "t4"),
+                        this::buildDocument,
+                        writer(documents -> {
+                            if ("t3".equals(documents.get(0).getId())) {
+                                return Mono.error(new IllegalStateException("down"));
+                            }
+                            return rejected.getAndSet(true)
+                                    ? Mono.just(created(documents))
+                                    : Mono.error(new UncategorizedElasticsearchException("rejected", 429, null, null));
+                        })))
+                .expectNextMatches(batch -> batch.items().stream().noneMatch(BulkItem::failed))
+                .expectNextMatches(batch -> batch.items().size() == 2
+                        && batch.items().stream().allMatch(item -> "down".equals(item.error())))
+                .verifyComplete();
+        assertThat(requests).containsExactlyInAnyOrder(List.of("t1", "t2"), List.of("t1", "t2"), List.of("t3", "t4"));
+    }
+
+    @Test
+    @DisplayName("Test rejected items are reported as failed once the retries run out")
+    void testIngest_RetriesExhausted() {
+        translationProperties.getBulk().setMaxRetries(2);
+        StepVerifier.create(translationBulkIngester.ingest(SOURCE, Flux.just("t1"), this::buildDocument,
+                        writer(documents -> Mono.just(List.of(new BulkItem("t1", 429, "rejected"))))))
+                .expectNextMatches(batch -> batch.items().get(0).failed())
+                .verifyComplete();
+        assertThat(requests).hasSize(3);
+    }
+
+    private Function<List<TranslationDocument>, Mono<List<BulkItem>>> writer(
+            final Function<List<TranslationDocument>, Mono<List<BulkItem>>> response
+    ) {
+        return documents -> {
+            requests.add(documents.stream().map(TranslationDocument::getId).toList());
+            return response.apply(documents);
+        };
+    }
+
+    private static List<BulkItem> created(final List<TranslationDocument> documents) {
+        return documents.stream().map(document -> new BulkItem(document.getId(), 201, null)).toList();
+    }
+
+    private TranslationDocument buildDocument(final String id) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(id);
+        doc.setKey("greeting");
+        doc.setValue("Hello");
+        doc.setLocale("EN");
+        doc.setTag("WEB");
+        return doc;
+    }
+}
@@ -0,0 +1,181 @@
+package se.digitaltolk.translation.service.write;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.ErrorPrinter;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
+import se.digitaltolk.translation.repository.TranslationRepository;
+import se.digitaltolk.translation.repository.TranslationRepositoryCustom.BulkItem;
+import se.digitaltolk.translation.repository.entity.TranslationDocument;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class TranslationWriteCoalescerTest {
+
+    @Mock
+    TranslationRepository translationRepository;
+
+    TranslationProperties translationProperties;
+
+    TranslationWriteCoalescer translationWriteCoalescer;
+
+    AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setUp() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        translationProperties = new TranslationProperties();
+        translationProperties.getWriteCoalescer().setWindow(Duration.ofMillis(50));
+        translationProperties.getWriteCoalescer().setMaxBatchSize(2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (translationWriteCoalescer != null) {
+            translationWriteCoalescer.shutdown();
+        }
+        mocksCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Test writes are saved one by one when coalescing is disabled")
+    void testSave_Disabled() {
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        final TranslationDocument doc = buildDocument("t1");
+        when(translationRepository.save(doc)).thenReturn(Mono.just(doc));
+        StepVerifier.create(translationWriteCoalescer.save(doc)).expectNext(doc).verifyComplete();
+        verify(translationRepository, never()).bulkIndex(anyList());
+    }
+
+    @Test
+    @DisplayName("Test concurrent writes share one bulk request and get their own item outcome")
+    @SuppressWarnings("unchecked")
+    void testSave_Coalesced() {
+        translationProperties.getWriteCoalescer().setEnabled(true);
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        when(translationRepository.bulkIndex(anyList())).thenReturn(Mono.just(List.of(
+                new BulkItem("t1", 201, null, new SeqNoPrimaryTerm(7, 1)),
+                new BulkItem("t2", 400, "mapper_parsing_exception"))));
+        final Mono<TranslationDocument> first = translationWriteCoalescer.save(buildDocument("t1"));
+        final Mono<TranslationDocument> second = translationWriteCoalescer.save(buildDocument("t2"));
+        StepVerifier.create(Mono.zipDelayError(first, second.onErrorReturn(
+                        BusinessServiceException.class, buildDocument("failed"))))
+                .expectNextMatches(results -> "t1".equals(results.getT1().getId())
+                        && Long.valueOf(7).equals(results.getT1().getSeqNo())
+                        && Long.valueOf(1).equals(results.getT1().getPrimaryTerm())
+                        && "failed".equals(results.getT2().getId()))
+                .verifyComplete();
+        final ArgumentCaptor<List<TranslationDocument>> batch = ArgumentCaptor.forClass(List.class);
+        verify(translationRepository, times(1)).bulkIndex(batch.capture());
+        assertThat(batch.getValue()).extracting(TranslationDocument::getId).containsExactly("t1", "t2");
+        verify(translationRepository, never()).save(any(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test rejected and shard-failed items are reported as unavailable, not as invalid requests")
+    void testSave_RetryableItemFailures() {
+        translationProperties.getWriteCoalescer().setEnabled(true);
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        when(translationRepository.bulkIndex(anyList())).thenReturn(Mono.just(List.of(
+                new BulkItem("t1", 429, "es_rejected_execution_exception"),
+                new BulkItem("t2", 503, "unavailable_shards_exception"))));
+        final Mono<ErrorPrinter> first = translationWriteCoalescer.save(buildDocument("t1"))
+                .then(Mono.<ErrorPrinter>empty())
+                .onErrorResume(BusinessServiceException.class, e -> Mono.just(e.getErrorEnum()));
+        final Mono<ErrorPrinter> second = translationWriteCoalescer.save(buildDocument("t2"))
+                .then(Mono.<ErrorPrinter>empty())
+                .onErrorResume(BusinessServiceException.class, e -> Mono.just(e.getErrorEnum()));
+        StepVerifier.create(Mono.zip(first, second))
+                .expectNextMatches(codes -> codes.getT1() == ErrorCodeEnum.UNAVAILABLE
+                        && codes.getT2() == ErrorCodeEnum.UNAVAILABLE)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test a failed bulk request fails every write of the batch")
+    void testSave_BulkRequestFailed() {
+        translationProperties.getWriteCoalescer().setEnabled(true);
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        when(translationRepository.bulkIndex(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("cluster unavailable")))
+                .thenReturn(Mono.just(List.of(new BulkItem("t2", 201, null))));
+        StepVerifier.create(translationWriteCoalescer.save(buildDocument("t1")))
+                .expectErrorMessage("cluster unavailable")
+                .verify();
+        StepVerifier.create(translationWriteCoalescer.save(buildDocument("t2")))
+                .expectNextMatches(translation -> "t2".equals(translation.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test writes keep coalescing while more batches are queued than bulk requests may be in flight")
+    void testSave_SlowBulkRequests() {
+        translationProperties.getWriteCoalescer().setEnabled(true);
+        translationProperties.getWriteCoalescer().setConcurrency(2);
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        when(translationRepository.bulkIndex(anyList())).thenAnswer(invocation -> {
+            final List<TranslationDocument> documents = invocation.getArgument(0);
+            return Mono.delay(Duration.ofMillis(200))
+                    .thenReturn(documents.stream().map(document -> new BulkItem(document.getId(), 201, null)).toList());
+        });
+        final List<Mono<TranslationDocument>> saves = IntStream.range(0, 10)
+                .mapToObj(i -> translationWriteCoalescer.save(buildDocument("t" + i)))
+                .toList();
+        StepVerifier.create(Flux.merge(saves).map(TranslationDocument::getId).collectList())
+                .expectNextMatches(ids -> ids.size() == 10)
+                .verifyComplete();
+        StepVerifier.create(translationWriteCoalescer.save(buildDocument("t10")))
+                .expectNextMatches(translation -> "t10".equals(translation.getId()))
+                .verifyComplete();
+        verify(translationRepository, never()).save(any(TranslationDocument.class));
+    }
+
+    @Test
+    @DisplayName("Test writes beyond the pending limit are rejected as unavailable instead of buffered")
+    void testSave_TooManyPending() {
+        translationProperties.getWriteCoalescer().setEnabled(true);
+        translationProperties.getWriteCoalescer().setConcurrency(1);
+        translationProperties.getWriteCoalescer().setMaxPending(8);
+        translationWriteCoalescer = new TranslationWriteCoalescer(translationRepository, translationProperties);
+        when(translationRepository.bulkIndex(anyList())).thenReturn(Mono.never());
+        final List<ErrorPrinter> rejected = new CopyOnWriteArrayList<>();
+        IntStream.range(0, 20).forEach(i -> translationWriteCoalescer.save(buildDocument("t" + i))
+                .subscribe(null, e -> rejected.add(((BusinessServiceException) e).getErrorEnum())));
+        assertThat(rejected).hasSizeBetween(1, 20 - 8).containsOnly(ErrorCodeEnum.UNAVAILABLE);
+        verify(translationRepository, never()).save(any(TranslationDocument.class));
+    }
+
+    private TranslationDocument buildDocument(final String id) {
+        final TranslationDocument doc = new TranslationDocument();
+        doc.setId(id);
+        doc.setKey("greeting");
+        doc.setValue("Hello");
+        doc.setLocale("EN");
+        doc.setTag("WEB");
+        return doc;
+    }
+}
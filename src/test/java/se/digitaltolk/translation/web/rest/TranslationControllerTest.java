@@ -1,11 +1,20 @@
 package se.digitaltolk.translation.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.DisplayName;
@@ -15,7 +24,15 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.web.server.SecurityWebFilterChain;
@@ -23,10 +40,34 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import se.digitaltolk.translation.config.TranslationProperties;
+import se.digitaltolk.translation.exception.BusinessServiceException;
+import se.digitaltolk.translation.exception.dto.ErrorCodeEnum;
 import se.digitaltolk.translation.repository.entity.TranslationDocument;
 import se.digitaltolk.translation.service.TranslationService;
+import se.digitaltolk.translation.service.cache.TranslationBundle;
+import se.digitaltolk.translation.service.sync.TranslationChangeSet;
+import se.digitaltolk.translation.web.dto.BulkItemResult;
+import se.digitaltolk.translation.web.dto.MissingTranslation;
+import se.digitaltolk.translation.web.dto.BulkItemStatus;
+import se.digitaltolk.translation.web.dto.TranslationChange;
 import se.digitaltolk.translation.web.dto.TranslationCreateRequest;
+import se.digitaltolk.translation.web.dto.TranslationFeedOverflow;
+import se.digitaltolk.translation.web.dto.TranslationFileFormat;
+import se.digitaltolk.translation.web.dto.TranslationImportProgress;
+import se.digitaltolk.translation.web.dto.TranslationJob;
+import se.digitaltolk.translation.web.dto.TranslationJobRequest;
+import se.digitaltolk.translation.web.dto.TranslationJobState;
+import se.digitaltolk.translation.web.dto.TranslationJobStep;
+import se.digitaltolk.translation.web.dto.TranslationJobType;
+import se.digitaltolk.translation.web.dto.TranslationLookup;
+import se.digitaltolk.translation.web.dto.TranslationLookupResult;
+import se.digitaltolk.translation.web.dto.TranslationMultiGetRequest;
+import se.digitaltolk.translation.web.dto.TranslationPatchRequest;
+import se.digitaltolk.translation.web.dto.TranslationStats;
+import se.digitaltolk.translation.web.dto.TranslationSearchPage;
 import se.digitaltolk.translation.web.dto.TranslationUpdateRequest;
+import se.digitaltolk.translation.web.support.ContentCoding;
 
 @WebFluxTest(TranslationController.class)
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -61,6 +102,57 @@ class TranslationControllerTest {
                 .jsonPath("$.tag").isEqualTo("MOBILE");
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Test importTranslations streams one result per NDJSON line")
+    void testImportTranslations() {
+        when(translationService.importTranslations(any(), eq(false))).thenAnswer(invocation -> {
+            final Flux<TranslationCreateRequest> requests = invocation.getArgument(0);
+            return requests.index((index, request) ->
+                    new BulkItemResult(index + 1, "t" + (index + 1), request.key(), BulkItemStatus.CREATED, null));
+        });
+        webTestClient.post()
+                .uri("/v1/translation/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"key\":\"a\",\"value\":\"A\",\"locale\":\"EN\",\"tag\":\"WEB\"}\n"
+                        + "{\"key\":\"b\",\"value\":\"B\",\"locale\":\"FR\",\"tag\":\"WEB\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"line\":1,\"id\":\"t1\",\"key\":\"a\",\"status\":\"CREATED\"}\n"
+                        + "{\"line\":2,\"id\":\"t2\",\"key\":\"b\",\"status\":\"CREATED\"}\n");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test importFile streams the uploaded file part to the import and its progress back")
+    void testImportFile() {
+        when(translationService.importFile(eq(TranslationFileFormat.I18NEXT), any(), isNull(), eq("WEB"), eq(false)))
+                .thenAnswer(invocation -> {
+                    final Flux<DataBuffer> content = invocation.getArgument(1);
+                    return DataBufferUtils.join(content)
+                            .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                            .map(text -> new TranslationImportProgress(1, 1, 0, 5, 200, List.of(), text.contains("Home")))
+                            .flux();
+                });
+        final MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("comment", "ignored");
+        body.part("file", new ByteArrayResource("{\"title\":\"Home\"}".getBytes(StandardCharsets.UTF_8)))
+                .filename("en.json")
+                .contentType(MediaType.APPLICATION_JSON);
+        webTestClient.post()
+                .uri("/v1/translation/files?format=I18NEXT&tag=WEB")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body.build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"read\":1,\"written\":1,\"failed\":0,\"elapsedMillis\":5,\"perSecond\":200,"
+                        + "\"done\":true}\n");
+    }
+
     @Test
     @WithMockUser
     @DisplayName("Test updateTranslation - success")
@@ -79,6 +171,54 @@ class TranslationControllerTest {
                 .jsonPath("$.id").isEqualTo("t1");
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Test patchTranslation passes the expected version and returns the new one")
+    void testPatchTranslation_Success() {
+        final TranslationDocument doc = buildDocument();
+        doc.setSeqNoPrimaryTerm(new SeqNoPrimaryTerm(8L, 1L));
+        when(translationService.patchTranslation("t1", new TranslationPatchRequest(null, "Hi", null, null), 7L, 1L))
+                .thenReturn(Mono.just(doc));
+        webTestClient.patch()
+                .uri("/v1/translation/t1?if_seq_no=7&if_primary_term=1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"value\":\"Hi\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("t1")
+                .jsonPath("$.seqNo").isEqualTo(8)
+                .jsonPath("$.primaryTerm").isEqualTo(1)
+                .jsonPath("$.seqNoPrimaryTerm").doesNotExist();
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test patchTranslation answers a concurrent change with 409")
+    void testPatchTranslation_Conflict() {
+        when(translationService.patchTranslation(eq("t1"), any(), eq(7L), eq(1L))).thenReturn(Mono.error(
+                new BusinessServiceException(ErrorCodeEnum.CONFLICT, "Translation was changed concurrently")));
+        webTestClient.patch()
+                .uri("/v1/translation/t1?if_seq_no=7&if_primary_term=1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"value\":\"Hi\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test patchTranslation rejects a patch without fields")
+    void testPatchTranslation_Empty() {
+        webTestClient.patch()
+                .uri("/v1/translation/t1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"value\":\" \"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(translationService);
+    }
+
     @Test
     @WithMockUser
     @DisplayName("Test getTranslationById")
@@ -92,6 +232,98 @@ class TranslationControllerTest {
                 .jsonPath("$.id").isEqualTo("t1");
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Test getTranslationByKey")
+    void testGetTranslationByKey() {
+        when(translationService.findByNaturalKey("greeting", "EN", null)).thenReturn(Mono.just(buildDocument()));
+        webTestClient.get()
+                .uri("/v1/translation/EN/greeting")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("t1");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getTranslationByNaturalKey")
+    void testGetTranslationByNaturalKey() {
+        when(translationService.findByNaturalKey("greeting", "EN", "WEB")).thenReturn(Mono.just(buildDocument()));
+        webTestClient.get()
+                .uri("/v1/translation/EN/WEB/greeting")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("t1");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test multiGetTranslations answers every lookup")
+    void testMultiGetTranslations() {
+        final TranslationLookup found = new TranslationLookup("t1", null, null, null);
+        final TranslationLookup missing = new TranslationLookup(null, "farewell", "EN", null);
+        when(translationService.multiGetTranslations(List.of(found, missing))).thenReturn(Flux.just(
+                TranslationLookupResult.of(found, buildDocument()),
+                TranslationLookupResult.of(missing, null)));
+        webTestClient.post()
+                .uri("/v1/translation/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TranslationMultiGetRequest(List.of(found, missing)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].found").isEqualTo(true)
+                .jsonPath("$[0].translation.id").isEqualTo("t1")
+                .jsonPath("$[1].found").isEqualTo(false)
+                .jsonPath("$[1].lookup.key").isEqualTo("farewell")
+                .jsonPath("$[1].translation").doesNotExist();
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test multiGetTranslations rejects lookups without id or key and locale")
+    void testMultiGetTranslations_Unresolvable() {
+        webTestClient.post()
+                .uri("/v1/translation/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"key\":\"greeting\"}]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getChanges streams changes and returns the next watermark")
+    void testGetChanges() {
+        when(translationService.findChanges(100L, "EN", null)).thenReturn(Mono.just(new TranslationChangeSet(200L,
+                Flux.just(TranslationChange.upsert(buildDocument())))));
+        webTestClient.get()
+                .uri("/v1/translation/changes?since=100&locale=EN")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(TranslationController.WATERMARK_HEADER, "200")
+                .expectBody(String.class)
+                .value(body -> assertThat(body).startsWith("{\"type\":\"UPSERT\",\"id\":\"t1\""));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test streamChanges pushes change events with the requested overflow policy")
+    void testStreamChanges() {
+        when(translationService.streamChanges("EN", null, TranslationFeedOverflow.LATEST)).thenReturn(Flux.just(
+                ServerSentEvent.builder(TranslationChange.upsert(buildDocument())).id("1").event("UPSERT").build()));
+        webTestClient.get()
+                .uri("/v1/translation/changes/stream?locale=EN&overflow=LATEST")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("id:1", "event:UPSERT", "data:{\"type\":\"UPSERT\""));
+    }
+
     @Test
     @WithMockUser
     @DisplayName("Test searchTranslations")
@@ -110,6 +342,221 @@ class TranslationControllerTest {
                 .jsonPath("$[0].id").isEqualTo("t1");
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Test searchTranslations with cursor returns the next cursor header")
+    void testSearchTranslations_Cursor() {
+        when(translationService.searchTranslationsByCursor(any(), any(), eq("EN"), any(), eq(""), eq(20)))
+                .thenReturn(Mono.just(new TranslationSearchPage(List.of(buildDocument()), "next")));
+        webTestClient.get()
+                .uri("/v1/translation/search?locale=EN&cursor=")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(TranslationController.NEXT_CURSOR_HEADER, "next")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo("t1");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test searchTranslations with cursor on the last page has no next cursor")
+    void testSearchTranslations_CursorLastPage() {
+        when(translationService.searchTranslationsByCursor(any(), any(), any(), any(), eq("abc"), eq(20)))
+                .thenReturn(Mono.just(new TranslationSearchPage(List.of(), null)));
+        webTestClient.get()
+                .uri("/v1/translation/search?cursor=abc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(TranslationController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .json("[]");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test suggestTranslations")
+    void testSuggestTranslations() {
+        when(translationService.suggestTranslations("hel", "EN", null, 5)).thenReturn(Flux.just(buildDocument()));
+        webTestClient.get()
+                .uri("/v1/translation/suggest?q=hel&locale=EN&size=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].value").isEqualTo("Hello");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test suggestTranslations - invalid tag")
+    void testSuggestTranslations_InvalidTag() {
+        webTestClient.get()
+                .uri("/v1/translation/suggest?q=hel&tag=XX")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test exportTranslations as flat JSON object")
+    void testExportTranslations() {
+        when(translationService.exportTranslations("EN", "WEB")).thenReturn(
+                Flux.just(buildDocument(), buildDocument("farewell", "Bye \"now\"")));
+        webTestClient.get()
+                .uri("/v1/translation/export/EN?tag=WEB")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.greeting").isEqualTo("Hello")
+                .jsonPath("$.farewell").isEqualTo("Bye \"now\"");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test exportTranslations as NDJSON")
+    void testExportTranslationsAsNdjson() {
+        when(translationService.exportTranslations("EN", "MOBILE")).thenReturn(
+                Flux.just(buildDocument(), buildDocument("farewell", "Bye")));
+        webTestClient.get()
+                .uri("/v1/translation/export/EN?tag=MOBILE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"greeting\":\"Hello\"}\n{\"farewell\":\"Bye\"}\n");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test exportTranslations - empty locale renders empty object")
+    void testExportTranslations_Empty() {
+        when(translationService.exportTranslations("FR", "WEB")).thenReturn(Flux.empty());
+        webTestClient.get()
+                .uri("/v1/translation/export/FR?tag=WEB")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{}");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test exportTranslations - JSON object without tag is rejected, NDJSON streams every tag")
+    void testExportTranslations_WithoutTag() {
+        webTestClient.get()
+                .uri("/v1/translation/export/EN")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+        when(translationService.exportTranslations("EN", null)).thenReturn(Flux.just(buildDocument()));
+        webTestClient.get()
+                .uri("/v1/translation/export/EN")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk();
+        verify(translationService).exportTranslations("EN", null);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test exportTranslations - invalid locale")
+    void testExportTranslations_InvalidLocale() {
+        webTestClient.get()
+                .uri("/v1/translation/export/XX")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getStats returns the counts per locale and tag")
+    void testGetStats() {
+        when(translationService.findStats()).thenReturn(Mono.just(new TranslationStats(3, Map.of("EN", 3L),
+                Map.of("WEB", 2L, "MOBILE", 1L), Map.of("EN", Map.of("WEB", 2L, "MOBILE", 1L)), 1718000000000L)));
+        webTestClient.get()
+                .uri("/v1/translation/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(3)
+                .jsonPath("$.locales.EN").isEqualTo(3)
+                .jsonPath("$.localeTags.EN.MOBILE").isEqualTo(1)
+                .jsonPath("$.computedAt").isEqualTo(1718000000000L);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getMissingTranslations streams the report as NDJSON")
+    void testGetMissingTranslations() {
+        when(translationService.findMissingTranslations("EN", List.of("FR", "ES"), null)).thenReturn(Flux.just(
+                new MissingTranslation("a.key", "WEB", List.of("FR")),
+                new MissingTranslation("b.key", "WEB", List.of("FR", "ES"))));
+        webTestClient.get()
+                .uri("/v1/translation/missing?locales=FR,ES")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MissingTranslation.class)
+                .contains(new MissingTranslation("a.key", "WEB", List.of("FR")),
+                        new MissingTranslation("b.key", "WEB", List.of("FR", "ES")));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getBundle returns body with ETag")
+    void testGetBundle() {
+        when(translationService.findBundle("EN", "WEB")).thenReturn(Mono.just(buildBundle()));
+        webTestClient.get()
+                .uri("/v1/translation/bundle/EN/WEB")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"abc\"")
+                .expectBody()
+                .jsonPath("$.greeting").isEqualTo("Hello");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getBundle serves the precompressed body of the accepted encoding with an ETag of its own")
+    void testGetBundle_Precompressed() {
+        final byte[] body = "{\"greeting\":\"Hello\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] gzip = ContentCoding.GZIP.encode(body);
+        when(translationService.findBundle("EN", "WEB")).thenReturn(Mono.just(
+                new TranslationBundle(body, "\"abc\"", Map.of(ContentCoding.GZIP, gzip))));
+        webTestClient.get()
+                .uri("/v1/translation/bundle/EN/WEB")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate;q=0.5, gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"abc-gzip\"")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(byte[].class).isEqualTo(gzip);
+        webTestClient.get()
+                .uri("/v1/translation/bundle/EN/WEB")
+                .header(HttpHeaders.ACCEPT_ENCODING, "deflate")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"abc\"")
+                .expectBody(byte[].class).isEqualTo(body);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getBundle - If-None-Match answers 304")
+    void testGetBundle_NotModified() {
+        when(translationService.findBundle("EN", "WEB")).thenReturn(Mono.just(buildBundle()));
+        webTestClient.get()
+                .uri("/v1/translation/bundle/EN/WEB")
+                .header("If-None-Match", "\"abc\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
     @Test
     @WithMockUser
     @DisplayName("Test deleteTranslation")
@@ -121,11 +568,82 @@ class TranslationControllerTest {
                 .expectStatus().isNoContent();
     }
 
+    @Test
+    @WithMockUser
+    @DisplayName("Test submitJob accepts a job and returns it")
+    void testSubmitJob() {
+        final TranslationJobRequest request = new TranslationJobRequest(
+                TranslationJobType.DELETE, null, "MOBILE", null, null, 500f, null);
+        when(translationService.submitJob(request)).thenReturn(Mono.just(buildJob(request)));
+        webTestClient.post()
+                .uri("/v1/translation/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"type\":\"DELETE\",\"tag\":\"MOBILE\",\"requestsPerSecond\":500}")
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("job-1")
+                .jsonPath("$.state").isEqualTo("RUNNING")
+                .jsonPath("$.steps[0].name").isEqualTo("tombstones");
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test submitJob rejects a retag without a different target tag")
+    void testSubmitJob_Incomplete() {
+        webTestClient.post()
+                .uri("/v1/translation/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"type\":\"RETAG\",\"tag\":\"MOBILE\",\"targetTag\":\"MOBILE\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(translationService);
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Test getJob and cancelJob")
+    void testGetAndCancelJob() {
+        final TranslationJob job = buildJob(new TranslationJobRequest(
+                TranslationJobType.DELETE, "EN", null, null, null, null, null));
+        when(translationService.findJob("job-1")).thenReturn(Mono.just(job));
+        when(translationService.cancelJob("job-1")).thenReturn(Mono.just(job));
+        when(translationService.findJob("job-2")).thenReturn(Mono.error(
+                new BusinessServiceException(ErrorCodeEnum.NOT_FOUND, "Maintenance job not found: job-2")));
+        webTestClient.get()
+                .uri("/v1/translation/jobs/job-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.request.locale").isEqualTo("EN");
+        webTestClient.delete()
+                .uri("/v1/translation/jobs/job-1")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/v1/translation/jobs/job-2")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private TranslationJob buildJob(final TranslationJobRequest request) {
+        return new TranslationJob("job-1", request, TranslationJobState.RUNNING, 1L, null, null,
+                List.of(TranslationJobStep.pending("tombstones"), TranslationJobStep.pending("delete")));
+    }
+
+    private TranslationBundle buildBundle() {
+        return new TranslationBundle("{\"greeting\":\"Hello\"}".getBytes(StandardCharsets.UTF_8), "\"abc\"");
+    }
+
     private TranslationDocument buildDocument() {
+        return buildDocument("greeting", "Hello");
+    }
+
+    private TranslationDocument buildDocument(final String key, final String value) {
         final TranslationDocument doc = new TranslationDocument();
         doc.setId("t1");
-        doc.setKey("greeting");
-        doc.setValue("Hello");
+        doc.setKey(key);
+        doc.setValue(value);
         doc.setLocale("EN");
         doc.setTag("MOBILE");
         doc.setCreatedAt(Instant.now().toEpochMilli());
@@ -136,6 +654,16 @@ class TranslationControllerTest {
     @TestConfiguration
     static class MockConfig {
 
+        @Bean
+        public TranslationProperties translationProperties() {
+            return new TranslationProperties();
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
         @Bean
         public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
             return http